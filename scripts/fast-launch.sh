@@ -0,0 +1,116 @@
+#!/usr/bin/env sh
+#
+# Startup optimized launch of the weather and countries queries, see FastLaunch.
+#
+#   scripts/fast-launch.sh train                    builds the jar and the class data sharing (AppCDS) archive
+#   scripts/fast-launch.sh weather|countries [file] runs one query with the archive
+#   scripts/fast-launch.sh measure [runs]           compares time to first result of the launch modes
+#
+# The archive is only valid for the class path and JVM it was built with, train again after changing either.
+# JAVA and MVN select the executables, JAVA_OPTS is added to every launch. Its default suits short runs on small
+# files: the C1 compiler only and the serial collector start fastest, for large files JAVA_OPTS="" gives the full JIT.
+
+set -e
+
+cd "$(dirname "$0")/.."
+
+JAVA=${JAVA:-java}
+MVN=${MVN:-mvn}
+JAVA_OPTS=${JAVA_OPTS--XX:TieredStopAtLevel=1 -XX:+UseSerialGC}
+ARCHIVE=target/fast-launch.jsa
+CLASS_LIST=target/fast-launch.classlist
+MAIN=de.bcxp.challenge.application.FastLaunch
+
+class_path() {
+    # Explicit and sorted, the archive only matches the exact class path it was dumped with
+    echo "target/challenge-1.0-SNAPSHOT.jar:$(ls target/lib/*.jar | sort | paste -sd: -)"
+}
+
+train() {
+    "$MVN" -B -q -P fast-launch package -DskipTests
+
+    cp=$(class_path)
+    rm -f "$CLASS_LIST" "$ARCHIVE"
+
+    # Training runs both with and without snapshot, so the classes of parsing and of snapshot loading are archived
+    training=$(mktemp -d)
+    cp src/main/resources/de/bcxp/challenge/weather.csv src/main/resources/de/bcxp/challenge/countries.csv "$training"
+    for run in parse snapshot; do
+        for query in weather countries; do
+            "$JAVA" -Xshare:off -XX:DumpLoadedClassList="$training/$run-$query.classlist" -cp "$cp" "$MAIN" \
+                "$query" "$training/$query.csv" > /dev/null 2>&1
+        done
+    done
+    cat "$training"/*.classlist | sort -u > "$CLASS_LIST"
+    rm -rf "$training"
+
+    "$JAVA" -Xshare:dump -XX:SharedClassListFile="$CLASS_LIST" -XX:SharedArchiveFile="$ARCHIVE" -cp "$cp" > /dev/null
+    echo "Archived $(wc -l < "$CLASS_LIST") classes in $ARCHIVE"
+}
+
+require_archive() {
+    if [ ! -f "$ARCHIVE" ]; then
+        echo "No archive $ARCHIVE, run: $0 train" >&2
+        exit 1
+    fi
+}
+
+run() {
+    require_archive
+    # shellcheck disable=SC2086
+    exec "$JAVA" $JAVA_OPTS -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto -cp "$(class_path)" "$MAIN" "$@"
+}
+
+# Prints the median wall clock time of the command in milliseconds, from process start to exit
+median_millis() {
+    runs=$1
+    shift
+    i=0
+    while [ "$i" -lt "$runs" ]; do
+        start=$(date +%s%N)
+        "$@" > /dev/null 2>&1
+        end=$(date +%s%N)
+        echo $(((end - start) / 1000000))
+        i=$((i + 1))
+    done | sort -n | awk '{ times[NR] = $1 } END { print times[int((NR + 1) / 2)] }'
+}
+
+measure() {
+    require_archive
+    runs=${1:-10}
+    cp=$(class_path)
+    app=de.bcxp.challenge.application
+
+    echo "Median of $runs runs in ms, process start to exit"
+    for query in weather countries; do
+        if [ "$query" = weather ]; then regular=FindDayWithSmallestTempSpread; else regular=HighestNumberOfPeoplePerSquareKilometer; fi
+        # shellcheck disable=SC2086
+        printf '%-10s regular %5s  fast launch %5s  fast launch with archive %5s\n' "$query" \
+            "$(median_millis "$runs" "$JAVA" -cp "$cp" "$app.$regular")" \
+            "$(median_millis "$runs" "$JAVA" $JAVA_OPTS -Xshare:auto -cp "$cp" "$MAIN" "$query")" \
+            "$(median_millis "$runs" "$JAVA" $JAVA_OPTS -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto -cp "$cp" "$MAIN" "$query")"
+    done
+
+    echo "Time to first result with archive, as reported by FastLaunch:"
+    for query in weather countries; do
+        # shellcheck disable=SC2086
+        "$JAVA" $JAVA_OPTS -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto -cp "$cp" "$MAIN" --timing "$query" 2>&1 > /dev/null
+    done
+}
+
+case "$1" in
+    train)
+        train
+        ;;
+    measure)
+        shift
+        measure "$@"
+        ;;
+    weather|countries|--timing)
+        run "$@"
+        ;;
+    *)
+        echo "Usage: $0 train | measure [runs] | [--timing] weather|countries [file]" >&2
+        exit 2
+        ;;
+esac
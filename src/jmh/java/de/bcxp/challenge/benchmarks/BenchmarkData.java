@@ -0,0 +1,136 @@
+package de.bcxp.challenge.benchmarks;
+
+import de.bcxp.challenge.countries.CountryEntity;
+import de.bcxp.challenge.generator.CSVGenerator;
+import de.bcxp.challenge.generator.CountryRowGenerator;
+import de.bcxp.challenge.generator.GeneratorSettings;
+import de.bcxp.challenge.generator.RowGenerator;
+import de.bcxp.challenge.generator.WeatherRowGenerator;
+import de.bcxp.challenge.weather.WeatherEntity;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic input for the benchmarks. Files come from the {@link CSVGenerator} and are kept in the temp
+ * directory for later runs, as writing the large sizes takes longer than benchmarking them.
+ */
+final class BenchmarkData {
+
+    private static final Path DIRECTORY = Paths.get(System.getProperty("java.io.tmpdir"), "bcxp-benchmarks");
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Invalid rows would otherwise be logged one by one, which measures the console instead of the code.
+     */
+    static void quietLogging() {
+        Configurator.setRootLevel(Level.ERROR);
+    }
+
+    static Path weatherFile(int rows, int invalidPercent) {
+        return file("weather-" + rows + "-" + invalidPercent + ".csv", rows, new WeatherRowGenerator(settings(invalidPercent)));
+    }
+
+    static Path countryFile(int rows, int invalidPercent) {
+        return file("countries-" + rows + "-" + invalidPercent + ".csv", rows, new CountryRowGenerator(settings(invalidPercent)));
+    }
+
+    static List<Map<String, String>> weatherRows(int rows, int invalidPercent) {
+        return rows(new WeatherRowGenerator(settings(invalidPercent)), rows);
+    }
+
+    static List<Map<String, String>> countryRows(int rows, int invalidPercent) {
+        return rows(new CountryRowGenerator(settings(invalidPercent)), rows);
+    }
+
+    static List<WeatherEntity> weatherEntities(int rows) {
+        Random random = new Random(rows);
+        List<WeatherEntity> result = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            WeatherEntity entity = new WeatherEntity();
+            entity.Day = i % 31 + 1;
+            entity.MxT = 50 + random.nextInt(50);
+            entity.MnT = entity.MxT - random.nextInt(40);
+            result.add(entity);
+        }
+        return result;
+    }
+
+    static List<CountryEntity> countryEntities(int rows) {
+        Random random = new Random(rows);
+        List<CountryEntity> result = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            CountryEntity entity = new CountryEntity();
+            entity.Name = "Country " + i;
+            entity.Capital = "Capital " + i;
+            entity.Accession = String.valueOf(1950 + i % 70);
+            entity.Population = 10_000 + random.nextInt(80_000_000);
+            entity.Area = 100 + random.nextInt(500_000);
+            result.add(entity);
+        }
+        return result;
+    }
+
+    private static Path file(String name, int rows, RowGenerator rowGenerator) {
+
+        Path file = DIRECTORY.resolve(name);
+        if (Files.exists(file)) {
+            return file;
+        }
+
+        try {
+            Files.createDirectories(DIRECTORY);
+            Path temporary = Files.createTempFile(DIRECTORY, name, ".tmp");
+            new CSVGenerator(rowGenerator, rows, Runtime.getRuntime().availableProcessors()).write(temporary, rows);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static GeneratorSettings settings(int invalidPercent) {
+        GeneratorSettings settings = new GeneratorSettings();
+        settings.invalidRate = invalidPercent / 100.0;
+        return settings;
+    }
+
+    /**
+     * Generates rows without quotes and splits them into name based maps.
+     */
+    private static List<Map<String, String>> rows(RowGenerator rowGenerator, int rows) {
+        SplittableRandom random = new SplittableRandom(rows);
+        String[] header = rowGenerator.header();
+        String delimiter = String.valueOf(rowGenerator.delimiter());
+        List<Map<String, String>> result = new ArrayList<>(rows);
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            line.setLength(0);
+            rowGenerator.appendRow(line, random, i);
+            result.add(toMap(header, line.substring(0, line.length() - 1).split(delimiter, -1)));
+        }
+        return result;
+    }
+
+    private static Map<String, String> toMap(String[] header, String[] values) {
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            row.put(header[i], values[i]);
+        }
+        return row;
+    }
+}
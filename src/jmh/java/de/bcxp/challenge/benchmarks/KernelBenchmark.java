@@ -0,0 +1,76 @@
+package de.bcxp.challenge.benchmarks;
+
+import de.bcxp.challenge.selection.ReductionKernels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The scalar and the Vector API reduction kernels on plain arrays. The rows counter reports rows per second;
+ * from 10M rows on the arrays are far larger than the caches, so the vector kernels should approach memory
+ * bandwidth. 100M rows need a larger heap: {@code -p rows=100000000 -jvmArgs -Xmx8g}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class KernelBenchmark {
+
+    @Param({"1000", "1000000", "10000000"})
+    public int rows;
+
+    @Param({"scalar", "vector"})
+    public String kernel;
+
+    private ReductionKernels kernels;
+    private int[] maxTemperatures;
+    private int[] minTemperatures;
+    private double[] populations;
+    private double[] areas;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.quietLogging();
+        kernels = "vector".equals(kernel)
+                ? ReductionKernels.vector().orElseThrow(() -> new IllegalStateException("Vector kernels are not available"))
+                : ReductionKernels.scalar();
+
+        SplittableRandom random = new SplittableRandom(42);
+        maxTemperatures = new int[rows];
+        minTemperatures = new int[rows];
+        populations = new double[rows];
+        areas = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            minTemperatures[i] = random.nextInt(-20, 60);
+            maxTemperatures[i] = minTemperatures[i] + random.nextInt(1, 40);
+            populations[i] = random.nextInt(1, 100_000_000);
+            areas[i] = random.nextDouble(1, 500_000);
+        }
+    }
+
+    @Benchmark
+    public int minSpread(RowCounter counter) {
+        counter.rows += rows;
+        return kernels.argMinDifference(maxTemperatures, minTemperatures, 0, rows);
+    }
+
+    @Benchmark
+    public int maxDensity(RowCounter counter) {
+        counter.rows += rows;
+        return kernels.argMaxQuotient(populations, areas, 0, rows);
+    }
+}
@@ -0,0 +1,95 @@
+package de.bcxp.challenge.benchmarks;
+
+import de.bcxp.challenge.adapters.csv.mappers.CountryCSVRowMapper;
+import de.bcxp.challenge.adapters.csv.mappers.WeatherCSVRowMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping and validating rows that are already split into name based maps, so only the mappers are measured.
+ * Each invocation processes a pool of {@value #POOL_SIZE} distinct rows, the score is rows per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+@OperationsPerInvocation(MapperBenchmark.POOL_SIZE)
+public class MapperBenchmark {
+
+    static final int POOL_SIZE = 4096;
+
+    @Param({"0", "10", "50"})
+    public int invalidPercent;
+
+    private List<Map<String, String>> weatherRows;
+    private List<Map<String, String>> countryRows;
+    private final WeatherCSVRowMapper weatherMapper = new WeatherCSVRowMapper(true);
+    private final CountryCSVRowMapper countryMapper = new CountryCSVRowMapper(true);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.quietLogging();
+        weatherRows = BenchmarkData.weatherRows(POOL_SIZE, invalidPercent);
+        countryRows = BenchmarkData.countryRows(POOL_SIZE, invalidPercent);
+    }
+
+    @Benchmark
+    public void weatherMapRow(Blackhole blackhole) {
+        for (Map<String, String> row : weatherRows) {
+            blackhole.consume(weatherMapper.mapRow(row));
+        }
+    }
+
+    @Benchmark
+    public void weatherIsValidRow(Blackhole blackhole) {
+        for (Map<String, String> row : weatherRows) {
+            blackhole.consume(weatherMapper.isValidRow(row));
+        }
+    }
+
+    @Benchmark
+    public void weatherTryMapRow(Blackhole blackhole) {
+        for (Map<String, String> row : weatherRows) {
+            blackhole.consume(weatherMapper.tryMapRow(row));
+        }
+    }
+
+    @Benchmark
+    public void countryMapRow(Blackhole blackhole) {
+        for (Map<String, String> row : countryRows) {
+            blackhole.consume(countryMapper.mapRow(row));
+        }
+    }
+
+    @Benchmark
+    public void countryIsValidRow(Blackhole blackhole) {
+        for (Map<String, String> row : countryRows) {
+            blackhole.consume(countryMapper.isValidRow(row));
+        }
+    }
+
+    @Benchmark
+    public void countryTryMapRow(Blackhole blackhole) {
+        for (Map<String, String> row : countryRows) {
+            blackhole.consume(countryMapper.tryMapRow(row));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package de.bcxp.challenge.benchmarks;
+
+import de.bcxp.challenge.adapters.csv.CSVRecordReader;
+import de.bcxp.challenge.adapters.csv.MappedCSVRecordReader;
+import de.bcxp.challenge.adapters.csv.ParallelCSVRecordReader;
+import de.bcxp.challenge.adapters.csv.PipelinedCSVRecordReader;
+import de.bcxp.challenge.adapters.csv.mappers.CountryCSVRowMapper;
+import de.bcxp.challenge.adapters.csv.mappers.WeatherCSVRowMapper;
+import de.bcxp.challenge.countries.CountryEntity;
+import de.bcxp.challenge.countries.CountryStore;
+import de.bcxp.challenge.weather.WeatherEntity;
+import de.bcxp.challenge.weather.WeatherTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static de.bcxp.challenge.countries.CountryUtils.COUNTRY_CSV_FORMAT;
+import static de.bcxp.challenge.weather.WeatherUtils.WEATHER_CSV_FORMAT;
+
+/**
+ * Reading whole files with the different readers. The rows counter reports rows per second; run with
+ * {@code -prof gc} for the allocation rate. 100M rows need a large heap: {@code -p rows=100000000 -jvmArgs -Xmx32g}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReaderBenchmark {
+
+    @Param({"30", "100000", "10000000"})
+    public int rows;
+
+    @Param({"0", "10"})
+    public int invalidPercent;
+
+    private String weatherFile;
+    private String countryFile;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.quietLogging();
+        weatherFile = BenchmarkData.weatherFile(rows, invalidPercent).toString();
+        countryFile = BenchmarkData.countryFile(rows, invalidPercent).toString();
+    }
+
+    @Benchmark
+    public List<WeatherEntity> csvRecordReaderWeather(RowCounter counter) {
+        counter.rows += rows;
+        return new CSVRecordReader<>(new WeatherCSVRowMapper(true), WEATHER_CSV_FORMAT).readAll(weatherFile);
+    }
+
+    @Benchmark
+    public List<WeatherEntity> mappedRecordReaderWeather(RowCounter counter) {
+        counter.rows += rows;
+        return new MappedCSVRecordReader<>(new WeatherCSVRowMapper(true), WEATHER_CSV_FORMAT).readAll(weatherFile);
+    }
+
+    @Benchmark
+    public List<WeatherEntity> parallelRecordReaderWeather(RowCounter counter) {
+        counter.rows += rows;
+        return new ParallelCSVRecordReader<>(new WeatherCSVRowMapper(true), WEATHER_CSV_FORMAT).readAll(weatherFile);
+    }
+
+    @Benchmark
+    public List<WeatherEntity> pipelinedRecordReaderWeather(RowCounter counter) {
+        counter.rows += rows;
+        return new PipelinedCSVRecordReader<>(new WeatherCSVRowMapper(true), WEATHER_CSV_FORMAT).readAll(weatherFile);
+    }
+
+    @Benchmark
+    public WeatherTable scanWeatherTable(RowCounter counter) {
+        counter.rows += rows;
+        WeatherCSVRowMapper mapper = new WeatherCSVRowMapper(true);
+        WeatherTable table = new WeatherTable();
+        new MappedCSVRecordReader<>(mapper, WEATHER_CSV_FORMAT).scan(weatherFile, mapper.tableLoader(table));
+        return table;
+    }
+
+    @Benchmark
+    public List<CountryEntity> csvRecordReaderCountries(RowCounter counter) {
+        counter.rows += rows;
+        return new CSVRecordReader<>(new CountryCSVRowMapper(true), COUNTRY_CSV_FORMAT).readAll(countryFile);
+    }
+
+    @Benchmark
+    public List<CountryEntity> mappedRecordReaderCountries(RowCounter counter) {
+        counter.rows += rows;
+        return new MappedCSVRecordReader<>(new CountryCSVRowMapper(true), COUNTRY_CSV_FORMAT).readAll(countryFile);
+    }
+
+    @Benchmark
+    public List<CountryEntity> pipelinedRecordReaderCountries(RowCounter counter) {
+        counter.rows += rows;
+        return new PipelinedCSVRecordReader<>(new CountryCSVRowMapper(true), COUNTRY_CSV_FORMAT).readAll(countryFile);
+    }
+
+    @Benchmark
+    public CountryStore scanCountryStore(RowCounter counter) {
+        counter.rows += rows;
+        CountryCSVRowMapper mapper = new CountryCSVRowMapper(true);
+        CountryStore store = new CountryStore();
+        new MappedCSVRecordReader<>(mapper, COUNTRY_CSV_FORMAT).scan(countryFile, mapper.storeLoader(store));
+        return store;
+    }
+}
@@ -0,0 +1,22 @@
+package de.bcxp.challenge.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Counts the rows processed by a benchmark, reported by JMH as rows per second next to the operation score.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class RowCounter {
+
+    public long rows;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        rows = 0;
+    }
+}
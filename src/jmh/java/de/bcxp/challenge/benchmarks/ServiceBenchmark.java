@@ -0,0 +1,94 @@
+package de.bcxp.challenge.benchmarks;
+
+import de.bcxp.challenge.countries.CountryEntity;
+import de.bcxp.challenge.countries.CountryService;
+import de.bcxp.challenge.countries.CountryStore;
+import de.bcxp.challenge.weather.WeatherEntity;
+import de.bcxp.challenge.weather.WeatherService;
+import de.bcxp.challenge.weather.WeatherTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The analyses over data that is already in memory, as entity lists and as columnar stores.
+ * The rows counter reports rows per second. 100M rows need a large heap:
+ * {@code -p rows=100000000 -jvmArgs -Xmx48g}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+
+    @Param({"30", "100000", "10000000"})
+    public int rows;
+
+    private List<WeatherEntity> weatherEntities;
+    private WeatherTable weatherTable;
+    private List<CountryEntity> countryEntities;
+    private CountryStore countryStore;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.quietLogging();
+
+        weatherEntities = BenchmarkData.weatherEntities(rows);
+        weatherTable = new WeatherTable(rows);
+        weatherEntities.forEach(weatherTable::add);
+
+        countryEntities = BenchmarkData.countryEntities(rows);
+        countryStore = new CountryStore(rows);
+        countryEntities.forEach(countryStore::add);
+    }
+
+    @Benchmark
+    public WeatherEntity weatherList(RowCounter counter) {
+        counter.rows += rows;
+        return WeatherService.getDayWithSmallestTemperatureSpread(weatherEntities);
+    }
+
+    @Benchmark
+    public WeatherEntity weatherStream(RowCounter counter) {
+        counter.rows += rows;
+        return WeatherService.getDayWithSmallestTemperatureSpreadFromStream(weatherEntities.stream());
+    }
+
+    @Benchmark
+    public int weatherTable(RowCounter counter) {
+        counter.rows += rows;
+        return WeatherService.getRowWithSmallestTemperatureSpread(weatherTable);
+    }
+
+    @Benchmark
+    public CountryEntity countryList(RowCounter counter) {
+        counter.rows += rows;
+        return CountryService.getCountryWithHighestPopulationDensity(countryEntities);
+    }
+
+    @Benchmark
+    public CountryEntity countryStream(RowCounter counter) {
+        counter.rows += rows;
+        return CountryService.getCountryWithHighestPopulationDensityFromStream(countryEntities.stream());
+    }
+
+    @Benchmark
+    public int countryStore(RowCounter counter) {
+        counter.rows += rows;
+        return CountryService.getRowWithHighestPopulationDensity(countryStore);
+    }
+}
@@ -0,0 +1,99 @@
+package de.bcxp.challenge.adapters;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * {@link RecordReader} decorator that serves repeated reads of an unchanged file from a {@link RecordCache}.
+ * A cache hit costs a file stat and a map lookup instead of a parse.
+ * <p>
+ * Cache entries are keyed by the real path of the file, its size, its modification time and the delegate reader,
+ * which stands for the mapper and format the records were read with. The returned lists are shared between
+ * callers and therefore unmodifiable. Reads from input streams are not cached.
+ */
+public class CachingRecordReader<T> implements RecordReader<T> {
+
+    /** Estimated bytes per list slot added to the file size by the default weigher. */
+    private static final long REFERENCE_BYTES = 16;
+
+    private final RecordReader<T> delegate;
+    private final RecordCache cache;
+    private final ToLongFunction<List<T>> weigher;
+
+    /**
+     * Caches in a new cache of the given size, weighing entries by file size plus a reference per record.
+     */
+    public CachingRecordReader(RecordReader<T> delegate, long maxBytes) {
+        this(delegate, new RecordCache(maxBytes));
+    }
+
+    /**
+     * Caches in the given cache, which may be shared with other readers, weighing entries by file size plus a
+     * reference per record.
+     */
+    public CachingRecordReader(RecordReader<T> delegate, RecordCache cache) {
+        this(delegate, cache, null);
+    }
+
+    /**
+     * @param weigher estimates the bytes taken by the records of one file, null for the default estimate
+     */
+    public CachingRecordReader(RecordReader<T> delegate, RecordCache cache, ToLongFunction<List<T>> weigher) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.weigher = weigher;
+    }
+
+    public RecordCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public List<T> readAll(String filePath) {
+
+        if (filePath == null || filePath.isEmpty()) {
+            throw new IllegalArgumentException("File path cannot be null or empty");
+        }
+
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            throw new IllegalArgumentException("File does not exist: " + filePath);
+        }
+
+        String realPath;
+        long size;
+        long modified;
+        try {
+            realPath = path.toRealPath().toString();
+            size = Files.size(path);
+            modified = Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read CSV file", e);
+        }
+
+        ToLongFunction<List<T>> entryWeigher = weigher != null
+                ? weigher
+                : records -> size + REFERENCE_BYTES * records.size();
+
+        return cache.get(realPath, delegate, size, modified, () -> delegate.readAll(filePath), entryWeigher);
+    }
+
+    /**
+     * Streams the cached records of the file; unlike the delegate this reads the whole file on a cache miss.
+     */
+    @Override
+    public Stream<T> stream(String filePath) {
+        return readAll(filePath).stream();
+    }
+
+    @Override
+    public Stream<T> stream(InputStream inputStream) {
+        return delegate.stream(inputStream);
+    }
+}
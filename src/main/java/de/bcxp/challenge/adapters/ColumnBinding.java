@@ -0,0 +1,60 @@
+package de.bcxp.challenge.adapters;
+
+import java.util.List;
+
+/**
+ * The positions of the columns an {@link IndexedRowMapper} reads within the header of a source.
+ * A binding is resolved once per source, so rows can be read by position without any name lookups.
+ */
+public final class ColumnBinding {
+
+    /** Position of a column that does not exist in the source header. */
+    public static final int MISSING = -1;
+
+    private final String[] columns;
+    private final int[] positions;
+
+    private ColumnBinding(String[] columns, int[] positions) {
+        this.columns = columns;
+        this.positions = positions;
+    }
+
+    /**
+     * Resolves the positions of the given columns in the given header.
+     *
+     * @param header column names of the source in source order
+     * @param columns column names in the order the mapper reads them
+     */
+    public static ColumnBinding of(List<String> header, String[] columns) {
+        int[] positions = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            positions[i] = header.indexOf(columns[i]);
+        }
+        return new ColumnBinding(columns, positions);
+    }
+
+    /**
+     * @return the position of the given mapper column in the source, or {@link #MISSING}
+     */
+    public int position(int column) {
+        return positions[column];
+    }
+
+    /**
+     * Renders the row like a map of column name to value, for log and error messages.
+     */
+    public String describe(IndexedRow row) {
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < columns.length; i++) {
+            CharSequence value = row.get(i);
+            if (value == null) {
+                continue;
+            }
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(columns[i]).append('=').append(value);
+        }
+        return builder.append('}').toString();
+    }
+}
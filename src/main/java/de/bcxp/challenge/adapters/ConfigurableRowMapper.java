@@ -1,11 +1,78 @@
 package de.bcxp.challenge.adapters;
 
-public abstract class ConfigurableRowMapper<T> implements RowMapper<T>{
+/**
+ * Base class for mappers that validate and map a row in a single pass in {@link #tryMapIndexedRow(IndexedRow)}.
+ * Invalid rows are either skipped (mapped to null) or rejected with an IllegalArgumentException,
+ * depending on skipInvalidRows. Skipped rows are reported to the {@link RejectSink}, a rate limited
+ * {@link RejectLog} unless another sink is given.
+ */
+public abstract class ConfigurableRowMapper<T> implements IndexedRowMapper<T> {
 
     public boolean skipInvalidRows = false;
 
+    public RejectSink rejectSink;
+
     public ConfigurableRowMapper(boolean skipInvalidRows) {
+        this(skipInvalidRows, new RejectLog());
+    }
+
+    public ConfigurableRowMapper(boolean skipInvalidRows, RejectSink rejectSink) {
         // Constructor to allow configuration of the mapper
+        if (rejectSink == null) {
+            throw new IllegalArgumentException("Reject sink cannot be null");
+        }
         this.skipInvalidRows = skipInvalidRows;
+        this.rejectSink = rejectSink;
+    }
+
+    @Override
+    public abstract MappingResult<T> tryMapIndexedRow(IndexedRow row);
+
+    @Override
+    public T mapIndexedRow(IndexedRow row) {
+
+        MappingResult<T> result = tryMapIndexedRow(row);
+
+        if (result.isAccepted()) {
+            return result.getEntity();
+        }
+
+        return rejected(row, result);
+    }
+
+    /**
+     * Handles a rejected row according to skipInvalidRows. Skipped rows go to the reject sink.
+     *
+     * @return null if the row is skipped
+     * @throws IllegalArgumentException if invalid rows are not skipped
+     */
+    protected T rejected(IndexedRow row, MappingResult<T> result) {
+
+        if (this.skipInvalidRows) {
+            rejectSink.reject(columns(), row, result);
+            return null;
+        } else {
+            throw new IllegalArgumentException("Invalid row data: " + row + " - " + result);
+        }
+    }
+
+    @Override
+    public boolean isValidIndexedRow(IndexedRow row) {
+        return tryMapIndexedRow(row).isAccepted();
+    }
+
+    /**
+     * Rejects the row because of the value in the given column.
+     */
+    protected MappingResult<T> reject(RejectReason reason, IndexedRow row, int column) {
+        CharSequence value = row.get(column);
+        return MappingResult.rejected(reason, columns()[column], value == null ? null : value.toString());
+    }
+
+    /**
+     * Rejects the row because the given column could not be parsed, telling blank values apart from malformed ones.
+     */
+    protected MappingResult<T> rejectUnparsable(IndexedRow row, int column) {
+        return reject(FieldParser.isBlank(row.get(column)) ? RejectReason.MISSING_COLUMN : RejectReason.MALFORMED_NUMBER, row, column);
     }
 }
@@ -0,0 +1,548 @@
+package de.bcxp.challenge.adapters;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses numeric fields without throwing and without allocating. Numbers are read straight from a CharSequence or
+ * from a slice of a byte buffer holding ASCII text; leading and trailing whitespace is skipped in place like
+ * {@link String#trim()} would remove it, and the format is checked in the same pass.
+ * Invalid input is reported with a sentinel value instead of a NumberFormatException, because rejected rows are
+ * common in dirty feeds and exceptions are far too expensive to use for that kind of control flow.
+ * <p>
+ * Doubles are converted with Clinger's fast path when mantissa and exponent are small enough for an exact
+ * double multiplication, otherwise with the Eisel-Lemire algorithm. Only inputs with more than 19 significant
+ * digits fall back to {@link Double#parseDouble(String)}. All paths round correctly.
+ */
+public final class FieldParser {
+
+    /**
+     * Returned by {@link #parseLong} and {@link #parseInt} for blank, malformed or out of range input.
+     * The parsers never return it for valid input, so Long.MIN_VALUE itself is treated as out of range.
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final int MAX_MANTISSA_DIGITS = 19;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final int MAX_EXACT_POWER_OF_TEN = 22;
+    private static final int MAX_EXPONENT_DIGITS_VALUE = 100_000;
+
+    private static final double[] EXACT_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private FieldParser() {
+    }
+
+    /**
+     * @return true if the value is null or consists of whitespace only
+     */
+    public static boolean isBlank(CharSequence value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a decimal integer with optional sign.
+     *
+     * @return the value, or {@link #INVALID}
+     */
+    public static long parseLong(CharSequence value) {
+
+        if (value == null) {
+            return INVALID;
+        }
+
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return INVALID;
+        }
+
+        boolean negative = false;
+        char first = value.charAt(start);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++start == end) {
+                return INVALID;
+            }
+        }
+
+        // Accumulate negatively so the full range is covered without overflow, like Long.parseLong does
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < MULTIPLY_MIN) {
+                return INVALID;
+            }
+            result *= 10;
+            if (result < LIMIT + digit) {
+                return INVALID;
+            }
+            result -= digit;
+        }
+
+        return negative ? result : -result;
+    }
+
+    /**
+     * Parses a decimal integer with optional sign from the ASCII bytes [start, end) of the buffer.
+     *
+     * @return the value, or {@link #INVALID}
+     */
+    public static long parseLong(ByteBuffer buffer, int start, int end) {
+
+        while (start < end && buffer.get(start) <= ' ' && buffer.get(start) >= 0) {
+            start++;
+        }
+        while (end > start && buffer.get(end - 1) <= ' ' && buffer.get(end - 1) >= 0) {
+            end--;
+        }
+        if (start == end) {
+            return INVALID;
+        }
+
+        boolean negative = false;
+        byte first = buffer.get(start);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++start == end) {
+                return INVALID;
+            }
+        }
+
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9 || result < MULTIPLY_MIN) {
+                return INVALID;
+            }
+            result *= 10;
+            if (result < LIMIT + digit) {
+                return INVALID;
+            }
+            result -= digit;
+        }
+
+        return negative ? result : -result;
+    }
+
+    private static final long LIMIT = -Long.MAX_VALUE;
+    private static final long MULTIPLY_MIN = LIMIT / 10;
+
+    /**
+     * Parses a decimal integer with optional sign that has to fit into an int.
+     *
+     * @return the value, or {@link #INVALID}
+     */
+    public static long parseInt(CharSequence value) {
+        return toInt(parseLong(value));
+    }
+
+    /**
+     * Parses a decimal integer with optional sign that has to fit into an int
+     * from the ASCII bytes [start, end) of the buffer.
+     *
+     * @return the value, or {@link #INVALID}
+     */
+    public static long parseInt(ByteBuffer buffer, int start, int end) {
+        return toInt(parseLong(buffer, start, end));
+    }
+
+    private static long toInt(long result) {
+        if (result < Integer.MIN_VALUE || result > Integer.MAX_VALUE) {
+            return INVALID;
+        }
+        return result;
+    }
+
+    /**
+     * Parses a plain decimal floating point number with optional sign, fraction and exponent, e.g. -1.5e3.
+     * Special values like NaN or Infinity and hexadecimal notation are not accepted.
+     *
+     * @return the value, or NaN if the input is invalid
+     */
+    public static double parseDouble(CharSequence value) {
+
+        if (value == null) {
+            return Double.NaN;
+        }
+
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        int i = start;
+        boolean negative = false;
+        if (i < end && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+            negative = value.charAt(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int mantissaDigits = 0;
+        int exponent = 0;
+        boolean anyDigits = false;
+        boolean truncated = false;
+
+        for (; i < end; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            anyDigits = true;
+            if (mantissaDigits < MAX_MANTISSA_DIGITS) {
+                mantissa = mantissa * 10 + digit;
+                if (mantissa != 0) {
+                    mantissaDigits++;
+                }
+            } else {
+                exponent++;
+                truncated |= digit != 0;
+            }
+        }
+
+        if (i < end && value.charAt(i) == '.') {
+            for (i++; i < end; i++) {
+                int digit = value.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                anyDigits = true;
+                if (mantissaDigits < MAX_MANTISSA_DIGITS) {
+                    mantissa = mantissa * 10 + digit;
+                    if (mantissa != 0) {
+                        mantissaDigits++;
+                    }
+                    exponent--;
+                } else {
+                    truncated |= digit != 0;
+                }
+            }
+        }
+
+        if (!anyDigits) {
+            return Double.NaN;
+        }
+
+        if (i < end && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+                negativeExponent = value.charAt(i) == '-';
+                i++;
+            }
+            int exponentStart = i;
+            int explicitExponent = 0;
+            for (; i < end; i++) {
+                int digit = value.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                if (explicitExponent < MAX_EXPONENT_DIGITS_VALUE) {
+                    explicitExponent = explicitExponent * 10 + digit;
+                }
+            }
+            if (i == exponentStart) {
+                return Double.NaN;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (i != end) {
+            return Double.NaN;
+        }
+
+        if (truncated) {
+            return Double.parseDouble(value.subSequence(start, end).toString());
+        }
+
+        return toDouble(negative, mantissa, exponent);
+    }
+
+    /**
+     * Parses a plain decimal floating point number from the ASCII bytes [start, end) of the buffer.
+     *
+     * @return the value, or NaN if the input is invalid
+     * @see #parseDouble(CharSequence)
+     */
+    public static double parseDouble(ByteBuffer buffer, int start, int end) {
+
+        while (start < end && buffer.get(start) <= ' ' && buffer.get(start) >= 0) {
+            start++;
+        }
+        while (end > start && buffer.get(end - 1) <= ' ' && buffer.get(end - 1) >= 0) {
+            end--;
+        }
+
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int mantissaDigits = 0;
+        int exponent = 0;
+        boolean anyDigits = false;
+        boolean truncated = false;
+
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            anyDigits = true;
+            if (mantissaDigits < MAX_MANTISSA_DIGITS) {
+                mantissa = mantissa * 10 + digit;
+                if (mantissa != 0) {
+                    mantissaDigits++;
+                }
+            } else {
+                exponent++;
+                truncated |= digit != 0;
+            }
+        }
+
+        if (i < end && buffer.get(i) == '.') {
+            for (i++; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                anyDigits = true;
+                if (mantissaDigits < MAX_MANTISSA_DIGITS) {
+                    mantissa = mantissa * 10 + digit;
+                    if (mantissa != 0) {
+                        mantissaDigits++;
+                    }
+                    exponent--;
+                } else {
+                    truncated |= digit != 0;
+                }
+            }
+        }
+
+        if (!anyDigits) {
+            return Double.NaN;
+        }
+
+        if (i < end && (buffer.get(i) == 'e' || buffer.get(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+                negativeExponent = buffer.get(i) == '-';
+                i++;
+            }
+            int exponentStart = i;
+            int explicitExponent = 0;
+            for (; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                if (explicitExponent < MAX_EXPONENT_DIGITS_VALUE) {
+                    explicitExponent = explicitExponent * 10 + digit;
+                }
+            }
+            if (i == exponentStart) {
+                return Double.NaN;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (i != end) {
+            return Double.NaN;
+        }
+
+        if (truncated) {
+            byte[] bytes = new byte[end - start];
+            for (int j = 0; j < bytes.length; j++) {
+                bytes[j] = buffer.get(start + j);
+            }
+            return Double.parseDouble(new String(bytes, StandardCharsets.ISO_8859_1));
+        }
+
+        return toDouble(negative, mantissa, exponent);
+    }
+
+    /**
+     * Converts mantissa * 10^exponent into the nearest double. The mantissa has at most 19 digits and is
+     * therefore unsigned: values above Long.MAX_VALUE arrive as negative longs.
+     */
+    static double toDouble(boolean negative, long mantissa, int exponent) {
+
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+
+        double result;
+
+        // Clinger's fast path: both operands are exact doubles, so the single rounding of the operation is correct
+        if (mantissa >= 0 && mantissa <= MAX_EXACT_MANTISSA && exponent >= -MAX_EXACT_POWER_OF_TEN && exponent <= MAX_EXACT_POWER_OF_TEN) {
+            result = exponent < 0
+                    ? (double) mantissa / EXACT_POWERS_OF_TEN[-exponent]
+                    : (double) mantissa * EXACT_POWERS_OF_TEN[exponent];
+        } else {
+            result = Double.longBitsToDouble(EiselLemire.toBits(mantissa, exponent));
+        }
+
+        return negative ? -result : result;
+    }
+
+    /**
+     * The Eisel-Lemire algorithm as described in "Number Parsing at a Gigabyte per Second" (Lemire, 2021):
+     * the mantissa is multiplied with a 128 bit approximation of the power of five and the result is rounded,
+     * which is exact for all inputs with at most 19 significant digits.
+     * The table is computed once when the first number leaves Clinger's fast path.
+     */
+    static final class EiselLemire {
+
+        private static final int SMALLEST_POWER_OF_TEN = -342;
+        private static final int LARGEST_POWER_OF_TEN = 308;
+        private static final int MANTISSA_EXPLICIT_BITS = 52;
+        private static final int MINIMUM_EXPONENT = -1023;
+        private static final int INFINITE_POWER = 0x7FF;
+        private static final int MIN_EXPONENT_ROUND_TO_EVEN = -4;
+        private static final int MAX_EXPONENT_ROUND_TO_EVEN = 23;
+
+        /** High and low 64 bits of the normalized 128 bit approximation of 5^q, for q from -342 to 308. */
+        private static final long[] POWERS_OF_FIVE = computePowersOfFive();
+
+        private EiselLemire() {
+        }
+
+        private static long[] computePowersOfFive() {
+
+            long[] table = new long[2 * (LARGEST_POWER_OF_TEN - SMALLEST_POWER_OF_TEN + 1)];
+            BigInteger five = BigInteger.valueOf(5);
+            BigInteger twoPow127 = BigInteger.ONE.shiftLeft(127);
+            BigInteger twoPow128 = BigInteger.ONE.shiftLeft(128);
+            BigInteger lowMask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+
+            for (int q = SMALLEST_POWER_OF_TEN; q <= LARGEST_POWER_OF_TEN; q++) {
+
+                BigInteger value;
+
+                if (q < 0) {
+                    // Reciprocals are computed with enough bits and rounded up, see the reference implementation
+                    BigInteger power = five.pow(-q);
+                    int z = power.bitLength();
+                    int bits = q >= -27 ? z + 127 : 2 * z + 128;
+                    value = BigInteger.ONE.shiftLeft(bits).divide(power).add(BigInteger.ONE);
+                    while (value.compareTo(twoPow128) >= 0) {
+                        value = value.shiftRight(1);
+                    }
+                } else {
+                    // Positive powers are truncated to their 128 most significant bits
+                    value = five.pow(q);
+                    while (value.compareTo(twoPow127) < 0) {
+                        value = value.shiftLeft(1);
+                    }
+                    while (value.compareTo(twoPow128) >= 0) {
+                        value = value.shiftRight(1);
+                    }
+                }
+
+                int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+                table[index] = value.shiftRight(64).longValue();
+                table[index + 1] = value.and(lowMask).longValue();
+            }
+
+            return table;
+        }
+
+        /**
+         * @return the bits of the double nearest to mantissa * 10^exponent, ignoring the sign
+         */
+        static long toBits(long mantissa, int exponent) {
+
+            if (exponent < SMALLEST_POWER_OF_TEN) {
+                return 0L;
+            }
+            if (exponent > LARGEST_POWER_OF_TEN) {
+                return (long) INFINITE_POWER << MANTISSA_EXPLICIT_BITS;
+            }
+
+            int leadingZeros = Long.numberOfLeadingZeros(mantissa);
+            long w = mantissa << leadingZeros;
+
+            // Product of the mantissa with the power of five, refined with the low word when the high word is inconclusive
+            int index = 2 * (exponent - SMALLEST_POWER_OF_TEN);
+            long high = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index]);
+            long low = w * POWERS_OF_FIVE[index];
+            long precisionMask = 0xFFFFFFFFFFFFFFFFL >>> (MANTISSA_EXPLICIT_BITS + 3);
+            if ((high & precisionMask) == precisionMask) {
+                long secondHigh = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index + 1]);
+                low += secondHigh;
+                if (Long.compareUnsigned(secondHigh, low) > 0) {
+                    high++;
+                }
+            }
+
+            int upperBit = (int) (high >>> 63);
+            int shift = upperBit + 64 - MANTISSA_EXPLICIT_BITS - 3;
+            long resultMantissa = high >>> shift;
+            int power2 = (((152170 + 65536) * exponent) >> 16) + 63 + upperBit - leadingZeros - MINIMUM_EXPONENT;
+
+            if (power2 <= 0) {
+                // Subnormal numbers
+                if (-power2 + 1 >= 64) {
+                    return 0L;
+                }
+                resultMantissa >>>= -power2 + 1;
+                resultMantissa += resultMantissa & 1;
+                resultMantissa >>>= 1;
+                power2 = resultMantissa < (1L << MANTISSA_EXPLICIT_BITS) ? 0 : 1;
+                return ((long) power2 << MANTISSA_EXPLICIT_BITS) | (resultMantissa & ((1L << MANTISSA_EXPLICIT_BITS) - 1));
+            }
+
+            // Exactly halfway between two doubles: round to even instead of up
+            if (Long.compareUnsigned(low, 1) <= 0
+                    && exponent >= MIN_EXPONENT_ROUND_TO_EVEN && exponent <= MAX_EXPONENT_ROUND_TO_EVEN
+                    && (resultMantissa & 3) == 1
+                    && (resultMantissa << shift) == high) {
+                resultMantissa &= ~1L;
+            }
+
+            resultMantissa += resultMantissa & 1;
+            resultMantissa >>>= 1;
+            if (resultMantissa >= (2L << MANTISSA_EXPLICIT_BITS)) {
+                resultMantissa = 1L << MANTISSA_EXPLICIT_BITS;
+                power2++;
+            }
+            resultMantissa &= ~(1L << MANTISSA_EXPLICIT_BITS);
+
+            if (power2 >= INFINITE_POWER) {
+                return (long) INFINITE_POWER << MANTISSA_EXPLICIT_BITS;
+            }
+
+            return ((long) power2 << MANTISSA_EXPLICIT_BITS) | resultMantissa;
+        }
+
+        private static long unsignedMultiplyHigh(long x, long y) {
+            return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+        }
+    }
+}
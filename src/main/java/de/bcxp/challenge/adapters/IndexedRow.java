@@ -0,0 +1,47 @@
+package de.bcxp.challenge.adapters;
+
+/**
+ * A row whose fields are read by position. Position i is the i-th column of the
+ * {@link IndexedRowMapper#columns()} the row was bound to, independent of the column order of the source.
+ */
+public interface IndexedRow {
+
+    /**
+     * @return the number of fields in the underlying source row, 0 for an empty row
+     */
+    int size();
+
+    /**
+     * @param column position of the column in {@link IndexedRowMapper#columns()}
+     * @return the raw field value, or null if the source row does not contain the column.
+     * The value may be a view that is only valid until the reader moves to the next row.
+     */
+    CharSequence get(int column);
+
+    /**
+     * Parses the field as int without allocating, see {@link FieldParser#parseInt(CharSequence)}.
+     *
+     * @return the value, or {@link FieldParser#INVALID} if the field is missing, blank or malformed
+     */
+    default long getInt(int column) {
+        return FieldParser.parseInt(get(column));
+    }
+
+    /**
+     * Parses the field as long without allocating, see {@link FieldParser#parseLong(CharSequence)}.
+     *
+     * @return the value, or {@link FieldParser#INVALID} if the field is missing, blank or malformed
+     */
+    default long getLong(int column) {
+        return FieldParser.parseLong(get(column));
+    }
+
+    /**
+     * Parses the field as double without allocating, see {@link FieldParser#parseDouble(CharSequence)}.
+     *
+     * @return the value, or NaN if the field is missing, blank or malformed
+     */
+    default double getDouble(int column) {
+        return FieldParser.parseDouble(get(column));
+    }
+}
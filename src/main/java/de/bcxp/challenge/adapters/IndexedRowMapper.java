@@ -0,0 +1,50 @@
+package de.bcxp.challenge.adapters;
+
+import java.util.Map;
+
+/**
+ * Row mapper that reads fields by column position instead of looking them up by header name.
+ * Readers resolve the positions of {@link #columns()} in the source header once and then hand every row to
+ * {@link #mapIndexedRow(IndexedRow)}, so no per row map has to be built.
+ * The name based {@link RowMapper} methods are still available and delegate to the indexed ones.
+ */
+public interface IndexedRowMapper<T> extends RowMapper<T> {
+
+    /**
+     * @return the names of the columns the mapper reads, in the order of their positions
+     */
+    String[] columns();
+
+    T mapIndexedRow(IndexedRow row);
+
+    boolean isValidIndexedRow(IndexedRow row);
+
+    /**
+     * Validates and maps the row in one go and reports why a row was rejected instead of throwing.
+     * Mappers that validate while parsing override this; the default derives the result from
+     * {@link #mapIndexedRow(IndexedRow)}.
+     */
+    default MappingResult<T> tryMapIndexedRow(IndexedRow row) {
+        T entity = mapIndexedRow(row);
+        return entity != null
+                ? MappingResult.accepted(entity)
+                : MappingResult.rejected(RejectReason.UNSPECIFIED, null, null);
+    }
+
+    @Override
+    default T mapRow(Map<String, String> row) {
+        return mapIndexedRow(row == null ? null : new MapRow(row, columns()));
+    }
+
+    @Override
+    default boolean isValidRow(Map<String, String> row) {
+        return isValidIndexedRow(row == null ? null : new MapRow(row, columns()));
+    }
+
+    /**
+     * Name based variant of {@link #tryMapIndexedRow(IndexedRow)}.
+     */
+    default MappingResult<T> tryMapRow(Map<String, String> row) {
+        return tryMapIndexedRow(row == null ? null : new MapRow(row, columns()));
+    }
+}
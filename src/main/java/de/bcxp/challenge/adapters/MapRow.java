@@ -0,0 +1,32 @@
+package de.bcxp.challenge.adapters;
+
+import java.util.Map;
+
+/**
+ * Adapts a row keyed by header name to the {@link IndexedRow} contract.
+ */
+final class MapRow implements IndexedRow {
+
+    private final Map<String, String> row;
+    private final String[] columns;
+
+    MapRow(Map<String, String> row, String[] columns) {
+        this.row = row;
+        this.columns = columns;
+    }
+
+    @Override
+    public int size() {
+        return row.size();
+    }
+
+    @Override
+    public CharSequence get(int column) {
+        return row.get(columns[column]);
+    }
+
+    @Override
+    public String toString() {
+        return row.toString();
+    }
+}
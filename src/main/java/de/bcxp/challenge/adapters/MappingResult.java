@@ -0,0 +1,69 @@
+package de.bcxp.challenge.adapters;
+
+/**
+ * Outcome of mapping a single row: either the mapped entity or the reason the row was rejected.
+ */
+public final class MappingResult<T> {
+
+    private final T entity;
+    private final RejectReason reason;
+    private final String column;
+    private final String value;
+
+    private MappingResult(T entity, RejectReason reason, String column, String value) {
+        this.entity = entity;
+        this.reason = reason;
+        this.column = column;
+        this.value = value;
+    }
+
+    public static <T> MappingResult<T> accepted(T entity) {
+        return new MappingResult<>(entity, null, null, null);
+    }
+
+    /**
+     * @param column the offending column, null if the rejection does not concern a single column
+     * @param value the raw offending value, null if not available
+     */
+    public static <T> MappingResult<T> rejected(RejectReason reason, String column, String value) {
+        return new MappingResult<>(null, reason, column, value);
+    }
+
+    public boolean isAccepted() {
+        return reason == null;
+    }
+
+    /**
+     * @return the mapped entity, null if the row was rejected
+     */
+    public T getEntity() {
+        return entity;
+    }
+
+    /**
+     * @return the reason of the rejection, null if the row was accepted
+     */
+    public RejectReason getReason() {
+        return reason;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        if (isAccepted()) {
+            return "MappingResult{accepted=" + entity + '}';
+        }
+        return "MappingResult{" +
+                "reason=" + reason +
+                ", column='" + column + '\'' +
+                ", value='" + value + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,232 @@
+package de.bcxp.challenge.adapters;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded in-memory cache for the records read from files, shared by {@link CachingRecordReader}s.
+ * <p>
+ * Entries are keyed by file path and owner, the reader that produced them, and remember the size and modification
+ * time of the file they were read from; a lookup with a different size or modification time replaces the entry.
+ * The total estimated weight in bytes is bounded, the least recently used entries are evicted first.
+ * Concurrent lookups of a missing entry are collapsed into a single load that all callers wait for.
+ * Failed loads are not cached.
+ */
+public class RecordCache {
+
+    private final long maxWeight;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxWeight upper bound for the summed estimated bytes of all cached entries
+     */
+    public RecordCache(long maxWeight) {
+
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("Maximum weight cannot be negative: " + maxWeight);
+        }
+
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Returns the cached records of the file version, or loads them if there are none.
+     *
+     * @param loader  reads the records, called at most once per missing entry and never while holding a lock
+     * @param weigher estimates the bytes taken by the loaded records
+     * @return an unmodifiable list
+     */
+    @SuppressWarnings("unchecked")
+    <T> List<T> get(String path, Object owner, long size, long modified, Supplier<List<T>> loader, ToLongFunction<List<T>> weigher) {
+
+        Key key = new Key(path, owner);
+        Entry entry;
+        boolean load = false;
+
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && entry.size == size && entry.modified == modified) {
+                hits.increment();
+            } else {
+                if (entry != null) {
+                    remove(key, entry);
+                }
+                entry = new Entry(size, modified);
+                entries.put(key, entry);
+                misses.increment();
+                load = true;
+            }
+        }
+
+        if (!load) {
+            return (List<T>) join(entry.value);
+        }
+
+        List<T> value;
+        try {
+            value = Collections.unmodifiableList(loader.get());
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                if (entries.get(key) == entry) {
+                    entries.remove(key);
+                }
+            }
+            entry.value.completeExceptionally(e);
+            throw e;
+        }
+
+        long entryWeight = weigher.applyAsLong(value);
+        synchronized (this) {
+            if (entries.get(key) == entry) {
+                entry.weight = entryWeight;
+                weight += entryWeight;
+                evict();
+            }
+        }
+        entry.value.complete(value);
+
+        return value;
+    }
+
+    /**
+     * Removes all entries. Loads in progress complete for their callers but are not cached.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the number of cached entries, including loads in progress
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the summed estimated bytes of all cached entries
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    @Override
+    public String toString() {
+        return "RecordCache{" +
+                "hits=" + getHitCount() +
+                ", misses=" + getMissCount() +
+                ", evictions=" + getEvictionCount() +
+                ", weight=" + getWeight() +
+                ", maxWeight=" + maxWeight +
+                '}';
+    }
+
+    /**
+     * Evicts completed entries in least recently used order until the weight fits again.
+     * Entries that are still loading have no weight yet and are skipped.
+     */
+    private void evict() {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            if (entry.weight >= 0) {
+                iterator.remove();
+                weight -= entry.weight;
+                evictions.increment();
+            }
+        }
+    }
+
+    private void remove(Key key, Entry entry) {
+        entries.remove(key);
+        if (entry.weight >= 0) {
+            weight -= entry.weight;
+        }
+    }
+
+    private static List<?> join(CompletableFuture<List<?>> value) {
+        try {
+            return value.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Identifies the records of a file as read by one owner. Owners are compared by identity.
+     */
+    private static final class Key {
+
+        private final String path;
+        private final Object owner;
+
+        Key(String path, Object owner) {
+            this.path = path;
+            this.owner = owner;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return owner == other.owner && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, System.identityHashCode(owner));
+        }
+    }
+
+    private static final class Entry {
+
+        private final long size;
+        private final long modified;
+        private final CompletableFuture<List<?>> value = new CompletableFuture<>();
+        private long weight = -1;
+
+        Entry(long size, long modified) {
+            this.size = size;
+            this.modified = modified;
+        }
+    }
+}
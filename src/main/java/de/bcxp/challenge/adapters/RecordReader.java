@@ -1,9 +1,33 @@
 package de.bcxp.challenge.adapters;
 
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface RecordReader<T> {
 
     List<T> readAll(String filePath);
 
+    /**
+     * Streams the mapped records of the given file one by one instead of materializing them.
+     * The returned stream holds the underlying file open and must be closed, e.g. with try-with-resources.
+     */
+    Stream<T> stream(String filePath);
+
+    /**
+     * Streams the mapped records read from the given input stream (e.g. stdin).
+     * Closing the returned stream closes the input stream.
+     */
+    Stream<T> stream(InputStream inputStream);
+
+    /**
+     * Streams the mapped records read from the given channel.
+     * Closing the returned stream closes the channel.
+     */
+    default Stream<T> stream(ReadableByteChannel channel) {
+        return stream(Channels.newInputStream(channel));
+    }
+
 }
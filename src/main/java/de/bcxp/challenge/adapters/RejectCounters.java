@@ -0,0 +1,59 @@
+package de.bcxp.challenge.adapters;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Number of rejected rows per {@link RejectReason}, safe to update from several reading threads.
+ */
+public final class RejectCounters {
+
+    private static final RejectReason[] REASONS = RejectReason.values();
+
+    private final LongAdder[] counts = new LongAdder[REASONS.length];
+
+    public RejectCounters() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void increment(RejectReason reason) {
+        counts[(reason == null ? RejectReason.UNSPECIFIED : reason).ordinal()].increment();
+    }
+
+    public long get(RejectReason reason) {
+        return counts[reason.ordinal()].sum();
+    }
+
+    public long total() {
+        long total = 0;
+        for (LongAdder count : counts) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    public void reset() {
+        for (LongAdder count : counts) {
+            count.reset();
+        }
+    }
+
+    /**
+     * @return the reasons that occurred with their counts, like {MALFORMED_NUMBER=3, OUT_OF_RANGE=1}
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        for (RejectReason reason : REASONS) {
+            long count = get(reason);
+            if (count > 0) {
+                if (builder.length() > 1) {
+                    builder.append(", ");
+                }
+                builder.append(reason).append('=').append(count);
+            }
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,90 @@
+package de.bcxp.challenge.adapters;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Default {@link RejectSink}: counts every rejected row per reason, but logs only the first rows of every second.
+ * The rows of a second beyond the limit are summed up in one line once the next second begins, so a dirty source
+ * costs a counter increment per row instead of a formatted console line.
+ */
+public class RejectLog implements RejectSink {
+
+    private static final Logger logger = LogManager.getLogger(RejectLog.class);
+
+    public static final int DEFAULT_LINES_PER_SECOND = 10;
+
+    private final RejectCounters counters = new RejectCounters();
+    private final int linesPerSecond;
+
+    private final AtomicLong second = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicInteger logged = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public RejectLog() {
+        this(DEFAULT_LINES_PER_SECOND);
+    }
+
+    /**
+     * @param linesPerSecond rows logged per second at most, 0 to only count
+     */
+    public RejectLog(int linesPerSecond) {
+        if (linesPerSecond < 0) {
+            throw new IllegalArgumentException("Lines per second cannot be negative: " + linesPerSecond);
+        }
+        this.linesPerSecond = linesPerSecond;
+    }
+
+    @Override
+    public void reject(String[] columns, IndexedRow row, MappingResult<?> result) {
+
+        counters.increment(result.getReason());
+
+        if (!logger.isWarnEnabled() || linesPerSecond == 0) {
+            return;
+        }
+
+        if (permit()) {
+            logger.warn("Invalid row data: {} - {}", row, result);
+        } else {
+            suppressed.incrementAndGet();
+        }
+    }
+
+    public RejectCounters getCounters() {
+        return counters;
+    }
+
+    /**
+     * Logs the rows suppressed so far and the counts per reason.
+     */
+    public void logSummary() {
+        flushSuppressed();
+        if (counters.total() > 0) {
+            logger.info("Rejected {} rows: {}", counters.total(), counters);
+        }
+    }
+
+    private boolean permit() {
+
+        long now = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        long current = second.get();
+        if (now != current && second.compareAndSet(current, now)) {
+            flushSuppressed();
+            logged.set(0);
+        }
+
+        return logged.incrementAndGet() <= linesPerSecond;
+    }
+
+    private void flushSuppressed() {
+        long count = suppressed.getAndSet(0);
+        if (count > 0) {
+            logger.warn("Suppressed {} more invalid rows, {} rejected so far: {}", count, counters.total(), counters);
+        }
+    }
+}
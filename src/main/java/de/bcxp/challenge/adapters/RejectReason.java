@@ -0,0 +1,25 @@
+package de.bcxp.challenge.adapters;
+
+/**
+ * Reason codes for rows a mapper rejects.
+ */
+public enum RejectReason {
+
+    /** The row is null or has no fields. */
+    EMPTY_ROW,
+
+    /** A required column is missing or blank. */
+    MISSING_COLUMN,
+
+    /** A numeric column cannot be parsed as a number of the expected type. */
+    MALFORMED_NUMBER,
+
+    /** A value is outside of its allowed range. */
+    OUT_OF_RANGE,
+
+    /** Values of several columns contradict each other. */
+    INCONSISTENT_VALUES,
+
+    /** The mapper rejected the row without giving a reason. */
+    UNSPECIFIED
+}
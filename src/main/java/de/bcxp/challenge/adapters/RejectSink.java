@@ -0,0 +1,15 @@
+package de.bcxp.challenge.adapters;
+
+/**
+ * Receives the rows a mapper skips. Called on the reading thread for every rejected row, so implementations must
+ * be cheap and thread-safe, and must copy what they keep: the row may be a view that the reader reuses.
+ */
+public interface RejectSink {
+
+    /**
+     * @param columns the columns of the mapper, in the order the row is read by position
+     * @param row the rejected row
+     * @param result the rejection with its reason
+     */
+    void reject(String[] columns, IndexedRow row, MappingResult<?> result);
+}
@@ -0,0 +1,12 @@
+package de.bcxp.challenge.adapters;
+
+/**
+ * A reader that can push the raw rows of a file to a {@link RowVisitor} instead of mapping them to entities.
+ */
+public interface RowScanner {
+
+    /**
+     * Reads the whole file and hands every row to the visitor, in file order and on the calling thread.
+     */
+    void scan(String filePath, RowVisitor visitor);
+}
@@ -0,0 +1,18 @@
+package de.bcxp.challenge.adapters;
+
+/**
+ * Receives the rows of a source one by one from a {@link RowScanner}, without any per row objects being built.
+ * Used to fill columnar stores directly from the reader.
+ */
+public interface RowVisitor {
+
+    /**
+     * @return the names of the columns the visitor reads, in the order of their positions in {@link IndexedRow}
+     */
+    String[] columns();
+
+    /**
+     * @param row the current row. It is only valid during the call and is reused for the next row.
+     */
+    void visit(IndexedRow row);
+}
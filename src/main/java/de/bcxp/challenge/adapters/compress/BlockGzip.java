@@ -0,0 +1,155 @@
+package de.bcxp.challenge.adapters.compress;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Block gzip (BGZF): a gzip file made of independent members of at most 64 KiB, each carrying its compressed size in
+ * a 'BC' extra field. Any gzip reader can read it, and the members can be found without inflating, so they can be
+ * inflated in parallel.
+ */
+public final class BlockGzip {
+
+    /**
+     * Uncompressed bytes per member, small enough that even incompressible data fits a 64 KiB member.
+     */
+    public static final int MAX_BLOCK_SIZE = 0xff00;
+
+    static final int HEADER_SIZE = 18;
+    static final int TRAILER_SIZE = 8;
+    static final int MAX_MEMBER_SIZE = 0x10000;
+
+    /**
+     * The empty member that marks the end of a BGZF file.
+     */
+    public static final byte[] EOF = {
+            0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 'B', 'C', 2, 0, 0x1b, 0, 3, 0, 0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private BlockGzip() {
+    }
+
+    /**
+     * Compresses the data into as many members as needed, without the EOF member.
+     * Members of different calls can be concatenated, so large inputs can be compressed in parallel.
+     */
+    public static byte[] compress(byte[] data, int offset, int length, int level) {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length / 3 + HEADER_SIZE);
+        byte[] member = new byte[MAX_MEMBER_SIZE];
+        Deflater deflater = new Deflater(level, true);
+        CRC32 crc = new CRC32();
+
+        try {
+            for (int start = offset, end = offset + length; start < end; start += MAX_BLOCK_SIZE) {
+                int blockLength = Math.min(MAX_BLOCK_SIZE, end - start);
+
+                deflater.reset();
+                deflater.setInput(data, start, blockLength);
+                deflater.finish();
+                int compressed = deflater.deflate(member, HEADER_SIZE, MAX_MEMBER_SIZE - HEADER_SIZE - TRAILER_SIZE);
+                if (!deflater.finished()) {
+                    throw new IllegalStateException("Block does not fit into a gzip member");
+                }
+
+                crc.reset();
+                crc.update(data, start, blockLength);
+
+                int size = HEADER_SIZE + compressed + TRAILER_SIZE;
+                System.arraycopy(EOF, 0, member, 0, 16);
+                writeShort(member, 16, size - 1);
+                writeInt(member, HEADER_SIZE + compressed, (int) crc.getValue());
+                writeInt(member, HEADER_SIZE + compressed + 4, blockLength);
+                out.write(member, 0, size);
+            }
+        } finally {
+            deflater.end();
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * @return true if the file starts with a gzip member carrying the BGZF block size
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isBlockGzip(Path file) throws IOException {
+        byte[] header = new byte[HEADER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            return in.readNBytes(header, 0, HEADER_SIZE) == HEADER_SIZE && memberSize(header) > 0;
+        }
+    }
+
+    /**
+     * @param header the first {@value #HEADER_SIZE} bytes of a member
+     * @return the total size of the member, or -1 if it is not a BGZF member
+     */
+    static int memberSize(byte[] header) {
+
+        boolean gzip = (header[0] & 0xff) == 0x1f && (header[1] & 0xff) == 0x8b && header[2] == 8;
+        boolean extra = (header[3] & 4) != 0;
+        if (!gzip || !extra || readShort(header, 10) != 6 || header[12] != 'B' || header[13] != 'C'
+                || readShort(header, 14) != 2) {
+            return -1;
+        }
+        return readShort(header, 16) + 1;
+    }
+
+    /**
+     * Inflates one complete member into the output and checks its CRC and size.
+     *
+     * @return the number of bytes written to the output
+     * @throws IOException if the member is corrupt
+     */
+    static int inflate(byte[] member, int offset, int size, byte[] output, int outputOffset, Inflater inflater)
+            throws IOException {
+
+        int blockLength = readInt(member, offset + size - 4);
+        int dataStart = offset + HEADER_SIZE;
+        int dataLength = size - HEADER_SIZE - TRAILER_SIZE;
+
+        if (blockLength > 0) {
+            inflater.reset();
+            inflater.setInput(member, dataStart, dataLength);
+            try {
+                if (inflater.inflate(output, outputOffset, blockLength) != blockLength || !inflater.finished()) {
+                    throw new IOException("Corrupt gzip member: size mismatch");
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt gzip member", e);
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(output, outputOffset, blockLength);
+        if ((int) crc.getValue() != readInt(member, offset + size - 8)) {
+            throw new IOException("Corrupt gzip member: CRC mismatch");
+        }
+        return blockLength;
+    }
+
+    static int readShort(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff) | (bytes[offset + 1] & 0xff) << 8;
+    }
+
+    static int readInt(byte[] bytes, int offset) {
+        return readShort(bytes, offset) | readShort(bytes, offset + 2) << 16;
+    }
+
+    private static void writeShort(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) value;
+        bytes[offset + 1] = (byte) (value >>> 8);
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        writeShort(bytes, offset, value);
+        writeShort(bytes, offset + 2, value >>> 16);
+    }
+}
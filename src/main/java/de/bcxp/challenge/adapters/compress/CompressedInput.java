@@ -0,0 +1,77 @@
+package de.bcxp.challenge.adapters.compress;
+
+import com.github.luben.zstd.ZstdInputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Opens files for reading and decompresses gzip and Zstandard input on the fly, detected by the magic bytes.
+ * <p>
+ * Block gzip (BGZF) files are inflated in parallel on the given executor, see {@link ParallelGzipInputStream}.
+ * Other gzip files, including multi-member files without block sizes, and Zstandard files are decompressed on a
+ * background thread ahead of the reader, see {@link ReadAheadInputStream}.
+ */
+public final class CompressedInput {
+
+    private static final Logger logger = LogManager.getLogger(CompressedInput.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private CompressedInput() {
+    }
+
+    /**
+     * @return true if the file is compressed and cannot be read byte by byte as CSV
+     * @throws IOException if the first bytes of the file cannot be read
+     */
+    public static boolean isCompressed(Path file) throws IOException {
+        return Compression.detect(file) != Compression.NONE;
+    }
+
+    /**
+     * Opens the file, inflating block gzip on the common pool.
+     */
+    public static InputStream open(Path file) throws IOException {
+        return open(file, ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * @param executor runs the parallel inflation of block gzip files
+     * @param parallelism threads of the executor, bounds the groups inflated ahead
+     * @return the decompressed content of the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static InputStream open(Path file, Executor executor, int parallelism) throws IOException {
+
+        Compression compression = Compression.detect(file);
+        if (compression == Compression.NONE) {
+            return Files.newInputStream(file);
+        }
+
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE);
+        try {
+            if (compression == Compression.ZSTD) {
+                logger.info("Decompressing Zstandard input {}", file);
+                return new ReadAheadInputStream(new ZstdInputStream(in), "zstd-" + file.getFileName());
+            }
+            if (BlockGzip.isBlockGzip(file)) {
+                logger.info("Inflating block gzip input {} in parallel", file);
+                return new ParallelGzipInputStream(in, executor, 2 * Math.max(1, parallelism));
+            }
+            logger.info("Inflating gzip input {}", file);
+            return new ReadAheadInputStream(new GZIPInputStream(in, BUFFER_SIZE), "gzip-" + file.getFileName());
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+}
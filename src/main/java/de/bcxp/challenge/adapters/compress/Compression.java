@@ -0,0 +1,43 @@
+package de.bcxp.challenge.adapters.compress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compression formats recognised by their magic bytes, independent of the file extension.
+ */
+public enum Compression {
+
+    NONE,
+
+    /** gzip (RFC 1952), including multi-member and block gzip (BGZF) files. */
+    GZIP,
+
+    /** Zstandard frames. */
+    ZSTD;
+
+    /**
+     * @throws IOException if the first bytes of the file cannot be read
+     */
+    public static Compression detect(Path file) throws IOException {
+
+        byte[] magic = new byte[4];
+        int length = 0;
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int read; length < magic.length && (read = in.read(magic, length, magic.length - length)) > 0; ) {
+                length += read;
+            }
+        }
+
+        if (length >= 2 && (magic[0] & 0xff) == 0x1f && (magic[1] & 0xff) == 0x8b) {
+            return GZIP;
+        }
+        if (length == 4 && (magic[0] & 0xff) == 0x28 && (magic[1] & 0xff) == 0xb5
+                && (magic[2] & 0xff) == 0x2f && (magic[3] & 0xff) == 0xfd) {
+            return ZSTD;
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,179 @@
+package de.bcxp.challenge.adapters.compress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.Inflater;
+
+/**
+ * Inflates a block gzip (BGZF) stream on several threads while the caller consumes it.
+ * <p>
+ * The reading thread only collects whole members, which is cheap as every member states its size, and hands groups
+ * of about {@value #GROUP_SIZE} compressed bytes to the executor. The inflated groups are returned in order, while
+ * up to the given number of groups are inflated ahead, so decompression overlaps with parsing.
+ */
+final class ParallelGzipInputStream extends InputStream {
+
+    static final int GROUP_SIZE = 1 << 20;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final InputStream in;
+    private final Executor executor;
+    private final int readAhead;
+    private final ArrayDeque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+
+    private byte[] current = EMPTY;
+    private int position;
+    private boolean endOfInput;
+    private boolean closed;
+
+    /**
+     * @param in the compressed stream, should be buffered
+     * @param readAhead groups inflated ahead of the reader, usually twice the parallelism of the executor
+     */
+    ParallelGzipInputStream(InputStream in, Executor executor, int readAhead) {
+        this.in = in;
+        this.executor = executor;
+        this.readAhead = Math.max(1, readAhead);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == current.length && !advance()) {
+            return -1;
+        }
+        return current[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (position == current.length && !advance()) {
+            return -1;
+        }
+        int count = Math.min(length, current.length - position);
+        System.arraycopy(current, position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return current.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            pending.forEach(group -> group.cancel(false));
+            pending.clear();
+            in.close();
+        }
+    }
+
+    private boolean advance() throws IOException {
+
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+
+        while (true) {
+            fill();
+            if (pending.isEmpty()) {
+                return false;
+            }
+            current = await(pending.remove());
+            position = 0;
+            if (current.length > 0) {
+                return true;
+            }
+        }
+    }
+
+    private void fill() throws IOException {
+        while (!endOfInput && pending.size() < readAhead) {
+            List<byte[]> members = readGroup();
+            if (members.isEmpty()) {
+                endOfInput = true;
+            } else {
+                pending.add(CompletableFuture.supplyAsync(() -> inflate(members), executor));
+            }
+        }
+    }
+
+    private List<byte[]> readGroup() throws IOException {
+
+        List<byte[]> members = new ArrayList<>();
+        byte[] header = new byte[BlockGzip.HEADER_SIZE];
+
+        for (int groupSize = 0; groupSize < GROUP_SIZE; ) {
+            int read = in.readNBytes(header, 0, header.length);
+            if (read == 0) {
+                break;
+            }
+            int size = read == header.length ? BlockGzip.memberSize(header) : -1;
+            if (size < BlockGzip.HEADER_SIZE + BlockGzip.TRAILER_SIZE) {
+                throw new IOException("Not a block gzip member at the end of the previous one");
+            }
+
+            byte[] member = new byte[size];
+            System.arraycopy(header, 0, member, 0, header.length);
+            if (in.readNBytes(member, header.length, size - header.length) != size - header.length) {
+                throw new IOException("Truncated gzip member");
+            }
+            members.add(member);
+            groupSize += size;
+        }
+
+        return members;
+    }
+
+    private static byte[] inflate(List<byte[]> members) {
+
+        long total = 0;
+        for (byte[] member : members) {
+            total += BlockGzip.readInt(member, member.length - 4) & 0xffffffffL;
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new UncheckedIOException(new IOException("Corrupt gzip member: size too large"));
+        }
+
+        byte[] output = new byte[(int) total];
+        Inflater inflater = new Inflater(true);
+        try {
+            int offset = 0;
+            for (byte[] member : members) {
+                offset += BlockGzip.inflate(member, 0, member.length, output, offset, inflater);
+            }
+            return output;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] await(CompletableFuture<byte[]> group) throws IOException {
+        try {
+            return group.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IOException("Failed to inflate gzip member", e.getCause());
+        } catch (CancellationException e) {
+            throw new IOException("Stream closed", e);
+        }
+    }
+}
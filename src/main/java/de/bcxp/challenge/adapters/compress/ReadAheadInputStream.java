@@ -0,0 +1,126 @@
+package de.bcxp.challenge.adapters.compress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads a stream on a background thread into a bounded queue of chunks. Used for decompressors that cannot be split,
+ * so at least decompression and parsing run on different cores.
+ */
+final class ReadAheadInputStream extends InputStream {
+
+    static final int CHUNK_SIZE = 256 * 1024;
+    static final int CHUNKS = 8;
+
+    private static final byte[] END = new byte[0];
+
+    private final InputStream in;
+    private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(CHUNKS);
+    private final Thread reader;
+
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    private byte[] current = new byte[0];
+    private int position;
+    private boolean endOfInput;
+
+    ReadAheadInputStream(InputStream in, String name) {
+        this.in = in;
+        this.reader = new Thread(this::readAhead, name);
+        this.reader.setDaemon(true);
+        this.reader.start();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == current.length && !advance()) {
+            return -1;
+        }
+        return current[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (position == current.length && !advance()) {
+            return -1;
+        }
+        int count = Math.min(length, current.length - position);
+        System.arraycopy(current, position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return current.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            reader.interrupt();
+            chunks.clear();
+            in.close();
+        }
+    }
+
+    private boolean advance() throws IOException {
+
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (endOfInput) {
+            return false;
+        }
+
+        try {
+            current = chunks.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading ahead", e);
+        }
+        position = 0;
+
+        if (current == END) {
+            endOfInput = true;
+            if (failure != null) {
+                throw failure;
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private void readAhead() {
+        try {
+            while (!closed) {
+                byte[] chunk = new byte[CHUNK_SIZE];
+                int length = in.readNBytes(chunk, 0, CHUNK_SIZE);
+                if (length == 0) {
+                    break;
+                }
+                chunks.put(length == CHUNK_SIZE ? chunk : Arrays.copyOf(chunk, length));
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                failure = e;
+            }
+        } catch (InterruptedException e) {
+            return;
+        }
+
+        try {
+            chunks.put(END);
+        } catch (InterruptedException e) {
+            // Closed while waiting, nobody reads the end marker
+        }
+    }
+}
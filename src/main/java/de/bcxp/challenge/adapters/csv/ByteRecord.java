@@ -0,0 +1,218 @@
+package de.bcxp.challenge.adapters.csv;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A single CSV record as produced by the {@link CSVByteTokenizer}. The record does not copy any bytes:
+ * every field is a slice (start and end offset) of the buffer the tokenizer is currently reading.
+ * The record and the field views it hands out are reused and are only valid until the next record is read.
+ */
+public final class ByteRecord {
+
+    /** The field was enclosed in quotes. */
+    static final byte QUOTED = 1;
+
+    /** The field contains escaped (doubled) quote characters which have to be unescaped when decoded. */
+    static final byte ESCAPED_QUOTES = 2;
+
+    /** The field contains bytes outside of the ASCII range and has to be decoded as UTF-8. */
+    static final byte NON_ASCII = 4;
+
+    private ByteBuffer buffer;
+    private byte quote;
+    private int recordStart;
+    private int recordEnd;
+
+    private int size;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private byte[] flags = new byte[16];
+    private ByteSlice[] slices = new ByteSlice[16];
+
+    void begin(ByteBuffer buffer, byte quote, int recordStart) {
+        this.buffer = buffer;
+        this.quote = quote;
+        this.recordStart = recordStart;
+        this.size = 0;
+    }
+
+    void addField(int start, int end, byte fieldFlags) {
+        if (size == starts.length) {
+            int newLength = size * 2;
+            starts = Arrays.copyOf(starts, newLength);
+            ends = Arrays.copyOf(ends, newLength);
+            flags = Arrays.copyOf(flags, newLength);
+            slices = Arrays.copyOf(slices, newLength);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        flags[size] = fieldFlags;
+        size++;
+    }
+
+    void finish(int recordEnd) {
+        this.recordEnd = recordEnd;
+    }
+
+    /**
+     * @return the number of fields of this record
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the field at the given index without allocating a String for plain ASCII fields.
+     * Fields with non-ASCII characters or escaped quotes are decoded into a String.
+     *
+     * @param index zero based field index
+     * @return a view on the field which is only valid until the next record is read
+     */
+    public CharSequence field(int index) {
+        checkIndex(index);
+        if (flags[index] > QUOTED) {
+            return fieldAsString(index);
+        }
+        ByteSlice slice = slices[index];
+        if (slice == null) {
+            slice = new ByteSlice();
+            slices[index] = slice;
+        }
+        slice.set(buffer, starts[index], ends[index]);
+        return slice;
+    }
+
+    /**
+     * Decodes the field at the given index into a String.
+     *
+     * @param index zero based field index
+     * @return the decoded field
+     */
+    public String fieldAsString(int index) {
+        checkIndex(index);
+        String value = decode(buffer, starts[index], ends[index], (flags[index] & NON_ASCII) != 0);
+        if ((flags[index] & ESCAPED_QUOTES) != 0) {
+            String quoteString = String.valueOf((char) quote);
+            value = value.replace(quoteString + quoteString, quoteString);
+        }
+        return value;
+    }
+
+    /**
+     * @return the buffer the fields of this record are slices of
+     */
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * @return the buffer offset of the first byte of the given field
+     */
+    int fieldStart(int index) {
+        return starts[index];
+    }
+
+    /**
+     * @return the buffer offset after the last byte of the given field
+     */
+    int fieldEnd(int index) {
+        return ends[index];
+    }
+
+    /**
+     * @return the flags of the given field, a combination of {@link #QUOTED}, {@link #ESCAPED_QUOTES} and {@link #NON_ASCII}
+     */
+    byte fieldFlags(int index) {
+        return flags[index];
+    }
+
+    /**
+     * @return the quote character the fields were tokenized with
+     */
+    byte quote() {
+        return quote;
+    }
+
+    /**
+     * @return the buffer offset of the first byte of the record
+     */
+    int recordStart() {
+        return recordStart;
+    }
+
+    /**
+     * @return the buffer offset after the last byte of the record, without the line break
+     */
+    int recordEnd() {
+        return recordEnd;
+    }
+
+    /**
+     * @return true if the given field can be read byte by byte as plain ASCII characters
+     */
+    boolean isPlain(int index) {
+        return flags[index] <= QUOTED;
+    }
+
+    /**
+     * @return the raw text of the record as it appeared in the input, without the line break
+     */
+    @Override
+    public String toString() {
+        return buffer == null ? "" : decode(buffer, recordStart, recordEnd, true);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Field index " + index + " out of bounds for record with " + size + " fields");
+        }
+    }
+
+    static String decode(ByteBuffer buffer, int start, int end, boolean utf8) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, utf8 ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Allocation free CharSequence view on an ASCII slice of a buffer.
+     */
+    static final class ByteSlice implements CharSequence {
+
+        private ByteBuffer buffer;
+        private int start;
+        private int end;
+
+        void set(ByteBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(start + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            ByteSlice slice = new ByteSlice();
+            slice.set(buffer, start + from, start + to);
+            return slice;
+        }
+
+        @Override
+        public String toString() {
+            return decode(buffer, start, end, false);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package de.bcxp.challenge.adapters.csv;
+
+import org.apache.commons.csv.CSVFormat;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Reads {@link ByteRecord}s one after another from a {@link ByteWindow}, sliding the window whenever
+ * the tokenizer runs out of complete records.
+ */
+final class ByteRecordCursor {
+
+    private final ByteWindow window;
+    private final CSVByteTokenizer tokenizer;
+    private final ByteRecord record = new ByteRecord();
+
+    ByteRecordCursor(ByteWindow window, CSVByteTokenizer tokenizer) {
+        this.window = window;
+        this.tokenizer = tokenizer;
+        tokenizer.reset(window.buffer(), 0, window.limit(), window.isEndOfInput());
+    }
+
+    /**
+     * Reads the header as described by the format and leaves the cursor in front of the first data record.
+     *
+     * @return the column names, empty if the format has no header
+     */
+    String[] readHeader(CSVFormat format) {
+
+        String[] header = format.getHeader();
+
+        if (header == null) {
+            return new String[0];
+        }
+
+        if (header.length > 0) {
+            if (format.getSkipHeaderRecord()) {
+                next();
+            }
+            return header;
+        }
+
+        if (!next()) {
+            return new String[0];
+        }
+
+        String[] names = new String[record.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = record.fieldAsString(i);
+        }
+        return names;
+    }
+
+    /**
+     * Moves to the next record.
+     *
+     * @return false if the input is exhausted
+     */
+    boolean next() {
+        try {
+            while (!tokenizer.next(record)) {
+                if (window.isEndOfInput()) {
+                    return false;
+                }
+                window.slide(tokenizer.position());
+                tokenizer.reset(window.buffer(), 0, window.limit(), window.isEndOfInput());
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the current record, only valid until the next call of {@link #next()}
+     */
+    ByteRecord record() {
+        return record;
+    }
+
+    /**
+     * @return the input offset of the first byte after the current record
+     */
+    long offset() {
+        return window.offset() + tokenizer.position();
+    }
+}
@@ -0,0 +1,86 @@
+package de.bcxp.challenge.adapters.csv;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read only map view of a {@link ByteRecord} keyed by header name, so byte level records can be handed to
+ * the existing {@link de.bcxp.challenge.adapters.RowMapper} contract. Field values are only decoded when
+ * a mapper asks for them and are cached until the view moves to the next record.
+ */
+final class ByteRecordMap extends AbstractMap<String, String> {
+
+    private final String[] header;
+    private final Map<String, Integer> columnIndexes;
+    private final String[] values;
+
+    private ByteRecord record;
+
+    ByteRecordMap(String[] header) {
+        this.header = header;
+        this.columnIndexes = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            columnIndexes.put(header[i], i);
+        }
+        this.values = new String[header.length];
+    }
+
+    /**
+     * Moves the view to the given record.
+     */
+    void set(ByteRecord record) {
+        this.record = record;
+        Arrays.fill(values, null);
+    }
+
+    private int columns() {
+        return Math.min(header.length, record.size());
+    }
+
+    private String value(int index) {
+        String value = values[index];
+        if (value == null) {
+            value = record.fieldAsString(index);
+            values[index] = value;
+        }
+        return value;
+    }
+
+    @Override
+    public String get(Object key) {
+        Integer index = columnIndexes.get(key);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        return value(index);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        Integer index = columnIndexes.get(key);
+        return index != null && index < record.size();
+    }
+
+    @Override
+    public int size() {
+        return columns();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return columns() == 0;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        Map<String, String> copy = new LinkedHashMap<>();
+        for (int i = 0; i < columns(); i++) {
+            copy.put(header[i], value(i));
+        }
+        return copy.entrySet();
+    }
+}
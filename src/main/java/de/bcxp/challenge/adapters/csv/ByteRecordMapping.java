@@ -0,0 +1,45 @@
+package de.bcxp.challenge.adapters.csv;
+
+import de.bcxp.challenge.adapters.ColumnBinding;
+import de.bcxp.challenge.adapters.IndexedRowMapper;
+import de.bcxp.challenge.adapters.RowMapper;
+
+import java.util.Arrays;
+
+/**
+ * Maps {@link ByteRecord}s of one source with a row mapper. Indexed mappers get the fields by position,
+ * other mappers get a lazily decoded map view keyed by header name.
+ * An instance keeps per row state and must only be used by one thread.
+ */
+final class ByteRecordMapping<T> {
+
+    private final RowMapper<T> rowMapper;
+    private final IndexedRowMapper<T> indexedRowMapper;
+    private final ByteRecordRow indexedRow;
+    private final ByteRecordMap row;
+
+    @SuppressWarnings("unchecked")
+    ByteRecordMapping(RowMapper<T> rowMapper, String[] header) {
+        this.rowMapper = rowMapper;
+        if (rowMapper instanceof IndexedRowMapper) {
+            this.indexedRowMapper = (IndexedRowMapper<T>) rowMapper;
+            this.indexedRow = new ByteRecordRow(ColumnBinding.of(Arrays.asList(header), indexedRowMapper.columns()));
+            this.row = null;
+        } else {
+            this.indexedRowMapper = null;
+            this.indexedRow = null;
+            this.row = new ByteRecordMap(header);
+        }
+    }
+
+    /**
+     * @return the mapped record, or null if the mapper skipped it
+     */
+    T map(ByteRecord record) {
+        if (indexedRowMapper != null) {
+            return indexedRowMapper.mapIndexedRow(indexedRow.set(record));
+        }
+        row.set(record);
+        return rowMapper.mapRow(row);
+    }
+}
@@ -0,0 +1,72 @@
+package de.bcxp.challenge.adapters.csv;
+
+import de.bcxp.challenge.adapters.ColumnBinding;
+import de.bcxp.challenge.adapters.FieldParser;
+import de.bcxp.challenge.adapters.IndexedRow;
+
+/**
+ * {@link IndexedRow} over a {@link ByteRecord}, handing out the field slices by their bound position.
+ * Numbers in plain ASCII fields are parsed straight from the buffer.
+ */
+final class ByteRecordRow implements IndexedRow {
+
+    private final ColumnBinding binding;
+    private ByteRecord record;
+
+    ByteRecordRow(ColumnBinding binding) {
+        this.binding = binding;
+    }
+
+    ByteRecordRow set(ByteRecord record) {
+        this.record = record;
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return record.size();
+    }
+
+    @Override
+    public CharSequence get(int column) {
+        int position = binding.position(column);
+        return position < 0 || position >= record.size() ? null : record.field(position);
+    }
+
+    @Override
+    public long getInt(int column) {
+        int position = plainPosition(column);
+        return position < 0
+                ? IndexedRow.super.getInt(column)
+                : FieldParser.parseInt(record.buffer(), record.fieldStart(position), record.fieldEnd(position));
+    }
+
+    @Override
+    public long getLong(int column) {
+        int position = plainPosition(column);
+        return position < 0
+                ? IndexedRow.super.getLong(column)
+                : FieldParser.parseLong(record.buffer(), record.fieldStart(position), record.fieldEnd(position));
+    }
+
+    @Override
+    public double getDouble(int column) {
+        int position = plainPosition(column);
+        return position < 0
+                ? IndexedRow.super.getDouble(column)
+                : FieldParser.parseDouble(record.buffer(), record.fieldStart(position), record.fieldEnd(position));
+    }
+
+    /**
+     * @return the record position of the column if it exists and holds plain ASCII, -1 otherwise
+     */
+    private int plainPosition(int column) {
+        int position = binding.position(column);
+        return position < 0 || position >= record.size() || !record.isPlain(position) ? -1 : position;
+    }
+
+    @Override
+    public String toString() {
+        return binding.describe(this);
+    }
+}
@@ -0,0 +1,189 @@
+package de.bcxp.challenge.adapters.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * A window over the bytes of an input that the {@link CSVByteTokenizer} reads from.
+ * When the tokenizer reaches the end of the window, the window slides forward so that it starts
+ * at the first unconsumed byte, which keeps records that span two windows intact.
+ */
+abstract class ByteWindow implements Closeable {
+
+    /** Largest window that can be addressed by a single ByteBuffer. */
+    static final int MAX_WINDOW_SIZE = Integer.MAX_VALUE - 8;
+
+    protected ByteBuffer buffer;
+    protected int limit;
+    protected boolean endOfInput;
+
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * @return the number of valid bytes in the buffer, starting at offset 0
+     */
+    int limit() {
+        return limit;
+    }
+
+    /**
+     * @return the input offset of the first byte in the buffer
+     */
+    abstract long offset();
+
+    /**
+     * @return true if the window contains the last byte of the input
+     */
+    boolean isEndOfInput() {
+        return endOfInput;
+    }
+
+    /**
+     * Drops the given number of consumed bytes and fills the window with the following input.
+     * If nothing was consumed, the window grows so the current record can be completed.
+     */
+    abstract void slide(int consumed) throws IOException;
+
+    static int grow(int size) {
+        if (size >= MAX_WINDOW_SIZE) {
+            throw new IllegalStateException("CSV record exceeds the maximum window size of " + MAX_WINDOW_SIZE + " bytes");
+        }
+        return (int) Math.min((long) size * 2, MAX_WINDOW_SIZE);
+    }
+
+    /**
+     * Window over a region of a file that is memory mapped piece by piece.
+     */
+    static final class Mapped extends ByteWindow {
+
+        private final FileChannel channel;
+        private final long end;
+        private long base;
+        private int windowSize;
+
+        /**
+         * Maps the region [start, end) of the given file.
+         */
+        Mapped(FileChannel channel, long start, long end, int windowSize) throws IOException {
+            this.channel = channel;
+            this.end = end;
+            this.base = start;
+            this.windowSize = windowSize;
+            map();
+        }
+
+        @Override
+        long offset() {
+            return base;
+        }
+
+        @Override
+        void slide(int consumed) throws IOException {
+            if (consumed == 0) {
+                windowSize = grow(windowSize);
+            }
+            base += consumed;
+            map();
+        }
+
+        private void map() throws IOException {
+            long length = Math.min(end - base, windowSize);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, base, length);
+            limit = (int) length;
+            endOfInput = base + length == end;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Window over a sequential channel, e.g. stdin or a socket, backed by a heap buffer.
+     */
+    static final class Buffered extends ByteWindow {
+
+        private final ReadableByteChannel channel;
+        private long offset;
+
+        Buffered(ReadableByteChannel channel, int bufferSize) throws IOException {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocate(bufferSize);
+            fill();
+        }
+
+        @Override
+        long offset() {
+            return offset;
+        }
+
+        @Override
+        void slide(int consumed) throws IOException {
+
+            offset += consumed;
+
+            if (consumed == 0 && limit == buffer.capacity()) {
+                ByteBuffer larger = ByteBuffer.allocate(grow(buffer.capacity()));
+                buffer.position(0).limit(limit);
+                larger.put(buffer);
+                buffer = larger;
+            } else {
+                buffer.position(consumed).limit(limit);
+                buffer.compact();
+            }
+
+            fill();
+        }
+
+        private void fill() throws IOException {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    endOfInput = true;
+                    break;
+                }
+            }
+            limit = buffer.position();
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Window over a buffer that already holds the complete input, e.g. a chunk of whole records.
+     */
+    static final class Fixed extends ByteWindow {
+
+        /**
+         * @param buffer the input between position 0 and the limit of the buffer
+         */
+        Fixed(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.limit = buffer.limit();
+            this.endOfInput = true;
+        }
+
+        @Override
+        long offset() {
+            return 0;
+        }
+
+        @Override
+        void slide(int consumed) {
+            throw new IllegalStateException("A fixed window cannot slide");
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package de.bcxp.challenge.adapters.csv;
+
+import org.apache.commons.csv.CSVFormat;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Splits CSV records directly on the bytes of a buffer instead of decoding them to characters first.
+ * Delimiter and quote character have to be ASCII, which holds for all formats of this application,
+ * so UTF-8 input can be scanned byte by byte without ever mistaking part of a multi byte character for one of them.
+ * <p>
+ * The tokenizer reads the region between position and limit of the buffer set with {@link #reset}.
+ * If the region ends in the middle of a record and more input follows, {@link #next} returns false and
+ * {@link #position()} stays at the start of that record, so the caller can refill the buffer from there.
+ */
+public final class CSVByteTokenizer {
+
+    private static final int NO_QUOTE = -1;
+
+    private final byte delimiter;
+    private final int quote;
+    private final boolean ignoreEmptyLines;
+
+    private ByteBuffer buffer;
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+
+    public CSVByteTokenizer(char delimiter, Character quote, boolean ignoreEmptyLines) {
+
+        if (!isAscii(delimiter) || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("Delimiter must be a printable ASCII character: " + delimiter);
+        }
+
+        if (quote != null && (!isAscii(quote) || quote == delimiter)) {
+            throw new IllegalArgumentException("Quote must be an ASCII character different from the delimiter: " + quote);
+        }
+
+        this.delimiter = (byte) delimiter;
+        this.quote = quote == null ? NO_QUOTE : (byte) quote.charValue();
+        this.ignoreEmptyLines = ignoreEmptyLines;
+    }
+
+    /**
+     * Creates a tokenizer for the delimiter, quote character and empty line handling of the given format.
+     */
+    public static CSVByteTokenizer forFormat(CSVFormat format) {
+
+        String delimiter = format.getDelimiterString();
+        if (delimiter.length() != 1) {
+            throw new IllegalArgumentException("Only single character delimiters are supported: " + delimiter);
+        }
+
+        return new CSVByteTokenizer(delimiter.charAt(0), format.getQuoteCharacter(), format.getIgnoreEmptyLines());
+    }
+
+    private static boolean isAscii(char c) {
+        return c > 0 && c < 0x80;
+    }
+
+    /**
+     * Sets the region of the buffer to read next.
+     *
+     * @param endOfInput true if no more input follows after limit, so a record without line break at the end is complete
+     */
+    public void reset(ByteBuffer buffer, int position, int limit, boolean endOfInput) {
+        this.buffer = buffer;
+        this.position = position;
+        this.limit = limit;
+        this.endOfInput = endOfInput;
+    }
+
+    /**
+     * @return the buffer offset of the first byte that has not been consumed yet
+     */
+    public int position() {
+        return position;
+    }
+
+    /**
+     * Reads the next complete record into the given record.
+     *
+     * @return false if the region contains no further complete record
+     */
+    public boolean next(ByteRecord record) {
+
+        while (position < limit) {
+
+            int p = position;
+
+            if (ignoreEmptyLines) {
+                byte b = buffer.get(p);
+                if (b == '\n') {
+                    position = p + 1;
+                    continue;
+                }
+                if (b == '\r') {
+                    if (p + 1 < limit) {
+                        position = buffer.get(p + 1) == '\n' ? p + 2 : p + 1;
+                        continue;
+                    }
+                    if (!endOfInput) {
+                        return false;
+                    }
+                    position = p + 1;
+                    continue;
+                }
+            }
+
+            int next = parseRecord(record, p);
+            if (next < 0) {
+                return false;
+            }
+            position = next;
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Parses the record starting at the given offset.
+     *
+     * @return the offset after the record including its line break, or -1 if the record is incomplete
+     */
+    private int parseRecord(ByteRecord record, int p) {
+
+        record.begin(buffer, (byte) quote, p);
+
+        while (true) {
+
+            byte fieldFlags = 0;
+            int start;
+            int end;
+
+            if (quote != NO_QUOTE && p < limit && buffer.get(p) == quote) {
+
+                fieldFlags = ByteRecord.QUOTED;
+                start = ++p;
+
+                while (true) {
+                    if (p >= limit) {
+                        if (!endOfInput) {
+                            return -1;
+                        }
+                        throw new IllegalStateException("Unterminated quoted field starting at offset " + (start - 1));
+                    }
+                    byte b = buffer.get(p);
+                    if (b == quote) {
+                        if (p + 1 < limit && buffer.get(p + 1) == quote) {
+                            fieldFlags |= ByteRecord.ESCAPED_QUOTES;
+                            p += 2;
+                            continue;
+                        }
+                        if (p + 1 >= limit && !endOfInput) {
+                            return -1;
+                        }
+                        end = p++;
+                        break;
+                    }
+                    if (b < 0) {
+                        fieldFlags |= ByteRecord.NON_ASCII;
+                    }
+                    p++;
+                }
+
+            } else {
+
+                start = p;
+                int bits = 0;
+                while (p < limit) {
+                    byte b = buffer.get(p);
+                    if (b == delimiter || b == '\n' || b == '\r') {
+                        break;
+                    }
+                    bits |= b;
+                    p++;
+                }
+                if (bits < 0) {
+                    fieldFlags |= ByteRecord.NON_ASCII;
+                }
+                end = p;
+            }
+
+            record.addField(start, end, fieldFlags);
+
+            if (p >= limit) {
+                if (!endOfInput) {
+                    return -1;
+                }
+                record.finish(p);
+                return p;
+            }
+
+            byte b = buffer.get(p);
+
+            if (b == delimiter) {
+                p++;
+                continue;
+            }
+
+            if (b == '\n') {
+                record.finish(p);
+                return p + 1;
+            }
+
+            if (b == '\r') {
+                if (p + 1 < limit) {
+                    record.finish(p);
+                    return buffer.get(p + 1) == '\n' ? p + 2 : p + 1;
+                }
+                if (!endOfInput) {
+                    return -1;
+                }
+                record.finish(p);
+                return p + 1;
+            }
+
+            throw new IllegalStateException("Invalid character between quoted field and delimiter at offset " + p);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package de.bcxp.challenge.adapters.csv;
+
+import de.bcxp.challenge.adapters.ColumnBinding;
+import de.bcxp.challenge.adapters.RowVisitor;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows a CSV file that is appended to, like {@code tail -f}. The tail remembers the byte offset up to which
+ * the file has been processed, so every {@link #poll(RowVisitor)} only tokenizes the bytes appended since the
+ * previous one and its cost does not depend on the size of the file.
+ * <p>
+ * Only rows terminated by a line break are processed; a row that is still being written stays pending until its
+ * line break arrives. If the file shrinks or is replaced by another file, e.g. by log rotation, it is read again
+ * from the start after the reset callback ran. A replaced file is recognized by its file key, on file systems
+ * without file keys only by shrinking. While the file does not exist, following waits for it. Delimiter, quote character and header handling are taken from the format
+ * like in {@link MappedCSVRecordReader}, the input is expected to be UTF-8 encoded.
+ */
+public class CSVFileTail implements Closeable {
+
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+    private static final long DEFAULT_POLL_INTERVAL_MILLIS = 1000;
+
+    private static final Logger logger = LogManager.getLogger(CSVFileTail.class);
+
+    private final Path file;
+    private final CSVFormat format;
+    private final Runnable onReset;
+    private final CSVByteTokenizer tokenizer;
+    private final ByteRecord record = new ByteRecord();
+    private final long pollIntervalMillis;
+
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private long offset;
+    private Object fileKey;
+    private boolean headerPending = true;
+    private String[] header;
+    private RowVisitor boundVisitor;
+    private ByteRecordRow row;
+
+    private volatile WatchService watchService;
+    private volatile boolean closed;
+
+    /**
+     * @param onReset called before the file is read again from the start because it shrank or was replaced
+     */
+    public CSVFileTail(Path file, CSVFormat format, Runnable onReset) {
+        this(file, format, onReset, DEFAULT_POLL_INTERVAL_MILLIS);
+    }
+
+    CSVFileTail(Path file, CSVFormat format, Runnable onReset, long pollIntervalMillis) {
+        this.file = file;
+        this.format = format;
+        this.onReset = onReset;
+        this.tokenizer = CSVByteTokenizer.forFormat(format);
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    /**
+     * @return the offset of the first byte that has not been processed yet
+     */
+    public synchronized long offset() {
+        return offset;
+    }
+
+    /**
+     * Hands all complete rows appended since the last poll to the visitor. A file that does not exist, e.g. while
+     * it is rotated, has no new rows.
+     *
+     * @return the number of data rows visited
+     */
+    public synchronized int poll(RowVisitor visitor) {
+
+        try {
+            // Read before the file is opened, so a file replaced in between is read again rather than skipped
+            Object currentKey = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+            if (fileKey != null && currentKey != null && !fileKey.equals(currentKey)) {
+                logger.info("{} was replaced, reading it again from the start", file);
+                reset();
+                onReset.run();
+            }
+            fileKey = currentKey;
+        } catch (NoSuchFileException e) {
+            return 0; // Rotated away and not recreated yet, the new file is picked up by a later poll
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read CSV file", e);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+            long size = channel.size();
+            if (size < offset) {
+                logger.info("{} shrank from {} to {} bytes, reading it again from the start", file, offset, size);
+                reset();
+                onReset.run();
+            }
+
+            int rows = 0;
+
+            while (offset < size) {
+
+                buffer.clear();
+                while (buffer.hasRemaining() && offset + buffer.position() < size) {
+                    if (channel.read(buffer, offset + buffer.position()) < 0) {
+                        break;
+                    }
+                }
+                buffer.flip();
+
+                tokenizer.reset(buffer, 0, buffer.limit(), false);
+                while (tokenizer.next(record)) {
+                    rows += visit(visitor);
+                }
+                offset += tokenizer.position();
+
+                if (buffer.limit() < buffer.capacity()) {
+                    break; // Everything up to the end of the file has been seen, the rest is an incomplete row
+                }
+                if (tokenizer.position() == 0) {
+                    // A single row does not fit into the buffer
+                    buffer = ByteBuffer.allocate(Math.multiplyExact(buffer.capacity(), 2));
+                }
+            }
+
+            return rows;
+
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read CSV file", e);
+        }
+    }
+
+    /**
+     * Polls the file whenever it changes until the tail is closed or the calling thread is interrupted.
+     * Changes are detected with a WatchService; as some platforms only deliver its events with a delay,
+     * the file is additionally polled once per poll interval.
+     *
+     * @param onUpdate called after every poll that visited at least one row
+     */
+    public void follow(RowVisitor visitor, Runnable onUpdate) {
+
+        Path directory = file.toAbsolutePath().getParent();
+        Path fileName = file.getFileName();
+
+        try {
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to watch CSV file", e);
+        }
+
+        logger.info("Following CSV file {}", file);
+
+        try {
+            while (!closed) {
+
+                if (poll(visitor) > 0) {
+                    onUpdate.run();
+                }
+
+                // Wait until the file changes, changes of other files in the directory are skipped
+                boolean changed = false;
+                while (!changed && !closed) {
+                    WatchKey key = watchService.poll(pollIntervalMillis, TimeUnit.MILLISECONDS);
+                    if (key == null) {
+                        break;
+                    }
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context());
+                    }
+                    key.reset();
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // Closed while waiting for changes
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeQuietly();
+        }
+
+        logger.info("Stopped following CSV file {}", file);
+    }
+
+    /**
+     * Stops {@link #follow(RowVisitor, Runnable)}.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        closeQuietly();
+    }
+
+    private void closeQuietly() {
+        WatchService service = watchService;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close watch service", e);
+            }
+        }
+    }
+
+    private int visit(RowVisitor visitor) {
+
+        if (headerPending) {
+            headerPending = false;
+            if (readHeader()) {
+                return 0;
+            }
+        }
+
+        if (visitor != boundVisitor) {
+            row = new ByteRecordRow(ColumnBinding.of(Arrays.asList(header), visitor.columns()));
+            boundVisitor = visitor;
+        }
+
+        visitor.visit(row.set(record));
+        return 1;
+    }
+
+    /**
+     * Resolves the header from the format or the first record, see {@link ByteRecordCursor#readHeader(CSVFormat)}.
+     *
+     * @return true if the first record is the header and must not be visited
+     */
+    private boolean readHeader() {
+
+        String[] formatHeader = format.getHeader();
+
+        if (formatHeader == null) {
+            header = new String[0];
+            return false;
+        }
+
+        if (formatHeader.length > 0) {
+            header = formatHeader;
+            return format.getSkipHeaderRecord();
+        }
+
+        header = new String[record.size()];
+        for (int i = 0; i < header.length; i++) {
+            header[i] = record.fieldAsString(i);
+        }
+        return true;
+    }
+
+    private void reset() {
+        offset = 0;
+        headerPending = true;
+        header = null;
+        boundVisitor = null;
+        row = null;
+    }
+}
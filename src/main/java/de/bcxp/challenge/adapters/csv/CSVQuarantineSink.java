@@ -0,0 +1,227 @@
+package de.bcxp.challenge.adapters.csv;
+
+import de.bcxp.challenge.adapters.IndexedRow;
+import de.bcxp.challenge.adapters.MappingResult;
+import de.bcxp.challenge.adapters.RejectLog;
+import de.bcxp.challenge.adapters.RejectSink;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes rejected rows to a quarantine CSV file, so they can be inspected and fixed without searching the log.
+ * <p>
+ * Each line holds the reason, the offending column and value and then the fields of the row in the order of the
+ * mapper's columns, under a header written with the first row. The reading thread only copies the fields into a
+ * bounded queue; a background thread formats and writes them. When the writer falls behind, rows are dropped and
+ * counted instead of slowing down the reader. Every row is passed on to the next sink as well, a {@link RejectLog}
+ * by default, which keeps the counts per reason.
+ */
+public class CSVQuarantineSink implements RejectSink, Closeable {
+
+    private static final Logger logger = LogManager.getLogger(CSVQuarantineSink.class);
+
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final Rejected END = new Rejected(null, null, null);
+
+    private final Path file;
+    private final RejectSink next;
+    private final BlockingQueue<Rejected> queue;
+    private final Thread writer;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile IOException failure;
+    // Guards closed, so no row is offered once close has started to queue the end marker
+    private final Object offerLock = new Object();
+    private boolean closed;
+
+    public CSVQuarantineSink(Path file) {
+        this(file, DEFAULT_CAPACITY, new RejectLog());
+    }
+
+    /**
+     * @param capacity rows that may wait for the writer before further rows are dropped
+     * @param next sink every rejected row is passed on to, null for none
+     */
+    public CSVQuarantineSink(Path file, int capacity, RejectSink next) {
+        if (file == null) {
+            throw new IllegalArgumentException("File path cannot be null or empty");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.file = file;
+        this.next = next;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::drain, "quarantine-" + file.getFileName());
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void reject(String[] columns, IndexedRow row, MappingResult<?> result) {
+
+        if (next != null) {
+            next.reject(columns, row, result);
+        }
+
+        if (failure != null) {
+            dropped.increment();
+            return;
+        }
+
+        String[] fields = new String[columns.length];
+        for (int i = 0; i < fields.length; i++) {
+            CharSequence value = row.get(i);
+            fields[i] = value == null ? null : value.toString();
+        }
+
+        synchronized (offerLock) {
+            if (closed || !queue.offer(new Rejected(columns, fields, result))) {
+                dropped.increment();
+            }
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Writes the queued rows and closes the file. Rows rejected from now on are dropped, so afterwards every
+     * rejected row is counted either as written or as dropped.
+     *
+     * @throws IOException if the quarantine file could not be written
+     */
+    @Override
+    public void close() throws IOException {
+
+        synchronized (offerLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+
+        try {
+            while (writer.isAlive() && !queue.offer(END, 100, TimeUnit.MILLISECONDS)) {
+                // The writer is still busy with a full queue
+            }
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writer.interrupt();
+        }
+
+        // Rows the writer did not take before it stopped, e.g. offered while it failed
+        if (!writer.isAlive()) {
+            List<Rejected> left = new ArrayList<>();
+            queue.drainTo(left);
+            for (Rejected rejected : left) {
+                if (rejected != END) {
+                    dropped.increment();
+                }
+            }
+        }
+
+        logger.info("Quarantined {} rows in {}, dropped {}", getWrittenCount(), file, getDroppedCount());
+        if (next instanceof RejectLog) {
+            ((RejectLog) next).logSummary();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void drain() {
+
+        List<Rejected> batch = new ArrayList<>();
+        int processed = 0;
+
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+             CSVPrinter printer = new CSVPrinter(out, CSVFormat.DEFAULT)) {
+
+            boolean headerWritten = false;
+
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch);
+
+                for (int i = 0; i < batch.size(); i++) {
+                    Rejected rejected = batch.get(i);
+                    if (rejected == END) {
+                        processed = i + 1;
+                        return;
+                    }
+                    if (!headerWritten) {
+                        printer.print("Reason");
+                        printer.print("Column");
+                        printer.print("Value");
+                        printer.printRecord((Object[]) rejected.columns);
+                        headerWritten = true;
+                    }
+                    printer.print(rejected.result.getReason());
+                    printer.print(rejected.result.getColumn());
+                    printer.print(rejected.result.getValue());
+                    printer.printRecord((Object[]) rejected.fields);
+                    written.increment();
+                    processed = i + 1;
+                }
+                batch.clear();
+                processed = 0;
+                printer.flush();
+            }
+
+        } catch (IOException e) {
+            failure = e;
+            logger.error("Failed to write quarantine file " + file, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Rows that can no longer be written, including those queued after a failure
+            queue.drainTo(batch);
+            for (Rejected rejected : batch.subList(processed, batch.size())) {
+                if (rejected != END) {
+                    dropped.increment();
+                }
+            }
+        }
+    }
+
+    private static final class Rejected {
+
+        final String[] columns;
+        final String[] fields;
+        final MappingResult<?> result;
+
+        Rejected(String[] columns, String[] fields, MappingResult<?> result) {
+            this.columns = columns;
+            this.fields = fields;
+            this.result = result;
+        }
+    }
+}
@@ -1,18 +1,36 @@
 package de.bcxp.challenge.adapters.csv;
 
+import de.bcxp.challenge.adapters.ColumnBinding;
+import de.bcxp.challenge.adapters.IndexedRowMapper;
 import de.bcxp.challenge.adapters.RecordReader;
 import de.bcxp.challenge.adapters.RowMapper;
+import de.bcxp.challenge.adapters.RowScanner;
+import de.bcxp.challenge.adapters.RowVisitor;
+import de.bcxp.challenge.adapters.compress.CompressedInput;
 import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.File;
-import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-public class CSVRecordReader<T> implements RecordReader<T> {
+/**
+ * Reads CSV files with the Commons CSV parser. Compressed files are decompressed on the fly, see {@link CompressedInput}.
+ */
+public class CSVRecordReader<T> implements RecordReader<T>, RowScanner {
 
     private final RowMapper<T> rowMapper;
     private final CSVFormat format;
@@ -28,6 +46,43 @@ public class CSVRecordReader<T> implements RecordReader<T> {
     @Override
     public ArrayList<T> readAll(String filePath) {
 
+        Stream<T> rows = stream(filePath);
+
+        try (rows) {
+            return rows.collect(Collectors.toCollection(ArrayList::new));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read CSV file", e);
+        }
+
+    }
+
+    @Override
+    public Stream<T> stream(String filePath) {
+        return stream(open(filePath));
+    }
+
+    /**
+     * Pushes the rows to the visitor by their bound positions; the row mapper of this reader is not used.
+     */
+    @Override
+    public void scan(String filePath, RowVisitor visitor) {
+
+        CSVParser parser = parse(open(filePath));
+
+        try (parser) {
+            CSVRecordRow row = new CSVRecordRow(ColumnBinding.of(parser.getHeaderNames(), visitor.columns()));
+            for (CSVRecord record : parser) {
+                visitor.visit(row.set(record));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read CSV file", e);
+        }
+
+        logger.info("End reading CSV file");
+    }
+
+    private Reader open(String filePath) {
+
         if (filePath == null || filePath.isEmpty()) {
             throw new IllegalArgumentException("File path cannot be null or empty");
         }
@@ -36,32 +91,86 @@ public class CSVRecordReader<T> implements RecordReader<T> {
             throw new IllegalArgumentException("File does not exist: " + filePath);
         }
 
-        try (Reader readerToUse = new FileReader(filePath)) {
-
-            ArrayList<T> results = new ArrayList<>();
+        Reader readerToUse;
+        try {
+            readerToUse = new InputStreamReader(CompressedInput.open(Paths.get(filePath)), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read CSV file", e);
+        }
 
-            logger.info("Start reading CSV file {}", filePath);
-            Iterable<CSVRecord> records = format.parse(readerToUse);
+        logger.info("Start reading CSV file {}", filePath);
+        return readerToUse;
+    }
 
-            logger.info("Mapping rows");
+    @Override
+    public Stream<T> stream(InputStream inputStream) {
 
-            for(CSVRecord record : records) {
-                T mappedRow = this.rowMapper.mapRow(record.toMap());
-                if (mappedRow != null) {
-                    results.add(mappedRow);
-                }else{
-                    logger.warn("Skipping row " + record.toString());
-                }
-            }
+        if (inputStream == null) {
+            throw new IllegalArgumentException("Input stream cannot be null");
+        }
 
-            logger.info("End reading CSV file");
+        logger.info("Start reading CSV input stream");
+        return stream(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
 
-            return results;
+    private Stream<T> stream(Reader readerToUse) {
+
+        CSVParser parser = parse(readerToUse);
+
+        return parser.stream()
+                .map(recordMapping(parser))
+                .filter(Objects::nonNull)
+                .onClose(() -> {
+                    try {
+                        parser.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    logger.info("End reading CSV file");
+                });
+    }
 
-        } catch (Exception e) {
+    private CSVParser parse(Reader readerToUse) {
+        try {
+            return format.parse(readerToUse);
+        } catch (IOException e) {
+            closeQuietly(readerToUse);
             throw new RuntimeException("Failed to read CSV file", e);
         }
+    }
+
+    /**
+     * Indexed mappers read the fields of a record by the positions bound once from the parser header,
+     * all other mappers get the record as map.
+     */
+    @SuppressWarnings("unchecked")
+    private Function<CSVRecord, T> recordMapping(CSVParser parser) {
+
+        Function<CSVRecord, T> mapping;
+
+        if (rowMapper instanceof IndexedRowMapper) {
+            IndexedRowMapper<T> indexedRowMapper = (IndexedRowMapper<T>) rowMapper;
+            CSVRecordRow row = new CSVRecordRow(ColumnBinding.of(parser.getHeaderNames(), indexedRowMapper.columns()));
+            mapping = record -> indexedRowMapper.mapIndexedRow(row.set(record));
+        } else {
+            mapping = record -> rowMapper.mapRow(record.toMap());
+        }
 
+        return record -> {
+            T mappedRow = mapping.apply(record);
+            if (mappedRow == null) {
+                logger.debug("Skipping row {}", record);
+            }
+            return mappedRow;
+        };
+    }
+
+    private static void closeQuietly(Reader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close reader", e);
+        }
     }
 
 }
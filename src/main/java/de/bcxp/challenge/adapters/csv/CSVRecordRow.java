@@ -0,0 +1,39 @@
+package de.bcxp.challenge.adapters.csv;
+
+import de.bcxp.challenge.adapters.ColumnBinding;
+import de.bcxp.challenge.adapters.IndexedRow;
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * {@link IndexedRow} over a commons-csv record, reading fields by their bound position.
+ */
+final class CSVRecordRow implements IndexedRow {
+
+    private final ColumnBinding binding;
+    private CSVRecord record;
+
+    CSVRecordRow(ColumnBinding binding) {
+        this.binding = binding;
+    }
+
+    CSVRecordRow set(CSVRecord record) {
+        this.record = record;
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return record.size();
+    }
+
+    @Override
+    public CharSequence get(int column) {
+        int position = binding.position(column);
+        return position < 0 || position >= record.size() ? null : record.get(position);
+    }
+
+    @Override
+    public String toString() {
+        return binding.describe(this);
+    }
+}
@@ -0,0 +1,90 @@
+package de.bcxp.challenge.adapters.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Cuts an input into chunks that only contain whole records, so every chunk can be tokenized on its own and on
+ * any thread. A chunk ends after the last line break outside of quotes, the rest is carried over to the next one.
+ * Like the splitting of the {@link ParallelCSVRecordReader}, this relies on quote characters only appearing as
+ * field enclosures or escaped within them. A record longer than the chunk size grows the chunk.
+ */
+final class ChunkReader implements Closeable {
+
+    private final InputStream input;
+    private final int chunkSize;
+    private final int quote;
+    private byte[] buffer;
+    private int filled;
+    private boolean endOfInput;
+
+    /**
+     * @param quote the quote character, or -1 if the format has none
+     */
+    ChunkReader(InputStream input, int chunkSize, int quote) {
+        this.input = input;
+        this.chunkSize = chunkSize;
+        this.quote = quote;
+        this.buffer = new byte[chunkSize];
+    }
+
+    /**
+     * @return the next chunk between position 0 and its limit, or null at the end of the input
+     */
+    ByteBuffer next() throws IOException {
+
+        while (true) {
+            while (!endOfInput && filled < buffer.length) {
+                int read = input.read(buffer, filled, buffer.length - filled);
+                if (read < 0) {
+                    endOfInput = true;
+                } else {
+                    filled += read;
+                }
+            }
+
+            if (filled == 0) {
+                return null;
+            }
+
+            int end = endOfInput ? filled : lastRecordEnd();
+            if (end == 0) {
+                // Not a single whole record yet
+                buffer = Arrays.copyOf(buffer, ByteWindow.grow(buffer.length));
+                continue;
+            }
+
+            // The chunk keeps its array, the rest moves to a new one because the chunk is read on other threads
+            byte[] chunk = buffer;
+            buffer = new byte[Math.max(chunkSize, filled - end)];
+            System.arraycopy(chunk, end, buffer, 0, filled - end);
+            filled -= end;
+            return ByteBuffer.wrap(chunk, 0, end);
+        }
+    }
+
+    /**
+     * @return the offset after the last line break outside of quotes, or 0 if there is none
+     */
+    private int lastRecordEnd() {
+        boolean inQuotes = false;
+        int end = 0;
+        for (int i = 0; i < filled; i++) {
+            byte b = buffer[i];
+            if (b == quote) {
+                inQuotes = !inQuotes;
+            } else if (b == '\n' && !inQuotes) {
+                end = i + 1;
+            }
+        }
+        return end;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
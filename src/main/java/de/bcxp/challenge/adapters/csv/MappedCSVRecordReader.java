@@ -0,0 +1,206 @@
+package de.bcxp.challenge.adapters.csv;
+
+import de.bcxp.challenge.adapters.ColumnBinding;
+import de.bcxp.challenge.adapters.RecordReader;
+import de.bcxp.challenge.adapters.RowMapper;
+import de.bcxp.challenge.adapters.RowScanner;
+import de.bcxp.challenge.adapters.RowVisitor;
+import de.bcxp.challenge.adapters.compress.CompressedInput;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Alternative to {@link CSVRecordReader} that memory maps the file and tokenizes it directly on bytes with the
+ * {@link CSVByteTokenizer} instead of decoding it to characters and parsing it with commons-csv.
+ * The input is expected to be UTF-8 encoded. Delimiter, quote character, header and header skipping are taken from
+ * the given CSVFormat, other format options are not supported.
+ * Compressed files are decompressed on the fly and read through a buffer instead, see {@link CompressedInput}.
+ */
+public class MappedCSVRecordReader<T> implements RecordReader<T>, RowScanner {
+
+    private static final int DEFAULT_WINDOW_SIZE = 256 * 1024 * 1024;
+    private static final int DEFAULT_STREAM_BUFFER_SIZE = 1024 * 1024;
+
+    private final RowMapper<T> rowMapper;
+    private final CSVFormat format;
+    private final int windowSize;
+
+    private static final Logger logger = LogManager.getLogger(MappedCSVRecordReader.class);
+
+    public MappedCSVRecordReader(RowMapper<T> rowMapper, CSVFormat format) {
+        this(rowMapper, format, DEFAULT_WINDOW_SIZE);
+    }
+
+    MappedCSVRecordReader(RowMapper<T> rowMapper, CSVFormat format, int windowSize) {
+        // Fail fast on formats the byte tokenizer cannot handle
+        CSVByteTokenizer.forFormat(format);
+        this.rowMapper = rowMapper;
+        this.format = format;
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public ArrayList<T> readAll(String filePath) {
+
+        Stream<T> rows = stream(filePath);
+
+        try (rows) {
+            return rows.collect(Collectors.toCollection(ArrayList::new));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read CSV file", e);
+        }
+    }
+
+    @Override
+    public Stream<T> stream(String filePath) {
+        return stream(open(filePath));
+    }
+
+    /**
+     * Pushes the rows to the visitor by their bound positions, numbers can be parsed straight from the mapped bytes.
+     * The row mapper of this reader is not used.
+     */
+    @Override
+    public void scan(String filePath, RowVisitor visitor) {
+
+        ByteWindow window = open(filePath);
+
+        try (window) {
+            ByteRecordCursor cursor = new ByteRecordCursor(window, CSVByteTokenizer.forFormat(format));
+            String[] header = cursor.readHeader(format);
+            ByteRecordRow row = new ByteRecordRow(ColumnBinding.of(Arrays.asList(header), visitor.columns()));
+            while (cursor.next()) {
+                visitor.visit(row.set(cursor.record()));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read CSV file", e);
+        }
+
+        logger.info("End reading CSV file");
+    }
+
+    private ByteWindow open(String filePath) {
+
+        if (filePath == null || filePath.isEmpty()) {
+            throw new IllegalArgumentException("File path cannot be null or empty");
+        }
+
+        if (!(new File(filePath).exists())) {
+            throw new IllegalArgumentException("File does not exist: " + filePath);
+        }
+
+        logger.info("Start reading CSV file {}", filePath);
+
+        try {
+            Path path = Paths.get(filePath);
+            if (CompressedInput.isCompressed(path)) {
+                // Compressed bytes cannot be mapped, the decompressed stream is parsed through a buffer instead
+                return new ByteWindow.Buffered(Channels.newChannel(CompressedInput.open(path)), DEFAULT_STREAM_BUFFER_SIZE);
+            }
+
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                return new ByteWindow.Mapped(channel, 0, channel.size(), windowSize);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read CSV file", e);
+        }
+    }
+
+    @Override
+    public Stream<T> stream(InputStream inputStream) {
+
+        if (inputStream == null) {
+            throw new IllegalArgumentException("Input stream cannot be null");
+        }
+
+        logger.info("Start reading CSV input stream");
+
+        try {
+            return stream(new ByteWindow.Buffered(Channels.newChannel(inputStream), DEFAULT_STREAM_BUFFER_SIZE));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read CSV input stream", e);
+        }
+    }
+
+    private Stream<T> stream(ByteWindow window) {
+
+        RecordIterator iterator = new RecordIterator(window);
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        window.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    logger.info("End reading CSV file");
+                });
+    }
+
+    /**
+     * Pulls records from the window and maps them, skipping rows the mapper rejects.
+     */
+    private final class RecordIterator implements Iterator<T> {
+
+        private final ByteRecordCursor cursor;
+        private final ByteRecordMapping<T> mapping;
+        private T next;
+
+        RecordIterator(ByteWindow window) {
+            this.cursor = new ByteRecordCursor(window, CSVByteTokenizer.forFormat(format));
+            this.mapping = new ByteRecordMapping<>(rowMapper, cursor.readHeader(format));
+        }
+
+        @Override
+        public boolean hasNext() {
+
+            while (next == null) {
+
+                if (!cursor.next()) {
+                    return false;
+                }
+
+                next = mapping.map(cursor.record());
+                if (next == null) {
+                    logger.debug("Skipping row {}", cursor.record());
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T result = next;
+            next = null;
+            return result;
+        }
+    }
+}
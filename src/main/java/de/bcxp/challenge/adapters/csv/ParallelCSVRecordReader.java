@@ -0,0 +1,300 @@
+package de.bcxp.challenge.adapters.csv;
+
+import de.bcxp.challenge.adapters.RecordReader;
+import de.bcxp.challenge.adapters.RowMapper;
+import de.bcxp.challenge.adapters.compress.CompressedInput;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads a CSV file in parallel. The file is split into byte ranges that start and end on record boundaries,
+ * every range is tokenized with the {@link CSVByteTokenizer} and mapped with the row mapper on a ForkJoinPool,
+ * and the results are merged in the order of the file.
+ * <p>
+ * To find the record boundaries without parsing the whole file up front, the file is first cut into raw chunks
+ * and the quote characters of every chunk are counted in parallel. The parity of all quotes in front of a chunk
+ * tells whether the chunk starts inside a quoted field, so the first line break outside of quotes after the chunk
+ * start is a safe place to split. This relies on quote characters only appearing as field enclosures or escaped
+ * within them, as produced by any RFC 4180 writer.
+ * <p>
+ * The row mapper is called from several threads at once and has to be thread safe.
+ * Because results are merged in order, {@link #stream(String)} materializes the whole file;
+ * use {@link MappedCSVRecordReader} to process files in constant memory.
+ * Compressed files are read sequentially, see {@link CompressedInput}.
+ */
+public class ParallelCSVRecordReader<T> implements RecordReader<T> {
+
+    private static final long MIN_CHUNK_SIZE = 1024 * 1024;
+    private static final long MAX_CHUNK_SIZE = 512L * 1024 * 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int SCAN_WINDOW_SIZE = 64 * 1024;
+    private static final int MAX_RANGE_WINDOW_SIZE = 256 * 1024 * 1024;
+
+    private final RowMapper<T> rowMapper;
+    private final CSVFormat format;
+    private final ForkJoinPool pool;
+    private final long chunkSize;
+
+    private static final Logger logger = LogManager.getLogger(ParallelCSVRecordReader.class);
+
+    public ParallelCSVRecordReader(RowMapper<T> rowMapper, CSVFormat format) {
+        this(rowMapper, format, ForkJoinPool.commonPool());
+    }
+
+    public ParallelCSVRecordReader(RowMapper<T> rowMapper, CSVFormat format, ForkJoinPool pool) {
+        this(rowMapper, format, pool, 0);
+    }
+
+    /**
+     * @param chunkSize size of the raw chunks in bytes, 0 to derive it from the file size and the pool parallelism
+     */
+    ParallelCSVRecordReader(RowMapper<T> rowMapper, CSVFormat format, ForkJoinPool pool, long chunkSize) {
+        // Fail fast on formats the byte tokenizer cannot handle
+        CSVByteTokenizer.forFormat(format);
+        this.rowMapper = rowMapper;
+        this.format = format;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public ArrayList<T> readAll(String filePath) {
+
+        if (filePath == null || filePath.isEmpty()) {
+            throw new IllegalArgumentException("File path cannot be null or empty");
+        }
+
+        if (!(new File(filePath).exists())) {
+            throw new IllegalArgumentException("File does not exist: " + filePath);
+        }
+
+        if (isCompressed(filePath)) {
+            return readCompressed(filePath);
+        }
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+
+            logger.info("Start reading CSV file {} in parallel", filePath);
+
+            long size = channel.size();
+            ByteRecordCursor headerCursor = new ByteRecordCursor(
+                    new ByteWindow.Mapped(channel, 0, size, SCAN_WINDOW_SIZE), CSVByteTokenizer.forFormat(format));
+            String[] header = headerCursor.readHeader(format);
+
+            long[] boundaries = split(channel, headerCursor.offset(), size);
+            int ranges = boundaries.length - 1;
+
+            logger.info("Mapping rows of {} ranges", ranges);
+
+            List<List<T>> parts = new ArrayList<>(ranges);
+            for (int i = 0; i < ranges; i++) {
+                parts.add(null);
+            }
+
+            forEachIndex(ranges, i -> parts.set(i, readRange(channel, header, boundaries[i], boundaries[i + 1])));
+
+            int total = 0;
+            for (List<T> part : parts) {
+                total += part.size();
+            }
+
+            ArrayList<T> results = new ArrayList<>(total);
+            for (List<T> part : parts) {
+                results.addAll(part);
+            }
+
+            logger.info("End reading CSV file");
+
+            return results;
+
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read CSV file", e);
+        }
+    }
+
+    @Override
+    public Stream<T> stream(String filePath) {
+        return readAll(filePath).stream();
+    }
+
+    /**
+     * Input streams cannot be split, so they are read sequentially.
+     */
+    @Override
+    public Stream<T> stream(InputStream inputStream) {
+        return new MappedCSVRecordReader<>(rowMapper, format).stream(inputStream);
+    }
+
+    private static boolean isCompressed(String filePath) {
+        try {
+            return CompressedInput.isCompressed(Paths.get(filePath));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read CSV file", e);
+        }
+    }
+
+    /**
+     * Compressed files cannot be split by offset, so they are parsed sequentially while block gzip members are
+     * inflated ahead on the pool of this reader.
+     */
+    private ArrayList<T> readCompressed(String filePath) {
+
+        logger.info("Start reading compressed CSV file {}", filePath);
+
+        try (Stream<T> rows = new MappedCSVRecordReader<>(rowMapper, format)
+                .stream(CompressedInput.open(Paths.get(filePath), pool, pool.getParallelism()))) {
+            return rows.collect(Collectors.toCollection(ArrayList::new));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read CSV file", e);
+        }
+    }
+
+    /**
+     * Splits the data region [dataStart, size) into ranges on record boundaries.
+     *
+     * @return the range boundaries, range i is [boundaries[i], boundaries[i + 1])
+     */
+    long[] split(FileChannel channel, long dataStart, long size) {
+
+        long length = size - dataStart;
+        long chunk = chunkSize > 0
+                ? chunkSize
+                : Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, length / ((long) pool.getParallelism() * CHUNKS_PER_THREAD)));
+        int chunks = (int) Math.max(1, (length + chunk - 1) / chunk);
+
+        long[] rawStarts = new long[chunks + 1];
+        for (int i = 0; i < chunks; i++) {
+            rawStarts[i] = dataStart + i * chunk;
+        }
+        rawStarts[chunks] = size;
+
+        Character quoteCharacter = format.getQuoteCharacter();
+        int quote = quoteCharacter == null ? -1 : (byte) quoteCharacter.charValue();
+
+        // Pass 1: quote parity of every raw chunk
+        boolean[] oddQuotes = new boolean[chunks];
+        if (quote >= 0) {
+            forEachIndex(chunks, i -> oddQuotes[i] = hasOddQuotes(channel, rawStarts[i], rawStarts[i + 1], (byte) quote));
+        }
+
+        boolean[] startsInQuotes = new boolean[chunks];
+        for (int i = 1; i < chunks; i++) {
+            startsInQuotes[i] = startsInQuotes[i - 1] ^ oddQuotes[i - 1];
+        }
+
+        // Pass 2: first record start at or after every raw chunk start
+        long[] recordStarts = new long[chunks + 1];
+        recordStarts[0] = dataStart;
+        recordStarts[chunks] = size;
+        forEachIndex(chunks - 1, i -> recordStarts[i + 1] = findRecordStart(channel, rawStarts[i + 1], size, quote, startsInQuotes[i + 1]));
+
+        // Ranges collapse when a record spans more than one raw chunk
+        return Arrays.stream(recordStarts).distinct().toArray();
+    }
+
+    private static boolean hasOddQuotes(FileChannel channel, long start, long end, byte quote) {
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            int count = 0;
+            for (int i = 0, limit = buffer.limit(); i < limit; i++) {
+                if (buffer.get(i) == quote) {
+                    count++;
+                }
+            }
+            return (count & 1) == 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long findRecordStart(FileChannel channel, long from, long size, int quote, boolean inQuotes) {
+        try {
+            for (long base = from; base < size; base += SCAN_WINDOW_SIZE) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, base, Math.min(SCAN_WINDOW_SIZE, size - base));
+                for (int i = 0, limit = buffer.limit(); i < limit; i++) {
+                    byte b = buffer.get(i);
+                    if (b == quote) {
+                        inQuotes = !inQuotes;
+                    } else if (b == '\n' && !inQuotes) {
+                        return base + i + 1;
+                    }
+                }
+            }
+            return size;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<T> readRange(FileChannel channel, String[] header, long start, long end) {
+        try {
+            int windowSize = (int) Math.min(end - start, MAX_RANGE_WINDOW_SIZE);
+            ByteRecordCursor cursor = new ByteRecordCursor(
+                    new ByteWindow.Mapped(channel, start, end, windowSize), CSVByteTokenizer.forFormat(format));
+            ByteRecordMapping<T> mapping = new ByteRecordMapping<>(rowMapper, header);
+
+            List<T> results = new ArrayList<>();
+            while (cursor.next()) {
+                T mappedRow = mapping.map(cursor.record());
+                if (mappedRow != null) {
+                    results.add(mappedRow);
+                } else {
+                    logger.debug("Skipping row {}", cursor.record());
+                }
+            }
+            return results;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void forEachIndex(int count, IntConsumer body) {
+        if (count > 0) {
+            pool.invoke(new IndexRangeTask(0, count, body));
+        }
+    }
+
+    /**
+     * Runs the body for every index of a range, splitting the range in halves until single indexes remain.
+     */
+    private static final class IndexRangeTask extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+        private final IntConsumer body;
+
+        IndexRangeTask(int from, int to, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                body.accept(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new IndexRangeTask(from, middle, body), new IndexRangeTask(middle, to, body));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package de.bcxp.challenge.adapters.csv;
+
+import de.bcxp.challenge.adapters.pipeline.Pipeline;
+
+/**
+ * Knobs of the {@link PipelinedCSVRecordReader}: the number of threads of every stage, the queue capacity between
+ * the stages and the size of the chunks the input is cut into. Reading is always done by a single thread.
+ */
+public class PipelineSettings {
+
+    /**
+     * Threads splitting chunks into records. Tokenizing is cheap compared to mapping, one thread usually keeps up.
+     */
+    public int tokenizeThreads = 1;
+
+    /**
+     * Threads validating and mapping records, by default all processors but the one reading.
+     */
+    public int mapThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    /**
+     * Threads accumulating the mapped rows of a batch into a partial result.
+     */
+    public int aggregateThreads = 1;
+
+    /**
+     * Batches every queue between two stages can hold before the stage in front of it has to wait.
+     */
+    public int queueCapacity = Pipeline.DEFAULT_QUEUE_CAPACITY;
+
+    /**
+     * Bytes of input per batch, large enough to amortize the hand-offs and small enough to keep all stages busy.
+     */
+    public int chunkSize = 256 * 1024;
+
+    /**
+     * @throws IllegalArgumentException if a thread count, the queue capacity or the chunk size is below 1
+     */
+    public void validate() {
+        checkPositive("Tokenize threads", tokenizeThreads);
+        checkPositive("Map threads", mapThreads);
+        checkPositive("Aggregate threads", aggregateThreads);
+        checkPositive("Queue capacity", queueCapacity);
+        checkPositive("Chunk size", chunkSize);
+    }
+
+    private static void checkPositive(String name, int value) {
+        if (value < 1) {
+            throw new IllegalArgumentException(name + " must be at least 1: " + value);
+        }
+    }
+}
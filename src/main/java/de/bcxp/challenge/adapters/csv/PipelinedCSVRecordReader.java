@@ -0,0 +1,174 @@
+package de.bcxp.challenge.adapters.csv;
+
+import de.bcxp.challenge.adapters.RecordReader;
+import de.bcxp.challenge.adapters.RowMapper;
+import de.bcxp.challenge.adapters.compress.CompressedInput;
+import de.bcxp.challenge.adapters.pipeline.Pipeline;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads a CSV file as a {@link Pipeline} of stages on their own threads, so reading the file overlaps with the
+ * CPU work and every stage can be given as many threads as it needs:
+ * <ol>
+ *     <li>read: cuts the input into chunks of whole records, see {@link ChunkReader}</li>
+ *     <li>tokenize: splits a chunk into records with the {@link CSVByteTokenizer}</li>
+ *     <li>map: validates and maps the records of a chunk with the row mapper</li>
+ *     <li>aggregate: accumulates the mapped rows of a chunk into a partial result of the collector</li>
+ *     <li>sink: combines the partial results in file order and finishes the result, on the calling thread</li>
+ * </ol>
+ * Because partial results are combined in file order, any collector gives the same result as on a sequential
+ * stream, e.g. {@code Collectors.minBy} keeps the first of equal rows. The row mapper and the collector's
+ * accumulator are called from several threads at once and have to be thread safe, on different partial results.
+ * <p>
+ * The input is expected to be UTF-8 encoded, compressed files are decompressed by the read stage, see
+ * {@link CompressedInput}. Delimiter, quote character, header and header skipping are taken from the format.
+ */
+public class PipelinedCSVRecordReader<T> implements RecordReader<T> {
+
+    private final RowMapper<T> rowMapper;
+    private final CSVFormat format;
+    private final PipelineSettings settings;
+
+    private static final Logger logger = LogManager.getLogger(PipelinedCSVRecordReader.class);
+
+    public PipelinedCSVRecordReader(RowMapper<T> rowMapper, CSVFormat format) {
+        this(rowMapper, format, new PipelineSettings());
+    }
+
+    public PipelinedCSVRecordReader(RowMapper<T> rowMapper, CSVFormat format, PipelineSettings settings) {
+        // Fail fast on formats the byte tokenizer cannot handle
+        CSVByteTokenizer.forFormat(format);
+        settings.validate();
+        this.rowMapper = rowMapper;
+        this.format = format;
+        this.settings = settings;
+    }
+
+    @Override
+    public ArrayList<T> readAll(String filePath) {
+        return collect(filePath, Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Like {@link ParallelCSVRecordReader#stream(String)}, the rows are collected before the stream starts.
+     */
+    @Override
+    public Stream<T> stream(String filePath) {
+        return readAll(filePath).stream();
+    }
+
+    @Override
+    public Stream<T> stream(InputStream inputStream) {
+        return collect(inputStream, Collectors.toCollection(ArrayList::new)).stream();
+    }
+
+    /**
+     * Reads the file and reduces its rows with the collector while it is read.
+     */
+    public <A, R> R collect(String filePath, Collector<? super T, A, R> collector) {
+
+        if (filePath == null || filePath.isEmpty()) {
+            throw new IllegalArgumentException("File path cannot be null or empty");
+        }
+
+        if (!(new File(filePath).exists())) {
+            throw new IllegalArgumentException("File does not exist: " + filePath);
+        }
+
+        InputStream input;
+        try {
+            input = CompressedInput.open(Paths.get(filePath));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read CSV file", e);
+        }
+
+        logger.info("Start reading CSV file {} in a pipeline", filePath);
+        return collect(input, collector);
+    }
+
+    /**
+     * Reads the input stream and reduces its rows with the collector while it is read. Closes the input stream.
+     */
+    public <A, R> R collect(InputStream inputStream, Collector<? super T, A, R> collector) {
+
+        if (inputStream == null) {
+            throw new IllegalArgumentException("Input stream cannot be null");
+        }
+
+        Character quoteCharacter = format.getQuoteCharacter();
+        int quote = quoteCharacter == null ? -1 : (byte) quoteCharacter.charValue();
+
+        try (ChunkReader chunks = new ChunkReader(inputStream, settings.chunkSize, quote)) {
+
+            ByteBuffer first = chunks.next();
+            String[] header = new String[0];
+            if (first != null) {
+                ByteRecordCursor cursor = new ByteRecordCursor(new ByteWindow.Fixed(first), CSVByteTokenizer.forFormat(format));
+                header = cursor.readHeader(format);
+                first.position((int) cursor.offset());
+            }
+            String[] columns = header;
+
+            Supplier<A> supplier = collector.supplier();
+            BiConsumer<A, ? super T> accumulator = collector.accumulator();
+            BinaryOperator<A> combiner = collector.combiner();
+            List<A> result = new ArrayList<>(1);
+
+            Pipeline.<ByteBuffer>from("read", emitter -> {
+                        ByteBuffer chunk = first;
+                        while (chunk != null) {
+                            emitter.accept(chunk);
+                            chunk = chunks.next();
+                        }
+                    })
+                    .then("tokenize", settings.tokenizeThreads, () -> {
+                        CSVByteTokenizer tokenizer = CSVByteTokenizer.forFormat(format);
+                        ByteRecord record = new ByteRecord();
+                        return chunk -> RecordBatch.tokenize(chunk, tokenizer, record);
+                    })
+                    .then("map", settings.mapThreads, () -> {
+                        ByteRecordMapping<T> mapping = new ByteRecordMapping<>(rowMapper, columns);
+                        ByteRecord record = new ByteRecord();
+                        return batch -> batch.map(mapping, record);
+                    })
+                    .then("aggregate", settings.aggregateThreads, () -> rows -> {
+                        A partial = supplier.get();
+                        for (T row : rows) {
+                            accumulator.accept(partial, row);
+                        }
+                        return partial;
+                    })
+                    .queueCapacity(settings.queueCapacity)
+                    .into(partial -> {
+                        if (result.isEmpty()) {
+                            result.add(partial);
+                        } else {
+                            result.set(0, combiner.apply(result.get(0), partial));
+                        }
+                    });
+
+            logger.info("End reading CSV file");
+
+            return collector.finisher().apply(result.isEmpty() ? supplier.get() : result.get(0));
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read CSV file", e);
+        }
+    }
+}
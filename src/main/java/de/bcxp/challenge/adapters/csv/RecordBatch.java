@@ -0,0 +1,115 @@
+package de.bcxp.challenge.adapters.csv;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The tokenized records of one chunk: only the field boundaries, the bytes stay in the chunk. Unlike a
+ * {@link ByteRecord}, which is reused for the next record, a batch keeps all records of the chunk, so tokenizing
+ * and mapping can run on different threads.
+ */
+final class RecordBatch {
+
+    private static final Logger logger = LogManager.getLogger(RecordBatch.class);
+
+    private final ByteBuffer buffer;
+    private byte quote;
+    private int size;
+    private int[] recordStarts;
+    private int[] recordEnds;
+    private int[] firstFields;
+    private int fieldCount;
+    private int[] fieldStarts;
+    private int[] fieldEnds;
+    private byte[] fieldFlags;
+
+    private RecordBatch(ByteBuffer buffer, int expectedRecords, int expectedFields) {
+        this.buffer = buffer;
+        this.recordStarts = new int[expectedRecords];
+        this.recordEnds = new int[expectedRecords];
+        this.firstFields = new int[expectedRecords + 1];
+        this.fieldStarts = new int[expectedFields];
+        this.fieldEnds = new int[expectedFields];
+        this.fieldFlags = new byte[expectedFields];
+    }
+
+    /**
+     * Tokenizes the chunk from its position to its limit.
+     *
+     * @param record reused for every record
+     */
+    static RecordBatch tokenize(ByteBuffer chunk, CSVByteTokenizer tokenizer, ByteRecord record) {
+
+        tokenizer.reset(chunk, chunk.position(), chunk.limit(), true);
+
+        // Sized for records of about 64 bytes, a batch grows like a list otherwise
+        int expectedRecords = Math.max(16, chunk.remaining() / 64);
+        RecordBatch batch = new RecordBatch(chunk, expectedRecords, expectedRecords * 8);
+        while (tokenizer.next(record)) {
+            batch.add(record);
+        }
+        return batch;
+    }
+
+    private void add(ByteRecord record) {
+
+        if (size + 1 == firstFields.length) {
+            int newLength = recordStarts.length * 2;
+            recordStarts = Arrays.copyOf(recordStarts, newLength);
+            recordEnds = Arrays.copyOf(recordEnds, newLength);
+            firstFields = Arrays.copyOf(firstFields, newLength + 1);
+        }
+        if (fieldCount + record.size() > fieldStarts.length) {
+            int newLength = Math.max(fieldStarts.length * 2, fieldCount + record.size());
+            fieldStarts = Arrays.copyOf(fieldStarts, newLength);
+            fieldEnds = Arrays.copyOf(fieldEnds, newLength);
+            fieldFlags = Arrays.copyOf(fieldFlags, newLength);
+        }
+
+        quote = record.quote();
+        recordStarts[size] = record.recordStart();
+        recordEnds[size] = record.recordEnd();
+        for (int i = 0; i < record.size(); i++) {
+            fieldStarts[fieldCount] = record.fieldStart(i);
+            fieldEnds[fieldCount] = record.fieldEnd(i);
+            fieldFlags[fieldCount] = record.fieldFlags(i);
+            fieldCount++;
+        }
+        size++;
+        firstFields[size] = fieldCount;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Maps every record of the batch, rows the mapper skips are left out.
+     *
+     * @param record reused for every record
+     */
+    <T> List<T> map(ByteRecordMapping<T> mapping, ByteRecord record) {
+
+        List<T> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            record.begin(buffer, quote, recordStarts[i]);
+            for (int field = firstFields[i]; field < firstFields[i + 1]; field++) {
+                record.addField(fieldStarts[field], fieldEnds[field], fieldFlags[field]);
+            }
+            record.finish(recordEnds[i]);
+
+            T mappedRow = mapping.map(record);
+            if (mappedRow != null) {
+                rows.add(mappedRow);
+            } else {
+                logger.debug("Skipping row {}", record);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,67 @@
+package de.bcxp.challenge.adapters.dataset;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One file of a {@link PartitionedDataset} with the partition values encoded in its path: every directory named
+ * key=value between the dataset root and the file adds a value, e.g. station=Berlin/month=2024-01/data.csv.
+ */
+public final class Partition {
+
+    private final Path path;
+    private final Map<String, String> values;
+
+    Partition(Path path, Map<String, String> values) {
+        this.path = path;
+        this.values = Collections.unmodifiableMap(new LinkedHashMap<>(values));
+    }
+
+    /**
+     * Parses the key=value directories of a path relative to the dataset root. Other directories are ignored.
+     */
+    static Partition of(Path root, Path file) {
+        Map<String, String> values = new LinkedHashMap<>();
+        Path directory = root.relativize(file).getParent();
+        if (directory != null) {
+            for (Path segment : directory) {
+                String name = segment.toString();
+                int separator = name.indexOf('=');
+                if (separator > 0) {
+                    values.put(name.substring(0, separator), name.substring(separator + 1));
+                }
+            }
+        }
+        return new Partition(file, values);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return the partition values in path order
+     */
+    public Map<String, String> getValues() {
+        return values;
+    }
+
+    /**
+     * @return the value of the partition key, or null if the path does not contain the key
+     */
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    @Override
+    public String toString() {
+        if (values.isEmpty()) {
+            return path.toString();
+        }
+        StringBuilder builder = new StringBuilder();
+        values.forEach((key, value) -> builder.append(builder.length() == 0 ? "" : "/").append(key).append('=').append(value));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,212 @@
+package de.bcxp.challenge.adapters.dataset;
+
+import de.bcxp.challenge.query.Dataset;
+import de.bcxp.challenge.query.UnionDataset;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A set of files under one root directory, read as one logical dataset. Directories named key=value, as in
+ * station=Berlin/month=2024-01/data.csv, are partition keys: every file becomes a {@link Partition} with those values,
+ * and files can be pruned by them before anything is read. A regular file as root is a dataset with one partition.
+ * <p>
+ * The files are read concurrently, but never more at once than the given number of concurrent reads, so tens of
+ * thousands of files neither open tens of thousands of descriptors nor overload the disk. Results are always
+ * returned in partition order, which is the order of the paths, so repeated runs give the same results.
+ * Files and directories whose names start with '.' or '_', like checksums and success markers, are ignored.
+ */
+public class PartitionedDataset {
+
+    public static final int DEFAULT_CONCURRENT_READS = 16;
+
+    private static final Logger logger = LogManager.getLogger(PartitionedDataset.class);
+
+    private final Path root;
+    private final List<Partition> partitions;
+
+    /**
+     * Lists all files under the root.
+     */
+    public PartitionedDataset(Path root) {
+        this(root, "**");
+    }
+
+    /**
+     * Lists the files under the root whose path relative to the root matches the glob, e.g. {@code **.csv}.
+     */
+    public PartitionedDataset(Path root, String glob) {
+
+        if (root == null) {
+            throw new IllegalArgumentException("Dataset root cannot be null");
+        }
+        if (!Files.exists(root)) {
+            throw new IllegalArgumentException("Dataset root does not exist: " + root);
+        }
+
+        this.root = root;
+        this.partitions = Files.isDirectory(root)
+                ? Collections.unmodifiableList(list(root, root.getFileSystem().getPathMatcher("glob:" + glob)))
+                : List.of(Partition.of(root, root));
+        logger.debug("Found {} partitions under {}", partitions.size(), root);
+    }
+
+    private PartitionedDataset(Path root, List<Partition> partitions) {
+        this.root = root;
+        this.partitions = Collections.unmodifiableList(partitions);
+    }
+
+    private static List<Partition> list(Path root, PathMatcher matcher) {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .filter(file -> !isHidden(root.relativize(file)))
+                    .filter(file -> matcher.matches(root.relativize(file)))
+                    .sorted()
+                    .map(file -> Partition.of(root, file))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list dataset " + root, e);
+        }
+    }
+
+    private static boolean isHidden(Path relativePath) {
+        for (Path segment : relativePath) {
+            String name = segment.toString();
+            if (name.startsWith(".") || name.startsWith("_")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public List<Partition> getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * @return the dataset with only the partitions that match, without reading any file
+     */
+    public PartitionedDataset where(Predicate<Partition> predicate) {
+        return new PartitionedDataset(root, partitions.stream().filter(predicate).collect(Collectors.toList()));
+    }
+
+    /**
+     * @return the dataset with only the partitions whose key has the given value
+     */
+    public PartitionedDataset whereEquals(String key, String value) {
+        return where(partition -> Objects.equals(partition.get(key), value));
+    }
+
+    /**
+     * Reads every partition with the reader, with at most {@link #DEFAULT_CONCURRENT_READS} at once.
+     *
+     * @see #readEach(Function, int)
+     */
+    public <R> List<R> readEach(Function<Partition, R> reader) {
+        return readEach(reader, DEFAULT_CONCURRENT_READS);
+    }
+
+    /**
+     * Reads every partition with the reader, e.g. into a table or into a partial aggregate of the partition.
+     * The reader is called concurrently from several threads. The first failure cancels the remaining reads
+     * and is rethrown.
+     *
+     * @param maxConcurrentReads upper bound for the number of partitions read at once
+     * @return the results in partition order
+     */
+    public <R> List<R> readEach(Function<Partition, R> reader, int maxConcurrentReads) {
+
+        if (maxConcurrentReads < 1) {
+            throw new IllegalArgumentException("Concurrent reads must be at least 1: " + maxConcurrentReads);
+        }
+        if (partitions.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        int threads = Math.min(maxConcurrentReads, partitions.size());
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "partition-reader-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            CompletionService<R> completion = new ExecutorCompletionService<>(executor);
+            List<Future<R>> futures = new ArrayList<>(partitions.size());
+            for (Partition partition : partitions) {
+                futures.add(completion.submit(() -> reader.apply(partition)));
+            }
+
+            // Wait in completion order, so a failure is noticed as soon as it happens
+            for (int i = 0; i < futures.size(); i++) {
+                completion.take().get();
+            }
+
+            List<R> results = new ArrayList<>(futures.size());
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Failed to read partition", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while reading partitions", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Loads every partition with the loader and merges them into one queryable dataset, with the partition keys
+     * as String columns in front of the columns of the loaded datasets.
+     *
+     * @throws IllegalStateException if no partition is left to load
+     */
+    public Dataset load(Function<Partition, ? extends Dataset> loader, int maxConcurrentReads) {
+
+        if (partitions.isEmpty()) {
+            throw new IllegalStateException("No partitions to load under " + root);
+        }
+
+        List<? extends Dataset> parts = readEach(loader, maxConcurrentReads);
+        List<Map<String, String>> values = partitions.stream()
+                .map(Partition::getValues)
+                .collect(Collectors.toList());
+        return new UnionDataset(parts, values);
+    }
+}
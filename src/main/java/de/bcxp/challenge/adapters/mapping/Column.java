@@ -0,0 +1,44 @@
+package de.bcxp.challenge.adapters.mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a public field of a {@link MappedRow} entity to a CSV column. Fields are parsed and validated in the order
+ * they are declared; the first violation rejects the row.
+ * <p>
+ * int, long and double fields must hold a number in English format, String fields must not be blank and are
+ * trimmed. Range constraints only apply to numeric fields.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.CLASS)
+public @interface Column {
+
+    /**
+     * @return the column name in the CSV header
+     */
+    String value();
+
+    /**
+     * @return the smallest accepted value
+     */
+    double min() default Double.NEGATIVE_INFINITY;
+
+    /**
+     * @return the largest accepted value
+     */
+    double max() default Double.POSITIVE_INFINITY;
+
+    /**
+     * @return true if the value must be greater than {@link #min()}, not equal to it
+     */
+    boolean exclusiveMin() default false;
+
+    /**
+     * @return the name of another numeric field this value must not be less than, empty for none.
+     * Checked as soon as both fields are parsed, a violation is reported for this column.
+     */
+    String notLessThan() default "";
+}
@@ -0,0 +1,16 @@
+package de.bcxp.challenge.adapters.mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an entity whose {@link Column} fields are read from CSV rows. The {@link RowMapperProcessor} generates
+ * a row mapper for it at build time, named after the entity with the suffix RowMapper, in the package of the entity.
+ * The entity needs a public no-argument constructor.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.CLASS)
+public @interface MappedRow {
+}
@@ -0,0 +1,348 @@
+package de.bcxp.challenge.adapters.mapping;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a row mapper for every {@link MappedRow} entity.
+ * <p>
+ * The generated mapper extends ConfigurableRowMapper and reads the {@link Column} fields by fixed positions in
+ * straight-line code: one parse, one range check and one assignment per field, without reflection or lookups at
+ * runtime. Its protected mapInto method fills a given entity, so hand-written subclasses can add loaders that reuse
+ * a scratch entity.
+ * <p>
+ * Registered as a service, so javac runs it on every compilation that has it on the class path. The build compiles
+ * this package in a separate execution first.
+ */
+@SupportedAnnotationTypes("de.bcxp.challenge.adapters.mapping.MappedRow")
+public class RowMapperProcessor extends AbstractProcessor {
+
+    static final String SUFFIX = "RowMapper";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment) {
+
+        for (Element element : roundEnvironment.getElementsAnnotatedWith(MappedRow.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@MappedRow is only supported on classes");
+                continue;
+            }
+            TypeElement entity = (TypeElement) element;
+            List<Field> fields = fields(entity);
+            if (fields != null) {
+                write(entity, fields);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the column fields in declaration order, or null if the entity is not valid
+     */
+    private List<Field> fields(TypeElement entity) {
+
+        boolean valid = hasPublicNoArgumentConstructor(entity);
+        if (!valid) {
+            error(entity, "@MappedRow entity needs a public no-argument constructor");
+        }
+
+        List<Field> fields = new ArrayList<>();
+        Map<String, Field> byName = new HashMap<>();
+
+        for (Element member : entity.getEnclosedElements()) {
+            Column column = member.getAnnotation(Column.class);
+            if (column == null || member.getKind() != ElementKind.FIELD) {
+                continue;
+            }
+
+            Set<Modifier> modifiers = member.getModifiers();
+            if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)) {
+                error(member, "@Column fields must be public, not static and not final");
+                valid = false;
+                continue;
+            }
+
+            FieldType type = FieldType.of((VariableElement) member);
+            if (type == null) {
+                error(member, "@Column fields must be int, long, double or String");
+                valid = false;
+                continue;
+            }
+            if (type == FieldType.STRING && (hasRange(column) || !column.notLessThan().isEmpty())) {
+                error(member, "Range constraints are only supported on numeric fields");
+                valid = false;
+            }
+            if (column.min() > column.max()) {
+                error(member, "min must not be greater than max");
+                valid = false;
+            }
+
+            Field field = new Field(member, member.getSimpleName().toString(), column, type, fields.size());
+            fields.add(field);
+            byName.put(field.name, field);
+        }
+
+        if (fields.isEmpty()) {
+            if (valid) {
+                error(entity, "@MappedRow entity has no @Column fields");
+            }
+            return null;
+        }
+
+        for (Field field : fields) {
+            String other = field.column.notLessThan();
+            if (other.isEmpty()) {
+                continue;
+            }
+            Field bound = byName.get(other);
+            if (bound == null || bound == field || bound.type == FieldType.STRING) {
+                error(field.element, "notLessThan must name another numeric @Column field: " + other);
+                valid = false;
+            } else {
+                field.notLessThan = bound;
+            }
+        }
+
+        return valid ? fields : null;
+    }
+
+    private void write(TypeElement entity, List<Field> fields) {
+
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(entity);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String entityName = entity.getSimpleName().toString();
+        String mapperName = entityName + SUFFIX;
+
+        StringBuilder out = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+        out.append("import de.bcxp.challenge.adapters.ConfigurableRowMapper;\n")
+                .append("import de.bcxp.challenge.adapters.FieldParser;\n")
+                .append("import de.bcxp.challenge.adapters.IndexedRow;\n")
+                .append("import de.bcxp.challenge.adapters.MappingResult;\n")
+                .append("import de.bcxp.challenge.adapters.RejectReason;\n")
+                .append("import de.bcxp.challenge.adapters.RejectSink;\n")
+                .append("\n")
+                .append("import javax.annotation.processing.Generated;\n\n");
+
+        out.append("/**\n")
+                .append(" * Row mapper for {@link ").append(entityName).append("}, generated from its @Column fields.\n")
+                .append(" */\n")
+                .append("@Generated(\"").append(RowMapperProcessor.class.getName()).append("\")\n")
+                .append("public class ").append(mapperName).append(" extends ConfigurableRowMapper<").append(entityName).append("> {\n\n");
+
+        out.append("    private static final String[] COLUMNS = {\n");
+        for (Field field : fields) {
+            out.append("            ").append(stringLiteral(field.column.value()))
+                    .append(field.index < fields.size() - 1 ? ",\n" : "\n");
+        }
+        out.append("    };\n\n");
+
+        out.append("    public ").append(mapperName).append("(boolean skipInvalidRows) {\n")
+                .append("        super(skipInvalidRows);\n")
+                .append("    }\n\n")
+                .append("    public ").append(mapperName).append("(boolean skipInvalidRows, RejectSink rejectSink) {\n")
+                .append("        super(skipInvalidRows, rejectSink);\n")
+                .append("    }\n\n");
+
+        out.append("    @Override\n")
+                .append("    public String[] columns() {\n")
+                .append("        return COLUMNS.clone();\n")
+                .append("    }\n\n");
+
+        out.append("    @Override\n")
+                .append("    public MappingResult<").append(entityName).append("> tryMapIndexedRow(IndexedRow row) {\n")
+                .append("        ").append(entityName).append(" entity = new ").append(entityName).append("();\n")
+                .append("        MappingResult<").append(entityName).append("> rejection = mapInto(row, entity);\n")
+                .append("        return rejection != null ? rejection : MappingResult.accepted(entity);\n")
+                .append("    }\n\n");
+
+        out.append("    /**\n")
+                .append("     * Parses and validates every field once and fills the given entity on the way.\n")
+                .append("     *\n")
+                .append("     * @return the rejection, or null if the row was accepted\n")
+                .append("     */\n")
+                .append("    protected MappingResult<").append(entityName).append("> mapInto(IndexedRow row, ")
+                .append(entityName).append(" entity) {\n\n")
+                .append("        if (row == null || row.size() == 0) {\n")
+                .append("            return MappingResult.rejected(RejectReason.EMPTY_ROW, null, null);\n")
+                .append("        }\n");
+
+        for (Field field : fields) {
+            appendField(out, field);
+            for (Field other : fields) {
+                Field later = other.notLessThan == null ? null : (other.index > other.notLessThan.index ? other : other.notLessThan);
+                if (later == field) {
+                    out.append("        if (entity.").append(other.name).append(" < entity.").append(other.notLessThan.name).append(") {\n")
+                            .append("            return reject(RejectReason.INCONSISTENT_VALUES, row, ").append(other.index).append(");\n")
+                            .append("        }\n");
+                }
+            }
+        }
+
+        out.append("\n        return null;\n")
+                .append("    }\n")
+                .append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? mapperName : packageName + "." + mapperName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, entity).openWriter()) {
+            writer.write(out.toString());
+        } catch (IOException e) {
+            error(entity, "Failed to write " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    private static void appendField(StringBuilder out, Field field) {
+
+        int index = field.index;
+        String value = "value" + index;
+        Column column = field.column;
+
+        out.append("\n        // ").append(column.value().replace('\n', ' ')).append('\n');
+
+        if (field.type == FieldType.STRING) {
+            out.append("        CharSequence ").append(value).append(" = row.get(").append(index).append(");\n")
+                    .append("        if (FieldParser.isBlank(").append(value).append(")) {\n")
+                    .append("            return reject(RejectReason.MISSING_COLUMN, row, ").append(index).append(");\n")
+                    .append("        }\n")
+                    .append("        entity.").append(field.name).append(" = ").append(value).append(".toString().trim();\n");
+            return;
+        }
+
+        boolean integral = field.type != FieldType.DOUBLE;
+        out.append("        ").append(integral ? "long " : "double ").append(value).append(" = row.")
+                .append(field.type.getter).append("(").append(index).append(");\n")
+                .append("        if (").append(integral ? value + " == FieldParser.INVALID" : "Double.isNaN(" + value + ")").append(") {\n")
+                .append("            return rejectUnparsable(row, ").append(index).append(");\n")
+                .append("        }\n");
+
+        List<String> violations = new ArrayList<>();
+        if (column.min() != Double.NEGATIVE_INFINITY) {
+            violations.add(value + (column.exclusiveMin() ? " <= " : " < ") + numberLiteral(column.min(), integral));
+        }
+        if (column.max() != Double.POSITIVE_INFINITY) {
+            violations.add(value + " > " + numberLiteral(column.max(), integral));
+        }
+        if (!violations.isEmpty()) {
+            out.append("        if (").append(String.join(" || ", violations)).append(") {\n")
+                    .append("            return reject(RejectReason.OUT_OF_RANGE, row, ").append(index).append(");\n")
+                    .append("        }\n");
+        }
+
+        out.append("        entity.").append(field.name).append(" = ")
+                .append(field.type == FieldType.INT ? "(int) " : "").append(value).append(";\n");
+    }
+
+    private static String numberLiteral(double value, boolean integral) {
+        if (integral && value == Math.rint(value) && Math.abs(value) < 0x1p53) {
+            return (long) value + "L";
+        }
+        return Double.toString(value);
+    }
+
+    private static String stringLiteral(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                literal.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                literal.append(String.format("\\u%04x", (int) c));
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private static boolean hasRange(Column column) {
+        return column.min() != Double.NEGATIVE_INFINITY || column.max() != Double.POSITIVE_INFINITY || column.exclusiveMin();
+    }
+
+    private static boolean hasPublicNoArgumentConstructor(TypeElement entity) {
+        if (!entity.getModifiers().contains(Modifier.PUBLIC) || entity.getModifiers().contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+        for (Element member : entity.getEnclosedElements()) {
+            if (member.getKind() == ElementKind.CONSTRUCTOR && member.getModifiers().contains(Modifier.PUBLIC)
+                    && ((ExecutableElement) member).getParameters().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private enum FieldType {
+
+        INT("getInt"), LONG("getLong"), DOUBLE("getDouble"), STRING(null);
+
+        final String getter;
+
+        FieldType(String getter) {
+            this.getter = getter;
+        }
+
+        static FieldType of(VariableElement field) {
+            TypeKind kind = field.asType().getKind();
+            if (kind == TypeKind.INT) {
+                return INT;
+            }
+            if (kind == TypeKind.LONG) {
+                return LONG;
+            }
+            if (kind == TypeKind.DOUBLE) {
+                return DOUBLE;
+            }
+            if (kind == TypeKind.DECLARED && field.asType().toString().equals("java.lang.String")) {
+                return STRING;
+            }
+            return null;
+        }
+    }
+
+    private static final class Field {
+
+        final Element element;
+        final String name;
+        final Column column;
+        final FieldType type;
+        final int index;
+        Field notLessThan;
+
+        Field(Element element, String name, Column column, FieldType type, int index) {
+            this.element = element;
+            this.name = name;
+            this.column = column;
+            this.type = type;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package de.bcxp.challenge.adapters.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for any number of producers and consumers, a ring buffer in which every slot carries
+ * a sequence number (D. Vyukov's bounded MPMC queue). Producers and consumers claim a position with a single
+ * compare-and-set on the tail or the head and then only touch their slot, so neither side ever blocks the other.
+ * <p>
+ * {@link #offer(Object)} and {@link #poll()} never wait: a full queue rejects the element and an empty queue
+ * returns null. Waiting with backoff, and with it the backpressure between stages, is left to the {@link Pipeline}.
+ */
+public final class BoundedQueue<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity the minimum capacity, rounded up to the next power of two
+     */
+    public BoundedQueue(int capacity) {
+
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return true if the element was added, false if the queue is full
+     */
+    public boolean offer(E element) {
+
+        if (element == null) {
+            throw new IllegalArgumentException("Element cannot be null");
+        }
+
+        long position = tail.get();
+        while (true) {
+            int slot = (int) position & mask;
+            long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                // The slot is free for this position, claim it
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(slot, element);
+                    // Publishes the element to the consumer of this position
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The slot still holds the element of the previous round
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * @return the oldest element, or null if the queue is empty
+     */
+    public E poll() {
+
+        long position = head.get();
+        while (true) {
+            int slot = (int) position & mask;
+            long difference = sequences.get(slot) - (position + 1);
+            if (difference == 0) {
+                // The slot holds the element of this position, claim it
+                if (head.compareAndSet(position, position + 1)) {
+                    E element = elements.get(slot);
+                    elements.lazySet(slot, null);
+                    // Frees the slot for the producer of the next round
+                    sequences.set(slot, position + mask + 1);
+                    return element;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                // The producer of this position has not published yet
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * @return the number of elements, only a snapshot while producers or consumers are active
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
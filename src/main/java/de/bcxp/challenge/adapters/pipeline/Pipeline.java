@@ -0,0 +1,374 @@
+package de.bcxp.challenge.adapters.pipeline;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs a chain of stages on their own threads, connected by {@link BoundedQueue}s, e.g. read, tokenize, map and
+ * aggregate. Every stage has its own number of threads, so I/O overlaps with CPU work and a slow stage can be
+ * scaled out without touching the others. Elements are meant to be batches, so the cost of a queue hand-off is
+ * spread over many rows.
+ * <pre>{@code
+ * Pipeline.from("read", emit -> ...)
+ *         .then("tokenize", 1, () -> chunk -> tokenize(chunk))
+ *         .then("map", 3, () -> batch -> map(batch))
+ *         .into(result -> ...);
+ * }</pre>
+ * Every element is numbered by the source and the sink sees the results in that order, whatever the number of
+ * threads, so results are as deterministic as with a single thread. A stage that returns null drops the element.
+ * <p>
+ * Backpressure: a full queue makes its producers wait, and the source never gets further ahead of the sink than
+ * the number of elements all queues can hold. Waiting threads spin briefly, then yield, then park with growing
+ * pauses. The first failure of any stage or of the sink stops all stages and is rethrown by {@link #into}.
+ */
+public final class Pipeline<T> {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+    private static final Logger logger = LogManager.getLogger(Pipeline.class);
+
+    private static final Object END = new Object();
+    private static final long MAX_PARK_NANOS = 1_000_000;
+
+    /** Spinning only helps if another processor can make progress meanwhile. */
+    private static final int SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 64 : 0;
+    private static final int YIELDS = SPINS + 64;
+
+    /**
+     * The first stage of a pipeline, runs on a single thread.
+     */
+    @FunctionalInterface
+    public interface Source<T> {
+
+        /**
+         * Produces all elements. The emitter waits while the pipeline is full.
+         */
+        void run(Consumer<? super T> emitter) throws Exception;
+    }
+
+    private final Source<?> source;
+    private final String sourceName;
+    private final List<Stage> stages;
+    private final int queueCapacity;
+
+    private Pipeline(String sourceName, Source<?> source, List<Stage> stages, int queueCapacity) {
+        this.sourceName = sourceName;
+        this.source = source;
+        this.stages = stages;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Starts a pipeline with the source as first stage.
+     */
+    public static <T> Pipeline<T> from(String name, Source<T> source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Source cannot be null");
+        }
+        return new Pipeline<>(name, source, new ArrayList<>(), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Appends a stage.
+     *
+     * @param threads number of threads of the stage
+     * @param worker  called once per thread, so every thread gets its own function and can keep state in it
+     */
+    public <R> Pipeline<R> then(String name, int threads, Supplier<? extends Function<? super T, ? extends R>> worker) {
+
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads of stage " + name + " must be at least 1: " + threads);
+        }
+        if (worker == null) {
+            throw new IllegalArgumentException("Worker of stage " + name + " cannot be null");
+        }
+
+        List<Stage> appended = new ArrayList<>(stages);
+        appended.add(new Stage(name, threads, worker));
+        return new Pipeline<>(sourceName, source, appended, queueCapacity);
+    }
+
+    /**
+     * @param capacity capacity of every queue between two stages, rounded up to a power of two
+     */
+    public Pipeline<T> queueCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1: " + capacity);
+        }
+        return new Pipeline<>(sourceName, source, stages, capacity);
+    }
+
+    /**
+     * Runs the pipeline and hands the results to the sink on the calling thread, in source order.
+     * Returns when all elements passed the sink.
+     */
+    public void into(Consumer<? super T> sink) {
+        new Run(sink).run();
+    }
+
+    private static final class Stage {
+
+        final String name;
+        final int threads;
+        final Supplier<? extends Function<?, ?>> worker;
+
+        Stage(String name, int threads, Supplier<? extends Function<?, ?>> worker) {
+            this.name = name;
+            this.threads = threads;
+            this.worker = worker;
+        }
+    }
+
+    /**
+     * An element on its way through the stages, numbered by the source.
+     */
+    private static final class Envelope {
+
+        final long sequence;
+        Object value;
+
+        Envelope(long sequence, Object value) {
+            this.sequence = sequence;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Unwinds a thread once another one failed, the failure itself is kept by the run.
+     */
+    private static final class Aborted extends RuntimeException {
+
+        Aborted() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * State of one execution: the queues, the threads and the first failure.
+     */
+    private final class Run {
+
+        private final Consumer<? super T> sink;
+        private final List<BoundedQueue<Object>> queues = new ArrayList<>();
+        private final List<Thread> threads = new ArrayList<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private volatile String failedStage;
+        private final AtomicLong delivered = new AtomicLong();
+        private final int window;
+
+        Run(Consumer<? super T> sink) {
+            this.sink = sink;
+            // One queue behind the source and behind every stage
+            for (int i = 0; i <= stages.size(); i++) {
+                queues.add(new BoundedQueue<>(queueCapacity));
+            }
+            this.window = queues.get(0).capacity() * queues.size();
+        }
+
+        void run() {
+
+            startThread(sourceName + "-1", this::runSource);
+            for (int i = 0; i < stages.size(); i++) {
+                Stage stage = stages.get(i);
+                AtomicInteger running = new AtomicInteger(stage.threads);
+                int index = i;
+                for (int thread = 1; thread <= stage.threads; thread++) {
+                    startThread(stage.name + "-" + thread, () -> runStage(index, running));
+                }
+            }
+
+            try {
+                runSink();
+            } catch (Aborted e) {
+                // The failure is thrown below
+            } catch (RuntimeException | Error e) {
+                fail("sink", e);
+            }
+
+            join();
+
+            Throwable e = failure.get();
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+            if (e != null) {
+                throw new RuntimeException("Pipeline stage " + failedStage + " failed", e);
+            }
+        }
+
+        private void startThread(String name, Runnable body) {
+            Thread thread = new Thread(body, "pipeline-" + name);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        private void runSource() {
+            try {
+                BoundedQueue<Object> out = queues.get(0);
+                long[] sequence = new long[1];
+                source.run(value -> {
+                    Backoff backoff = new Backoff();
+                    while (sequence[0] - delivered.get() >= window) {
+                        backoff.idle();
+                    }
+                    put(out, new Envelope(sequence[0]++, value));
+                });
+                end(out, consumers(0));
+            } catch (Aborted e) {
+                // Another stage failed
+            } catch (Throwable e) {
+                fail(sourceName, e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void runStage(int index, AtomicInteger running) {
+            Stage stage = stages.get(index);
+            try {
+                Function<Object, Object> function = (Function<Object, Object>) stage.worker.get();
+                BoundedQueue<Object> in = queues.get(index);
+                BoundedQueue<Object> out = queues.get(index + 1);
+                while (true) {
+                    Object element = take(in);
+                    if (element == END) {
+                        // The last thread of the stage passes the end on
+                        if (running.decrementAndGet() == 0) {
+                            end(out, consumers(index + 1));
+                        }
+                        return;
+                    }
+                    Envelope envelope = (Envelope) element;
+                    if (envelope.value != null) {
+                        envelope.value = function.apply(envelope.value);
+                    }
+                    put(out, envelope);
+                }
+            } catch (Aborted e) {
+                // Another stage failed
+            } catch (Throwable e) {
+                fail(stage.name, e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void runSink() {
+
+            BoundedQueue<Object> in = queues.get(queues.size() - 1);
+            // Elements that overtook an earlier one wait here, by sequence number within the window
+            Envelope[] pending = new Envelope[window];
+            long next = 0;
+
+            while (true) {
+                Object element = take(in);
+                if (element == END) {
+                    return;
+                }
+                Envelope envelope = (Envelope) element;
+                pending[(int) (envelope.sequence % window)] = envelope;
+
+                int slot = (int) (next % window);
+                while (pending[slot] != null) {
+                    Object value = pending[slot].value;
+                    pending[slot] = null;
+                    if (value != null) {
+                        sink.accept((T) value);
+                    }
+                    next++;
+                    slot = (int) (next % window);
+                }
+                delivered.set(next);
+            }
+        }
+
+        /**
+         * @return the number of threads that take from the queue behind the source (0) or a stage
+         */
+        private int consumers(int queue) {
+            return queue < stages.size() ? stages.get(queue).threads : 1;
+        }
+
+        private void end(BoundedQueue<Object> out, int consumers) {
+            for (int i = 0; i < consumers; i++) {
+                put(out, END);
+            }
+        }
+
+        private void put(BoundedQueue<Object> queue, Object element) {
+            Backoff backoff = new Backoff();
+            while (!queue.offer(element)) {
+                backoff.idle();
+            }
+        }
+
+        private Object take(BoundedQueue<Object> queue) {
+            Object element = queue.poll();
+            if (element != null) {
+                return element;
+            }
+            Backoff backoff = new Backoff();
+            while ((element = queue.poll()) == null) {
+                backoff.idle();
+            }
+            return element;
+        }
+
+        private void fail(String stage, Throwable e) {
+            if (failure.compareAndSet(null, e)) {
+                failedStage = stage;
+                logger.debug("Pipeline stage {} failed, stopping all stages", stage, e);
+            }
+        }
+
+        private void join() {
+            for (Thread thread : threads) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    fail("sink", e);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Waiting strategy of a single wait, aborts as soon as any thread failed.
+         */
+        private final class Backoff {
+
+            private int idle;
+
+            void idle() {
+                if (failure.get() != null) {
+                    throw new Aborted();
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    fail(Thread.currentThread().getName(), new InterruptedException());
+                    throw new Aborted();
+                }
+                idle++;
+                if (idle < SPINS) {
+                    Thread.onSpinWait();
+                } else if (idle < YIELDS) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, 1000L << Math.min(idle - YIELDS, 10)));
+                }
+            }
+        }
+    }
+}
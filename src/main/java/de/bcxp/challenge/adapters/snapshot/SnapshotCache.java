@@ -0,0 +1,152 @@
+package de.bcxp.challenge.adapters.snapshot;
+
+import de.bcxp.challenge.countries.CountryStore;
+import de.bcxp.challenge.weather.WeatherTable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Parse cache for CSV sources based on {@link SnapshotFile}s. The first load parses the CSV with the given parser
+ * and writes a snapshot next to it, later loads memory map the snapshot and skip parsing entirely as long as the
+ * CSV is unchanged. Problems with the snapshot never fail a load, the CSV is parsed instead.
+ */
+public class SnapshotCache {
+
+    static final int WEATHER_TABLE = 1;
+    static final int COUNTRY_STORE = 2;
+
+    private static final Logger logger = LogManager.getLogger(SnapshotCache.class);
+
+    /**
+     * Loads the weather table of the CSV file from its snapshot, or parses it and writes the snapshot.
+     *
+     * @param parser parses the CSV file at the given path into a table
+     */
+    public static WeatherTable weatherTable(String filePath, Function<String, WeatherTable> parser) {
+
+        Path source = sourcePath(filePath);
+
+        SnapshotFile snapshot = open(source, WEATHER_TABLE);
+        if (snapshot != null) {
+            ByteBuffer[] columns = new ByteBuffer[snapshot.sectionCount()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = snapshot.section(i);
+            }
+            return WeatherTable.readColumns(columns, Math.toIntExact(snapshot.rowCount()));
+        }
+
+        long sourceModified = lastModified(source);
+        WeatherTable table = parser.apply(filePath);
+
+        write(source, sourceModified, WEATHER_TABLE, table.size(), () -> {
+            // Every column is streamed from the table into a section of its own
+            SnapshotFile.Section[] columns = new SnapshotFile.Section[WeatherTable.columnCount()];
+            for (int i = 0; i < columns.length; i++) {
+                int column = i;
+                columns[i] = new SnapshotFile.Section() {
+                    @Override
+                    public long length() {
+                        return WeatherTable.columnBytes(column, table.size());
+                    }
+
+                    @Override
+                    public void writeTo(WritableByteChannel channel) throws IOException {
+                        table.writeColumn(column, channel);
+                    }
+                };
+            }
+            return columns;
+        });
+
+        return table;
+    }
+
+    /**
+     * Loads the country store of the CSV file from its snapshot, or parses it and writes the snapshot.
+     * A store loaded from a snapshot reads directly from the mapped file.
+     *
+     * @param parser parses the CSV file at the given path into a store
+     */
+    public static CountryStore countryStore(String filePath, Function<String, CountryStore> parser) {
+
+        Path source = sourcePath(filePath);
+
+        SnapshotFile snapshot = open(source, COUNTRY_STORE);
+        if (snapshot != null) {
+            return CountryStore.wrap(snapshot.section(0), snapshot.section(1), snapshot.section(2));
+        }
+
+        long sourceModified = lastModified(source);
+        CountryStore store = parser.apply(filePath);
+        write(source, sourceModified, COUNTRY_STORE, store.size(), () -> new SnapshotFile.Section[]{
+                SnapshotFile.Section.of(store.records()),
+                SnapshotFile.Section.of(store.strings()),
+                SnapshotFile.Section.of(store.dictionaries())
+        });
+
+        return store;
+    }
+
+    private static Path sourcePath(String filePath) {
+
+        if (filePath == null || filePath.isEmpty()) {
+            throw new IllegalArgumentException("File path cannot be null or empty");
+        }
+
+        Path source = Paths.get(filePath);
+        if (!Files.exists(source)) {
+            throw new IllegalArgumentException("File does not exist: " + filePath);
+        }
+
+        return source;
+    }
+
+    private static SnapshotFile open(Path source, int kind) {
+
+        try {
+            SnapshotFile snapshot = SnapshotFile.open(source, kind);
+            if (snapshot != null) {
+                logger.info("Loaded {} rows from snapshot {}", snapshot.rowCount(), SnapshotFile.pathFor(source));
+            }
+            return snapshot;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable snapshot " + SnapshotFile.pathFor(source), e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the snapshot, a snapshot that cannot be written or represented is skipped and the data stays parsed.
+     *
+     * @param sections creates the sections, may fail for data that is too large for a snapshot
+     */
+    private static void write(Path source, long sourceModified, int kind, long rowCount, Supplier<SnapshotFile.Section[]> sections) {
+
+        try {
+            if (SnapshotFile.write(source, sourceModified, kind, rowCount, sections.get())) {
+                logger.info("Wrote snapshot {}", SnapshotFile.pathFor(source));
+            } else {
+                logger.warn("Not writing snapshot, {} changed while it was parsed", source);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to write snapshot " + SnapshotFile.pathFor(source), e);
+        }
+    }
+
+    private static long lastModified(Path source) {
+        try {
+            return Files.getLastModifiedTime(source).toMillis();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read CSV file", e);
+        }
+    }
+}
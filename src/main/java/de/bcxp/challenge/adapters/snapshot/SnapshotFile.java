@@ -0,0 +1,347 @@
+package de.bcxp.challenge.adapters.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary snapshot of data parsed from a source file, stored next to the source as {@code <source>.bcxs}.
+ * <p>
+ * Layout, little endian:
+ * <pre>
+ * magic "BCXS" | version int | kind int | section count int | source size long | source modified long (ms)
+ * | source CRC32C long | row count long | section CRC32C long | section lengths long[]
+ * | sections, each starting 8 byte aligned
+ * </pre>
+ * A snapshot is only valid for the exact source it was written from: the size has to match, and unless the
+ * modification time matches as well the CRC32C of the source content is recomputed and compared. If only the
+ * modification time changed, the snapshot takes over the new one, so the source is hashed once per touch.
+ * Snapshots are written to a temporary file of their own and moved into place, so readers never see a partial
+ * file, even if several processes write the snapshot of the same source at once. The CRC32C over the data of all
+ * sections is checked when a snapshot is opened, so damaged section data is never served.
+ * <p>
+ * Sections are streamed into the file and mapped one by one, so only a single section is limited to 2 GB.
+ */
+public final class SnapshotFile {
+
+    public static final String EXTENSION = ".bcxs";
+
+    static final int MAGIC = 'B' | 'C' << 8 | 'X' << 16 | 'S' << 24;
+    static final int VERSION = 5;
+
+    /** A section is mapped as one buffer when the snapshot is opened. */
+    static final long MAX_SECTION_SIZE = Integer.MAX_VALUE;
+
+    private static final int FIXED_HEADER_SIZE = 56;
+    private static final int MODIFIED_OFFSET = 24;
+    private static final int HASH_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    private final long rowCount;
+    private final ByteBuffer[] sections;
+
+    private SnapshotFile(long rowCount, ByteBuffer[] sections) {
+        this.rowCount = rowCount;
+        this.sections = sections;
+    }
+
+    public long rowCount() {
+        return rowCount;
+    }
+
+    public int sectionCount() {
+        return sections.length;
+    }
+
+    /**
+     * @return a little endian view on the section, positioned at its start
+     */
+    public ByteBuffer section(int index) {
+        return sections[index].duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * @return the path of the snapshot belonging to the source file
+     */
+    public static Path pathFor(Path source) {
+        return source.resolveSibling(source.getFileName() + EXTENSION);
+    }
+
+    /**
+     * Memory maps the sections of the snapshot of the source if there is one of the expected kind that is still
+     * valid.
+     *
+     * @return the snapshot, or null if there is none or it is outdated
+     * @throws IOException if the source cannot be read or the snapshot is corrupt
+     */
+    public static SnapshotFile open(Path source, int kind) throws IOException {
+
+        Path snapshotPath = pathFor(source);
+
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+
+            long fileSize = channel.size();
+            ByteBuffer header = readFully(channel, 0, FIXED_HEADER_SIZE);
+
+            if (header.remaining() < FIXED_HEADER_SIZE || header.getInt(0) != MAGIC) {
+                throw new IOException("Not a snapshot file: " + snapshotPath);
+            }
+            if (header.getInt(4) != VERSION || header.getInt(8) != kind) {
+                return null;
+            }
+
+            int sectionCount = header.getInt(12);
+            long sourceSize = header.getLong(16);
+            long sourceModified = header.getLong(MODIFIED_OFFSET);
+            long sourceHash = header.getLong(32);
+            long rowCount = header.getLong(40);
+            long sectionHash = header.getLong(48);
+
+            if (sourceSize != Files.size(source)) {
+                return null;
+            }
+            long modified = Files.getLastModifiedTime(source).toMillis();
+            boolean touched = sourceModified != modified;
+            if (touched && sourceHash != hash(source)) {
+                return null;
+            }
+
+            if (sectionCount < 0 || FIXED_HEADER_SIZE + (long) sectionCount * Long.BYTES > fileSize) {
+                throw new IOException("Corrupt snapshot header: " + snapshotPath);
+            }
+            ByteBuffer lengths = readFully(channel, FIXED_HEADER_SIZE, sectionCount * Long.BYTES);
+
+            ByteBuffer[] sections = new ByteBuffer[sectionCount];
+            CRC32C crc = new CRC32C();
+            long offset = align(FIXED_HEADER_SIZE + (long) sectionCount * Long.BYTES);
+            for (int i = 0; i < sectionCount; i++) {
+                long length = lengths.getLong(i * Long.BYTES);
+                if (length < 0 || length > MAX_SECTION_SIZE || offset + length > fileSize) {
+                    throw new IOException("Corrupt snapshot section " + i + ": " + snapshotPath);
+                }
+                sections[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, length).order(ByteOrder.LITTLE_ENDIAN);
+                crc.update(sections[i].duplicate());
+                offset = align(offset + length);
+            }
+            if (crc.getValue() != sectionHash) {
+                throw new IOException("Corrupt snapshot data: " + snapshotPath);
+            }
+
+            if (touched) {
+                updateModified(snapshotPath, sourceModified, modified);
+            }
+            return new SnapshotFile(rowCount, sections);
+
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the source with the given sections, each streamed into the file by the section itself.
+     *
+     * @param source         the source file the data was parsed from
+     * @param sourceModified modification time of the source in ms before it was parsed. If the source was
+     *                       modified during parsing, no snapshot is written.
+     * @return true if the snapshot was written
+     * @throws IllegalArgumentException if a section is larger than {@link #MAX_SECTION_SIZE}
+     */
+    public static boolean write(Path source, long sourceModified, int kind, long rowCount, Section... sections) throws IOException {
+
+        for (int i = 0; i < sections.length; i++) {
+            if (sections[i].length() > MAX_SECTION_SIZE) {
+                throw new IllegalArgumentException("Snapshot section " + i + " is too large: " + sections[i].length() + " bytes");
+            }
+        }
+
+        long sourceSize = Files.size(source);
+        long sourceHash = hash(source);
+        if (Files.getLastModifiedTime(source).toMillis() != sourceModified) {
+            return false;
+        }
+
+        // Every writer gets a temporary file of its own, concurrent writers must never share one
+        Path target = pathFor(source.toAbsolutePath());
+        Path temporary = Files.createTempFile(target.getParent(), source.getFileName() + ".", EXTENSION + ".tmp");
+
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+
+                int headerSize = (int) align(FIXED_HEADER_SIZE + (long) sections.length * Long.BYTES);
+                channel.position(headerSize);
+
+                // The sections are hashed while they are written, so the header goes in last
+                ChecksumChannel data = new ChecksumChannel(channel);
+                for (int i = 0; i < sections.length; i++) {
+                    long start = data.written;
+                    sections[i].writeTo(data);
+                    long written = data.written - start;
+                    if (written != sections[i].length()) {
+                        throw new IOException("Snapshot section " + i + " wrote " + written + " of " + sections[i].length() + " bytes");
+                    }
+                    writeFully(channel, ByteBuffer.allocate((int) (align(written) - written)));
+                }
+
+                ByteBuffer header = ByteBuffer.allocate(headerSize).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC)
+                        .putInt(VERSION)
+                        .putInt(kind)
+                        .putInt(sections.length)
+                        .putLong(sourceSize)
+                        .putLong(sourceModified)
+                        .putLong(sourceHash)
+                        .putLong(rowCount)
+                        .putLong(data.crc.getValue());
+                for (Section section : sections) {
+                    header.putLong(section.length());
+                }
+                header.clear();
+                channel.position(0);
+                writeFully(channel, header);
+                channel.force(true);
+            }
+
+            try {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the CRC32C of the file content, computed over memory mapped chunks
+     */
+    static long hash(Path file) throws IOException {
+
+        CRC32C crc = new CRC32C();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += HASH_CHUNK_SIZE) {
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(HASH_CHUNK_SIZE, size - position));
+                crc.update(chunk);
+            }
+        }
+
+        return crc.getValue();
+    }
+
+    /**
+     * Stores the new modification time of a source whose content still matches, so the next open does not hash
+     * the source again. Only done if the header still holds the old time, the snapshot may have been replaced.
+     */
+    private static void updateModified(Path snapshotPath, long oldModified, long newModified) {
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer stored = readFully(channel, MODIFIED_OFFSET, Long.BYTES);
+            if (stored.remaining() == Long.BYTES && stored.getLong(0) == oldModified) {
+                ByteBuffer modified = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(0, newModified);
+                while (modified.hasRemaining()) {
+                    channel.write(modified, MODIFIED_OFFSET + modified.position());
+                }
+            }
+        } catch (IOException e) {
+            // The snapshot stays valid with the old time, the next open only hashes the source again
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) >= 0) {
+            // Reads until the buffer is full or the file ends
+        }
+        return buffer.flip();
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    /**
+     * Data of one section, written into the snapshot file without being copied into a buffer of its own first.
+     */
+    public interface Section {
+
+        /**
+         * @return the number of bytes {@link #writeTo(WritableByteChannel)} writes
+         */
+        long length();
+
+        /**
+         * Writes exactly {@link #length()} bytes to the channel.
+         */
+        void writeTo(WritableByteChannel channel) throws IOException;
+
+        /**
+         * @return a section of the buffer content from its position to its limit
+         */
+        static Section of(ByteBuffer buffer) {
+            ByteBuffer data = buffer.duplicate();
+            return new Section() {
+                @Override
+                public long length() {
+                    return data.remaining();
+                }
+
+                @Override
+                public void writeTo(WritableByteChannel channel) throws IOException {
+                    writeFully(channel, data.duplicate());
+                }
+            };
+        }
+    }
+
+    /**
+     * Passes writes on to the file and keeps the CRC32C and the count of the written bytes.
+     */
+    private static final class ChecksumChannel implements WritableByteChannel {
+
+        private final FileChannel channel;
+        private final CRC32C crc = new CRC32C();
+        private long written;
+
+        private ChecksumChannel(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            ByteBuffer view = source.duplicate();
+            int count = channel.write(source);
+            view.limit(view.position() + count);
+            crc.update(view);
+            written += count;
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() {
+            // The file channel belongs to the writer
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package de.bcxp.challenge.application;
+
+import de.bcxp.challenge.adapters.RejectLog;
+import de.bcxp.challenge.adapters.csv.MappedCSVRecordReader;
+import de.bcxp.challenge.adapters.csv.mappers.CountryCSVRowMapper;
+import de.bcxp.challenge.adapters.csv.mappers.WeatherCSVRowMapper;
+import de.bcxp.challenge.adapters.snapshot.SnapshotCache;
+import de.bcxp.challenge.countries.CountryService;
+import de.bcxp.challenge.countries.CountryStore;
+import de.bcxp.challenge.weather.WeatherService;
+import de.bcxp.challenge.weather.WeatherTable;
+import org.apache.logging.log4j.LogManager;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static de.bcxp.challenge.countries.CountryUtils.COUNTRY_CSV_FORMAT;
+import static de.bcxp.challenge.weather.WeatherUtils.WEATHER_CSV_FORMAT;
+
+/**
+ * Startup optimized entry point for short-lived runs of a single query, meant to be run with the class data sharing
+ * archive built by {@code scripts/fast-launch.sh}:
+ * {@code FastLaunch [--timing] <weather|countries> [file]}
+ * <ul>
+ *     <li>Log4j is switched to its simple logger before the first logger is created, so log4j-core with its plugin
+ *     scan and XML configuration is never loaded. Only warnings and errors are logged, to stderr.</li>
+ *     <li>Files are read with the {@link MappedCSVRecordReader}, of commons-csv only the format is loaded.</li>
+ *     <li>The result is printed to stdout as one line, the exit status is 1 if the query failed.</li>
+ * </ul>
+ * With --timing the time to the first result since the JVM started is reported to stderr.
+ * Partitioned directories are not supported, they are read by the regular applications.
+ */
+public final class FastLaunch {
+
+    // No static logger: creating it would initialize Log4j before main could configure it
+
+    static final String SIMPLE_CONTEXT_FACTORY = "org.apache.logging.log4j.simple.SimpleLoggerContextFactory";
+
+    private FastLaunch() {
+    }
+
+    public static void main(String[] args) {
+
+        long mainStarted = System.currentTimeMillis();
+        configureLogging();
+
+        boolean timing = args.length > 0 && args[0].equals("--timing");
+        int first = timing ? 1 : 0;
+
+        try {
+            if (args.length <= first) {
+                throw new IllegalArgumentException("Usage: FastLaunch [--timing] <weather|countries> [file]");
+            }
+            String result = runQuery(args[first], args.length > first + 1 ? args[first + 1] : null);
+            System.out.println(result);
+        } catch (Exception e) {
+            LogManager.getLogger(FastLaunch.class).error("An error occurred ", e);
+            System.exit(1);
+        }
+
+        if (timing) {
+            long resultPrinted = System.currentTimeMillis();
+            long jvmStarted = ManagementFactory.getRuntimeMXBean().getStartTime();
+            System.err.printf("Time to first result: %d ms (JVM startup %d ms, query %d ms)%n",
+                    resultPrinted - jvmStarted, mainStarted - jvmStarted, resultPrinted - mainStarted);
+        }
+    }
+
+    /**
+     * Uses the simple logger of log4j-api unless a logger context factory or configuration file is set explicitly.
+     */
+    static void configureLogging() {
+        if (System.getProperty("log4j2.loggerContextFactory") == null
+                && System.getProperty("log4j2.configurationFile") == null) {
+            System.setProperty("log4j2.loggerContextFactory", SIMPLE_CONTEXT_FACTORY);
+            setIfAbsent("org.apache.logging.log4j.simplelog.level", "WARN");
+            setIfAbsent("org.apache.logging.log4j.simplelog.logFile", "system.err");
+        }
+    }
+
+    private static void setIfAbsent(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+
+    /**
+     * @param filePath the file to query, null for the bundled one
+     * @return the result line
+     */
+    static String runQuery(String query, String filePath) {
+
+        switch (query) {
+            case "weather":
+                return findDayWithSmallestTempSpread(filePath != null ? filePath : "src/main/resources/de/bcxp/challenge/weather.csv");
+            case "countries":
+                return findHighestPopulationDensity(filePath != null ? filePath : "src/main/resources/de/bcxp/challenge/countries.csv");
+            default:
+                throw new IllegalArgumentException("Unknown query, expected weather or countries: " + query);
+        }
+    }
+
+    private static String findDayWithSmallestTempSpread(String weatherFilePath) {
+
+        checkNotDirectory(weatherFilePath);
+
+        WeatherTable weatherTable = SnapshotCache.weatherTable(weatherFilePath, path -> {
+            RejectLog rejectLog = new RejectLog();
+            WeatherCSVRowMapper weatherCSVRowMapper = new WeatherCSVRowMapper(true, rejectLog);
+            WeatherTable parsedTable = new WeatherTable();
+            new MappedCSVRecordReader<>(weatherCSVRowMapper, WEATHER_CSV_FORMAT).scan(path, weatherCSVRowMapper.tableLoader(parsedTable));
+            rejectLog.logSummary();
+            return parsedTable;
+        });
+
+        int row = WeatherService.getRowWithSmallestTemperatureSpread(weatherTable);
+        if (row < 0) {
+            return "No weather data found in " + weatherFilePath;
+        }
+
+        return "Day (" + weatherTable.getDay(row) + ") is the day with the smallest temperature spread: "
+                + weatherTable.getTemperatureSpread(row);
+    }
+
+    private static String findHighestPopulationDensity(String countryFilePath) {
+
+        checkNotDirectory(countryFilePath);
+
+        CountryStore countryStore = SnapshotCache.countryStore(countryFilePath, path -> {
+            RejectLog rejectLog = new RejectLog();
+            CountryCSVRowMapper countryCSVRowMapper = new CountryCSVRowMapper(true, rejectLog);
+            CountryStore parsedStore = new CountryStore();
+            new MappedCSVRecordReader<>(countryCSVRowMapper, COUNTRY_CSV_FORMAT).scan(path, countryCSVRowMapper.storeLoader(parsedStore));
+            rejectLog.logSummary();
+            return parsedStore;
+        });
+
+        int row = CountryService.getRowWithHighestPopulationDensity(countryStore);
+        if (row < 0) {
+            return "No country data found in " + countryFilePath;
+        }
+
+        CountryStore.View country = countryStore.view().at(row);
+        return "Country (" + country.getName() + ") has the highest population density: "
+                + country.getPopulationDensity() + " people/km²";
+    }
+
+    private static void checkNotDirectory(String filePath) {
+        if (Files.isDirectory(Paths.get(filePath))) {
+            throw new IllegalArgumentException("Partitioned directories are not supported in fast launch mode: " + filePath);
+        }
+    }
+}
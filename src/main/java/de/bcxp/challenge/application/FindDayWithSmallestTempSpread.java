@@ -1,13 +1,19 @@
 package de.bcxp.challenge.application;
 
+import de.bcxp.challenge.adapters.RejectLog;
 import de.bcxp.challenge.adapters.csv.CSVRecordReader;
 import de.bcxp.challenge.adapters.csv.mappers.WeatherCSVRowMapper;
+import de.bcxp.challenge.adapters.dataset.PartitionedDataset;
+import de.bcxp.challenge.adapters.snapshot.SnapshotCache;
 import de.bcxp.challenge.weather.WeatherEntity;
 import de.bcxp.challenge.weather.WeatherService;
+import de.bcxp.challenge.weather.WeatherTable;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.ArrayList;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
 
 import static de.bcxp.challenge.weather.WeatherUtils.WEATHER_CSV_FORMAT;
 
@@ -19,32 +25,101 @@ public class FindDayWithSmallestTempSpread {
 
     private static final Logger logger = LogManager.getLogger(FindDayWithSmallestTempSpread.class);
 
+    private static final String WEATHER_FILE_PATH = "src/main/resources/de/bcxp/challenge/weather.csv";
+
+    /**
+     * @param args optional path of a weather CSV file or of a partitioned directory, default is the bundled weather.csv
+     */
     public static void main(String[] args) {
-        runFindDayWithSmallestTempSpread();
+        runFindDayWithSmallestTempSpread(args.length > 0 ? args[0] : WEATHER_FILE_PATH);
     }
 
     public static void runFindDayWithSmallestTempSpread() {
+        runFindDayWithSmallestTempSpread(WEATHER_FILE_PATH);
+    }
+
+    /**
+     * @param weatherFilePath a weather CSV file, or a directory with one file per partition, e.g. station=…/month=…
+     */
+    public static void runFindDayWithSmallestTempSpread(String weatherFilePath) {
 
         logger.info("Starting findDayWithSmallestTempSpread...");
 
         try {
 
-            String weatherFilePath = "src/main/resources/de/bcxp/challenge/weather.csv";
-
-
+            RejectLog rejectLog = new RejectLog();
+            WeatherCSVRowMapper weatherCSVRowMapper = new WeatherCSVRowMapper(true, rejectLog);
             CSVRecordReader<WeatherEntity> csvRecordReader = new CSVRecordReader<WeatherEntity>(
-                    new WeatherCSVRowMapper(true),
+                    weatherCSVRowMapper,
                     WEATHER_CSV_FORMAT
             );
 
-            ArrayList<WeatherEntity> weatherData = csvRecordReader.readAll(weatherFilePath);
+            if (Files.isDirectory(Paths.get(weatherFilePath))) {
+                findInPartitions(new PartitionedDataset(Paths.get(weatherFilePath)), rejectLog);
+                rejectLog.logSummary();
+                return;
+            }
 
-            WeatherEntity dayWithSmallestSpread = WeatherService.getDayWithSmallestTemperatureSpread(weatherData);
+            WeatherTable weatherTable = SnapshotCache.weatherTable(weatherFilePath, path -> {
+                WeatherTable parsedTable = new WeatherTable();
+                csvRecordReader.scan(path, weatherCSVRowMapper.tableLoader(parsedTable));
+                rejectLog.logSummary();
+                return parsedTable;
+            });
 
-            logger.info("Day ({}) is the day with the smallest temperature spread: {}", dayWithSmallestSpread.Day, dayWithSmallestSpread.getTemperatureSpread());
+            int row = WeatherService.getRowWithSmallestTemperatureSpread(weatherTable);
+
+            logger.info("Day ({}) is the day with the smallest temperature spread: {}", weatherTable.getDay(row), weatherTable.getTemperatureSpread(row));
 
         } catch (Exception e) {
             logger.error("An error occurred ", e);
         }
     }
+
+    /**
+     * Reads the partitions concurrently and keeps only the smallest spread of every partition, each table is
+     * dropped as soon as its partition is read. The first partition wins on equal spreads. Mappers and readers are
+     * not thread-safe, so every partition gets its own, only the reject log is shared.
+     */
+    private static void findInPartitions(PartitionedDataset dataset, RejectLog rejectLog) {
+
+        List<SmallestSpread> partials = dataset.readEach(partition -> {
+            WeatherCSVRowMapper weatherCSVRowMapper = new WeatherCSVRowMapper(true, rejectLog);
+            CSVRecordReader<WeatherEntity> csvRecordReader = new CSVRecordReader<>(weatherCSVRowMapper, WEATHER_CSV_FORMAT);
+            WeatherTable table = new WeatherTable();
+            csvRecordReader.scan(partition.getPath().toString(), weatherCSVRowMapper.tableLoader(table));
+            int row = WeatherService.getRowWithSmallestTemperatureSpread(table);
+            return row < 0 ? null : new SmallestSpread(table.getDay(row), table.getTemperatureSpread(row));
+        });
+
+        int bestPartition = -1;
+        for (int i = 0; i < partials.size(); i++) {
+            if (partials.get(i) != null && (bestPartition < 0 || partials.get(i).spread < partials.get(bestPartition).spread)) {
+                bestPartition = i;
+            }
+        }
+
+        if (bestPartition < 0) {
+            logger.info("No weather data found in {} partitions", partials.size());
+            return;
+        }
+
+        SmallestSpread best = partials.get(bestPartition);
+        logger.info("Day ({}) in {} is the day with the smallest temperature spread: {}",
+                best.day, dataset.getPartitions().get(bestPartition), best.spread);
+    }
+
+    /**
+     * Partial result of one partition.
+     */
+    private static final class SmallestSpread {
+
+        private final int day;
+        private final double spread;
+
+        private SmallestSpread(int day, double spread) {
+            this.day = day;
+            this.spread = spread;
+        }
+    }
 }
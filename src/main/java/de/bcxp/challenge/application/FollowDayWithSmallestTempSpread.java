@@ -0,0 +1,50 @@
+package de.bcxp.challenge.application;
+
+import de.bcxp.challenge.adapters.csv.CSVFileTail;
+import de.bcxp.challenge.adapters.csv.mappers.WeatherCSVRowMapper;
+import de.bcxp.challenge.weather.SmallestSpreadTracker;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Paths;
+
+import static de.bcxp.challenge.weather.WeatherUtils.WEATHER_CSV_FORMAT;
+
+/**
+ * Follow mode of {@link FindDayWithSmallestTempSpread}: keeps watching the weather file and reports the day with
+ * the smallest temperature spread again whenever rows are appended, parsing only the new rows. Only the best day
+ * so far is kept, not the rows.
+ * Runs until the process is stopped. The file path can be passed as first argument.
+ */
+public class FollowDayWithSmallestTempSpread {
+
+    private static final Logger logger = LogManager.getLogger(FollowDayWithSmallestTempSpread.class);
+
+    public static void main(String[] args) {
+        runFollowDayWithSmallestTempSpread(args.length > 0 ? args[0] : "src/main/resources/de/bcxp/challenge/weather.csv");
+    }
+
+    public static void runFollowDayWithSmallestTempSpread(String weatherFilePath) {
+
+        logger.info("Starting followDayWithSmallestTempSpread...");
+
+        try {
+
+            WeatherCSVRowMapper weatherCSVRowMapper = new WeatherCSVRowMapper(true);
+            SmallestSpreadTracker tracker = new SmallestSpreadTracker();
+
+            // Rows are streamed through the tracker and never stored, so memory stays constant as the file grows
+            try (CSVFileTail tail = new CSVFileTail(Paths.get(weatherFilePath), WEATHER_CSV_FORMAT, tracker::reset)) {
+                tail.follow(weatherCSVRowMapper.entityVisitor(tracker::add), () -> {
+                    if (!tracker.isEmpty()) {
+                        logger.info("Day ({}) is the day with the smallest temperature spread: {} ({} days)",
+                                tracker.getBestDay(), tracker.getBestSpread(), tracker.getDayCount());
+                    }
+                });
+            }
+
+        } catch (Exception e) {
+            logger.error("An error occurred ", e);
+        }
+    }
+}
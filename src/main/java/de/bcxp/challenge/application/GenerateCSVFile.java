@@ -0,0 +1,92 @@
+package de.bcxp.challenge.application;
+
+import de.bcxp.challenge.generator.CSVGenerator;
+import de.bcxp.challenge.generator.CountryRowGenerator;
+import de.bcxp.challenge.generator.Distribution;
+import de.bcxp.challenge.generator.GeneratorSettings;
+import de.bcxp.challenge.generator.RowGenerator;
+import de.bcxp.challenge.generator.WeatherRowGenerator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Generates large weather or countries files for load tests, for example
+ * {@code GenerateCSVFile weather /tmp/weather.csv 100000000 seed=7 invalidRate=0.01 quoteRate=0.05}.
+ * Files ending in .gz are written as block gzip.
+ * <p>
+ * Options are given as key=value: seed (default 42), invalidRate, localeRate and quoteRate (default 0),
+ * distribution (uniform, gaussian or skewed) and threads (default: available processors).
+ * The same seed and options always produce the same file.
+ */
+public class GenerateCSVFile {
+
+    private static final Logger logger = LogManager.getLogger(GenerateCSVFile.class);
+
+    public static void main(String[] args) {
+
+        try {
+            runGenerateCSVFile(args);
+        } catch (Exception e) {
+            logger.error("An error occurred ", e);
+        }
+    }
+
+    public static long runGenerateCSVFile(String[] args) {
+
+        if (args == null || args.length < 3) {
+            throw new IllegalArgumentException("Usage: GenerateCSVFile <weather|countries> <file> <rows> [key=value ...]");
+        }
+
+        GeneratorSettings settings = new GeneratorSettings();
+        long seed = 42;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 3; i < args.length; i++) {
+            int separator = args[i].indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Option must be given as key=value: " + args[i]);
+            }
+            String key = args[i].substring(0, separator);
+            String value = args[i].substring(separator + 1);
+            switch (key) {
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "invalidRate":
+                    settings.invalidRate = Double.parseDouble(value);
+                    break;
+                case "localeRate":
+                    settings.localeRate = Double.parseDouble(value);
+                    break;
+                case "quoteRate":
+                    settings.quoteRate = Double.parseDouble(value);
+                    break;
+                case "distribution":
+                    settings.distribution = Distribution.valueOf(value.toUpperCase(Locale.ROOT));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + key);
+            }
+        }
+
+        RowGenerator rowGenerator;
+        switch (args[0]) {
+            case "weather":
+                rowGenerator = new WeatherRowGenerator(settings);
+                break;
+            case "countries":
+                rowGenerator = new CountryRowGenerator(settings);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown file type: " + args[0]);
+        }
+
+        return new CSVGenerator(rowGenerator, seed, threads).write(Paths.get(args[1]), Long.parseLong(args[2]));
+    }
+}
@@ -1,13 +1,19 @@
 package de.bcxp.challenge.application;
 
+import de.bcxp.challenge.adapters.RejectLog;
 import de.bcxp.challenge.adapters.csv.CSVRecordReader;
 import de.bcxp.challenge.adapters.csv.mappers.CountryCSVRowMapper;
+import de.bcxp.challenge.adapters.dataset.PartitionedDataset;
+import de.bcxp.challenge.adapters.snapshot.SnapshotCache;
 import de.bcxp.challenge.countries.CountryEntity;
 import de.bcxp.challenge.countries.CountryService;
+import de.bcxp.challenge.countries.CountryStore;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.ArrayList;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
 
 import static de.bcxp.challenge.countries.CountryUtils.COUNTRY_CSV_FORMAT;
 
@@ -15,30 +21,53 @@ public class HighestNumberOfPeoplePerSquareKilometer {
 
     private static final Logger logger = LogManager.getLogger(HighestNumberOfPeoplePerSquareKilometer.class);
 
+    private static final String COUNTRY_FILE_PATH = "src/main/resources/de/bcxp/challenge/countries.csv";
+
+    /**
+     * @param args optional path of a country CSV file or of a partitioned directory, default is the bundled countries.csv
+     */
     public static void main(String[] args) {
-        runHighestNumberOfPeoplePerSquareKilometer();
+        runHighestNumberOfPeoplePerSquareKilometer(args.length > 0 ? args[0] : COUNTRY_FILE_PATH);
     }
 
     public static void runHighestNumberOfPeoplePerSquareKilometer() {
+        runHighestNumberOfPeoplePerSquareKilometer(COUNTRY_FILE_PATH);
+    }
+
+    /**
+     * @param counterFilePath a country CSV file, or a directory with one file per partition, e.g. accession=…
+     */
+    public static void runHighestNumberOfPeoplePerSquareKilometer(String counterFilePath) {
 
         logger.info("Starting HighestNumberOfPeoplePerSquareKilometer");
 
         try {
 
-            String counterFilePath = "src/main/resources/de/bcxp/challenge/countries.csv";
-
-
+            RejectLog rejectLog = new RejectLog();
+            CountryCSVRowMapper countryCSVRowMapper = new CountryCSVRowMapper(true, rejectLog);
             CSVRecordReader<CountryEntity> csvRecordReader = new CSVRecordReader<>(
-                    new CountryCSVRowMapper(true),
+                    countryCSVRowMapper,
                     COUNTRY_CSV_FORMAT
             );
 
-            ArrayList<CountryEntity> countryData = csvRecordReader.readAll(counterFilePath);
+            if (Files.isDirectory(Paths.get(counterFilePath))) {
+                findInPartitions(new PartitionedDataset(Paths.get(counterFilePath)), rejectLog);
+                rejectLog.logSummary();
+                return;
+            }
 
-            CountryEntity countryWithHighestDensity = CountryService.getCountryWithHighestPopulationDensity(countryData);
+            CountryStore countryStore = SnapshotCache.countryStore(counterFilePath, path -> {
+                CountryStore parsedStore = new CountryStore();
+                csvRecordReader.scan(path, countryCSVRowMapper.storeLoader(parsedStore));
+                rejectLog.logSummary();
+                return parsedStore;
+            });
+
+            CountryStore.View countryWithHighestDensity = countryStore.view()
+                    .at(CountryService.getRowWithHighestPopulationDensity(countryStore));
 
             logger.info("Country ({}) has the highest population density: {} people/km²",
-                    countryWithHighestDensity.Name,
+                    countryWithHighestDensity.getName(),
                     countryWithHighestDensity.getPopulationDensity());
 
 
@@ -46,4 +75,56 @@ public class HighestNumberOfPeoplePerSquareKilometer {
             logger.error("An error occurred ", e);
         }
     }
+
+    /**
+     * Reads the partitions concurrently and keeps only the highest density of every partition, each store is
+     * dropped as soon as its partition is read. The first partition wins on equal densities. Mappers and readers
+     * are not thread-safe, so every partition gets its own, only the reject log is shared.
+     */
+    private static void findInPartitions(PartitionedDataset dataset, RejectLog rejectLog) {
+
+        List<HighestDensity> partials = dataset.readEach(partition -> {
+            CountryCSVRowMapper countryCSVRowMapper = new CountryCSVRowMapper(true, rejectLog);
+            CSVRecordReader<CountryEntity> csvRecordReader = new CSVRecordReader<>(countryCSVRowMapper, COUNTRY_CSV_FORMAT);
+            CountryStore store = new CountryStore();
+            csvRecordReader.scan(partition.getPath().toString(), countryCSVRowMapper.storeLoader(store));
+            int row = CountryService.getRowWithHighestPopulationDensity(store);
+            if (row < 0) {
+                return null;
+            }
+            CountryStore.View country = store.view().at(row);
+            return new HighestDensity(country.getName(), country.getPopulationDensity());
+        });
+
+        int bestPartition = -1;
+        for (int i = 0; i < partials.size(); i++) {
+            if (partials.get(i) != null && (bestPartition < 0
+                    || Double.compare(partials.get(i).density, partials.get(bestPartition).density) > 0)) {
+                bestPartition = i;
+            }
+        }
+
+        if (bestPartition < 0) {
+            logger.info("No country data found in {} partitions", partials.size());
+            return;
+        }
+
+        HighestDensity best = partials.get(bestPartition);
+        logger.info("Country ({}) in {} has the highest population density: {} people/km²",
+                best.name, dataset.getPartitions().get(bestPartition), best.density);
+    }
+
+    /**
+     * Partial result of one partition.
+     */
+    private static final class HighestDensity {
+
+        private final String name;
+        private final double density;
+
+        private HighestDensity(String name, double density) {
+            this.name = name;
+            this.density = density;
+        }
+    }
 }
@@ -0,0 +1,38 @@
+package de.bcxp.challenge.application;
+
+import de.bcxp.challenge.server.QueryServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Server mode of the applications: keeps the weather and country data loaded and answers queries over HTTP,
+ * see {@link QueryServer} for the endpoints. Runs until the process is stopped.
+ * Port, weather file path and country file path can be passed as arguments, in this order.
+ */
+public class ServeQueries {
+
+    private static final Logger logger = LogManager.getLogger(ServeQueries.class);
+
+    public static void main(String[] args) {
+        runServeQueries(
+                args.length > 0 ? Integer.parseInt(args[0]) : QueryServer.DEFAULT_PORT,
+                args.length > 1 ? args[1] : "src/main/resources/de/bcxp/challenge/weather.csv",
+                args.length > 2 ? args[2] : "src/main/resources/de/bcxp/challenge/countries.csv"
+        );
+    }
+
+    public static void runServeQueries(int port, String weatherFilePath, String countryFilePath) {
+
+        logger.info("Starting serveQueries...");
+
+        try {
+
+            QueryServer server = new QueryServer(weatherFilePath, countryFilePath);
+            server.start(port);
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close, "query-server-shutdown"));
+
+        } catch (Exception e) {
+            logger.error("An error occurred ", e);
+        }
+    }
+}
@@ -1,22 +1,38 @@
 package de.bcxp.challenge.countries;
 
+import de.bcxp.challenge.adapters.mapping.Column;
+import de.bcxp.challenge.adapters.mapping.MappedRow;
+
+/**
+ * One country of countries.csv. The row mapper is generated from the column annotations; numbers are only accepted
+ * in English format, so a German formatted population like 4.036.355,00 is rejected as malformed.
+ */
+@MappedRow
 public class CountryEntity {
+    @Column("Name")
     public String Name;
 
+    @Column("Capital")
     public String Capital;
 
+    @Column("Accession")
     public String Accession;
 
     /** Population count */
+    @Column(value = "Population", min = 0, exclusiveMin = true)
     public long Population;
 
     /** Area in square kilometers */
+    @Column(value = "Area (km²)", min = 0, exclusiveMin = true)
     public double Area;
 
+    @Column(value = "GDP (US$ M)", min = 0)
     public long GDP;
 
+    @Column(value = "HDI", min = 0, max = 1)
     public double HDI;
 
+    @Column(value = "MEPs", min = 0, exclusiveMin = true)
     public int MEPs;
 
     public double getPopulationDensity() {
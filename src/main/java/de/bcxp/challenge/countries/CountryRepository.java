@@ -0,0 +1,348 @@
+package de.bcxp.challenge.countries;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * Read-only, indexed view on the countries of a {@link CountryStore}. The indexes are built once when the
+ * repository is created, so queries never sort or scan:
+ * <ul>
+ *     <li>name: open addressing hash table of rows, a lookup is O(1)</li>
+ *     <li>capital: open addressing hash table of the distinct capitals and the rows of each, a lookup is O(1)</li>
+ *     <li>population density: all rows sorted by density, rank, top-k and range queries are O(log n) plus the
+ *     size of the result</li>
+ * </ul>
+ * Densities are compared like {@link Double#compare(double, double)} and computed like
+ * {@link CountryEntity#getPopulationDensity()}. Countries with equal density are always returned in row order,
+ * so the first of them is the one {@link CountryService} would pick.
+ * <p>
+ * Only the rows the store has when the repository is created are indexed. A repository of a store that is no
+ * longer filled is thread safe.
+ */
+public class CountryRepository {
+
+    private final CountryStore store;
+    private final int size;
+
+    // Name index: slots hold row + 1, 0 is an empty slot; the hash of every slot is kept to skip decoding names
+    private final int[] nameSlots;
+    private final int[] nameHashes;
+
+    // Capital index: slots hold group + 1 like the name index, a group is one distinct capital. The rows of group g
+    // are capitalRows[capitalOffsets[g] .. capitalOffsets[g + 1] - 1], the first of them holds the capital.
+    private final int[] capitalSlots;
+    private final int[] capitalHashes;
+    private int nullCapitalGroup = -1;
+    private final int[] capitalOffsets;
+    private final int[] capitalRows;
+
+    // Density index: rows by ascending density, equal densities by ascending row
+    private final int[] rowsByDensity;
+    private final double[] sortedDensities;
+
+    public CountryRepository(CountryStore store) {
+
+        if (store == null) {
+            throw new IllegalArgumentException("Country store cannot be null");
+        }
+
+        this.store = store;
+        this.size = store.size();
+
+        int capacity = Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1;
+        this.nameSlots = new int[capacity];
+        this.nameHashes = new int[capacity];
+        CountryStore.View view = store.view();
+        for (int row = 0; row < size; row++) {
+            indexName(view.at(row).getName(), row, view);
+        }
+
+        this.capitalSlots = new int[capacity];
+        this.capitalHashes = new int[capacity];
+        int[] groups = new int[size];
+        int[] firstRows = new int[size];
+        int groupCount = 0;
+        for (int row = 0; row < size; row++) {
+            int group = groupOfCapital(view.at(row).getCapital(), firstRows, groupCount, view);
+            if (group == groupCount) {
+                firstRows[groupCount++] = row;
+            }
+            groups[row] = group;
+        }
+        this.capitalOffsets = new int[groupCount + 1];
+        for (int group : groups) {
+            capitalOffsets[group + 1]++;
+        }
+        for (int group = 0; group < groupCount; group++) {
+            capitalOffsets[group + 1] += capitalOffsets[group];
+        }
+        this.capitalRows = new int[size];
+        int[] filled = new int[groupCount];
+        for (int row = 0; row < size; row++) {
+            capitalRows[capitalOffsets[groups[row]] + filled[groups[row]]++] = row;
+        }
+
+        double[] densities = new double[size];
+        int[] rows = new int[size];
+        for (int row = 0; row < size; row++) {
+            densities[row] = view.at(row).getPopulationDensity();
+            rows[row] = row;
+        }
+        this.rowsByDensity = sortByKey(rows, densities);
+        this.sortedDensities = new double[size];
+        for (int i = 0; i < size; i++) {
+            sortedDensities[i] = densities[rowsByDensity[i]];
+        }
+    }
+
+    /**
+     * Copies the countries into a new store and indexes it.
+     */
+    public static CountryRepository of(List<CountryEntity> countries) {
+
+        if (countries == null) {
+            throw new IllegalArgumentException("Countries cannot be null");
+        }
+
+        CountryStore store = new CountryStore(countries.size());
+        for (CountryEntity country : countries) {
+            store.add(country);
+        }
+        return new CountryRepository(store);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the first country with the given name, or empty if there is none
+     */
+    public Optional<CountryEntity> findByName(String name) {
+        int row = rowOfName(name);
+        return row < 0 ? Optional.empty() : Optional.of(store.get(row));
+    }
+
+    /**
+     * @return all countries with the given capital, in row order
+     */
+    public List<CountryEntity> findByCapital(String capital) {
+
+        int group = capital == null ? nullCapitalGroup : groupOfCapital(capital);
+        if (group < 0) {
+            return Collections.emptyList();
+        }
+
+        List<CountryEntity> result = new ArrayList<>(capitalOffsets[group + 1] - capitalOffsets[group]);
+        for (int i = capitalOffsets[group]; i < capitalOffsets[group + 1]; i++) {
+            result.add(store.get(capitalRows[i]));
+        }
+        return result;
+    }
+
+    /**
+     * @return 1 for the highest population density, countries with equal density share their rank, or empty if no
+     * country has the given name
+     */
+    public OptionalInt densityRank(String name) {
+
+        int row = rowOfName(name);
+        if (row < 0) {
+            return OptionalInt.empty();
+        }
+
+        double density = store.view().at(row).getPopulationDensity();
+        return OptionalInt.of(size - upperBound(density) + 1);
+    }
+
+    /**
+     * @return the k countries with the highest population density, highest first
+     * @throws IllegalArgumentException if k is negative
+     */
+    public List<CountryEntity> highestDensities(int k) {
+
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative: " + k);
+        }
+
+        List<CountryEntity> result = new ArrayList<>(Math.min(k, size));
+        int end = size;
+        while (result.size() < k && end > 0) {
+            // Equal densities are sorted by ascending row, so every run of them is taken from its start
+            int start = lowerBound(sortedDensities[end - 1]);
+            for (int i = start; i < end && result.size() < k; i++) {
+                result.add(store.get(rowsByDensity[i]));
+            }
+            end = start;
+        }
+        return result;
+    }
+
+    /**
+     * @return the countries with a population density from min to max, both inclusive, lowest first
+     * @throws IllegalArgumentException if min is greater than max
+     */
+    public List<CountryEntity> densityBetween(double min, double max) {
+
+        if (Double.compare(min, max) > 0) {
+            throw new IllegalArgumentException("Minimum density cannot be greater than maximum: " + min + " > " + max);
+        }
+
+        int from = lowerBound(min);
+        int to = upperBound(max);
+        List<CountryEntity> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(store.get(rowsByDensity[i]));
+        }
+        return result;
+    }
+
+    private void indexName(String name, int row, CountryStore.View view) {
+
+        if (name == null) {
+            return;
+        }
+
+        int hash = mix(name.hashCode());
+        int mask = nameSlots.length - 1;
+        int slot = hash & mask;
+        while (nameSlots[slot] != 0) {
+            if (nameHashes[slot] == hash && name.equals(view.at(nameSlots[slot] - 1).getName())) {
+                return; // The first row of a name wins
+            }
+            slot = (slot + 1) & mask;
+        }
+        nameSlots[slot] = row + 1;
+        nameHashes[slot] = hash;
+    }
+
+    private int rowOfName(String name) {
+
+        if (name == null) {
+            return -1;
+        }
+
+        int hash = mix(name.hashCode());
+        int mask = nameSlots.length - 1;
+        CountryStore.View view = store.view();
+        for (int slot = hash & mask; nameSlots[slot] != 0; slot = (slot + 1) & mask) {
+            if (nameHashes[slot] == hash && name.equals(view.at(nameSlots[slot] - 1).getName())) {
+                return nameSlots[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Looks up the group of a capital while the index is built, adding the next group if the capital was not seen
+     * before.
+     *
+     * @param firstRows the first row of every group so far
+     * @param groups    the number of groups so far, which is the group a new capital gets
+     */
+    private int groupOfCapital(String capital, int[] firstRows, int groups, CountryStore.View view) {
+
+        if (capital == null) {
+            if (nullCapitalGroup < 0) {
+                nullCapitalGroup = groups;
+            }
+            return nullCapitalGroup;
+        }
+
+        int hash = mix(capital.hashCode());
+        int mask = capitalSlots.length - 1;
+        int slot = hash & mask;
+        while (capitalSlots[slot] != 0) {
+            int group = capitalSlots[slot] - 1;
+            if (capitalHashes[slot] == hash && capital.equals(view.at(firstRows[group]).getCapital())) {
+                return group;
+            }
+            slot = (slot + 1) & mask;
+        }
+        capitalSlots[slot] = groups + 1;
+        capitalHashes[slot] = hash;
+        return groups;
+    }
+
+    private int groupOfCapital(String capital) {
+        int hash = mix(capital.hashCode());
+        int mask = capitalSlots.length - 1;
+        CountryStore.View view = store.view();
+        for (int slot = hash & mask; capitalSlots[slot] != 0; slot = (slot + 1) & mask) {
+            int group = capitalSlots[slot] - 1;
+            if (capitalHashes[slot] == hash && capital.equals(view.at(capitalRows[capitalOffsets[group]]).getCapital())) {
+                return group;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the first position whose density is not less than the given one
+     */
+    private int lowerBound(double density) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Double.compare(sortedDensities[middle], density) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the first position whose density is greater than the given one
+     */
+    private int upperBound(double density) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Double.compare(sortedDensities[middle], density) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Stable merge sort of the rows by their keys, so rows with equal keys keep their order.
+     */
+    private static int[] sortByKey(int[] rows, double[] keys) {
+        int[] source = rows;
+        int[] target = new int[rows.length];
+        for (int width = 1; width < rows.length; width *= 2) {
+            for (int low = 0; low < rows.length; low += 2 * width) {
+                int middle = Math.min(low + width, rows.length);
+                int high = Math.min(low + 2 * width, rows.length);
+                int left = low;
+                int right = middle;
+                for (int i = low; i < high; i++) {
+                    if (left < middle && (right >= high || Double.compare(keys[source[left]], keys[source[right]]) <= 0)) {
+                        target[i] = source[left++];
+                    } else {
+                        target[i] = source[right++];
+                    }
+                }
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        return source;
+    }
+
+    private static int mix(int hash) {
+        int mixed = hash * 0x9E3779B9;
+        return mixed ^ (mixed >>> 16);
+    }
+}
@@ -1,27 +1,81 @@
 package de.bcxp.challenge.countries;
 
+import de.bcxp.challenge.query.NumericColumn;
+import de.bcxp.challenge.selection.ReductionKernels;
+import de.bcxp.challenge.selection.Selection;
+
 import java.util.List;
+import java.util.stream.Stream;
 
 import static de.bcxp.challenge.countries.CountryUtils.POPULATION_DENSITY_COMPARATOR;
 
 public class CountryService {
 
+    /** Rows copied per kernel call, enough to amortize the call while both batches stay in the L1 cache. */
+    private static final int BATCH_SIZE = 2048;
+
     /**
-     * Finds the country with the highest population density from the given list of countries.
-     * 
+     * Finds the country with the highest population density in a single pass, without reordering the list.
+     * On equal densities the first country of the list wins.
+     *
      * @param countries List of CountryEntity objects to analyze
      * @return CountryEntity with the highest population density, or null if the list is empty or null
      */
     public static CountryEntity getCountryWithHighestPopulationDensity(List<CountryEntity> countries) {
-        
-        if (countries == null || countries.isEmpty()) {
+        return Selection.max(countries, CountryEntity::getPopulationDensity);
+    }
+
+    /**
+     * Finds the country with the highest population density in a single pass over the given stream.
+     * On equal densities the first country of the stream wins.
+     *
+     * @param countries Stream of CountryEntity objects to analyze, consumed but not closed
+     * @return CountryEntity with the highest population density, or null if the stream is empty or null
+     */
+    public static CountryEntity getCountryWithHighestPopulationDensityFromStream(Stream<CountryEntity> countries) {
+
+        if (countries == null) {
             return null; // No data available
-        } else if (countries.size() == 1) {
-            return countries.get(0); // Only one country, return it
         }
 
-        countries.sort(POPULATION_DENSITY_COMPARATOR);
+        return countries.min(POPULATION_DENSITY_COMPARATOR).orElse(null);
+    }
+
+    /**
+     * Finds the country with the highest population density without materializing any entity. Population and area
+     * are copied from the records in batches and reduced with the {@link ReductionKernels} of this JVM.
+     * On equal densities the first country wins.
+     *
+     * @param countries Off-heap country data to analyze
+     * @return index of the country with the highest population density, or -1 if the store is empty or null
+     */
+    public static int getRowWithHighestPopulationDensity(CountryStore countries) {
+
+        if (countries == null || countries.isEmpty()) {
+            return -1; // No data available
+        }
+
+        ReductionKernels kernels = ReductionKernels.get();
+        NumericColumn population = countries.numericColumn("Population");
+        NumericColumn area = countries.numericColumn("Area (km²)");
+        double[] populations = new double[BATCH_SIZE];
+        double[] areas = new double[BATCH_SIZE];
 
-        return countries.get(0);
+        int best = -1;
+        double bestDensity = 0;
+        int size = countries.size();
+        for (int from = 0; from < size; from += BATCH_SIZE) {
+            int length = Math.min(BATCH_SIZE, size - from);
+            population.read(from, length, populations);
+            area.read(from, length, areas);
+
+            int row = kernels.argMaxQuotient(populations, areas, 0, length);
+            double density = ReductionKernels.quotient(populations[row], areas[row]);
+            if (best < 0 || Double.compare(density, bestDensity) > 0) {
+                best = from + row;
+                bestDensity = density;
+            }
+        }
+        return best;
     }
 }
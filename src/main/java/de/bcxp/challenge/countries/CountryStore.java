@@ -0,0 +1,408 @@
+package de.bcxp.challenge.countries;
+
+import de.bcxp.challenge.query.ColumnType;
+import de.bcxp.challenge.query.Dataset;
+import de.bcxp.challenge.query.KeyColumn;
+import de.bcxp.challenge.query.NumericColumn;
+import de.bcxp.challenge.query.StringDictionary;
+import de.bcxp.challenge.query.StringKeyColumn;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Off-heap store for country data. Every country is a fixed width record in a direct buffer holding the numeric
+ * columns and references into a string arena, which is a second direct buffer with the UTF-8 encoded names and
+ * capitals. Accession only has a handful of distinct values, so it is dictionary encoded while countries are added:
+ * a record only holds its int code, every distinct value is kept once in a {@link StringDictionary} on the heap.
+ * Apart from that small dictionary the heap only holds the two buffer objects, no matter how many countries are
+ * stored, so the garbage collector never has to trace or copy the data.
+ * <p>
+ * Rows are addressed by index in insertion order and read through a reusable {@link View}.
+ * Both buffers are addressed by int, which limits a store to about 38 million countries and 2 GB of strings.
+ * The store is not thread safe while it is being filled.
+ * <p>
+ * As {@link Dataset} the columns are named like the CSV columns. Numeric columns are read batch-wise from the
+ * records. Accession is read as its stored codes, so equality filters and group-by on it never touch a String;
+ * names and capitals are decoded and encoded into a dictionary while a query reads them.
+ */
+public class CountryStore implements Dataset {
+
+    // Record layout, all values little endian
+    static final int POPULATION = 0;
+    static final int AREA = 8;
+    static final int GDP = 16;
+    static final int HDI = 24;
+    static final int MEPS = 32;
+    static final int NAME = 36;
+    static final int CAPITAL = 44;
+    static final int ACCESSION = 52;
+    static final int RECORD_SIZE = 56;
+
+    // A string reference is the arena offset followed by the length in bytes, dictionary codes are ints
+    private static final int STRING_LENGTH = 4;
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int DEFAULT_AVERAGE_STRING_BYTES = 32;
+    private static final int MAX_BUFFER_SIZE = Integer.MAX_VALUE - 8;
+
+    private static final List<String> COLUMN_NAMES = List.of(
+            "Name", "Capital", "Accession", "Population", "Area (km²)", "GDP (US$ M)", "HDI", "MEPs");
+
+    ByteBuffer records;
+    ByteBuffer arena;
+    int size;
+    int arenaSize;
+    StringDictionary accessions = new StringDictionary();
+
+    public CountryStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public CountryStore(int initialCapacity) {
+
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity cannot be negative: " + initialCapacity);
+        }
+
+        this.records = allocate(Math.multiplyExact(initialCapacity, RECORD_SIZE));
+        this.arena = allocate(Math.multiplyExact(initialCapacity, 2 * DEFAULT_AVERAGE_STRING_BYTES));
+    }
+
+    /**
+     * Wraps record and string data previously taken from {@link #records()}, {@link #strings()} and
+     * {@link #dictionaries()}, e.g. from a memory mapped snapshot. Records and strings are not copied and may be
+     * read-only: they are copied into new direct buffers once countries are added. Only the accession dictionary
+     * is decoded onto the heap.
+     */
+    public static CountryStore wrap(ByteBuffer records, ByteBuffer strings, ByteBuffer dictionaries) {
+
+        if (records.remaining() % RECORD_SIZE != 0) {
+            throw new IllegalArgumentException("Record data is not a multiple of " + RECORD_SIZE + " bytes: " + records.remaining());
+        }
+
+        CountryStore store = new CountryStore(0);
+        store.records = records.slice().order(ByteOrder.LITTLE_ENDIAN);
+        store.arena = strings.slice().order(ByteOrder.LITTLE_ENDIAN);
+        store.size = records.remaining() / RECORD_SIZE;
+        store.arenaSize = strings.remaining();
+        store.accessions = StringDictionary.readFrom(dictionaries.duplicate());
+        return store;
+    }
+
+    /**
+     * @return a read-only view on the fixed width records of all countries, little endian
+     */
+    public ByteBuffer records() {
+        ByteBuffer view = records.asReadOnlyBuffer();
+        view.clear().limit(size * RECORD_SIZE);
+        return view.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * @return a read-only view on the string arena the records refer to
+     */
+    public ByteBuffer strings() {
+        ByteBuffer view = arena.asReadOnlyBuffer();
+        view.clear().limit(arenaSize);
+        return view.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * @return the accession dictionary the records refer to, little endian
+     */
+    public ByteBuffer dictionaries() {
+        ByteBuffer encoded = ByteBuffer.allocate(Math.toIntExact(accessions.serializedSize())).order(ByteOrder.LITTLE_ENDIAN);
+        accessions.writeTo(encoded);
+        return encoded.flip();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Appends the values of the entity as a new record. The entity is not referenced afterwards,
+     * so a single scratch entity can be reused for every row.
+     *
+     * @return the index of the new record
+     */
+    public int add(CountryEntity entity) {
+
+        // Wrapped buffers may be read-only, they are copied before the first write even if they have room left
+        if (records.isReadOnly() || size == records.capacity() / RECORD_SIZE) {
+            records = grow(records, (long) (size + 1) * RECORD_SIZE);
+        }
+        if (arena.isReadOnly()) {
+            arena = grow(arena, arenaSize);
+        }
+
+        int row = size;
+        int base = row * RECORD_SIZE;
+        records.putLong(base + POPULATION, entity.Population);
+        records.putDouble(base + AREA, entity.Area);
+        records.putLong(base + GDP, entity.GDP);
+        records.putDouble(base + HDI, entity.HDI);
+        records.putInt(base + MEPS, entity.MEPs);
+        putString(base + NAME, entity.Name);
+        putString(base + CAPITAL, entity.Capital);
+        records.putInt(base + ACCESSION, accessions.encode(entity.Accession));
+        size++;
+        return row;
+    }
+
+    /**
+     * Creates a flyweight that reads the records of this store in place. A view can be moved to any row with
+     * {@link View#at(int)} and is meant to be reused instead of creating one per row.
+     */
+    public View view() {
+        return new View();
+    }
+
+    /**
+     * Materializes a record as a new entity.
+     */
+    public CountryEntity get(int row) {
+        return view().at(row).toEntity();
+    }
+
+    @Override
+    public List<String> columnNames() {
+        return COLUMN_NAMES;
+    }
+
+    @Override
+    public ColumnType columnType(String name) {
+        switch (name) {
+            case "Name":
+            case "Capital":
+            case "Accession":
+                return ColumnType.STRING;
+            case "Population":
+            case "GDP (US$ M)":
+                return ColumnType.LONG;
+            case "Area (km²)":
+            case "HDI":
+                return ColumnType.DOUBLE;
+            case "MEPs":
+                return ColumnType.INT;
+            default:
+                throw new IllegalArgumentException("Unknown column: " + name);
+        }
+    }
+
+    @Override
+    public NumericColumn numericColumn(String name) {
+        // The buffer is looked up per batch and not captured, as it is replaced when the store grows
+        switch (name) {
+            case "Population":
+                return (from, length, target) -> readLongs(POPULATION, from, length, target);
+            case "GDP (US$ M)":
+                return (from, length, target) -> readLongs(GDP, from, length, target);
+            case "Area (km²)":
+                return (from, length, target) -> readDoubles(AREA, from, length, target);
+            case "HDI":
+                return (from, length, target) -> readDoubles(HDI, from, length, target);
+            case "MEPs":
+                return (from, length, target) -> {
+                    ByteBuffer records = this.records;
+                    for (int i = 0; i < length; i++) {
+                        target[i] = records.getInt((from + i) * RECORD_SIZE + MEPS);
+                    }
+                };
+            default:
+                columnType(name);
+                throw new IllegalArgumentException("Column is not numeric: " + name);
+        }
+    }
+
+    @Override
+    public KeyColumn keyColumn(String name) {
+        switch (name) {
+            case "Name":
+                return new StringKeyColumn(row -> getString(row * RECORD_SIZE + NAME));
+            case "Capital":
+                return new StringKeyColumn(row -> getString(row * RECORD_SIZE + CAPITAL));
+            case "Accession":
+                return accessions.keyColumn((from, length, target) -> readInts(ACCESSION, from, length, target));
+            case "MEPs":
+                return KeyColumn.ofInts((from, length, target) -> readInts(MEPS, from, length, target));
+            default:
+                columnType(name);
+                throw new IllegalArgumentException("Column cannot be used as key: " + name);
+        }
+    }
+
+    private void readInts(int offset, int from, int length, int[] target) {
+        ByteBuffer records = this.records;
+        for (int i = 0; i < length; i++) {
+            target[i] = records.getInt((from + i) * RECORD_SIZE + offset);
+        }
+    }
+
+    private void readLongs(int offset, int from, int length, double[] target) {
+        ByteBuffer records = this.records;
+        for (int i = 0; i < length; i++) {
+            target[i] = records.getLong((from + i) * RECORD_SIZE + offset);
+        }
+    }
+
+    private void readDoubles(int offset, int from, int length, double[] target) {
+        ByteBuffer records = this.records;
+        for (int i = 0; i < length; i++) {
+            target[i] = records.getDouble((from + i) * RECORD_SIZE + offset);
+        }
+    }
+
+    private void putString(int reference, String value) {
+
+        if (value == null) {
+            records.putInt(reference, 0);
+            records.putInt(reference + STRING_LENGTH, -1);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (arenaSize + bytes.length > arena.capacity()) {
+            arena = grow(arena, (long) arenaSize + bytes.length);
+        }
+
+        arena.position(arenaSize);
+        arena.put(bytes);
+        records.putInt(reference, arenaSize);
+        records.putInt(reference + STRING_LENGTH, bytes.length);
+        arenaSize += bytes.length;
+    }
+
+    private String getString(int reference) {
+
+        int length = records.getInt(reference + STRING_LENGTH);
+        if (length < 0) {
+            return null;
+        }
+
+        int offset = records.getInt(reference);
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = arena.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, long minCapacity) {
+
+        if (minCapacity > MAX_BUFFER_SIZE) {
+            throw new IllegalStateException("Country store is full");
+        }
+
+        long newCapacity = Math.max(minCapacity, Math.max(DEFAULT_CAPACITY * RECORD_SIZE, buffer.capacity() * 2L));
+        ByteBuffer grown = allocate((int) Math.min(newCapacity, MAX_BUFFER_SIZE));
+        ByteBuffer source = buffer.duplicate();
+        source.clear();
+        grown.put(source);
+        grown.clear();
+        return grown;
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Flyweight accessor for one record of the store. Numeric getters read straight from off-heap memory,
+     * accession is looked up in its dictionary, only name and capital allocate.
+     */
+    public final class View {
+
+        private int row = -1;
+        private int base;
+
+        private View() {
+        }
+
+        /**
+         * Moves the view to the given row.
+         *
+         * @return this view
+         */
+        public View at(int row) {
+            if (row < 0 || row >= size) {
+                throw new IndexOutOfBoundsException("Row " + row + " out of bounds for country store with " + size + " rows");
+            }
+            this.row = row;
+            this.base = row * RECORD_SIZE;
+            return this;
+        }
+
+        public int row() {
+            return row;
+        }
+
+        public String getName() {
+            return getString(base + NAME);
+        }
+
+        public String getCapital() {
+            return getString(base + CAPITAL);
+        }
+
+        public String getAccession() {
+            return accessions.decode(records.getInt(base + ACCESSION));
+        }
+
+        public long getPopulation() {
+            return records.getLong(base + POPULATION);
+        }
+
+        public double getArea() {
+            return records.getDouble(base + AREA);
+        }
+
+        public long getGDP() {
+            return records.getLong(base + GDP);
+        }
+
+        public double getHDI() {
+            return records.getDouble(base + HDI);
+        }
+
+        public int getMEPs() {
+            return records.getInt(base + MEPS);
+        }
+
+        /**
+         * @return the population density, computed like {@link CountryEntity#getPopulationDensity()}
+         */
+        public double getPopulationDensity() {
+            double area = getArea();
+            if (area == 0) {
+                return 0;
+            }
+            return getPopulation() / area;
+        }
+
+        public CountryEntity toEntity() {
+            CountryEntity entity = new CountryEntity();
+            entity.Name = getName();
+            entity.Capital = getCapital();
+            entity.Accession = getAccession();
+            entity.Population = getPopulation();
+            entity.Area = getArea();
+            entity.GDP = getGDP();
+            entity.HDI = getHDI();
+            entity.MEPs = getMEPs();
+            return entity;
+        }
+
+        @Override
+        public String toString() {
+            return row < 0 ? "CountryStore.View{}" : toEntity().toString();
+        }
+    }
+}
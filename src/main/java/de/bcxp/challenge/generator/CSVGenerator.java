@@ -0,0 +1,161 @@
+package de.bcxp.challenge.generator;
+
+import de.bcxp.challenge.adapters.compress.BlockGzip;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+
+/**
+ * Writes large synthetic CSV files with several threads.
+ * <p>
+ * The rows are generated in blocks of {@value #BLOCK_ROWS}. Every block gets its own random source derived from the
+ * seed and the block number, so the file content only depends on the seed and the settings, not on the number of
+ * threads. Finished blocks are written in order while at most two blocks per thread are in flight, which bounds
+ * the memory no matter how large the file gets.
+ * <p>
+ * Files ending in .gz are written as block gzip, compressed by the same threads, so they can be inflated in parallel
+ * again when they are read.
+ */
+public class CSVGenerator {
+
+    private static final Logger logger = LogManager.getLogger(CSVGenerator.class);
+
+    static final int BLOCK_ROWS = 16_384;
+
+    private final RowGenerator rowGenerator;
+    private final long seed;
+    private final int threads;
+
+    public CSVGenerator(RowGenerator rowGenerator, long seed, int threads) {
+        if (rowGenerator == null) {
+            throw new IllegalArgumentException("Row generator cannot be null");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be positive: " + threads);
+        }
+        this.rowGenerator = rowGenerator;
+        this.seed = seed;
+        this.threads = threads;
+    }
+
+    /**
+     * Writes the header and the given number of rows, replacing the file if it exists.
+     *
+     * @return the number of bytes written
+     */
+    public long write(Path file, long rows) {
+
+        if (file == null) {
+            throw new IllegalArgumentException("File path cannot be null or empty");
+        }
+        if (rows < 0) {
+            throw new IllegalArgumentException("Rows cannot be negative: " + rows);
+        }
+
+        boolean compress = file.getFileName().toString().endsWith(".gz");
+        logger.info("Start generating {} rows into {} with {} threads", rows, file, threads);
+        long started = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "csv-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            long written = writeFully(channel, encode(header(), compress));
+
+            long blocks = (rows + BLOCK_ROWS - 1) / BLOCK_ROWS;
+            ArrayDeque<Future<ByteBuffer>> inFlight = new ArrayDeque<>();
+            long next = 0;
+
+            while (next < blocks || !inFlight.isEmpty()) {
+                while (next < blocks && inFlight.size() < 2 * threads) {
+                    long block = next++;
+                    long first = block * BLOCK_ROWS;
+                    long count = Math.min(BLOCK_ROWS, rows - first);
+                    inFlight.add(executor.submit(() -> encode(generateBlock(block, first, count), compress)));
+                }
+                written += writeFully(channel, inFlight.remove().get());
+            }
+
+            if (compress) {
+                written += writeFully(channel, ByteBuffer.wrap(BlockGzip.EOF));
+            }
+
+            double seconds = (System.nanoTime() - started) / 1e9;
+            logger.info("End generating {} bytes in {} s ({} MB/s)", written, String.format("%.2f", seconds),
+                    String.format("%.1f", written / 1e6 / Math.max(seconds, 1e-9)));
+            return written;
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write CSV file", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to generate CSV rows", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while generating CSV file", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Generates the rows of one block. Package-private so tests can compare blocks directly.
+     */
+    ByteBuffer generateBlock(long block, long first, long count) {
+
+        SplittableRandom random = new SplittableRandom(blockSeed(block));
+        StringBuilder out = new StringBuilder((int) Math.min(Integer.MAX_VALUE, count * 96));
+        for (long row = first; row < first + count; row++) {
+            rowGenerator.appendRow(out, random, row);
+        }
+        return ByteBuffer.wrap(out.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ByteBuffer encode(ByteBuffer block, boolean compress) {
+        if (!compress) {
+            return block;
+        }
+        return ByteBuffer.wrap(BlockGzip.compress(block.array(), block.arrayOffset() + block.position(), block.remaining(),
+                Deflater.BEST_SPEED));
+    }
+
+    private ByteBuffer header() {
+        return ByteBuffer.wrap((String.join(String.valueOf(rowGenerator.delimiter()), rowGenerator.header()) + "\n")
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Mixes the seed with the block number (the finalizer of SplitMix64), so neighbouring blocks get unrelated sources.
+     */
+    private long blockSeed(long block) {
+        long z = seed + (block + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer);
+        }
+        return written;
+    }
+}
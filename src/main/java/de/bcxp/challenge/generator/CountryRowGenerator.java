@@ -0,0 +1,74 @@
+package de.bcxp.challenge.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Rows in the format of countries.csv. Names and capitals are numbered so they stay unique, a few of them contain
+ * the delimiter and are quoted.
+ */
+public class CountryRowGenerator extends RowGenerator {
+
+    private static final String[] HEADER = {
+            "Name", "Capital", "Accession", "Population", "Area (km²)", "GDP (US$ M)", "HDI", "MEPs"
+    };
+
+    public CountryRowGenerator(GeneratorSettings settings) {
+        super(settings);
+    }
+
+    @Override
+    public String[] header() {
+        return HEADER.clone();
+    }
+
+    @Override
+    public char delimiter() {
+        return ';';
+    }
+
+    @Override
+    public void appendRow(StringBuilder out, SplittableRandom random, long index) {
+
+        Distribution distribution = settings.distribution;
+        RowKind kind = nextKind(random);
+
+        long population = distribution.sample(random, 30_000L, 90_000_000L);
+        String[] fields = {
+                "Country " + index,
+                settings.quoteRate > 0 && random.nextInt(16) == 0 ? "Capital " + index + "; Old Town" : "Capital " + index,
+                random.nextInt(8) == 0 ? "Founder" : Integer.toString(1958 + random.nextInt(70)),
+                Long.toString(population),
+                Long.toString(distribution.sample(random, 300L, 650_000L)),
+                Long.toString(distribution.sample(random, 1_000L, 4_000_000L)),
+                "0." + (700 + random.nextInt(300)),
+                Long.toString(distribution.sample(random, 6L, 96L))
+        };
+
+        if (kind == RowKind.INVALID) {
+            breakRow(fields, random);
+        } else if (kind == RowKind.LOCALE) {
+            fields[3] = germanNumber(population);
+        }
+
+        for (int i = 0; i < fields.length; i++) {
+            appendField(out, random, fields[i], i == 0);
+        }
+        out.append('\n');
+    }
+
+    private static void breakRow(String[] fields, SplittableRandom random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                fields[0] = "";
+                break;
+            case 1:
+                fields[4] = "0";
+                break;
+            case 2:
+                fields[6] = "1." + random.nextInt(10) + "1";
+                break;
+            default:
+                fields[3] = "unknown";
+        }
+    }
+}
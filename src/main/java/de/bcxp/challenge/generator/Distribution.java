@@ -0,0 +1,55 @@
+package de.bcxp.challenge.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Shape of the generated values between a minimum and a maximum.
+ */
+public enum Distribution {
+
+    /**
+     * Every value in the range is equally likely.
+     */
+    UNIFORM {
+        @Override
+        double unit(SplittableRandom random) {
+            return random.nextDouble();
+        }
+    },
+
+    /**
+     * Values cluster around the middle of the range, about three standard deviations to either side.
+     */
+    GAUSSIAN {
+        @Override
+        double unit(SplittableRandom random) {
+            // Irwin-Hall approximation, avoids the state of Random.nextGaussian and stays inside the range
+            return (random.nextDouble() + random.nextDouble() + random.nextDouble()
+                    + random.nextDouble() + random.nextDouble() + random.nextDouble()) / 6;
+        }
+    },
+
+    /**
+     * Most values are small with a long tail towards the maximum, like populations and areas.
+     */
+    SKEWED {
+        @Override
+        double unit(SplittableRandom random) {
+            double value = random.nextDouble();
+            return value * value * value;
+        }
+    };
+
+    /**
+     * @return a value in [0, 1) with this distribution
+     */
+    abstract double unit(SplittableRandom random);
+
+    double sample(SplittableRandom random, double min, double max) {
+        return min + unit(random) * (max - min);
+    }
+
+    long sample(SplittableRandom random, long min, long max) {
+        return Math.min(max, min + (long) (unit(random) * (max - min + 1)));
+    }
+}
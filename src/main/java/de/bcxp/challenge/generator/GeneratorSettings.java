@@ -0,0 +1,46 @@
+package de.bcxp.challenge.generator;
+
+/**
+ * Knobs of the row generators. All rates are fractions of the generated rows between 0 and 1.
+ */
+public class GeneratorSettings {
+
+    /**
+     * Rows that violate the mappers' validation, like a malformed number or a minimum above the maximum.
+     */
+    public double invalidRate = 0.0;
+
+    /**
+     * Rows with a number written in German format, like the 4.036.355,00 population of Croatia.
+     * The readers only accept English numbers, so these rows are rejected as well.
+     */
+    public double localeRate = 0.0;
+
+    /**
+     * Fields that are enclosed in quotes. Quoted text fields may contain the delimiter.
+     */
+    public double quoteRate = 0.0;
+
+    public Distribution distribution = Distribution.UNIFORM;
+
+    /**
+     * @throws IllegalArgumentException if a rate is outside of [0, 1] or the rates add up to more than 1
+     */
+    public void validate() {
+        checkRate("Invalid rate", invalidRate);
+        checkRate("Locale rate", localeRate);
+        checkRate("Quote rate", quoteRate);
+        if (invalidRate + localeRate > 1) {
+            throw new IllegalArgumentException("Invalid rate and locale rate cannot exceed 1 together");
+        }
+        if (distribution == null) {
+            throw new IllegalArgumentException("Distribution cannot be null");
+        }
+    }
+
+    private static void checkRate(String name, double rate) {
+        if (!(rate >= 0 && rate <= 1)) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1: " + rate);
+        }
+    }
+}
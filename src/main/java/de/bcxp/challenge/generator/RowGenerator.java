@@ -0,0 +1,104 @@
+package de.bcxp.challenge.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Writes synthetic rows of one CSV format. Implementations must only use the given random source, so the same
+ * seed always produces the same rows no matter which thread generates them.
+ */
+public abstract class RowGenerator {
+
+    protected final GeneratorSettings settings;
+
+    protected RowGenerator(GeneratorSettings settings) {
+        settings.validate();
+        this.settings = settings;
+    }
+
+    public abstract String[] header();
+
+    public abstract char delimiter();
+
+    /**
+     * Appends the row with the given index, including the line break.
+     */
+    public abstract void appendRow(StringBuilder out, SplittableRandom random, long index);
+
+    /**
+     * Decides how the next row is broken.
+     */
+    protected RowKind nextKind(SplittableRandom random) {
+        double value = random.nextDouble();
+        if (value < settings.invalidRate) {
+            return RowKind.INVALID;
+        }
+        if (value < settings.invalidRate + settings.localeRate) {
+            return RowKind.LOCALE;
+        }
+        return RowKind.VALID;
+    }
+
+    /**
+     * Appends the delimiter unless this is the first field, then the value, quoted according to the quote rate.
+     * Values containing the delimiter or a quote are always quoted.
+     */
+    protected void appendField(StringBuilder out, SplittableRandom random, CharSequence value, boolean first) {
+
+        if (!first) {
+            out.append(delimiter());
+        }
+
+        boolean quote = settings.quoteRate > 0 && random.nextDouble() < settings.quoteRate;
+        for (int i = 0; !quote && i < value.length(); i++) {
+            char c = value.charAt(i);
+            quote = c == delimiter() || c == '"';
+        }
+
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    /**
+     * Formats a number like a German locale does: dots as thousands separators and a comma with two decimals.
+     */
+    protected static String germanNumber(long value) {
+
+        String digits = Long.toString(Math.abs(value));
+        StringBuilder out = new StringBuilder(digits.length() + digits.length() / 3 + 4);
+        if (value < 0) {
+            out.append('-');
+        }
+        for (int i = 0; i < digits.length(); i++) {
+            if (i > 0 && (digits.length() - i) % 3 == 0) {
+                out.append('.');
+            }
+            out.append(digits.charAt(i));
+        }
+        return out.append(",00").toString();
+    }
+
+    /**
+     * Formats a number with one decimal without going through Double.toString.
+     */
+    protected static String oneDecimal(double value) {
+        long tenths = Math.round(value * 10);
+        long abs = Math.abs(tenths);
+        return (tenths < 0 ? "-" : "") + abs / 10 + "." + abs % 10;
+    }
+
+    protected enum RowKind {
+        VALID, INVALID, LOCALE
+    }
+}
@@ -0,0 +1,82 @@
+package de.bcxp.challenge.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Rows in the format of weather.csv. Days cycle through 1 to 31, temperatures are in Fahrenheit within the range
+ * the weather mapper accepts.
+ */
+public class WeatherRowGenerator extends RowGenerator {
+
+    private static final String[] HEADER = {
+            "Day", "MxT", "MnT", "AvT", "AvDP", "1HrP TPcpn", "PDir", "AvSp", "Dir", "MxS", "SkyC", "MxR", "Mn", "R AvSLP"
+    };
+
+    public WeatherRowGenerator(GeneratorSettings settings) {
+        super(settings);
+    }
+
+    @Override
+    public String[] header() {
+        return HEADER.clone();
+    }
+
+    @Override
+    public char delimiter() {
+        return ',';
+    }
+
+    @Override
+    public void appendRow(StringBuilder out, SplittableRandom random, long index) {
+
+        Distribution distribution = settings.distribution;
+        RowKind kind = nextKind(random);
+
+        long maxTemperature = distribution.sample(random, 10L, 110L);
+        long minTemperature = maxTemperature - distribution.sample(random, 0L, 40L);
+        String[] fields = {
+                Long.toString(index % 31 + 1),
+                Long.toString(maxTemperature),
+                Long.toString(minTemperature),
+                Long.toString((maxTemperature + minTemperature) / 2),
+                oneDecimal(distribution.sample(random, 20.0, 70.0)),
+                Integer.toString(random.nextInt(3)),
+                Integer.toString(random.nextInt(360)),
+                oneDecimal(distribution.sample(random, 0.0, 20.0)),
+                Integer.toString(random.nextInt(360)),
+                Long.toString(distribution.sample(random, 5L, 40L)),
+                oneDecimal(distribution.sample(random, 0.0, 8.0)),
+                Long.toString(distribution.sample(random, 40L, 100L)),
+                Long.toString(distribution.sample(random, 10L, 50L)),
+                oneDecimal(distribution.sample(random, 990.0, 1030.0))
+        };
+
+        if (kind == RowKind.INVALID) {
+            breakRow(fields, random);
+        } else if (kind == RowKind.LOCALE) {
+            // The comma of the German decimal is the delimiter, so the field ends up quoted
+            fields[4] = fields[4].replace('.', ',');
+        }
+
+        for (int i = 0; i < fields.length; i++) {
+            appendField(out, random, fields[i], i == 0);
+        }
+        out.append('\n');
+    }
+
+    private static void breakRow(String[] fields, SplittableRandom random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                fields[1] = "n/a";
+                break;
+            case 1:
+                fields[0] = Integer.toString(32 + random.nextInt(10));
+                break;
+            case 2:
+                fields[2] = Integer.toString(Integer.parseInt(fields[1]) + 1 + random.nextInt(10));
+                break;
+            default:
+                fields[13] = "";
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package de.bcxp.challenge.query;
+
+/**
+ * Aggregate function of a {@link Query}, optionally over an {@link Expression}. Results are named after the
+ * function and the expression, e.g. {@code avg(AvDP)}, unless renamed with {@link #as(String)}.
+ */
+public final class Aggregate {
+
+    public enum Function {
+        COUNT, SUM, MIN, MAX, AVG
+    }
+
+    final Function function;
+    final Expression expression;
+    final String name;
+
+    private Aggregate(Function function, Expression expression, String name) {
+        this.function = function;
+        this.expression = expression;
+        this.name = name;
+    }
+
+    /**
+     * Counts the selected rows.
+     */
+    public static Aggregate count() {
+        return new Aggregate(Function.COUNT, null, "count");
+    }
+
+    public static Aggregate sum(Expression expression) {
+        return of(Function.SUM, expression);
+    }
+
+    public static Aggregate min(Expression expression) {
+        return of(Function.MIN, expression);
+    }
+
+    public static Aggregate max(Expression expression) {
+        return of(Function.MAX, expression);
+    }
+
+    public static Aggregate avg(Expression expression) {
+        return of(Function.AVG, expression);
+    }
+
+    public static Aggregate sum(String column) {
+        return sum(Expression.column(column));
+    }
+
+    public static Aggregate min(String column) {
+        return min(Expression.column(column));
+    }
+
+    public static Aggregate max(String column) {
+        return max(Expression.column(column));
+    }
+
+    public static Aggregate avg(String column) {
+        return avg(Expression.column(column));
+    }
+
+    /**
+     * @return the same aggregate with another result name
+     */
+    public Aggregate as(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Aggregate name cannot be null or empty");
+        }
+        return new Aggregate(function, expression, name);
+    }
+
+    public Function getFunction() {
+        return function;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private static Aggregate of(Function function, Expression expression) {
+        if (expression == null) {
+            throw new IllegalArgumentException("Expression cannot be null");
+        }
+        return new Aggregate(function, expression, function.name().toLowerCase() + "(" + expression + ")");
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
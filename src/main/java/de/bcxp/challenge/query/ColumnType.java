@@ -0,0 +1,33 @@
+package de.bcxp.challenge.query;
+
+/**
+ * Type of a {@link Dataset} column, which decides how it can be read.
+ */
+public enum ColumnType {
+    INT(true, true),
+    LONG(true, false),
+    DOUBLE(true, false),
+    STRING(false, true);
+
+    private final boolean numeric;
+    private final boolean key;
+
+    ColumnType(boolean numeric, boolean key) {
+        this.numeric = numeric;
+        this.key = key;
+    }
+
+    /**
+     * @return true if the column can be read as {@link NumericColumn}
+     */
+    public boolean isNumeric() {
+        return numeric;
+    }
+
+    /**
+     * @return true if the column can be read as {@link KeyColumn}
+     */
+    public boolean isKey() {
+        return key;
+    }
+}
@@ -0,0 +1,83 @@
+package de.bcxp.challenge.query;
+
+/**
+ * Comparison of a numeric value with a constant. Comparisons with NaN are false, except {@link #NOT_EQUAL}.
+ */
+public enum Comparison {
+    LESS_THAN("<"),
+    LESS_OR_EQUAL("<="),
+    GREATER_THAN(">"),
+    GREATER_OR_EQUAL(">="),
+    EQUAL("="),
+    NOT_EQUAL("!=");
+
+    private final String symbol;
+
+    Comparison(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * Keeps the rows of the selection vector whose value matches, in place and in order.
+     *
+     * @param values    values of the current batch, indexed like the selection
+     * @param constant  right hand side of the comparison
+     * @param selection positions in the batch that are still selected
+     * @param count     number of valid entries in the selection
+     * @return the number of entries that are still selected
+     */
+    int select(double[] values, double constant, int[] selection, int count) {
+        // One tight loop per operator, so the JIT compiles each without a branch on the operator
+        int kept = 0;
+        switch (this) {
+            case LESS_THAN:
+                for (int i = 0; i < count; i++) {
+                    int position = selection[i];
+                    selection[kept] = position;
+                    kept += values[position] < constant ? 1 : 0;
+                }
+                break;
+            case LESS_OR_EQUAL:
+                for (int i = 0; i < count; i++) {
+                    int position = selection[i];
+                    selection[kept] = position;
+                    kept += values[position] <= constant ? 1 : 0;
+                }
+                break;
+            case GREATER_THAN:
+                for (int i = 0; i < count; i++) {
+                    int position = selection[i];
+                    selection[kept] = position;
+                    kept += values[position] > constant ? 1 : 0;
+                }
+                break;
+            case GREATER_OR_EQUAL:
+                for (int i = 0; i < count; i++) {
+                    int position = selection[i];
+                    selection[kept] = position;
+                    kept += values[position] >= constant ? 1 : 0;
+                }
+                break;
+            case EQUAL:
+                for (int i = 0; i < count; i++) {
+                    int position = selection[i];
+                    selection[kept] = position;
+                    kept += values[position] == constant ? 1 : 0;
+                }
+                break;
+            case NOT_EQUAL:
+                for (int i = 0; i < count; i++) {
+                    int position = selection[i];
+                    selection[kept] = position;
+                    kept += values[position] != constant ? 1 : 0;
+                }
+                break;
+        }
+        return kept;
+    }
+
+    @Override
+    public String toString() {
+        return symbol;
+    }
+}
@@ -0,0 +1,35 @@
+package de.bcxp.challenge.query;
+
+import java.util.List;
+
+/**
+ * Loaded data that a {@link Query} can run on. Rows are addressed by index and columns are read in batches
+ * into primitive arrays, so a query never materializes an entity or makes a virtual call per row.
+ * <p>
+ * Columns are resolved by name once per query. Every numeric column can be read as double; int and String columns
+ * can also be read as {@link KeyColumn} to filter on equality and to group by.
+ */
+public interface Dataset {
+
+    int size();
+
+    /**
+     * @return the names of all columns, in source order
+     */
+    List<String> columnNames();
+
+    /**
+     * @throws IllegalArgumentException if the dataset has no column with the given name
+     */
+    ColumnType columnType(String name);
+
+    /**
+     * @throws IllegalArgumentException if the dataset has no numeric column with the given name
+     */
+    NumericColumn numericColumn(String name);
+
+    /**
+     * @throws IllegalArgumentException if the dataset has no int or String column with the given name
+     */
+    KeyColumn keyColumn(String name);
+}
@@ -0,0 +1,150 @@
+package de.bcxp.challenge.query;
+
+/**
+ * Numeric expression over the columns of a {@link Dataset}, e.g. the temperature spread
+ * {@code column("MxT").minus(column("MnT"))}. Expressions are immutable and evaluated batch-at-a-time:
+ * every operator runs one loop over the whole batch.
+ * Arithmetic follows IEEE 754, so dividing by zero gives an infinity or NaN.
+ */
+public abstract class Expression {
+
+    private Expression() {
+    }
+
+    public static Expression column(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Column name cannot be null or empty");
+        }
+        return new ColumnReference(name);
+    }
+
+    public static Expression constant(double value) {
+        return new Constant(value);
+    }
+
+    public Expression plus(Expression other) {
+        return new Binary(this, '+', other);
+    }
+
+    public Expression minus(Expression other) {
+        return new Binary(this, '-', other);
+    }
+
+    public Expression times(Expression other) {
+        return new Binary(this, '*', other);
+    }
+
+    public Expression dividedBy(Expression other) {
+        return new Binary(this, '/', other);
+    }
+
+    /**
+     * Resolves the columns of the expression. The returned reader may keep scratch buffers of
+     * {@link Query#BATCH_SIZE} values, so it must only be used by one query execution.
+     */
+    abstract NumericColumn bind(Dataset dataset);
+
+    private static final class ColumnReference extends Expression {
+
+        private final String name;
+
+        ColumnReference(String name) {
+            this.name = name;
+        }
+
+        @Override
+        NumericColumn bind(Dataset dataset) {
+            return dataset.numericColumn(name);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static final class Constant extends Expression {
+
+        private final double value;
+
+        Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        NumericColumn bind(Dataset dataset) {
+            return (from, length, target) -> {
+                for (int i = 0; i < length; i++) {
+                    target[i] = value;
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return Double.toString(value);
+        }
+    }
+
+    private static final class Binary extends Expression {
+
+        private final Expression left;
+        private final char operator;
+        private final Expression right;
+
+        Binary(Expression left, char operator, Expression right) {
+            if (right == null) {
+                throw new IllegalArgumentException("Operand cannot be null");
+            }
+            this.left = left;
+            this.operator = operator;
+            this.right = right;
+        }
+
+        @Override
+        NumericColumn bind(Dataset dataset) {
+            NumericColumn leftColumn = left.bind(dataset);
+            NumericColumn rightColumn = right.bind(dataset);
+            double[] operand = new double[Query.BATCH_SIZE];
+            switch (operator) {
+                case '+':
+                    return (from, length, target) -> {
+                        leftColumn.read(from, length, target);
+                        rightColumn.read(from, length, operand);
+                        for (int i = 0; i < length; i++) {
+                            target[i] += operand[i];
+                        }
+                    };
+                case '-':
+                    return (from, length, target) -> {
+                        leftColumn.read(from, length, target);
+                        rightColumn.read(from, length, operand);
+                        for (int i = 0; i < length; i++) {
+                            target[i] -= operand[i];
+                        }
+                    };
+                case '*':
+                    return (from, length, target) -> {
+                        leftColumn.read(from, length, target);
+                        rightColumn.read(from, length, operand);
+                        for (int i = 0; i < length; i++) {
+                            target[i] *= operand[i];
+                        }
+                    };
+                default:
+                    return (from, length, target) -> {
+                        leftColumn.read(from, length, target);
+                        rightColumn.read(from, length, operand);
+                        for (int i = 0; i < length; i++) {
+                            target[i] /= operand[i];
+                        }
+                    };
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " " + operator + " " + right + ")";
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package de.bcxp.challenge.query;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map from key codes to dense group numbers, assigned in order of first appearance.
+ * Codes are looked up per selected row, so the map avoids boxing and keeps keys and groups in flat arrays.
+ */
+final class GroupIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private int[] groups = new int[INITIAL_CAPACITY];
+    private int[] codes = new int[INITIAL_CAPACITY];
+    private int size;
+
+    GroupIndex() {
+        Arrays.fill(groups, -1);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the code of the group with the given number
+     */
+    int code(int group) {
+        return codes[group];
+    }
+
+    /**
+     * @return the group number of the code, adding a new group if the code was not seen before
+     */
+    int groupOf(int code) {
+        int mask = keys.length - 1;
+        int slot = mix(code) & mask;
+        while (groups[slot] >= 0) {
+            if (keys[slot] == code) {
+                return groups[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int group = size++;
+        keys[slot] = code;
+        groups[slot] = group;
+        if (group == codes.length) {
+            codes = Arrays.copyOf(codes, group * 2);
+        }
+        codes[group] = code;
+        if (size * 2 > keys.length) {
+            rehash();
+        }
+        return group;
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        int[] oldGroups = groups;
+        keys = new int[oldKeys.length * 2];
+        groups = new int[oldKeys.length * 2];
+        Arrays.fill(groups, -1);
+
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldGroups[i] < 0) {
+                continue;
+            }
+            int slot = mix(oldKeys[i]) & mask;
+            while (groups[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            groups[slot] = oldGroups[i];
+        }
+    }
+
+    private static int mix(int code) {
+        int hash = code * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,67 @@
+package de.bcxp.challenge.query;
+
+import java.util.OptionalInt;
+
+/**
+ * Batch reader for a low-cardinality column whose values are encoded as int codes. Equal values have equal codes,
+ * so filters and group-by compare ints instead of objects.
+ * <p>
+ * A key column may assign codes lazily while it is read, so it is bound to a single query execution.
+ */
+public interface KeyColumn {
+
+    /**
+     * Reads the codes of the rows from, from + 1, ..., from + length - 1 into target[0 .. length - 1].
+     * The caller guarantees that the rows exist and that the target is large enough.
+     */
+    void read(int from, int length, int[] target);
+
+    /**
+     * @return the value a code stands for
+     */
+    Object value(int code);
+
+    /**
+     * @return the code of the given value, or empty if no row can have that value
+     */
+    OptionalInt code(Object value);
+
+    /**
+     * Key column of an int column: the code of a value is the value itself.
+     */
+    static KeyColumn ofInts(IntColumnReader reader) {
+        return new KeyColumn() {
+            @Override
+            public void read(int from, int length, int[] target) {
+                reader.read(from, length, target);
+            }
+
+            @Override
+            public Object value(int code) {
+                return code;
+            }
+
+            @Override
+            public OptionalInt code(Object value) {
+                if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                    return OptionalInt.of(((Number) value).intValue());
+                }
+                if (value instanceof Number) {
+                    double number = ((Number) value).doubleValue();
+                    if (number == (int) number) {
+                        return OptionalInt.of((int) number);
+                    }
+                }
+                return OptionalInt.empty();
+            }
+        };
+    }
+
+    /**
+     * Reads an int column in batches, see {@link #read(int, int, int[])}.
+     */
+    @FunctionalInterface
+    interface IntColumnReader {
+        void read(int from, int length, int[] target);
+    }
+}
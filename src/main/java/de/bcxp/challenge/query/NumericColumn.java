@@ -0,0 +1,14 @@
+package de.bcxp.challenge.query;
+
+/**
+ * Batch reader for a numeric column or a computed {@link Expression}.
+ */
+@FunctionalInterface
+public interface NumericColumn {
+
+    /**
+     * Reads the values of the rows from, from + 1, ..., from + length - 1 into target[0 .. length - 1].
+     * The caller guarantees that the rows exist and that the target is large enough.
+     */
+    void read(int from, int length, double[] target);
+}
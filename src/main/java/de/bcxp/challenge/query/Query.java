@@ -0,0 +1,472 @@
+package de.bcxp.challenge.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * Ad-hoc query over a {@link Dataset}: filters, then either projections or aggregates, optionally grouped by a
+ * low-cardinality key column. For example the average dew point of the days with a spread below 10:
+ * <pre>{@code
+ * Query.from(weatherTable)
+ *         .where(column("MxT").minus(column("MnT")), Comparison.LESS_THAN, 10)
+ *         .aggregate(Aggregate.avg("AvDP"))
+ *         .execute();
+ * }</pre>
+ * <p>
+ * Execution is batch-at-a-time: the rows are processed in batches of {@link #BATCH_SIZE}. Every filter reads its
+ * column for the batch into a primitive array and narrows a selection vector of row positions, and aggregates
+ * read their column once per batch and fold the selected positions into per-group state. All loops run over
+ * primitive arrays, so the JIT can unroll them and there is no virtual call or allocation per row.
+ * <p>
+ * Groups and result rows keep the order in which they first appear in the data. A query is a mutable builder
+ * and not thread safe; every {@link #execute()} binds its own columns and can run again on the current data.
+ */
+public final class Query {
+
+    /** Number of rows read per batch, small enough that the batch arrays of a query stay in the L1 cache. */
+    public static final int BATCH_SIZE = 1024;
+
+    private final Dataset dataset;
+    private final List<Filter> filters = new ArrayList<>();
+    private final List<String> projectionNames = new ArrayList<>();
+    private final List<Object> projections = new ArrayList<>();
+    private final List<Aggregate> aggregates = new ArrayList<>();
+    private String groupBy;
+    private int limit = Integer.MAX_VALUE;
+
+    private Query(Dataset dataset) {
+        this.dataset = dataset;
+    }
+
+    public static Query from(Dataset dataset) {
+        if (dataset == null) {
+            throw new IllegalArgumentException("Dataset cannot be null");
+        }
+        return new Query(dataset);
+    }
+
+    /**
+     * Keeps the rows whose expression value compares to the constant as given. Multiple filters are combined with AND.
+     */
+    public Query where(Expression expression, Comparison comparison, double value) {
+        if (expression == null || comparison == null) {
+            throw new IllegalArgumentException("Expression and comparison cannot be null");
+        }
+        filters.add(new NumericFilter(expression, comparison, value));
+        return this;
+    }
+
+    public Query where(String column, Comparison comparison, double value) {
+        return where(Expression.column(column), comparison, value);
+    }
+
+    /**
+     * Keeps the rows whose key column equals the given value, e.g. {@code whereEquals("Accession", "2004")}.
+     */
+    public Query whereEquals(String column, Object value) {
+        if (column == null || column.isEmpty()) {
+            throw new IllegalArgumentException("Column name cannot be null or empty");
+        }
+        filters.add(new KeyFilter(column, value));
+        return this;
+    }
+
+    /**
+     * Projects the given columns with their values as stored.
+     */
+    public Query select(String... columns) {
+        for (String column : columns) {
+            if (column == null || column.isEmpty()) {
+                throw new IllegalArgumentException("Column name cannot be null or empty");
+            }
+            projectionNames.add(column);
+            projections.add(column);
+        }
+        return this;
+    }
+
+    /**
+     * Projects a computed value under the given name.
+     */
+    public Query select(String name, Expression expression) {
+        if (name == null || name.isEmpty() || expression == null) {
+            throw new IllegalArgumentException("Projection name and expression cannot be null or empty");
+        }
+        projectionNames.add(name);
+        projections.add(expression);
+        return this;
+    }
+
+    /**
+     * Groups the selected rows by a key column. The key is the first column of the result.
+     */
+    public Query groupBy(String column) {
+        if (column == null || column.isEmpty()) {
+            throw new IllegalArgumentException("Column name cannot be null or empty");
+        }
+        this.groupBy = column;
+        return this;
+    }
+
+    public Query aggregate(Aggregate... aggregates) {
+        for (Aggregate aggregate : aggregates) {
+            if (aggregate == null) {
+                throw new IllegalArgumentException("Aggregate cannot be null");
+            }
+            this.aggregates.add(aggregate);
+        }
+        return this;
+    }
+
+    /**
+     * Stops after the given number of result rows.
+     */
+    public Query limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative: " + limit);
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * @throws IllegalStateException    if projections are combined with group-by or aggregates
+     * @throws IllegalArgumentException if a column does not exist or has the wrong type
+     */
+    public QueryResult execute() {
+
+        if (!projections.isEmpty() && (groupBy != null || !aggregates.isEmpty())) {
+            throw new IllegalStateException("Projections cannot be combined with group-by or aggregates");
+        }
+
+        BoundFilter[] boundFilters = new BoundFilter[filters.size()];
+        for (int i = 0; i < boundFilters.length; i++) {
+            boundFilters[i] = filters.get(i).bind(dataset);
+        }
+
+        if (groupBy != null || !aggregates.isEmpty()) {
+            return aggregate(boundFilters);
+        }
+        return project(boundFilters);
+    }
+
+    private QueryResult project(BoundFilter[] boundFilters) {
+
+        List<String> names = new ArrayList<>(projectionNames);
+        List<Object> sources = new ArrayList<>(projections);
+        if (sources.isEmpty()) {
+            names.addAll(dataset.columnNames());
+            sources.addAll(dataset.columnNames());
+        }
+
+        Projection[] boundProjections = new Projection[sources.size()];
+        for (int i = 0; i < boundProjections.length; i++) {
+            boundProjections[i] = bindProjection(sources.get(i));
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        int[] selection = new int[BATCH_SIZE];
+        int size = dataset.size();
+        for (int from = 0; from < size && rows.size() < limit; from += BATCH_SIZE) {
+            int length = Math.min(BATCH_SIZE, size - from);
+            int count = select(boundFilters, from, length, selection);
+            count = Math.min(count, limit - rows.size());
+            if (count == 0) {
+                continue;
+            }
+
+            for (Projection projection : boundProjections) {
+                projection.read(from, length);
+            }
+            for (int i = 0; i < count; i++) {
+                Object[] row = new Object[boundProjections.length];
+                for (int column = 0; column < row.length; column++) {
+                    row[column] = boundProjections[column].value(selection[i]);
+                }
+                rows.add(row);
+            }
+        }
+        return new QueryResult(names, rows);
+    }
+
+    private QueryResult aggregate(BoundFilter[] boundFilters) {
+
+        KeyColumn key = groupBy != null ? dataset.keyColumn(groupBy) : null;
+        GroupIndex groupIndex = new GroupIndex();
+        if (key == null) {
+            // A single group for the whole selection, which also yields a row when nothing is selected
+            groupIndex.groupOf(0);
+        }
+
+        Accumulator[] accumulators = new Accumulator[aggregates.size()];
+        for (int i = 0; i < accumulators.length; i++) {
+            accumulators[i] = new Accumulator(aggregates.get(i), dataset);
+        }
+
+        int[] selection = new int[BATCH_SIZE];
+        int[] codes = new int[BATCH_SIZE];
+        int[] groups = new int[BATCH_SIZE];
+        int size = dataset.size();
+        for (int from = 0; from < size; from += BATCH_SIZE) {
+            int length = Math.min(BATCH_SIZE, size - from);
+            int count = select(boundFilters, from, length, selection);
+            if (count == 0) {
+                continue;
+            }
+
+            if (key != null) {
+                key.read(from, length, codes);
+                for (int i = 0; i < count; i++) {
+                    groups[i] = groupIndex.groupOf(codes[selection[i]]);
+                }
+            }
+            for (Accumulator accumulator : accumulators) {
+                accumulator.add(from, length, selection, groups, count, groupIndex.size());
+            }
+        }
+
+        List<String> names = new ArrayList<>();
+        if (key != null) {
+            names.add(groupBy);
+        }
+        for (Aggregate aggregate : aggregates) {
+            names.add(aggregate.name);
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        int groupCount = Math.min(groupIndex.size(), limit);
+        for (int group = 0; group < groupCount; group++) {
+            Object[] row = new Object[names.size()];
+            int column = 0;
+            if (key != null) {
+                row[column++] = key.value(groupIndex.code(group));
+            }
+            for (Accumulator accumulator : accumulators) {
+                row[column++] = accumulator.result(group);
+            }
+            rows.add(row);
+        }
+        return new QueryResult(names, rows);
+    }
+
+    /**
+     * Fills the selection vector with the positions in the batch that pass all filters.
+     *
+     * @return the number of selected positions
+     */
+    private static int select(BoundFilter[] filters, int from, int length, int[] selection) {
+        for (int i = 0; i < length; i++) {
+            selection[i] = i;
+        }
+        int count = length;
+        for (BoundFilter filter : filters) {
+            if (count == 0) {
+                break;
+            }
+            count = filter.select(from, length, selection, count);
+        }
+        return count;
+    }
+
+    private Projection bindProjection(Object source) {
+
+        if (source instanceof Expression) {
+            return numericProjection(((Expression) source).bind(dataset), false);
+        }
+
+        String column = (String) source;
+        ColumnType type = dataset.columnType(column);
+        if (type == ColumnType.LONG || type == ColumnType.DOUBLE) {
+            return numericProjection(dataset.numericColumn(column), type == ColumnType.LONG);
+        }
+
+        KeyColumn keyColumn = dataset.keyColumn(column);
+        int[] codes = new int[BATCH_SIZE];
+        return new Projection() {
+            @Override
+            public void read(int from, int length) {
+                keyColumn.read(from, length, codes);
+            }
+
+            @Override
+            public Object value(int position) {
+                return keyColumn.value(codes[position]);
+            }
+        };
+    }
+
+    private static Projection numericProjection(NumericColumn numericColumn, boolean asLong) {
+        double[] values = new double[BATCH_SIZE];
+        return new Projection() {
+            @Override
+            public void read(int from, int length) {
+                numericColumn.read(from, length, values);
+            }
+
+            @Override
+            public Object value(int position) {
+                return asLong ? (Object) (long) values[position] : (Object) values[position];
+            }
+        };
+    }
+
+    private interface Filter {
+        BoundFilter bind(Dataset dataset);
+    }
+
+    private interface BoundFilter {
+        /**
+         * Narrows the selection vector of the batch in place.
+         *
+         * @return the number of positions that are still selected
+         */
+        int select(int from, int length, int[] selection, int count);
+    }
+
+    private interface Projection {
+        void read(int from, int length);
+
+        Object value(int position);
+    }
+
+    private static final class NumericFilter implements Filter {
+
+        private final Expression expression;
+        private final Comparison comparison;
+        private final double value;
+
+        NumericFilter(Expression expression, Comparison comparison, double value) {
+            this.expression = expression;
+            this.comparison = comparison;
+            this.value = value;
+        }
+
+        @Override
+        public BoundFilter bind(Dataset dataset) {
+            NumericColumn column = expression.bind(dataset);
+            double[] values = new double[BATCH_SIZE];
+            return (from, length, selection, count) -> {
+                column.read(from, length, values);
+                return comparison.select(values, value, selection, count);
+            };
+        }
+    }
+
+    private static final class KeyFilter implements Filter {
+
+        private final String column;
+        private final Object value;
+
+        KeyFilter(String column, Object value) {
+            this.column = column;
+            this.value = value;
+        }
+
+        @Override
+        public BoundFilter bind(Dataset dataset) {
+            KeyColumn keyColumn = dataset.keyColumn(column);
+            OptionalInt code = keyColumn.code(value);
+            if (code.isEmpty()) {
+                return (from, length, selection, count) -> 0;
+            }
+
+            int expected = code.getAsInt();
+            int[] codes = new int[BATCH_SIZE];
+            return (from, length, selection, count) -> {
+                keyColumn.read(from, length, codes);
+                int kept = 0;
+                for (int i = 0; i < count; i++) {
+                    int position = selection[i];
+                    selection[kept] = position;
+                    kept += codes[position] == expected ? 1 : 0;
+                }
+                return kept;
+            };
+        }
+    }
+
+    /**
+     * Per-group state of one aggregate, in flat arrays indexed by group number.
+     */
+    private static final class Accumulator {
+
+        private final Aggregate.Function function;
+        private final NumericColumn column;
+        private final double[] values = new double[BATCH_SIZE];
+        private double[] state = new double[16];
+        private long[] counts = new long[16];
+        private int groups;
+
+        Accumulator(Aggregate aggregate, Dataset dataset) {
+            this.function = aggregate.function;
+            this.column = aggregate.expression != null ? aggregate.expression.bind(dataset) : null;
+        }
+
+        void add(int from, int length, int[] selection, int[] groupOf, int count, int groupCount) {
+
+            ensureGroups(groupCount);
+            if (column != null) {
+                column.read(from, length, values);
+            }
+
+            switch (function) {
+                case COUNT:
+                    for (int i = 0; i < count; i++) {
+                        counts[groupOf[i]]++;
+                    }
+                    break;
+                case SUM:
+                case AVG:
+                    for (int i = 0; i < count; i++) {
+                        int group = groupOf[i];
+                        state[group] += values[selection[i]];
+                        counts[group]++;
+                    }
+                    break;
+                case MIN:
+                    for (int i = 0; i < count; i++) {
+                        int group = groupOf[i];
+                        state[group] = Math.min(state[group], values[selection[i]]);
+                        counts[group]++;
+                    }
+                    break;
+                case MAX:
+                    for (int i = 0; i < count; i++) {
+                        int group = groupOf[i];
+                        state[group] = Math.max(state[group], values[selection[i]]);
+                        counts[group]++;
+                    }
+                    break;
+            }
+        }
+
+        Object result(int group) {
+            ensureGroups(group + 1);
+            switch (function) {
+                case COUNT:
+                    return counts[group];
+                case SUM:
+                    return state[group];
+                case AVG:
+                    return counts[group] == 0 ? null : state[group] / counts[group];
+                default:
+                    return counts[group] == 0 ? null : state[group];
+            }
+        }
+
+        private void ensureGroups(int groupCount) {
+            if (groupCount > state.length) {
+                int capacity = Math.max(groupCount, state.length * 2);
+                state = Arrays.copyOf(state, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+            }
+            double initial = function == Aggregate.Function.MIN ? Double.POSITIVE_INFINITY
+                    : function == Aggregate.Function.MAX ? Double.NEGATIVE_INFINITY : 0;
+            for (; groups < groupCount; groups++) {
+                state[groups] = initial;
+            }
+        }
+    }
+}
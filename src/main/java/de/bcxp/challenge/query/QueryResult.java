@@ -0,0 +1,64 @@
+package de.bcxp.challenge.query;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Rows returned by a {@link Query}. Values are Integer, Long, Double or String depending on the column;
+ * min, max and avg of an empty selection are null.
+ */
+public final class QueryResult {
+
+    private final List<String> columns;
+    private final List<Object[]> rows;
+
+    QueryResult(List<String> columns, List<Object[]> rows) {
+        this.columns = Collections.unmodifiableList(columns);
+        this.rows = rows;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    public Object get(int row, int column) {
+        return rows.get(row)[column];
+    }
+
+    /**
+     * @throws IllegalArgumentException if the result has no column with the given name
+     */
+    public Object get(int row, String column) {
+        int index = columns.indexOf(column);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown column: " + column);
+        }
+        return get(row, index);
+    }
+
+    /**
+     * @return a copy of the values of a row, in column order
+     */
+    public Object[] getRow(int row) {
+        return rows.get(row).clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(String.join("\t", columns));
+        for (Object[] row : rows) {
+            builder.append('\n');
+            for (int column = 0; column < row.length; column++) {
+                if (column > 0) {
+                    builder.append('\t');
+                }
+                builder.append(row[column]);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,147 @@
+package de.bcxp.challenge.query;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+
+/**
+ * Dictionary for low-cardinality String columns: every distinct value gets the next int code in order of first
+ * appearance, so a column can be stored as one int per row and every distinct String exists only once.
+ * Null is a value of its own.
+ * <p>
+ * Encoding is not thread safe, looking up codes and values of a dictionary that is no longer filled is.
+ */
+public final class StringDictionary {
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    /**
+     * @return the code of the value, adding it to the dictionary if it was not seen before
+     */
+    public int encode(String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    /**
+     * @return the code of the value, or empty if it is not in the dictionary or not a String
+     */
+    public OptionalInt find(Object value) {
+        if (value != null && !(value instanceof String)) {
+            return OptionalInt.empty();
+        }
+        Integer code = codes.get(value);
+        return code == null ? OptionalInt.empty() : OptionalInt.of(code);
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if the code is not in the dictionary
+     */
+    public String decode(int code) {
+        return values.get(code);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Key column over codes of this dictionary that are stored per row, e.g. in a record buffer. Filters on values
+     * that are not in the dictionary select nothing, without extending the dictionary.
+     *
+     * @param codes reads the stored codes
+     */
+    public KeyColumn keyColumn(KeyColumn.IntColumnReader codes) {
+        return new KeyColumn() {
+            @Override
+            public void read(int from, int length, int[] target) {
+                codes.read(from, length, target);
+            }
+
+            @Override
+            public Object value(int code) {
+                return decode(code);
+            }
+
+            @Override
+            public OptionalInt code(Object value) {
+                return find(value);
+            }
+        };
+    }
+
+    /**
+     * @return the number of bytes {@link #writeTo(ByteBuffer)} needs
+     */
+    public long serializedSize() {
+        long bytes = Integer.BYTES;
+        for (String value : values) {
+            bytes += Integer.BYTES + (value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length);
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes the values in code order: their count, then every value as UTF-8 byte length (-1 for null) and bytes,
+     * little endian.
+     */
+    public void writeTo(ByteBuffer target) {
+        ByteBuffer buffer = target.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(values.size());
+        for (String value : values) {
+            if (value == null) {
+                buffer.putInt(-1);
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                buffer.putInt(bytes.length);
+                buffer.put(bytes);
+            }
+        }
+        target.position(buffer.position());
+    }
+
+    /**
+     * Reads a dictionary written by {@link #writeTo(ByteBuffer)} and moves the buffer past it.
+     *
+     * @throws IllegalArgumentException if the buffer does not hold a complete dictionary
+     */
+    public static StringDictionary readFrom(ByteBuffer source) {
+
+        ByteBuffer buffer = source.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        StringDictionary dictionary = new StringDictionary();
+
+        int count = buffer.remaining() >= Integer.BYTES ? buffer.getInt() : -1;
+        if (count < 0) {
+            throw new IllegalArgumentException("Corrupt dictionary size: " + count);
+        }
+        for (int code = 0; code < count; code++) {
+            int length = buffer.remaining() >= Integer.BYTES ? buffer.getInt() : Integer.MIN_VALUE;
+            if (length < -1 || length > buffer.remaining()) {
+                throw new IllegalArgumentException("Corrupt dictionary value " + code + " of " + count);
+            }
+            String value = null;
+            if (length >= 0) {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+            }
+            if (dictionary.encode(value) != code) {
+                throw new IllegalArgumentException("Duplicate dictionary value " + code + " of " + count);
+            }
+        }
+
+        source.position(buffer.position());
+        return dictionary;
+    }
+}
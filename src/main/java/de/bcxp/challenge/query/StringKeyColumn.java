@@ -0,0 +1,42 @@
+package de.bcxp.challenge.query;
+
+import java.util.OptionalInt;
+import java.util.function.IntFunction;
+
+/**
+ * Key column of a String column that builds its {@link StringDictionary} while it is read: every distinct value
+ * gets the next code in order of first appearance. Only the dictionary is kept, never a code per row.
+ * Null is a value of its own.
+ */
+public class StringKeyColumn implements KeyColumn {
+
+    private final IntFunction<String> valueAt;
+    private final StringDictionary dictionary = new StringDictionary();
+
+    /**
+     * @param valueAt reads the value of a row
+     */
+    public StringKeyColumn(IntFunction<String> valueAt) {
+        this.valueAt = valueAt;
+    }
+
+    @Override
+    public void read(int from, int length, int[] target) {
+        for (int i = 0; i < length; i++) {
+            target[i] = dictionary.encode(valueAt.apply(from + i));
+        }
+    }
+
+    @Override
+    public Object value(int code) {
+        return dictionary.decode(code);
+    }
+
+    @Override
+    public OptionalInt code(Object value) {
+        if (value != null && !(value instanceof String)) {
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of(dictionary.encode((String) value));
+    }
+}
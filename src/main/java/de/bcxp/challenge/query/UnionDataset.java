@@ -0,0 +1,234 @@
+package de.bcxp.challenge.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+
+/**
+ * Concatenation of datasets with the same columns, e.g. one per file of a partitioned directory, as one logical
+ * dataset. Every part can carry constant String values, such as its partition keys, that appear as extra columns
+ * in front of the columns of the parts. A part without a value for such a column reads null.
+ * <p>
+ * Batches that span parts are split at the part boundaries, so every read still ends up as one bulk read per part.
+ */
+public class UnionDataset implements Dataset {
+
+    private final List<Dataset> parts;
+    private final List<Map<String, String>> constants;
+    private final List<String> constantColumns = new ArrayList<>();
+    private final List<String> columnNames = new ArrayList<>();
+    private final int[] offsets;
+
+    /**
+     * @param parts     datasets with the same columns, in order
+     * @param constants constant column values per part, in the same order as the parts
+     */
+    public UnionDataset(List<? extends Dataset> parts, List<Map<String, String>> constants) {
+
+        if (parts == null || parts.isEmpty()) {
+            throw new IllegalArgumentException("Parts cannot be null or empty");
+        }
+        if (constants == null || constants.size() != parts.size()) {
+            throw new IllegalArgumentException("Constants are needed for every part");
+        }
+
+        this.parts = new ArrayList<>(parts);
+        this.constants = new ArrayList<>(constants);
+
+        Map<String, Boolean> keys = new LinkedHashMap<>();
+        constants.forEach(values -> values.keySet().forEach(key -> keys.put(key, true)));
+        List<String> partColumns = parts.get(0).columnNames();
+        for (String key : keys.keySet()) {
+            if (partColumns.contains(key)) {
+                throw new IllegalArgumentException("Constant column collides with a column of the parts: " + key);
+            }
+            constantColumns.add(key);
+        }
+        columnNames.addAll(constantColumns);
+        columnNames.addAll(partColumns);
+
+        offsets = new int[parts.size() + 1];
+        for (int part = 0; part < parts.size(); part++) {
+            offsets[part + 1] = Math.addExact(offsets[part], parts.get(part).size());
+        }
+    }
+
+    @Override
+    public int size() {
+        return offsets[parts.size()];
+    }
+
+    @Override
+    public List<String> columnNames() {
+        return columnNames;
+    }
+
+    @Override
+    public ColumnType columnType(String name) {
+        if (constantColumns.contains(name)) {
+            return ColumnType.STRING;
+        }
+        return parts.get(0).columnType(name);
+    }
+
+    @Override
+    public NumericColumn numericColumn(String name) {
+
+        if (constantColumns.contains(name)) {
+            throw new IllegalArgumentException("Column is not numeric: " + name);
+        }
+
+        NumericColumn[] columns = new NumericColumn[parts.size()];
+        for (int part = 0; part < columns.length; part++) {
+            columns[part] = parts.get(part).numericColumn(name);
+        }
+
+        return (from, length, target) -> {
+            double[] slice = target;
+            int done = 0;
+            while (done < length) {
+                int row = from + done;
+                int part = partOf(row);
+                int count = Math.min(length - done, offsets[part + 1] - row);
+                if (done == 0 && count == length) {
+                    columns[part].read(row - offsets[part], count, target);
+                    return;
+                }
+                if (slice == target) {
+                    slice = new double[length];
+                }
+                columns[part].read(row - offsets[part], count, slice);
+                System.arraycopy(slice, 0, target, done, count);
+                done += count;
+            }
+        };
+    }
+
+    @Override
+    public KeyColumn keyColumn(String name) {
+
+        if (constantColumns.contains(name)) {
+            return constantKeyColumn(name);
+        }
+
+        KeyColumn[] columns = new KeyColumn[parts.size()];
+        for (int part = 0; part < columns.length; part++) {
+            columns[part] = parts.get(part).keyColumn(name);
+        }
+        if (columnType(name) == ColumnType.INT) {
+            // Int codes are the values themselves, so they are equal across parts
+            return KeyColumn.ofInts((from, length, target) -> readCodes(columns, from, length, target));
+        }
+
+        // String codes are local to every part, so they are mapped to codes of one shared dictionary
+        StringDictionary shared = new StringDictionary();
+        List<int[]> localToShared = new ArrayList<>();
+        for (int part = 0; part < columns.length; part++) {
+            localToShared.add(new int[0]);
+        }
+        return new KeyColumn() {
+            @Override
+            public void read(int from, int length, int[] target) {
+                readCodes(columns, from, length, target);
+                int position = 0;
+                while (position < length) {
+                    int part = partOf(from + position);
+                    int end = Math.min(length, offsets[part + 1] - from);
+                    int[] mapping = localToShared.get(part);
+                    for (; position < end; position++) {
+                        int local = target[position];
+                        if (local >= mapping.length || mapping[local] < 0) {
+                            mapping = extend(mapping, local);
+                            mapping[local] = shared.encode((String) columns[part].value(local));
+                            localToShared.set(part, mapping);
+                        }
+                        target[position] = mapping[local];
+                    }
+                }
+            }
+
+            @Override
+            public Object value(int code) {
+                return shared.decode(code);
+            }
+
+            @Override
+            public OptionalInt code(Object value) {
+                // A value may only be in parts that were not read yet, so it gets its code in advance
+                if (value != null && !(value instanceof String)) {
+                    return OptionalInt.empty();
+                }
+                return OptionalInt.of(shared.encode((String) value));
+            }
+        };
+    }
+
+    private KeyColumn constantKeyColumn(String name) {
+
+        StringDictionary dictionary = new StringDictionary();
+        int[] codes = new int[parts.size()];
+        for (int part = 0; part < codes.length; part++) {
+            codes[part] = dictionary.encode(constants.get(part).get(name));
+        }
+
+        return dictionary.keyColumn((from, length, target) -> {
+            int position = 0;
+            while (position < length) {
+                int part = partOf(from + position);
+                int end = Math.min(length, offsets[part + 1] - from);
+                for (; position < end; position++) {
+                    target[position] = codes[part];
+                }
+            }
+        });
+    }
+
+    private void readCodes(KeyColumn[] columns, int from, int length, int[] target) {
+        int[] slice = target;
+        int done = 0;
+        while (done < length) {
+            int row = from + done;
+            int part = partOf(row);
+            int count = Math.min(length - done, offsets[part + 1] - row);
+            if (done == 0 && count == length) {
+                columns[part].read(row - offsets[part], count, target);
+                return;
+            }
+            if (slice == target) {
+                slice = new int[length];
+            }
+            columns[part].read(row - offsets[part], count, slice);
+            System.arraycopy(slice, 0, target, done, count);
+            done += count;
+        }
+    }
+
+    /**
+     * @return the part that holds the row, skipping empty parts
+     */
+    private int partOf(int row) {
+        int low = 0;
+        int high = parts.size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (offsets[middle] <= row) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private static int[] extend(int[] mapping, int index) {
+        if (index < mapping.length) {
+            return mapping;
+        }
+        int[] extended = Arrays.copyOf(mapping, Math.max(index + 1, mapping.length * 2));
+        Arrays.fill(extended, mapping.length, extended.length, -1);
+        return extended;
+    }
+}
@@ -0,0 +1,69 @@
+package de.bcxp.challenge.selection;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Optional;
+
+/**
+ * Picks the {@link ReductionKernels} once per JVM. The Vector API kernels are compiled separately for JDK 17 and
+ * loaded reflectively, so this class and everything that uses it still runs on JDK 11.
+ */
+final class KernelSelection {
+
+    private static final Logger logger = LogManager.getLogger(KernelSelection.class);
+
+    static final String PROPERTY = "de.bcxp.challenge.kernels";
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNELS = "de.bcxp.challenge.selection.VectorReductionKernels";
+
+    private static final ReductionKernels VECTOR = loadVector();
+
+    static final ReductionKernels SELECTED = select(System.getProperty(PROPERTY, "auto"));
+
+    private KernelSelection() {
+    }
+
+    static Optional<ReductionKernels> vector() {
+        return Optional.ofNullable(VECTOR);
+    }
+
+    static ReductionKernels select(String choice) {
+
+        ReductionKernels kernels;
+        switch (choice) {
+            case "scalar":
+                kernels = ScalarReductionKernels.INSTANCE;
+                break;
+            case "vector":
+                if (VECTOR == null) {
+                    throw new IllegalStateException("Vector kernels are not available, run on JDK 17+ with --add-modules " + VECTOR_MODULE);
+                }
+                kernels = VECTOR;
+                break;
+            case "auto":
+                kernels = VECTOR != null ? VECTOR : ScalarReductionKernels.INSTANCE;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown kernels for " + PROPERTY + ": " + choice);
+        }
+
+        logger.debug("Using {} reduction kernels", kernels.name());
+        return kernels;
+    }
+
+    private static ReductionKernels loadVector() {
+
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return null;
+        }
+
+        try {
+            return (ReductionKernels) Class.forName(VECTOR_KERNELS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            logger.debug("Vector kernels not loaded: {}", e.toString());
+            return null;
+        }
+    }
+}
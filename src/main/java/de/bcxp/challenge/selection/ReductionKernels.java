@@ -0,0 +1,62 @@
+package de.bcxp.challenge.selection;
+
+import java.util.Optional;
+
+/**
+ * Arg-min/arg-max reductions over primitive arrays, the hot loops behind the smallest temperature spread and the
+ * highest population density. Results are the same as {@link Selection#argMin} and {@link Selection#argMax} over
+ * the computed keys: ties are broken by the lower index.
+ * <p>
+ * There is a scalar implementation that runs everywhere and a SIMD implementation on the Vector API, which is only
+ * built with JDK 17 or newer and only usable if the JVM runs with {@code --add-modules jdk.incubator.vector}.
+ * {@link #get()} picks the best one available; the system property {@value KernelSelection#PROPERTY} set to
+ * {@code scalar} or {@code vector} overrides the choice.
+ */
+public interface ReductionKernels {
+
+    /**
+     * @return the kernels selected for this JVM, the same instance on every call
+     */
+    static ReductionKernels get() {
+        return KernelSelection.SELECTED;
+    }
+
+    static ReductionKernels scalar() {
+        return ScalarReductionKernels.INSTANCE;
+    }
+
+    /**
+     * @return the Vector API kernels, or empty if they were not built or the incubator module is not loaded
+     */
+    static Optional<ReductionKernels> vector() {
+        return KernelSelection.vector();
+    }
+
+    /**
+     * @return short name for logs and benchmarks
+     */
+    String name();
+
+    /**
+     * Finds the smallest minuend[i] - subtrahend[i] for from &lt;= i &lt; to. The difference is an int,
+     * so it wraps around on overflow.
+     *
+     * @return index of the smallest difference, the lowest index on ties, or -1 if the range is empty
+     */
+    int argMinDifference(int[] minuend, int[] subtrahend, int from, int to);
+
+    /**
+     * Finds the largest numerator[i] / denominator[i] for from &lt;= i &lt; to, where a zero denominator counts as
+     * quotient 0. Quotients are compared like {@link Double#compare(double, double)}.
+     *
+     * @return index of the largest quotient, the lowest index on ties, or -1 if the range is empty
+     */
+    int argMaxQuotient(double[] numerator, double[] denominator, int from, int to);
+
+    /**
+     * @return the quotient as {@link #argMaxQuotient(double[], double[], int, int)} computes it
+     */
+    static double quotient(double numerator, double denominator) {
+        return denominator == 0 ? 0 : numerator / denominator;
+    }
+}
@@ -0,0 +1,55 @@
+package de.bcxp.challenge.selection;
+
+/**
+ * Plain loops, one element per iteration. The JIT may still unroll them, but it does not vectorize the index tracking.
+ */
+final class ScalarReductionKernels implements ReductionKernels {
+
+    static final ScalarReductionKernels INSTANCE = new ScalarReductionKernels();
+
+    private ScalarReductionKernels() {
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public int argMinDifference(int[] minuend, int[] subtrahend, int from, int to) {
+
+        if (from >= to) {
+            return -1;
+        }
+
+        int best = from;
+        int bestValue = minuend[from] - subtrahend[from];
+        for (int i = from + 1; i < to; i++) {
+            int value = minuend[i] - subtrahend[i];
+            if (value < bestValue) {
+                best = i;
+                bestValue = value;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public int argMaxQuotient(double[] numerator, double[] denominator, int from, int to) {
+
+        if (from >= to) {
+            return -1;
+        }
+
+        int best = from;
+        double bestValue = ReductionKernels.quotient(numerator[from], denominator[from]);
+        for (int i = from + 1; i < to; i++) {
+            double value = ReductionKernels.quotient(numerator[i], denominator[i]);
+            if (Double.compare(value, bestValue) > 0) {
+                best = i;
+                bestValue = value;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,422 @@
+package de.bcxp.challenge.selection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Ranking and selection over primitive double keys, without sorting and without reordering the input.
+ * <p>
+ * Elements are ranked by key, compared like {@link Double#compare(double, double)}, and ties are always broken by
+ * the lower index, so every result is deterministic and equal to what a stable sort would produce:
+ * argmin/argmax and all ties in O(n), the k best elements in O(n log k) with a bounded heap and the
+ * k-th element in expected O(n) with quickselect on a copy of the keys.
+ * The parallel variants split the index range with fork/join and give the same results as the sequential ones.
+ */
+public final class Selection {
+
+    /** Ranges below this size are not split any further by the parallel variants. */
+    static final int PARALLEL_THRESHOLD = 8192;
+
+    private Selection() {
+    }
+
+    /**
+     * @return index of the element with the smallest key, the lowest index on ties, or -1 if size is 0
+     */
+    public static int argMin(int size, IntToDoubleFunction key) {
+        return best(0, size, key, false);
+    }
+
+    /**
+     * @return index of the element with the largest key, the lowest index on ties, or -1 if size is 0
+     */
+    public static int argMax(int size, IntToDoubleFunction key) {
+        return best(0, size, key, true);
+    }
+
+    /**
+     * @return the first element with the smallest key, or null if the list is empty or null
+     */
+    public static <T> T min(List<T> items, ToDoubleFunction<? super T> key) {
+        return at(items, list -> argMin(list.size(), i -> key.applyAsDouble(list.get(i))));
+    }
+
+    /**
+     * @return the first element with the largest key, or null if the list is empty or null
+     */
+    public static <T> T max(List<T> items, ToDoubleFunction<? super T> key) {
+        return at(items, list -> argMax(list.size(), i -> key.applyAsDouble(list.get(i))));
+    }
+
+    /**
+     * Fork/join variant of {@link #argMin(int, IntToDoubleFunction)}. The key function is called concurrently.
+     */
+    public static int parallelArgMin(int size, IntToDoubleFunction key, ForkJoinPool pool) {
+        return pool.invoke(new BestTask(0, size, key, false));
+    }
+
+    /**
+     * Fork/join variant of {@link #argMax(int, IntToDoubleFunction)}. The key function is called concurrently.
+     */
+    public static int parallelArgMax(int size, IntToDoubleFunction key, ForkJoinPool pool) {
+        return pool.invoke(new BestTask(0, size, key, true));
+    }
+
+    /**
+     * Fork/join variant of {@link #min(List, ToDoubleFunction)} on the common pool.
+     */
+    public static <T> T parallelMin(List<T> items, ToDoubleFunction<? super T> key) {
+        return at(items, list -> parallelArgMin(list.size(), i -> key.applyAsDouble(list.get(i)), ForkJoinPool.commonPool()));
+    }
+
+    /**
+     * Fork/join variant of {@link #max(List, ToDoubleFunction)} on the common pool.
+     */
+    public static <T> T parallelMax(List<T> items, ToDoubleFunction<? super T> key) {
+        return at(items, list -> parallelArgMax(list.size(), i -> key.applyAsDouble(list.get(i)), ForkJoinPool.commonPool()));
+    }
+
+    /**
+     * @return indexes of all elements sharing the smallest key, in ascending order
+     */
+    public static int[] allArgMin(int size, IntToDoubleFunction key) {
+        return ties(size, key, false);
+    }
+
+    /**
+     * @return indexes of all elements sharing the largest key, in ascending order
+     */
+    public static int[] allArgMax(int size, IntToDoubleFunction key) {
+        return ties(size, key, true);
+    }
+
+    /**
+     * @return all elements sharing the smallest key, in input order
+     */
+    public static <T> List<T> allMin(List<T> items, ToDoubleFunction<? super T> key) {
+        return select(items, list -> allArgMin(list.size(), i -> key.applyAsDouble(list.get(i))));
+    }
+
+    /**
+     * @return all elements sharing the largest key, in input order
+     */
+    public static <T> List<T> allMax(List<T> items, ToDoubleFunction<? super T> key) {
+        return select(items, list -> allArgMax(list.size(), i -> key.applyAsDouble(list.get(i))));
+    }
+
+    /**
+     * @return indexes of the k elements with the smallest keys, best first
+     */
+    public static int[] smallestK(int size, int k, IntToDoubleFunction key) {
+        return topK(size, k, key, false);
+    }
+
+    /**
+     * @return indexes of the k elements with the largest keys, best first
+     */
+    public static int[] largestK(int size, int k, IntToDoubleFunction key) {
+        return topK(size, k, key, true);
+    }
+
+    /**
+     * @return the k elements with the smallest keys, smallest first, or all elements if there are fewer than k
+     */
+    public static <T> List<T> smallest(List<T> items, int k, ToDoubleFunction<? super T> key) {
+        return select(items, list -> smallestK(list.size(), k, i -> key.applyAsDouble(list.get(i))));
+    }
+
+    /**
+     * @return the k elements with the largest keys, largest first, or all elements if there are fewer than k
+     */
+    public static <T> List<T> largest(List<T> items, int k, ToDoubleFunction<? super T> key) {
+        return select(items, list -> largestK(list.size(), k, i -> key.applyAsDouble(list.get(i))));
+    }
+
+    /**
+     * @param k 0 based rank, 0 selects the smallest element
+     * @return index of the element that would be at position k if the elements were stably sorted by key ascending
+     */
+    public static int kthSmallestIndex(int size, int k, IntToDoubleFunction key) {
+        return kth(size, k, key, false);
+    }
+
+    /**
+     * @param k 0 based rank, 0 selects the largest element
+     * @return index of the element that would be at position k if the elements were stably sorted by key descending
+     */
+    public static int kthLargestIndex(int size, int k, IntToDoubleFunction key) {
+        return kth(size, k, key, true);
+    }
+
+    /**
+     * @see #kthSmallestIndex(int, int, IntToDoubleFunction)
+     */
+    public static <T> T kthSmallest(List<T> items, int k, ToDoubleFunction<? super T> key) {
+        List<T> list = randomAccess(items);
+        return list.get(kthSmallestIndex(list.size(), k, i -> key.applyAsDouble(list.get(i))));
+    }
+
+    /**
+     * @see #kthLargestIndex(int, int, IntToDoubleFunction)
+     */
+    public static <T> T kthLargest(List<T> items, int k, ToDoubleFunction<? super T> key) {
+        List<T> list = randomAccess(items);
+        return list.get(kthLargestIndex(list.size(), k, i -> key.applyAsDouble(list.get(i))));
+    }
+
+    private static int best(int from, int to, IntToDoubleFunction key, boolean largest) {
+
+        if (from >= to) {
+            return -1;
+        }
+
+        int bestIndex = from;
+        double bestKey = key.applyAsDouble(from);
+        for (int i = from + 1; i < to; i++) {
+            double candidate = key.applyAsDouble(i);
+            if (isBetter(candidate, bestKey, largest)) {
+                bestKey = candidate;
+                bestIndex = i;
+            }
+        }
+
+        return bestIndex;
+    }
+
+    private static int[] ties(int size, IntToDoubleFunction key, boolean largest) {
+
+        int[] indexes = new int[Math.min(size, 16)];
+        int count = 0;
+        double bestKey = Double.NaN;
+
+        for (int i = 0; i < size; i++) {
+            double candidate = key.applyAsDouble(i);
+            int comparison = count == 0 ? 1 : compare(candidate, bestKey, largest);
+            if (comparison > 0) {
+                bestKey = candidate;
+                count = 0;
+            }
+            if (comparison >= 0) {
+                if (count == indexes.length) {
+                    indexes = Arrays.copyOf(indexes, count * 2);
+                }
+                indexes[count++] = i;
+            }
+        }
+
+        return Arrays.copyOf(indexes, count);
+    }
+
+    /**
+     * Keeps the k best elements seen so far in a heap whose root is the worst of them. Because indexes are
+     * visited in ascending order, an element with the same key as the root never replaces it.
+     */
+    private static int[] topK(int size, int k, IntToDoubleFunction key, boolean largest) {
+
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative: " + k);
+        }
+
+        int capacity = Math.min(k, size);
+        int[] heapIndexes = new int[capacity];
+        double[] heapKeys = new double[capacity];
+        int heapSize = 0;
+
+        for (int i = 0; i < size && capacity > 0; i++) {
+            double candidate = key.applyAsDouble(i);
+            if (heapSize < capacity) {
+                heapIndexes[heapSize] = i;
+                heapKeys[heapSize] = candidate;
+                siftUp(heapIndexes, heapKeys, heapSize++, largest);
+            } else if (isBetter(candidate, heapKeys[0], largest)) {
+                heapIndexes[0] = i;
+                heapKeys[0] = candidate;
+                siftDown(heapIndexes, heapKeys, 0, heapSize, largest);
+            }
+        }
+
+        // Pop the worst element repeatedly and fill the result from the back
+        int[] result = new int[heapSize];
+        for (int end = heapSize - 1; end >= 0; end--) {
+            result[end] = heapIndexes[0];
+            heapIndexes[0] = heapIndexes[end];
+            heapKeys[0] = heapKeys[end];
+            siftDown(heapIndexes, heapKeys, 0, end, largest);
+        }
+
+        return result;
+    }
+
+    private static void siftUp(int[] indexes, double[] keys, int position, boolean largest) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (rank(keys[position], indexes[position], keys[parent], indexes[parent], largest) <= 0) {
+                return;
+            }
+            swap(indexes, keys, position, parent);
+            position = parent;
+        }
+    }
+
+    private static void siftDown(int[] indexes, double[] keys, int position, int size, boolean largest) {
+        while (true) {
+            int worst = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && rank(keys[left], indexes[left], keys[worst], indexes[worst], largest) > 0) {
+                worst = left;
+            }
+            if (right < size && rank(keys[right], indexes[right], keys[worst], indexes[worst], largest) > 0) {
+                worst = right;
+            }
+            if (worst == position) {
+                return;
+            }
+            swap(indexes, keys, position, worst);
+            position = worst;
+        }
+    }
+
+    /**
+     * Quickselect with random pivots over copies of keys and indexes. The order by key and then index is strict,
+     * so the result does not depend on the pivots.
+     */
+    private static int kth(int size, int k, IntToDoubleFunction key, boolean largest) {
+
+        if (k < 0 || k >= size) {
+            throw new IndexOutOfBoundsException("Rank " + k + " out of bounds for " + size + " elements");
+        }
+
+        int[] indexes = new int[size];
+        double[] keys = new double[size];
+        for (int i = 0; i < size; i++) {
+            indexes[i] = i;
+            keys[i] = key.applyAsDouble(i);
+        }
+
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+
+            swap(indexes, keys, low + ThreadLocalRandom.current().nextInt(high - low + 1), high);
+            double pivotKey = keys[high];
+            int pivotIndex = indexes[high];
+
+            int store = low;
+            for (int i = low; i < high; i++) {
+                if (rank(keys[i], indexes[i], pivotKey, pivotIndex, largest) < 0) {
+                    swap(indexes, keys, i, store++);
+                }
+            }
+            swap(indexes, keys, store, high);
+
+            if (store == k) {
+                return indexes[k];
+            } else if (store < k) {
+                low = store + 1;
+            } else {
+                high = store - 1;
+            }
+        }
+
+        return indexes[k];
+    }
+
+    /**
+     * @return a positive number if a ranks after b, i.e. is worse, in the order by key and then index
+     */
+    private static int rank(double keyA, int indexA, double keyB, int indexB, boolean largest) {
+        int comparison = compare(keyB, keyA, largest);
+        return comparison != 0 ? comparison : Integer.compare(indexA, indexB);
+    }
+
+    /**
+     * @return a positive number if a key is better than b
+     */
+    private static int compare(double a, double b, boolean largest) {
+        return largest ? Double.compare(a, b) : Double.compare(b, a);
+    }
+
+    private static boolean isBetter(double candidate, double best, boolean largest) {
+        return compare(candidate, best, largest) > 0;
+    }
+
+    private static void swap(int[] indexes, double[] keys, int a, int b) {
+        int index = indexes[a];
+        indexes[a] = indexes[b];
+        indexes[b] = index;
+        double key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+    }
+
+    private static <T> List<T> randomAccess(List<T> items) {
+        return items instanceof RandomAccess ? items : new ArrayList<>(items);
+    }
+
+    private static <T> T at(List<T> items, ToIntFunction<List<T>> selector) {
+        if (items == null || items.isEmpty()) {
+            return null;
+        }
+        List<T> list = randomAccess(items);
+        return list.get(selector.applyAsInt(list));
+    }
+
+    private static <T> List<T> select(List<T> items, Function<List<T>, int[]> selector) {
+        if (items == null || items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<T> list = randomAccess(items);
+        int[] indexes = selector.apply(list);
+        List<T> result = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            result.add(list.get(index));
+        }
+        return result;
+    }
+
+    /**
+     * Finds the best index of a range by splitting it in halves. On equal keys the left half wins,
+     * which keeps the lowest index like the sequential scan.
+     */
+    private static final class BestTask extends RecursiveTask<Integer> {
+
+        private final int from;
+        private final int to;
+        private final IntToDoubleFunction key;
+        private final boolean largest;
+
+        BestTask(int from, int to, IntToDoubleFunction key, boolean largest) {
+            this.from = from;
+            this.to = to;
+            this.key = key;
+            this.largest = largest;
+        }
+
+        @Override
+        protected Integer compute() {
+
+            if (to - from <= PARALLEL_THRESHOLD) {
+                return best(from, to, key, largest);
+            }
+
+            int middle = (from + to) >>> 1;
+            BestTask left = new BestTask(from, middle, key, largest);
+            left.fork();
+            int rightBest = new BestTask(middle, to, key, largest).compute();
+            int leftBest = left.join();
+
+            return isBetter(key.applyAsDouble(rightBest), key.applyAsDouble(leftBest), largest) ? rightBest : leftBest;
+        }
+    }
+}
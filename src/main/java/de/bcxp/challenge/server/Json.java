@@ -0,0 +1,70 @@
+package de.bcxp.challenge.server;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Just enough JSON writing for the responses of the {@link QueryServer}: objects are built by the callers,
+ * this only renders values.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * @return the value as JSON string literal, or null
+     */
+    static String string(String value) {
+
+        if (value == null) {
+            return "null";
+        }
+
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    /**
+     * @return the value as JSON number, or null for NaN and infinities which JSON cannot represent
+     */
+    static String number(double value) {
+        return Double.isFinite(value) ? Double.toString(value) : "null";
+    }
+
+    /**
+     * @return a single property object with the message, e.g. {"error":"Not found: /x"}
+     */
+    static byte[] error(String message) {
+        return bytes("{\"error\":" + string(message) + "}");
+    }
+
+    static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,319 @@
+package de.bcxp.challenge.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.bcxp.challenge.adapters.RejectLog;
+import de.bcxp.challenge.adapters.csv.CSVRecordReader;
+import de.bcxp.challenge.adapters.csv.mappers.CountryCSVRowMapper;
+import de.bcxp.challenge.adapters.csv.mappers.WeatherCSVRowMapper;
+import de.bcxp.challenge.adapters.snapshot.SnapshotCache;
+import de.bcxp.challenge.countries.CountryEntity;
+import de.bcxp.challenge.countries.CountryStore;
+import de.bcxp.challenge.selection.Selection;
+import de.bcxp.challenge.weather.WeatherEntity;
+import de.bcxp.challenge.weather.WeatherTable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static de.bcxp.challenge.countries.CountryUtils.COUNTRY_CSV_FORMAT;
+import static de.bcxp.challenge.weather.WeatherUtils.WEATHER_CSV_FORMAT;
+
+/**
+ * Long running HTTP service that keeps the weather and country data loaded and answers the questions of the
+ * applications without starting a JVM or parsing a file per answer:
+ * <ul>
+ *     <li>{@code GET /weather/min-spread} the day with the smallest temperature spread</li>
+ *     <li>{@code GET /weather/smallest-spreads?k=10} the k days with the smallest spreads</li>
+ *     <li>{@code GET /countries/max-density} the country with the highest population density</li>
+ *     <li>{@code GET /countries/highest-densities?k=10} the k countries with the highest densities</li>
+ * </ul>
+ * The rankings are computed once per load, so a request only copies a finished response to the socket. Both files
+ * are checked for changes periodically and loaded again in the background; requests keep being answered from the
+ * previous data until the new data is complete.
+ * <p>
+ * Requests are handled on a fixed pool of handler threads. All responses are JSON, errors are objects with an
+ * error message and the matching status.
+ */
+public class QueryServer implements Closeable {
+
+    public static final int DEFAULT_PORT = 8080;
+    public static final long DEFAULT_RELOAD_INTERVAL_MILLIS = 1000;
+    public static final int DEFAULT_HANDLER_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /** Upper bound for k, and the number of rows ranked per load. */
+    public static final int MAX_TOP_K = 1000;
+
+    static final int DEFAULT_K = 10;
+
+    private static final int BACKLOG = 1024;
+
+    /** Without TCP_NODELAY small responses wait for delayed acknowledgements, which costs tens of milliseconds. */
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private static final Logger logger = LogManager.getLogger(QueryServer.class);
+
+    private final WatchedFile<RankedResponses> weather;
+    private final WatchedFile<RankedResponses> countries;
+    private final long reloadIntervalMillis;
+    private final int handlerThreads;
+
+    private HttpServer server;
+    private ExecutorService handlers;
+    private ScheduledExecutorService reloader;
+
+    /**
+     * Loads both files with the default reload interval and number of handler threads.
+     */
+    public QueryServer(String weatherFilePath, String countryFilePath) {
+        this(weatherFilePath, countryFilePath, DEFAULT_RELOAD_INTERVAL_MILLIS, DEFAULT_HANDLER_THREADS);
+    }
+
+    /**
+     * Loads both files, a file that cannot be loaded fails the construction.
+     *
+     * @param reloadIntervalMillis how often the files are checked for changes, 0 disables reloading
+     * @param handlerThreads       number of threads answering requests
+     */
+    public QueryServer(String weatherFilePath, String countryFilePath, long reloadIntervalMillis, int handlerThreads) {
+
+        if (weatherFilePath == null || weatherFilePath.isEmpty()) {
+            throw new IllegalArgumentException("Weather file path cannot be null or empty");
+        }
+        if (countryFilePath == null || countryFilePath.isEmpty()) {
+            throw new IllegalArgumentException("Country file path cannot be null or empty");
+        }
+        if (reloadIntervalMillis < 0) {
+            throw new IllegalArgumentException("Reload interval cannot be negative: " + reloadIntervalMillis);
+        }
+        if (handlerThreads < 1) {
+            throw new IllegalArgumentException("Handler threads must be at least 1: " + handlerThreads);
+        }
+
+        this.weather = new WatchedFile<>(Paths.get(weatherFilePath), QueryServer::loadWeather);
+        this.countries = new WatchedFile<>(Paths.get(countryFilePath), QueryServer::loadCountries);
+        this.reloadIntervalMillis = reloadIntervalMillis;
+        this.handlerThreads = handlerThreads;
+    }
+
+    private static RankedResponses loadWeather(String filePath) {
+
+        WeatherTable table = SnapshotCache.weatherTable(filePath, path -> {
+            RejectLog rejectLog = new RejectLog();
+            WeatherCSVRowMapper mapper = new WeatherCSVRowMapper(true, rejectLog);
+            WeatherTable parsedTable = new WeatherTable();
+            new CSVRecordReader<WeatherEntity>(mapper, WEATHER_CSV_FORMAT).scan(path, mapper.tableLoader(parsedTable));
+            rejectLog.logSummary();
+            return parsedTable;
+        });
+
+        int[] ranking = Selection.smallestK(table.size(), MAX_TOP_K, table::getTemperatureSpread);
+        return new RankedResponses(ranking, row -> "{\"day\":" + table.getDay(row)
+                + ",\"spread\":" + Json.number(table.getTemperatureSpread(row)) + "}");
+    }
+
+    private static RankedResponses loadCountries(String filePath) {
+
+        CountryStore store = SnapshotCache.countryStore(filePath, path -> {
+            RejectLog rejectLog = new RejectLog();
+            CountryCSVRowMapper mapper = new CountryCSVRowMapper(true, rejectLog);
+            CountryStore parsedStore = new CountryStore();
+            new CSVRecordReader<CountryEntity>(mapper, COUNTRY_CSV_FORMAT).scan(path, mapper.storeLoader(parsedStore));
+            rejectLog.logSummary();
+            return parsedStore;
+        });
+
+        CountryStore.View view = store.view();
+        int[] ranking = Selection.largestK(store.size(), MAX_TOP_K, row -> view.at(row).getPopulationDensity());
+        return new RankedResponses(ranking, row -> {
+            // Rendered concurrently for different k, so every call needs its own view
+            CountryStore.View country = store.view().at(row);
+            return "{\"name\":" + Json.string(country.getName())
+                    + ",\"capital\":" + Json.string(country.getCapital())
+                    + ",\"population\":" + country.getPopulation()
+                    + ",\"area\":" + Json.number(country.getArea())
+                    + ",\"density\":" + Json.number(country.getPopulationDensity()) + "}";
+        });
+    }
+
+    /**
+     * Starts serving on the port of all interfaces.
+     *
+     * @param port the port, 0 picks a free one
+     * @return the bound port
+     */
+    public int start(int port) throws IOException {
+        return start(new InetSocketAddress(port));
+    }
+
+    /**
+     * Starts serving on the address and starts checking the files for changes.
+     *
+     * @return the bound port
+     */
+    public synchronized int start(InetSocketAddress address) throws IOException {
+
+        if (server != null) {
+            throw new IllegalStateException("Server is already started");
+        }
+
+        // Read once when the first server is created, so it has to be set before
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+
+        HttpServer httpServer = HttpServer.create(address, BACKLOG);
+        handlers = Executors.newFixedThreadPool(handlerThreads, daemonThreads("query-handler-"));
+        httpServer.setExecutor(handlers);
+        httpServer.createContext("/", this::handle);
+        httpServer.start();
+        server = httpServer;
+
+        if (reloadIntervalMillis > 0) {
+            reloader = Executors.newSingleThreadScheduledExecutor(daemonThreads("data-reloader-"));
+            reloader.scheduleWithFixedDelay(this::reloadIfChanged,
+                    reloadIntervalMillis, reloadIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+
+        int port = httpServer.getAddress().getPort();
+        logger.info("Serving queries on port {} with {} handler threads", port, handlerThreads);
+        return port;
+    }
+
+    /**
+     * Checks both files and loads the changed ones again; called periodically once the server is started.
+     */
+    void reloadIfChanged() {
+        weather.reloadIfChanged();
+        countries.reloadIfChanged();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                respond(exchange, 405, Json.error("Method not allowed: " + exchange.getRequestMethod()));
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            switch (path) {
+                case "/weather/min-spread":
+                    respondBest(exchange, weather.get(), "No weather data");
+                    break;
+                case "/weather/smallest-spreads":
+                    respondTop(exchange, weather.get());
+                    break;
+                case "/countries/max-density":
+                    respondBest(exchange, countries.get(), "No country data");
+                    break;
+                case "/countries/highest-densities":
+                    respondTop(exchange, countries.get());
+                    break;
+                default:
+                    respond(exchange, 404, Json.error("Not found: " + path));
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to answer " + exchange.getRequestURI(), e);
+            respond(exchange, 500, Json.error("Internal error"));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void respondBest(HttpExchange exchange, RankedResponses responses, String emptyMessage) throws IOException {
+        byte[] best = responses.best();
+        if (best == null) {
+            respond(exchange, 404, Json.error(emptyMessage));
+        } else {
+            respond(exchange, 200, best);
+        }
+    }
+
+    private static void respondTop(HttpExchange exchange, RankedResponses responses) throws IOException {
+        String k = parameter(exchange.getRequestURI().getRawQuery(), "k");
+        if (k == null) {
+            respond(exchange, 200, responses.top(DEFAULT_K));
+            return;
+        }
+        try {
+            int value = Integer.parseInt(k);
+            if (value >= 1 && value <= MAX_TOP_K) {
+                respond(exchange, 200, responses.top(value));
+                return;
+            }
+        } catch (NumberFormatException e) {
+            // Answered below like a number out of range
+        }
+        respond(exchange, 400, Json.error("k must be a number from 1 to " + MAX_TOP_K + ": " + k));
+    }
+
+    /**
+     * @return the raw value of the first parameter with the name, or null
+     */
+    static String parameter(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0 && pair.regionMatches(0, name, 0, separator) && separator == name.length()) {
+                return pair.substring(separator + 1);
+            }
+        }
+        return null;
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Stops reloading, lets requests that are already being handled finish for up to a second and stops the server.
+     */
+    @Override
+    public synchronized void close() {
+        if (server == null) {
+            return;
+        }
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+        // Waiting in HttpServer.stop() would always take the full delay while clients keep connections alive
+        handlers.shutdown();
+        try {
+            if (!handlers.awaitTermination(1, TimeUnit.SECONDS)) {
+                handlers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server.stop(0);
+        server = null;
+        logger.info("Stopped serving queries");
+    }
+}
@@ -0,0 +1,61 @@
+package de.bcxp.challenge.server;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * Responses for the best rows of a dataset by some ranking, computed once per loaded dataset. The response for
+ * the best row is rendered up front, the list of the k best rows on the first request for that k and cached, so
+ * requests only ever copy finished bytes to the socket.
+ */
+final class RankedResponses {
+
+    private final int[] ranking;
+    private final IntFunction<String> rowJson;
+    private final byte[] best;
+    private final AtomicReferenceArray<byte[]> top;
+
+    /**
+     * @param ranking rows of the dataset, best first
+     * @param rowJson renders a row as JSON object
+     */
+    RankedResponses(int[] ranking, IntFunction<String> rowJson) {
+        this.ranking = ranking;
+        this.rowJson = rowJson;
+        this.best = ranking.length == 0 ? null : Json.bytes(rowJson.apply(ranking[0]));
+        this.top = new AtomicReferenceArray<>(ranking.length + 1);
+    }
+
+    /**
+     * @return the number of ranked rows, which bounds every k
+     */
+    int size() {
+        return ranking.length;
+    }
+
+    /**
+     * @return the best row as JSON object, or null if the dataset is empty
+     */
+    byte[] best() {
+        return best;
+    }
+
+    /**
+     * @return a JSON array of the k best rows, best first, or of all ranked rows if there are fewer
+     */
+    byte[] top(int k) {
+
+        int count = Math.min(k, ranking.length);
+        byte[] response = top.get(count);
+        if (response == null) {
+            // Concurrent first requests may render the same list twice, which is cheaper than locking
+            StringBuilder json = new StringBuilder("[");
+            for (int i = 0; i < count; i++) {
+                json.append(i == 0 ? "" : ",").append(rowJson.apply(ranking[i]));
+            }
+            response = Json.bytes(json.append(']').toString());
+            top.set(count, response);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,82 @@
+package de.bcxp.challenge.server;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.function.Function;
+
+/**
+ * The value loaded from a file, loaded again whenever the modification time or the size of the file changed.
+ * Readers always see a completely loaded value: a reload builds the new value on the side and only publishes it
+ * when it succeeded, a failed reload keeps the previous value.
+ */
+final class WatchedFile<T> {
+
+    private static final Logger logger = LogManager.getLogger(WatchedFile.class);
+
+    private final Path path;
+    private final Function<String, T> loader;
+    private volatile T value;
+    private FileTime loadedModified;
+    private long loadedSize;
+
+    /**
+     * Loads the file right away, a failure is thrown.
+     */
+    WatchedFile(Path path, Function<String, T> loader) {
+        this.path = path;
+        this.loader = loader;
+
+        BasicFileAttributes attributes = attributes();
+        if (attributes == null) {
+            throw new IllegalArgumentException("File does not exist: " + path);
+        }
+        this.value = loader.apply(path.toString());
+        this.loadedModified = attributes.lastModifiedTime();
+        this.loadedSize = attributes.size();
+    }
+
+    T get() {
+        return value;
+    }
+
+    /**
+     * Not thread-safe, only called from one thread at a time.
+     *
+     * @return true if the file changed and was loaded again
+     */
+    boolean reloadIfChanged() {
+
+        BasicFileAttributes attributes = attributes();
+        if (attributes == null
+                || (attributes.lastModifiedTime().equals(loadedModified) && attributes.size() == loadedSize)) {
+            return false;
+        }
+
+        // Remembered before loading, so a file that keeps failing is only tried again after the next change
+        loadedModified = attributes.lastModifiedTime();
+        loadedSize = attributes.size();
+        try {
+            value = loader.apply(path.toString());
+            logger.info("Reloaded {}", path);
+            return true;
+        } catch (RuntimeException e) {
+            logger.error("Failed to reload " + path + ", keeping the previous data", e);
+            return false;
+        }
+    }
+
+    private BasicFileAttributes attributes() {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            logger.debug("Cannot read attributes of {}", path, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package de.bcxp.challenge.weather;
+
+/**
+ * Keeps the day with the smallest temperature spread of a stream of days up to date, without storing the days,
+ * so its memory does not grow with the stream. On equal spreads the first day wins,
+ * like in {@link WeatherService#getRowWithSmallestTemperatureSpread(WeatherTable)}.
+ */
+public class SmallestSpreadTracker {
+
+    private long dayCount;
+    private int bestDay;
+    private float bestSpread;
+
+    /**
+     * Takes the next day into account. The entity is not referenced afterwards.
+     */
+    public void add(WeatherEntity day) {
+        float spread = day.getTemperatureSpread();
+        if (dayCount == 0 || spread < bestSpread) {
+            bestDay = day.Day;
+            bestSpread = spread;
+        }
+        dayCount++;
+    }
+
+    /**
+     * @return the number of days added since the last reset
+     */
+    public long getDayCount() {
+        return dayCount;
+    }
+
+    public boolean isEmpty() {
+        return dayCount == 0;
+    }
+
+    /**
+     * @return the day with the smallest temperature spread
+     * @throws IllegalStateException if no day was added
+     */
+    public int getBestDay() {
+        checkNotEmpty();
+        return bestDay;
+    }
+
+    /**
+     * @return the smallest temperature spread, computed like {@link WeatherEntity#getTemperatureSpread()}
+     * @throws IllegalStateException if no day was added
+     */
+    public float getBestSpread() {
+        checkNotEmpty();
+        return bestSpread;
+    }
+
+    /**
+     * Forgets all days, e.g. after the source has been replaced.
+     */
+    public void reset() {
+        dayCount = 0;
+    }
+
+    private void checkNotEmpty() {
+        if (dayCount == 0) {
+            throw new IllegalStateException("No day has been added");
+        }
+    }
+}
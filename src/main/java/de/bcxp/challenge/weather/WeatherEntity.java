@@ -1,35 +1,56 @@
 package de.bcxp.challenge.weather;
 
+import de.bcxp.challenge.adapters.mapping.Column;
+import de.bcxp.challenge.adapters.mapping.MappedRow;
+
+/**
+ * One day of weather.csv. The row mapper is generated from the column annotations, temperatures are in Fahrenheit.
+ */
+@MappedRow
 public class WeatherEntity {
     /** Day number */
+    @Column(value = "Day", min = 1, max = 31)
     public int Day;
 
     /** Maximum temperature */
+    @Column(value = "MxT", min = -50, max = 150, notLessThan = "MnT")
     public int MxT;
 
     /** Minimum temperature */
+    @Column(value = "MnT", min = -50, max = 150)
     public int MnT;
 
+    @Column(value = "AvT", min = -50, max = 150)
     public int AvT;
 
+    @Column("AvDP")
     public double AvDP;
 
+    @Column("1HrP TPcpn")
     public int oneHrP_TPcpn;
 
+    @Column("PDir")
     public int PDir;
 
+    @Column("AvSp")
     public double AvSp;
 
+    @Column("Dir")
     public int Dir;
 
+    @Column("MxS")
     public int MxS;
 
+    @Column("SkyC")
     public double SkyC;
 
+    @Column("MxR")
     public int MxR;
 
+    @Column("Mn")
     public int Mn;
 
+    @Column("R AvSLP")
     public double R_AvSLP;
 
     public float getTemperatureSpread() {
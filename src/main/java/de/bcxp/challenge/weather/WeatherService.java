@@ -1,22 +1,56 @@
 package de.bcxp.challenge.weather;
 
+import de.bcxp.challenge.selection.ReductionKernels;
+import de.bcxp.challenge.selection.Selection;
+
 import java.util.List;
+import java.util.stream.Stream;
 
 import static de.bcxp.challenge.weather.WeatherUtils.TEMPERATURE_SPREAD_COMPARATOR;
 
 public class WeatherService {
 
+    /**
+     * Finds the day with the smallest temperature spread in a single pass, without reordering the list.
+     * On equal spreads the first day of the list wins.
+     *
+     * @param weatherData List of WeatherEntity objects to analyze
+     * @return WeatherEntity with the smallest temperature spread, or null if the list is empty or null
+     */
     public static WeatherEntity getDayWithSmallestTemperatureSpread(List<WeatherEntity> weatherData) {
+        return Selection.min(weatherData, WeatherEntity::getTemperatureSpread);
+    }
 
-        if (weatherData == null || weatherData.isEmpty()) {
+    /**
+     * Finds the day with the smallest temperature spread in a single pass over the given stream,
+     * so arbitrarily large inputs can be aggregated without holding them in memory.
+     * On equal spreads the first day of the stream wins.
+     *
+     * @param weatherData Stream of WeatherEntity objects to analyze, consumed but not closed
+     * @return WeatherEntity with the smallest temperature spread, or null if the stream is empty or null
+     */
+    public static WeatherEntity getDayWithSmallestTemperatureSpreadFromStream(Stream<WeatherEntity> weatherData) {
+
+        if (weatherData == null) {
             return null; // No data available
-        } else if (weatherData.size() == 1) {
-            return weatherData.get(0); // Only one day of data, return it
         }
 
-        weatherData.sort(TEMPERATURE_SPREAD_COMPARATOR);
+        return weatherData.min(TEMPERATURE_SPREAD_COMPARATOR).orElse(null);
+    }
 
+    /**
+     * Finds the row with the smallest temperature spread in a single loop over the temperature columns,
+     * with the {@link ReductionKernels} of this JVM. On equal spreads the first row wins.
+     *
+     * @param weatherTable Columnar weather data to analyze
+     * @return index of the row with the smallest temperature spread, or -1 if the table is empty or null
+     */
+    public static int getRowWithSmallestTemperatureSpread(WeatherTable weatherTable) {
+
+        if (weatherTable == null || weatherTable.isEmpty()) {
+            return -1; // No data available
+        }
 
-        return weatherData.get(0);
+        return ReductionKernels.get().argMinDifference(weatherTable.mxT, weatherTable.mnT, 0, weatherTable.size);
     }
 }
@@ -0,0 +1,427 @@
+package de.bcxp.challenge.weather;
+
+import de.bcxp.challenge.query.ColumnType;
+import de.bcxp.challenge.query.Dataset;
+import de.bcxp.challenge.query.KeyColumn;
+import de.bcxp.challenge.query.NumericColumn;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Columnar store for weather data: every field of {@link WeatherEntity} is kept in its own primitive array,
+ * so a day costs 72 bytes instead of a full object and scans over a single column stay in cache.
+ * Rows are addressed by index in insertion order. The table grows like an ArrayList and is not thread safe.
+ * <p>
+ * As {@link Dataset} the columns are named like the CSV columns and copied batch-wise straight from the arrays.
+ */
+public class WeatherTable implements Dataset {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int INT_COLUMNS = 10;
+    private static final int DOUBLE_COLUMNS = 4;
+    private static final int WRITE_CHUNK_BYTES = 64 * 1024;
+
+    private static final List<String> COLUMN_NAMES = List.of(
+            "Day", "MxT", "MnT", "AvT", "AvDP", "1HrP TPcpn", "PDir", "AvSp", "Dir", "MxS", "SkyC", "MxR", "Mn", "R AvSLP");
+
+    int size;
+
+    int[] day;
+    int[] mxT;
+    int[] mnT;
+    int[] avT;
+    double[] avDP;
+    int[] oneHrPTPcpn;
+    int[] pDir;
+    double[] avSp;
+    int[] dir;
+    int[] mxS;
+    double[] skyC;
+    int[] mxR;
+    int[] mn;
+    double[] rAvSLP;
+
+    public WeatherTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public WeatherTable(int initialCapacity) {
+
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity cannot be negative: " + initialCapacity);
+        }
+
+        day = new int[initialCapacity];
+        mxT = new int[initialCapacity];
+        mnT = new int[initialCapacity];
+        avT = new int[initialCapacity];
+        avDP = new double[initialCapacity];
+        oneHrPTPcpn = new int[initialCapacity];
+        pDir = new int[initialCapacity];
+        avSp = new double[initialCapacity];
+        dir = new int[initialCapacity];
+        mxS = new int[initialCapacity];
+        skyC = new double[initialCapacity];
+        mxR = new int[initialCapacity];
+        mn = new int[initialCapacity];
+        rAvSLP = new double[initialCapacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all rows, keeping the allocated capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Appends the values of the entity as a new row. The entity is not referenced afterwards,
+     * so a single scratch entity can be reused for every row.
+     *
+     * @return the index of the new row
+     */
+    public int add(WeatherEntity entity) {
+
+        if (size == day.length) {
+            grow();
+        }
+
+        int row = size++;
+        day[row] = entity.Day;
+        mxT[row] = entity.MxT;
+        mnT[row] = entity.MnT;
+        avT[row] = entity.AvT;
+        avDP[row] = entity.AvDP;
+        oneHrPTPcpn[row] = entity.oneHrP_TPcpn;
+        pDir[row] = entity.PDir;
+        avSp[row] = entity.AvSp;
+        dir[row] = entity.Dir;
+        mxS[row] = entity.MxS;
+        skyC[row] = entity.SkyC;
+        mxR[row] = entity.MxR;
+        mn[row] = entity.Mn;
+        rAvSLP[row] = entity.R_AvSLP;
+        return row;
+    }
+
+    /**
+     * Materializes a row as a new entity.
+     */
+    public WeatherEntity get(int row) {
+        checkIndex(row);
+        WeatherEntity entity = new WeatherEntity();
+        entity.Day = day[row];
+        entity.MxT = mxT[row];
+        entity.MnT = mnT[row];
+        entity.AvT = avT[row];
+        entity.AvDP = avDP[row];
+        entity.oneHrP_TPcpn = oneHrPTPcpn[row];
+        entity.PDir = pDir[row];
+        entity.AvSp = avSp[row];
+        entity.Dir = dir[row];
+        entity.MxS = mxS[row];
+        entity.SkyC = skyC[row];
+        entity.MxR = mxR[row];
+        entity.Mn = mn[row];
+        entity.R_AvSLP = rAvSLP[row];
+        return entity;
+    }
+
+    public int getDay(int row) {
+        checkIndex(row);
+        return day[row];
+    }
+
+    public int getMxT(int row) {
+        checkIndex(row);
+        return mxT[row];
+    }
+
+    public int getMnT(int row) {
+        checkIndex(row);
+        return mnT[row];
+    }
+
+    public int getAvT(int row) {
+        checkIndex(row);
+        return avT[row];
+    }
+
+    public double getAvDP(int row) {
+        checkIndex(row);
+        return avDP[row];
+    }
+
+    public int getOneHrPTPcpn(int row) {
+        checkIndex(row);
+        return oneHrPTPcpn[row];
+    }
+
+    public int getPDir(int row) {
+        checkIndex(row);
+        return pDir[row];
+    }
+
+    public double getAvSp(int row) {
+        checkIndex(row);
+        return avSp[row];
+    }
+
+    public int getDir(int row) {
+        checkIndex(row);
+        return dir[row];
+    }
+
+    public int getMxS(int row) {
+        checkIndex(row);
+        return mxS[row];
+    }
+
+    public double getSkyC(int row) {
+        checkIndex(row);
+        return skyC[row];
+    }
+
+    public int getMxR(int row) {
+        checkIndex(row);
+        return mxR[row];
+    }
+
+    public int getMn(int row) {
+        checkIndex(row);
+        return mn[row];
+    }
+
+    public double getRAvSLP(int row) {
+        checkIndex(row);
+        return rAvSLP[row];
+    }
+
+    /**
+     * @return the temperature spread of the row, computed like {@link WeatherEntity#getTemperatureSpread()}
+     */
+    public float getTemperatureSpread(int row) {
+        checkIndex(row);
+        return mxT[row] - mnT[row];
+    }
+
+    @Override
+    public List<String> columnNames() {
+        return COLUMN_NAMES;
+    }
+
+    @Override
+    public ColumnType columnType(String name) {
+        switch (name) {
+            case "AvDP":
+            case "AvSp":
+            case "SkyC":
+            case "R AvSLP":
+                return ColumnType.DOUBLE;
+            default:
+                if (!COLUMN_NAMES.contains(name)) {
+                    throw new IllegalArgumentException("Unknown column: " + name);
+                }
+                return ColumnType.INT;
+        }
+    }
+
+    @Override
+    public NumericColumn numericColumn(String name) {
+        // Arrays are looked up per batch and not captured, as they are replaced when the table grows
+        if (columnType(name) == ColumnType.DOUBLE) {
+            return (from, length, target) -> System.arraycopy(doubleColumn(name), from, target, 0, length);
+        }
+        return (from, length, target) -> {
+            int[] column = intColumn(name);
+            for (int i = 0; i < length; i++) {
+                target[i] = column[from + i];
+            }
+        };
+    }
+
+    @Override
+    public KeyColumn keyColumn(String name) {
+        if (columnType(name) != ColumnType.INT) {
+            throw new IllegalArgumentException("Column cannot be used as key: " + name);
+        }
+        return KeyColumn.ofInts((from, length, target) -> System.arraycopy(intColumn(name), from, target, 0, length));
+    }
+
+    private int[] intColumn(String name) {
+        switch (name) {
+            case "Day":
+                return day;
+            case "MxT":
+                return mxT;
+            case "MnT":
+                return mnT;
+            case "AvT":
+                return avT;
+            case "1HrP TPcpn":
+                return oneHrPTPcpn;
+            case "PDir":
+                return pDir;
+            case "Dir":
+                return dir;
+            case "MxS":
+                return mxS;
+            case "MxR":
+                return mxR;
+            default:
+                return mn;
+        }
+    }
+
+    private double[] doubleColumn(String name) {
+        switch (name) {
+            case "AvDP":
+                return avDP;
+            case "AvSp":
+                return avSp;
+            case "SkyC":
+                return skyC;
+            default:
+                return rAvSLP;
+        }
+    }
+
+    /**
+     * @return the number of columns {@link #writeColumn(int, WritableByteChannel)} writes
+     */
+    public static int columnCount() {
+        return INT_COLUMNS + DOUBLE_COLUMNS;
+    }
+
+    /**
+     * @return the number of bytes {@link #writeColumn(int, WritableByteChannel)} writes for the column of a table
+     * with the given number of rows
+     */
+    public static long columnBytes(int column, int size) {
+        return (long) size * (column < INT_COLUMNS ? Integer.BYTES : Double.BYTES);
+    }
+
+    /**
+     * Writes the column little endian to the channel, through a small buffer instead of a copy of the whole column.
+     * Columns are numbered int columns first, then double columns, each in field order. Used for binary snapshots;
+     * {@link #readColumns(ByteBuffer[], int)} reads them back.
+     */
+    public void writeColumn(int column, WritableByteChannel channel) throws IOException {
+
+        ByteBuffer chunk = ByteBuffer.allocateDirect(WRITE_CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        if (column < INT_COLUMNS) {
+            int[] values = intColumns()[column];
+            int step = WRITE_CHUNK_BYTES / Integer.BYTES;
+            for (int from = 0; from < size; from += step) {
+                int length = Math.min(step, size - from);
+                chunk.clear();
+                chunk.asIntBuffer().put(values, from, length);
+                chunk.limit(length * Integer.BYTES);
+                writeFully(channel, chunk);
+            }
+        } else {
+            double[] values = doubleColumns()[column - INT_COLUMNS];
+            int step = WRITE_CHUNK_BYTES / Double.BYTES;
+            for (int from = 0; from < size; from += step) {
+                int length = Math.min(step, size - from);
+                chunk.clear();
+                chunk.asDoubleBuffer().put(values, from, length);
+                chunk.limit(length * Double.BYTES);
+                writeFully(channel, chunk);
+            }
+        }
+    }
+
+    /**
+     * Bulk loads a table with the given number of rows from columns written by
+     * {@link #writeColumn(int, WritableByteChannel)}, one buffer per column.
+     */
+    public static WeatherTable readColumns(ByteBuffer[] columns, int size) {
+
+        if (columns.length != columnCount()) {
+            throw new IllegalArgumentException("Expected " + columnCount() + " columns, got " + columns.length);
+        }
+
+        WeatherTable table = new WeatherTable(size);
+        int[][] intColumns = table.intColumns();
+        for (int i = 0; i < INT_COLUMNS; i++) {
+            columns[i].duplicate().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(intColumns[i], 0, size);
+        }
+        double[][] doubleColumns = table.doubleColumns();
+        for (int i = 0; i < DOUBLE_COLUMNS; i++) {
+            columns[INT_COLUMNS + i].duplicate().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(doubleColumns[i], 0, size);
+        }
+        table.size = size;
+        return table;
+    }
+
+    /**
+     * Shrinks the columns to the current size, e.g. after loading has finished.
+     */
+    public void trimToSize() {
+        resize(size);
+    }
+
+    private void grow() {
+        int capacity = day.length;
+        int newCapacity = capacity < DEFAULT_CAPACITY ? DEFAULT_CAPACITY : capacity + (capacity >> 1);
+        if (newCapacity < 0) {
+            newCapacity = Integer.MAX_VALUE - 8;
+            if (newCapacity <= capacity) {
+                throw new IllegalStateException("Weather table is full");
+            }
+        }
+        resize(newCapacity);
+    }
+
+    private void resize(int capacity) {
+        day = Arrays.copyOf(day, capacity);
+        mxT = Arrays.copyOf(mxT, capacity);
+        mnT = Arrays.copyOf(mnT, capacity);
+        avT = Arrays.copyOf(avT, capacity);
+        avDP = Arrays.copyOf(avDP, capacity);
+        oneHrPTPcpn = Arrays.copyOf(oneHrPTPcpn, capacity);
+        pDir = Arrays.copyOf(pDir, capacity);
+        avSp = Arrays.copyOf(avSp, capacity);
+        dir = Arrays.copyOf(dir, capacity);
+        mxS = Arrays.copyOf(mxS, capacity);
+        skyC = Arrays.copyOf(skyC, capacity);
+        mxR = Arrays.copyOf(mxR, capacity);
+        mn = Arrays.copyOf(mn, capacity);
+        rAvSLP = Arrays.copyOf(rAvSLP, capacity);
+    }
+
+    private int[][] intColumns() {
+        return new int[][]{day, mxT, mnT, avT, oneHrPTPcpn, pDir, dir, mxS, mxR, mn};
+    }
+
+    private double[][] doubleColumns() {
+        return new double[][]{avDP, avSp, skyC, rAvSLP};
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void checkIndex(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for weather table with " + size + " rows");
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package de.bcxp.challenge.selection;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD kernels on the Vector API, loaded by {@link KernelSelection} when the incubator module is present.
+ * <p>
+ * Both reductions run in a single pass: every lane keeps its own best value and the index it was first seen at,
+ * updated with a compare and two blends per vector. The index vector is rebuilt from the loop counter every
+ * iteration and all vector code is kept in the kernel body: on JDK 17, C2 boxes vectors that are carried across
+ * iterations or returned from a call that is not inlined, and then allocates on every step. The lanes are merged
+ * once at the end, preferring the lower index on equal values, and the tail is finished with scalar code, so the
+ * result equals the scalar kernels.
+ * Quotients that the lane-wise compare cannot order like {@link Double#compare(double, double)}, NaN and a best
+ * quotient of zero that might be -0.0, are left to the scalar kernels.
+ */
+final class VectorReductionKernels implements ReductionKernels {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    VectorReductionKernels() {
+    }
+
+    @Override
+    public String name() {
+        return "vector";
+    }
+
+    @Override
+    public int argMinDifference(int[] minuend, int[] subtrahend, int from, int to) {
+
+        int lanes = INTS.length();
+        if (to - from < 2 * lanes) {
+            return ScalarReductionKernels.INSTANCE.argMinDifference(minuend, subtrahend, from, to);
+        }
+
+        IntVector best = IntVector.fromArray(INTS, minuend, from).sub(IntVector.fromArray(INTS, subtrahend, from));
+        IntVector bestIndices = IntVector.broadcast(INTS, from).addIndex(1);
+
+        int i = from + lanes;
+        int bound = from + INTS.loopBound(to - from);
+        for (; i < bound; i += lanes) {
+            IntVector values = IntVector.fromArray(INTS, minuend, i).sub(IntVector.fromArray(INTS, subtrahend, i));
+            VectorMask<Integer> smaller = values.lt(best);
+            best = best.blend(values, smaller);
+            bestIndices = bestIndices.blend(IntVector.broadcast(INTS, i).addIndex(1), smaller);
+        }
+
+        int[] values = best.toArray();
+        int[] indices = bestIndices.toArray();
+        int row = -1;
+        int bestValue = 0;
+        for (int lane = 0; lane < lanes; lane++) {
+            int value = values[lane];
+            int index = indices[lane];
+            if (row < 0 || value < bestValue || (value == bestValue && index < row)) {
+                row = index;
+                bestValue = value;
+            }
+        }
+
+        for (; i < to; i++) {
+            int value = minuend[i] - subtrahend[i];
+            if (value < bestValue) {
+                row = i;
+                bestValue = value;
+            }
+        }
+        return row;
+    }
+
+    @Override
+    public int argMaxQuotient(double[] numerator, double[] denominator, int from, int to) {
+
+        int lanes = DOUBLES.length();
+        if (to - from < 2 * lanes) {
+            return ScalarReductionKernels.INSTANCE.argMaxQuotient(numerator, denominator, from, to);
+        }
+
+        // Indices are tracked as doubles, exact for every int, so values and indices share one mask per vector
+        DoubleVector firstDenominators = DoubleVector.fromArray(DOUBLES, denominator, from);
+        DoubleVector best = DoubleVector.fromArray(DOUBLES, numerator, from).div(firstDenominators)
+                .blend(0, firstDenominators.eq(0));
+        DoubleVector bestIndices = DoubleVector.broadcast(DOUBLES, from).addIndex(1);
+        // Any NaN quotient makes the sum NaN; infinities can too, which only costs a needless scalar pass
+        DoubleVector sum = best;
+
+        int i = from + lanes;
+        int bound = from + DOUBLES.loopBound(to - from);
+        for (; i < bound; i += lanes) {
+            DoubleVector denominators = DoubleVector.fromArray(DOUBLES, denominator, i);
+            DoubleVector values = DoubleVector.fromArray(DOUBLES, numerator, i).div(denominators)
+                    .blend(0, denominators.eq(0));
+            sum = sum.add(values);
+            VectorMask<Double> greater = values.compare(VectorOperators.GT, best);
+            best = best.blend(values, greater);
+            bestIndices = bestIndices.blend(DoubleVector.broadcast(DOUBLES, i).addIndex(1), greater);
+        }
+
+        if (Double.isNaN(sum.reduceLanes(VectorOperators.ADD))) {
+            return ScalarReductionKernels.INSTANCE.argMaxQuotient(numerator, denominator, from, to);
+        }
+
+        double[] values = best.toArray();
+        double[] indices = bestIndices.toArray();
+        int row = -1;
+        double bestValue = 0;
+        for (int lane = 0; lane < lanes; lane++) {
+            double value = values[lane];
+            int index = (int) indices[lane];
+            if (row < 0 || value > bestValue || (value == bestValue && index < row)) {
+                row = index;
+                bestValue = value;
+            }
+        }
+
+        for (; i < to; i++) {
+            double value = ReductionKernels.quotient(numerator[i], denominator[i]);
+            if (Double.compare(value, bestValue) > 0) {
+                row = i;
+                bestValue = value;
+            }
+        }
+
+        if (bestValue == 0) {
+            return ScalarReductionKernels.INSTANCE.argMaxQuotient(numerator, denominator, from, to);
+        }
+        return row;
+    }
+}
@@ -0,0 +1,192 @@
+package de.bcxp.challenge.adapters;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingRecordReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Reads the lines of a file and counts how often it was asked to.
+     */
+    static class CountingReader implements RecordReader<String> {
+
+        final AtomicInteger reads = new AtomicInteger();
+        CountDownLatch gate;
+
+        @Override
+        public List<String> readAll(String filePath) {
+            reads.incrementAndGet();
+            try {
+                if (gate != null) {
+                    gate.await(10, TimeUnit.SECONDS);
+                }
+                return new ArrayList<>(Files.readAllLines(Path.of(filePath)));
+            } catch (IOException | InterruptedException e) {
+                throw new RuntimeException("Failed to read CSV file", e);
+            }
+        }
+
+        @Override
+        public Stream<String> stream(String filePath) {
+            return readAll(filePath).stream();
+        }
+
+        @Override
+        public Stream<String> stream(InputStream inputStream) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private Path writeFile(String name, String... lines) throws IOException {
+        return Files.write(tempDir.resolve(name), Arrays.asList(lines));
+    }
+
+    @Test
+    void testReadAll_HitServesSameList() throws IOException {
+        Path file = writeFile("a.csv", "x", "y");
+        CountingReader delegate = new CountingReader();
+        CachingRecordReader<String> reader = new CachingRecordReader<>(delegate, 1024 * 1024);
+
+        List<String> first = reader.readAll(file.toString());
+        List<String> second = reader.readAll(file.toString());
+
+        assertEquals(List.of("x", "y"), first);
+        assertSame(first, second, "Hit should return the cached list");
+        assertEquals(1, delegate.reads.get(), "File should be parsed once");
+        assertEquals(1, reader.getCache().getHitCount());
+        assertEquals(1, reader.getCache().getMissCount());
+        assertThrows(UnsupportedOperationException.class, () -> first.add("z"), "Cached lists are shared and unmodifiable");
+    }
+
+    @Test
+    void testReadAll_ChangedFileIsReadAgain() throws IOException {
+        Path file = writeFile("a.csv", "x");
+        CountingReader delegate = new CountingReader();
+        CachingRecordReader<String> reader = new CachingRecordReader<>(delegate, 1024 * 1024);
+        reader.readAll(file.toString());
+
+        Files.write(file, List.of("y"));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 5000));
+
+        assertEquals(List.of("y"), reader.readAll(file.toString()));
+        assertEquals(2, delegate.reads.get());
+        assertEquals(1, reader.getCache().size(), "The outdated version should be replaced");
+    }
+
+    @Test
+    void testReadAll_DelegatesAreCachedSeparately() throws IOException {
+        Path file = writeFile("a.csv", "x");
+        RecordCache cache = new RecordCache(1024 * 1024);
+        CountingReader first = new CountingReader();
+        CountingReader second = new CountingReader();
+
+        new CachingRecordReader<>(first, cache).readAll(file.toString());
+        new CachingRecordReader<>(second, cache).readAll(file.toString());
+
+        assertEquals(1, first.reads.get());
+        assertEquals(1, second.reads.get(), "A different mapper or format must not share the entry");
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testReadAll_EvictsLeastRecentlyUsedByWeight() throws IOException {
+        Path a = writeFile("a.csv", "1");
+        Path b = writeFile("b.csv", "2");
+        Path c = writeFile("c.csv", "3");
+        CountingReader delegate = new CountingReader();
+        // Every file weighs 100 bytes, two of them fit
+        CachingRecordReader<String> reader = new CachingRecordReader<>(delegate, new RecordCache(250), records -> 100);
+
+        reader.readAll(a.toString());
+        reader.readAll(b.toString());
+        reader.readAll(a.toString()); // a is now more recently used than b
+        reader.readAll(c.toString()); // evicts b
+
+        assertEquals(1, reader.getCache().getEvictionCount());
+        assertEquals(200, reader.getCache().getWeight());
+
+        reader.readAll(a.toString());
+        assertEquals(3, delegate.reads.get(), "a should still be cached");
+        reader.readAll(b.toString());
+        assertEquals(4, delegate.reads.get(), "b should have been evicted");
+    }
+
+    @Test
+    void testReadAll_ConcurrentLoadsCollapse() throws Exception {
+        Path file = writeFile("a.csv", "x");
+        CountingReader delegate = new CountingReader();
+        delegate.gate = new CountDownLatch(1);
+        CachingRecordReader<String> reader = new CachingRecordReader<>(delegate, 1024 * 1024);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> reader.readAll(file.toString())));
+            }
+            while (reader.getCache().getHitCount() + reader.getCache().getMissCount() < 8) {
+                Thread.sleep(5);
+            }
+            delegate.gate.countDown();
+
+            for (Future<List<String>> result : results) {
+                assertEquals(List.of("x"), result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, delegate.reads.get(), "Concurrent loads should share one parse");
+        assertEquals(1, reader.getCache().getMissCount());
+    }
+
+    @Test
+    void testReadAll_FailuresAreNotCached() throws IOException {
+        Path file = writeFile("a.csv", "x");
+        AtomicInteger calls = new AtomicInteger();
+        CountingReader failingOnce = new CountingReader() {
+            @Override
+            public List<String> readAll(String filePath) {
+                if (calls.incrementAndGet() == 1) {
+                    throw new IllegalStateException("broken");
+                }
+                return super.readAll(filePath);
+            }
+        };
+        CachingRecordReader<String> reader = new CachingRecordReader<>(failingOnce, 1024 * 1024);
+
+        assertThrows(IllegalStateException.class, () -> reader.readAll(file.toString()));
+        assertEquals(List.of("x"), reader.readAll(file.toString()));
+        assertEquals(2, calls.get(), "The failed load should not be cached");
+        assertTrue(reader.getCache().getWeight() > 0, "Successful load should be weighed");
+    }
+
+    @Test
+    void testReadAll_InvalidPaths() {
+        CachingRecordReader<String> reader = new CachingRecordReader<>(new CountingReader(), 1024);
+        assertThrows(IllegalArgumentException.class, () -> reader.readAll(null));
+        assertThrows(IllegalArgumentException.class, () -> reader.readAll(""));
+        assertThrows(IllegalArgumentException.class, () -> reader.readAll("nonexistent.csv"));
+    }
+}
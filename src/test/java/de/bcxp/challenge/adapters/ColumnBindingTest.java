@@ -0,0 +1,29 @@
+package de.bcxp.challenge.adapters;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnBindingTest {
+
+    @Test
+    void testOf_ResolvesPositionsInHeaderOrder() {
+        ColumnBinding binding = ColumnBinding.of(List.of("age", "city", "name"), new String[]{"name", "age", "zip"});
+
+        assertEquals(2, binding.position(0));
+        assertEquals(0, binding.position(1));
+        assertEquals(ColumnBinding.MISSING, binding.position(2));
+    }
+
+    @Test
+    void testDescribe_SkipsMissingColumns() {
+        String[] columns = {"name", "age"};
+        ColumnBinding binding = ColumnBinding.of(List.of("name"), columns);
+        IndexedRow row = new MapRow(Map.of("name", "John"), columns);
+
+        assertEquals("{name=John}", binding.describe(row));
+    }
+}
@@ -0,0 +1,122 @@
+package de.bcxp.challenge.adapters;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldParserTest {
+
+    @Test
+    void testParseLong_ValidNumbers() {
+        assertEquals(42L, FieldParser.parseLong("42"));
+        assertEquals(-42L, FieldParser.parseLong("-42"));
+        assertEquals(42L, FieldParser.parseLong("+42"));
+        assertEquals(83240525L, FieldParser.parseLong("  83240525  "));
+        assertEquals(Long.MAX_VALUE, FieldParser.parseLong("9223372036854775807"));
+        assertEquals(-Long.MAX_VALUE, FieldParser.parseLong("-9223372036854775807"));
+    }
+
+    @Test
+    void testParseLong_InvalidNumbers() {
+        assertEquals(FieldParser.INVALID, FieldParser.parseLong(null));
+        assertEquals(FieldParser.INVALID, FieldParser.parseLong(""));
+        assertEquals(FieldParser.INVALID, FieldParser.parseLong("   "));
+        assertEquals(FieldParser.INVALID, FieldParser.parseLong("-"));
+        assertEquals(FieldParser.INVALID, FieldParser.parseLong("83,240,525"));
+        assertEquals(FieldParser.INVALID, FieldParser.parseLong("83.240.525"));
+        assertEquals(FieldParser.INVALID, FieldParser.parseLong("83 240 525"));
+        assertEquals(FieldParser.INVALID, FieldParser.parseLong("83240525abc"));
+        assertEquals(FieldParser.INVALID, FieldParser.parseLong("9223372036854775808"));
+        assertEquals(FieldParser.INVALID, FieldParser.parseLong("-9223372036854775808"));
+    }
+
+    @Test
+    void testParseInt_Range() {
+        assertEquals(Integer.MAX_VALUE, FieldParser.parseInt("2147483647"));
+        assertEquals(Integer.MIN_VALUE, FieldParser.parseInt("-2147483648"));
+        assertEquals(FieldParser.INVALID, FieldParser.parseInt("2147483648"));
+    }
+
+    @Test
+    void testParseDouble_ValidNumbers() {
+        assertEquals(53.8, FieldParser.parseDouble("53.8"));
+        assertEquals(-0.5, FieldParser.parseDouble(" -.5 "));
+        assertEquals(357114.0, FieldParser.parseDouble("357114"));
+        assertEquals(1.0, FieldParser.parseDouble("1."));
+        assertEquals(1500.0, FieldParser.parseDouble("1.5e3"));
+        assertEquals(0.0015, FieldParser.parseDouble("1.5E-3"));
+    }
+
+    @Test
+    void testParseDouble_InvalidNumbers() {
+        assertTrue(Double.isNaN(FieldParser.parseDouble(null)));
+        assertTrue(Double.isNaN(FieldParser.parseDouble("")));
+        assertTrue(Double.isNaN(FieldParser.parseDouble(".")));
+        assertTrue(Double.isNaN(FieldParser.parseDouble("1,5")));
+        assertTrue(Double.isNaN(FieldParser.parseDouble("1.5.3")));
+        assertTrue(Double.isNaN(FieldParser.parseDouble("1e")));
+        assertTrue(Double.isNaN(FieldParser.parseDouble("NaN")));
+        assertTrue(Double.isNaN(FieldParser.parseDouble("Infinity")));
+        assertTrue(Double.isNaN(FieldParser.parseDouble("1.5d")));
+    }
+
+    @Test
+    void testParseDouble_MatchesDoubleParseDouble() {
+        String[] values = {
+                "0.1", "0.3", "2.2250738585072014E-308", "2.2250738585072011e-308", "4.9e-324", "2.4e-324",
+                "2.5e-324", "1.7976931348623157e308", "1.7976931348623159e308", "1e309", "1e-400",
+                "9007199254740993", "9007199254740992.5", "9223372036854775807", "18446744073709551615",
+                "9999999999999999999", "123456789012345678901234567890", "0.000000000000000000000000001",
+                "7.2057594037927933e16", "1e23", "8.98846567431158e307", "3.0517578125e-5", "-0.0", "1e-22",
+                "1e22", "4503599627370496.5", "4503599627370497.5", "2.0000000000000004", "0.00000000000000000000"
+        };
+        for (String value : values) {
+            assertEquals(Double.parseDouble(value), FieldParser.parseDouble(value), "Parsed value of " + value);
+        }
+    }
+
+    @Test
+    void testParseDouble_RandomRoundTrip() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            double expected = Double.longBitsToDouble(random.nextLong());
+            if (Double.isNaN(expected) || Double.isInfinite(expected)) {
+                continue;
+            }
+            String value = Double.toString(expected);
+            assertEquals(expected, FieldParser.parseDouble(value), "Round trip of " + value);
+        }
+        for (int i = 0; i < 200_000; i++) {
+            String value = random.nextInt(1_000_000_000) + "." + random.nextInt(1_000_000) + "e" + (random.nextInt(700) - 350);
+            assertEquals(Double.parseDouble(value), FieldParser.parseDouble(value), "Parsed value of " + value);
+        }
+    }
+
+    @Test
+    void testByteSlice_SameResultsAsCharSequence() {
+        String[] values = {
+                "42", " -17 ", "+3", "9223372036854775807", "9223372036854775808", "", "  ", "4.036.355,00",
+                "53.8", "1.5E-3", "1e400", "123456789012345678901234567890", ".", "NaN"
+        };
+        for (String value : values) {
+            // Surround the slice with other bytes to make sure only [start, end) is read
+            ByteBuffer buffer = ByteBuffer.wrap(("9," + value + ",9").getBytes(StandardCharsets.US_ASCII));
+            int start = 2;
+            int end = 2 + value.length();
+            assertEquals(FieldParser.parseLong(value), FieldParser.parseLong(buffer, start, end), "Long of " + value);
+            assertEquals(FieldParser.parseInt(value), FieldParser.parseInt(buffer, start, end), "Int of " + value);
+            assertEquals(FieldParser.parseDouble(value), FieldParser.parseDouble(buffer, start, end), "Double of " + value);
+        }
+    }
+
+    @Test
+    void testIsBlank() {
+        assertTrue(FieldParser.isBlank(null));
+        assertTrue(FieldParser.isBlank(" \t"));
+        assertFalse(FieldParser.isBlank(" a "));
+    }
+}
@@ -0,0 +1,84 @@
+package de.bcxp.challenge.adapters;
+
+import de.bcxp.challenge.adapters.csv.mappers.WeatherCSVRowMapper;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RejectLogTest {
+
+    private static final String[] COLUMNS = {"name", "age"};
+
+    private final IndexedRow row = new MapRow(Map.of("name", "John", "age", "n/a"), COLUMNS);
+
+    @Nested
+    class Counters {
+
+        @Test
+        void countsEveryRejectedRowPerReason() {
+            RejectLog rejectLog = new RejectLog(1);
+
+            for (int i = 0; i < 100; i++) {
+                rejectLog.reject(COLUMNS, row, MappingResult.rejected(RejectReason.MALFORMED_NUMBER, "age", "n/a"));
+            }
+            rejectLog.reject(COLUMNS, row, MappingResult.rejected(RejectReason.OUT_OF_RANGE, "age", "-1"));
+
+            RejectCounters counters = rejectLog.getCounters();
+            assertEquals(100, counters.get(RejectReason.MALFORMED_NUMBER));
+            assertEquals(1, counters.get(RejectReason.OUT_OF_RANGE));
+            assertEquals(0, counters.get(RejectReason.EMPTY_ROW));
+            assertEquals(101, counters.total());
+            assertEquals("{MALFORMED_NUMBER=100, OUT_OF_RANGE=1}", counters.toString());
+        }
+
+        @Test
+        void countsRowsWithoutReasonAsUnspecified() {
+            RejectCounters counters = new RejectCounters();
+
+            counters.increment(null);
+
+            assertEquals(1, counters.get(RejectReason.UNSPECIFIED));
+        }
+
+        @Test
+        void resetClearsAllCounts() {
+            RejectCounters counters = new RejectCounters();
+            counters.increment(RejectReason.EMPTY_ROW);
+
+            counters.reset();
+
+            assertEquals(0, counters.total());
+            assertEquals("{}", counters.toString());
+        }
+
+        @Test
+        void onlyCountsWithoutLogging() {
+            RejectLog rejectLog = new RejectLog(0);
+
+            rejectLog.reject(COLUMNS, row, MappingResult.rejected(RejectReason.MISSING_COLUMN, "age", ""));
+            rejectLog.logSummary();
+
+            assertEquals(1, rejectLog.getCounters().get(RejectReason.MISSING_COLUMN));
+        }
+    }
+
+    @Nested
+    class Validation {
+
+        @Test
+        void rejectsNegativeLinesPerSecond() {
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> new RejectLog(-1));
+            assertEquals("Lines per second cannot be negative: -1", exception.getMessage());
+        }
+
+        @Test
+        void mapperRejectsNullSink() {
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> new WeatherCSVRowMapper(true, null));
+            assertEquals("Reject sink cannot be null", exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package de.bcxp.challenge.adapters.compress;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedInputTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Nested
+    class Detection {
+
+        @Test
+        void detectsFormatsByMagicBytes() throws IOException {
+            byte[] data = "Day,MxT\n1,88\n".getBytes();
+
+            assertEquals(Compression.NONE, Compression.detect(Files.write(tempDir.resolve("plain.gz"), data)));
+            assertEquals(Compression.GZIP, Compression.detect(Files.write(tempDir.resolve("data.csv"), gzip(data))));
+            assertEquals(Compression.ZSTD, Compression.detect(Files.write(tempDir.resolve("data.zst"), zstd(data))));
+            assertEquals(Compression.NONE, Compression.detect(Files.write(tempDir.resolve("empty"), new byte[0])));
+        }
+
+        @Test
+        void tellsBlockGzipFromPlainGzip() throws IOException {
+            byte[] data = "Day,MxT\n1,88\n".getBytes();
+
+            assertTrue(BlockGzip.isBlockGzip(Files.write(tempDir.resolve("block.gz"), BlockGzip.compress(data, 0, data.length, 6))));
+            assertFalse(BlockGzip.isBlockGzip(Files.write(tempDir.resolve("plain.gz"), gzip(data))));
+        }
+    }
+
+    @Nested
+    class Decompression {
+
+        @Test
+        void inflatesBlockGzipInParallel() throws IOException {
+            byte[] data = randomCsv(5_000_000);
+            Path file = tempDir.resolve("data.csv.gz");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                out.write(BlockGzip.compress(data, 0, 2_000_000, 1));
+                out.write(BlockGzip.compress(data, 2_000_000, data.length - 2_000_000, 9));
+                out.write(BlockGzip.EOF);
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(3);
+            try (InputStream in = CompressedInput.open(file, executor, 3)) {
+                assertTrue(in instanceof ParallelGzipInputStream);
+                assertArrayEquals(data, readInSmallSteps(in));
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        void blockGzipIsReadableByAnyGzipReader() throws IOException {
+            byte[] data = randomCsv(300_000);
+            byte[] compressed = BlockGzip.compress(data, 0, data.length, 6);
+
+            byte[] withEof = Arrays.copyOf(compressed, compressed.length + BlockGzip.EOF.length);
+            System.arraycopy(BlockGzip.EOF, 0, withEof, compressed.length, BlockGzip.EOF.length);
+
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(withEof))) {
+                assertArrayEquals(data, in.readAllBytes());
+            }
+        }
+
+        @Test
+        void readsPlainMultiMemberGzipAhead() throws IOException {
+            byte[] data = randomCsv(1_000_000);
+            Path file = tempDir.resolve("data.csv.gz");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                out.write(gzip(Arrays.copyOfRange(data, 0, 400_000)));
+                out.write(gzip(Arrays.copyOfRange(data, 400_000, data.length)));
+            }
+
+            try (InputStream in = CompressedInput.open(file)) {
+                assertTrue(in instanceof ReadAheadInputStream);
+                assertArrayEquals(data, readInSmallSteps(in));
+            }
+        }
+
+        @Test
+        void readsZstd() throws IOException {
+            byte[] data = randomCsv(700_000);
+            Path file = Files.write(tempDir.resolve("data.csv.zst"), zstd(data));
+
+            try (InputStream in = CompressedInput.open(file)) {
+                assertArrayEquals(data, in.readAllBytes());
+            }
+        }
+
+        @Test
+        void readsUncompressedFilesUnchanged() throws IOException {
+            byte[] data = randomCsv(10_000);
+            Path file = Files.write(tempDir.resolve("data.csv"), data);
+
+            try (InputStream in = CompressedInput.open(file)) {
+                assertArrayEquals(data, in.readAllBytes());
+            }
+        }
+    }
+
+    @Nested
+    class Corruption {
+
+        @Test
+        void failsOnChecksumMismatch() throws IOException {
+            byte[] data = randomCsv(100_000);
+            byte[] compressed = BlockGzip.compress(data, 0, data.length, 6);
+            int firstMemberSize = BlockGzip.readShort(compressed, 16) + 1;
+            compressed[firstMemberSize - 8] ^= 1;
+            Path file = Files.write(tempDir.resolve("corrupt.gz"), compressed);
+
+            try (InputStream in = CompressedInput.open(file)) {
+                IOException exception = assertThrows(IOException.class, in::readAllBytes);
+                assertEquals("Corrupt gzip member: CRC mismatch", exception.getMessage());
+            }
+        }
+
+        @Test
+        void failsOnTruncatedMember() throws IOException {
+            byte[] data = randomCsv(100_000);
+            byte[] compressed = BlockGzip.compress(data, 0, data.length, 6);
+            Path file = Files.write(tempDir.resolve("truncated.gz"), Arrays.copyOf(compressed, compressed.length - 10));
+
+            try (InputStream in = CompressedInput.open(file)) {
+                IOException exception = assertThrows(IOException.class, in::readAllBytes);
+                assertEquals("Truncated gzip member", exception.getMessage());
+            }
+        }
+
+        @Test
+        void propagatesErrorsOfThePlainGzipReader() throws IOException {
+            byte[] compressed = gzip(randomCsv(100_000));
+            Path file = Files.write(tempDir.resolve("truncated.gz"), Arrays.copyOf(compressed, compressed.length / 2));
+
+            try (InputStream in = CompressedInput.open(file)) {
+                assertThrows(IOException.class, in::readAllBytes);
+            }
+        }
+    }
+
+    private static byte[] readInSmallSteps(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1013];
+        for (int read; (read = in.read(buffer)) >= 0; ) {
+            out.write(buffer, 0, read);
+            int single = in.read();
+            if (single < 0) {
+                break;
+            }
+            out.write(single);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] randomCsv(int size) {
+        Random random = new Random(size);
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = i % 40 == 39 ? (byte) '\n' : (byte) (random.nextInt(3) == 0 ? ',' : '0' + random.nextInt(10));
+        }
+        return data;
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] zstd(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZstdOutputStream zstd = new ZstdOutputStream(out)) {
+            zstd.write(data);
+        }
+        return out.toByteArray();
+    }
+}
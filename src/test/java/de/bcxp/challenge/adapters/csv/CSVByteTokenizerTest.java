@@ -0,0 +1,97 @@
+package de.bcxp.challenge.adapters.csv;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CSVByteTokenizerTest {
+
+    /**
+     * Helper method to tokenize the given text completely and return all fields as strings.
+     */
+    private List<List<String>> tokenize(CSVByteTokenizer tokenizer, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        tokenizer.reset(ByteBuffer.wrap(bytes), 0, bytes.length, true);
+
+        List<List<String>> records = new ArrayList<>();
+        ByteRecord record = new ByteRecord();
+        while (tokenizer.next(record)) {
+            List<String> fields = new ArrayList<>();
+            for (int i = 0; i < record.size(); i++) {
+                fields.add(record.field(i).toString());
+            }
+            records.add(fields);
+        }
+        return records;
+    }
+
+    @Test
+    void testNext_PlainRecords() {
+        CSVByteTokenizer tokenizer = new CSVByteTokenizer(';', '"', true);
+
+        List<List<String>> records = tokenize(tokenizer, "a;b;c\n1;;3\r\nx;y;z");
+
+        assertEquals(List.of(List.of("a", "b", "c"), List.of("1", "", "3"), List.of("x", "y", "z")), records);
+    }
+
+    @Test
+    void testNext_QuotedFields() {
+        CSVByteTokenizer tokenizer = new CSVByteTokenizer(',', '"', true);
+
+        List<List<String>> records = tokenize(tokenizer, "\"a,b\",\"say \"\"hi\"\"\",\"line\nbreak\"\n");
+
+        assertEquals(List.of(List.of("a,b", "say \"hi\"", "line\nbreak")), records);
+    }
+
+    @Test
+    void testNext_NonAsciiFields() {
+        CSVByteTokenizer tokenizer = new CSVByteTokenizer(';', '"', true);
+
+        List<List<String>> records = tokenize(tokenizer, "Area (km²);Zürich\n");
+
+        assertEquals(List.of(List.of("Area (km²)", "Zürich")), records);
+    }
+
+    @Test
+    void testNext_IgnoresEmptyLines() {
+        CSVByteTokenizer tokenizer = new CSVByteTokenizer(',', '"', true);
+
+        List<List<String>> records = tokenize(tokenizer, "\n1,2\n\r\n\n3,4\n");
+
+        assertEquals(List.of(List.of("1", "2"), List.of("3", "4")), records);
+    }
+
+    @Test
+    void testNext_IncompleteRecordWaitsForMoreInput() {
+        CSVByteTokenizer tokenizer = new CSVByteTokenizer(',', '"', true);
+        byte[] bytes = "1,2\n3,\"4".getBytes(StandardCharsets.UTF_8);
+        tokenizer.reset(ByteBuffer.wrap(bytes), 0, bytes.length, false);
+        ByteRecord record = new ByteRecord();
+
+        assertTrue(tokenizer.next(record));
+        assertEquals("1,2", record.toString());
+
+        // The second record is cut off, so the position stays at its start
+        assertFalse(tokenizer.next(record));
+        assertEquals(4, tokenizer.position());
+    }
+
+    @Test
+    void testNext_UnterminatedQuoteAtEndOfInput() {
+        CSVByteTokenizer tokenizer = new CSVByteTokenizer(',', '"', true);
+
+        assertThrows(IllegalStateException.class, () -> tokenize(tokenizer, "1,\"2\n"));
+    }
+
+    @Test
+    void testConstructor_InvalidDelimiter() {
+        assertThrows(IllegalArgumentException.class, () -> new CSVByteTokenizer('\n', '"', true));
+        assertThrows(IllegalArgumentException.class, () -> new CSVByteTokenizer('§', '"', true));
+        assertThrows(IllegalArgumentException.class, () -> new CSVByteTokenizer(',', ',', true));
+    }
+}
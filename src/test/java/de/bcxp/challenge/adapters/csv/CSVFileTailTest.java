@@ -0,0 +1,179 @@
+package de.bcxp.challenge.adapters.csv;
+
+import de.bcxp.challenge.adapters.IndexedRow;
+import de.bcxp.challenge.adapters.RowVisitor;
+import org.apache.commons.csv.CSVFormat;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CSVFileTailTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final List<String> visited = Collections.synchronizedList(new ArrayList<>());
+
+    private final RowVisitor visitor = new RowVisitor() {
+        @Override
+        public String[] columns() {
+            return new String[]{"name", "age"};
+        }
+
+        @Override
+        public void visit(IndexedRow row) {
+            visited.add(row.get(0) + ":" + row.get(1));
+        }
+    };
+
+    private CSVFormat headerFromFile() {
+        return CSVFormat.Builder.create().setHeader().setSkipHeaderRecord(true).get();
+    }
+
+    private void append(Path file, String text) throws IOException {
+        Files.writeString(file, text, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Test
+    void testPoll_OnlyAppendedCompleteRows() throws IOException {
+        Path file = tempDir.resolve("people.csv");
+        append(file, "age,name\n25,John\n30,Ja");
+
+        CSVFileTail tail = new CSVFileTail(file, headerFromFile(), () -> fail("Should not reset"));
+
+        assertEquals(1, tail.poll(visitor), "The incomplete row should stay pending");
+        assertEquals(List.of("John:25"), visited);
+        assertEquals("age,name\n25,John\n".length(), tail.offset());
+
+        assertEquals(0, tail.poll(visitor), "Nothing new to read");
+
+        append(file, "ne\n41,Jim\n");
+        assertEquals(2, tail.poll(visitor));
+        assertEquals(List.of("John:25", "Jane:30", "Jim:41"), visited);
+    }
+
+    @Test
+    void testPoll_QuotedLineBreakAcrossAppends() throws IOException {
+        Path file = tempDir.resolve("people.csv");
+        append(file, "name,age\n\"Doe,\nJohn");
+
+        CSVFileTail tail = new CSVFileTail(file, headerFromFile(), () -> { });
+        assertEquals(0, tail.poll(visitor));
+
+        append(file, "\",25\n");
+        assertEquals(1, tail.poll(visitor));
+        assertEquals(List.of("Doe,\nJohn:25"), visited);
+    }
+
+    @Test
+    void testPoll_RowsLargerThanBuffer() throws IOException {
+        Path file = tempDir.resolve("people.csv");
+        String longName = "x".repeat(200_000);
+        append(file, "name,age\n" + longName + ",1\nshort,2\n");
+
+        CSVFileTail tail = new CSVFileTail(file, headerFromFile(), () -> { });
+
+        assertEquals(2, tail.poll(visitor));
+        assertEquals(longName + ":1", visited.get(0));
+        assertEquals("short:2", visited.get(1));
+    }
+
+    @Test
+    void testPoll_TruncatedFileIsReadAgain() throws IOException {
+        Path file = tempDir.resolve("people.csv");
+        append(file, "name,age\nJohn,25\nJane,30\n");
+
+        AtomicInteger resets = new AtomicInteger();
+        CSVFileTail tail = new CSVFileTail(file, headerFromFile(), resets::incrementAndGet);
+        assertEquals(2, tail.poll(visitor));
+
+        Files.writeString(file, "age,name\n7,Jo\n");
+        assertEquals(1, tail.poll(visitor));
+
+        assertEquals(1, resets.get(), "Reset callback should run once");
+        assertEquals(List.of("John:25", "Jane:30", "Jo:7"), visited, "The new header should be bound");
+    }
+
+    @Test
+    void testPoll_MissingFileWhileRotated() throws IOException {
+        Path file = tempDir.resolve("people.csv");
+        append(file, "name,age\nJohn,25\nJane,30\n");
+
+        AtomicInteger resets = new AtomicInteger();
+        CSVFileTail tail = new CSVFileTail(file, headerFromFile(), resets::incrementAndGet);
+        assertEquals(2, tail.poll(visitor));
+        long offset = tail.offset();
+
+        Files.delete(file);
+        assertEquals(0, tail.poll(visitor), "A missing file should have no new rows");
+        assertEquals(offset, tail.offset());
+        assertEquals(0, resets.get());
+
+        append(file, "name,age\nJo,7\n");
+        assertEquals(1, tail.poll(visitor));
+
+        assertEquals(1, resets.get(), "The recreated file should be read from the start");
+        assertEquals(List.of("John:25", "Jane:30", "Jo:7"), visited);
+    }
+
+    @Test
+    void testPoll_RotatedFileIsReadAgain() throws IOException {
+        Path file = tempDir.resolve("people.csv");
+        append(file, "name,age\nJohn,25\n");
+
+        AtomicInteger resets = new AtomicInteger();
+        CSVFileTail tail = new CSVFileTail(file, headerFromFile(), resets::incrementAndGet);
+        assertEquals(1, tail.poll(visitor));
+        Assumptions.assumeTrue(Files.readAttributes(file, BasicFileAttributes.class).fileKey() != null,
+                "The file system has no file keys");
+
+        // The new file is larger than the old offset, so only its file key tells it apart
+        Path rotated = tempDir.resolve("people.csv.new");
+        append(rotated, "name,age\nJane,30\nJim,41\n");
+        Files.move(file, tempDir.resolve("people.csv.1"));
+        Files.move(rotated, file);
+        assertEquals(2, tail.poll(visitor));
+
+        assertEquals(1, resets.get(), "Reset callback should run once");
+        assertEquals(List.of("John:25", "Jane:30", "Jim:41"), visited);
+    }
+
+    @Test
+    void testFollow_ReportsAppendedRows() throws Exception {
+        Path file = tempDir.resolve("people.csv");
+        append(file, "name,age\nJohn,25\n");
+
+        CountDownLatch appended = new CountDownLatch(2);
+        CSVFileTail tail = new CSVFileTail(file, headerFromFile(), () -> { }, 50);
+
+        Thread follower = new Thread(() -> tail.follow(visitor, appended::countDown));
+        follower.start();
+        try {
+            while (visited.isEmpty()) {
+                Thread.sleep(10);
+            }
+            append(file, "Jane,30\n");
+            assertTrue(appended.await(10, TimeUnit.SECONDS), "Appended row should be reported");
+            assertEquals(List.of("John:25", "Jane:30"), visited);
+        } finally {
+            tail.close();
+            follower.join(10_000);
+        }
+        assertFalse(follower.isAlive(), "Follow should stop when the tail is closed");
+    }
+}
@@ -0,0 +1,126 @@
+package de.bcxp.challenge.adapters.csv;
+
+import de.bcxp.challenge.adapters.RejectLog;
+import de.bcxp.challenge.adapters.RejectReason;
+import de.bcxp.challenge.adapters.csv.mappers.CountryCSVRowMapper;
+import de.bcxp.challenge.countries.CountryEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static de.bcxp.challenge.countries.CountryUtils.COUNTRY_CSV_FORMAT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CSVQuarantineSinkTest {
+
+    private static final String COUNTRIES =
+            "Name;Capital;Accession;Population;Area (km²);GDP (US$ M);HDI;MEPs\n" +
+            "Austria;Vienna;1995;8926000;83855;447718;0.922;19\n" +
+            "Croatia;Zagreb;2013;4.036.355,00;56594;55966;0.851;12\n" +
+            "Cyprus;Nicosia;2004;933505;0;21746;0.896;6\n" +
+            ";Valletta;2004;516100;316;14777;0.918;6\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writesRejectedRowsWithReasonsToTheQuarantineFile() throws IOException {
+        Path source = Files.writeString(tempDir.resolve("countries.csv"), COUNTRIES);
+        Path quarantine = tempDir.resolve("countries.rejected.csv");
+        RejectLog rejectLog = new RejectLog();
+
+        List<CountryEntity> countries;
+        try (CSVQuarantineSink sink = new CSVQuarantineSink(quarantine, 16, rejectLog)) {
+            countries = new MappedCSVRecordReader<>(new CountryCSVRowMapper(true, sink), COUNTRY_CSV_FORMAT)
+                    .readAll(source.toString());
+        }
+
+        assertEquals(1, countries.size());
+        assertEquals(List.of(
+                "Reason,Column,Value,Name,Capital,Accession,Population,Area (km²),GDP (US$ M),HDI,MEPs",
+                "MALFORMED_NUMBER,Population,\"4.036.355,00\",Croatia,Zagreb,2013,\"4.036.355,00\",56594,55966,0.851,12",
+                "OUT_OF_RANGE,Area (km²),0,Cyprus,Nicosia,2004,933505,0,21746,0.896,6",
+                "MISSING_COLUMN,Name,,,Valletta,2004,516100,316,14777,0.918,6"
+        ), Files.readAllLines(quarantine));
+        assertEquals(1, rejectLog.getCounters().get(RejectReason.MALFORMED_NUMBER));
+        assertEquals(3, rejectLog.getCounters().total());
+    }
+
+    @Test
+    void quarantinesRowsOfAllReaders() throws IOException {
+        Path source = Files.writeString(tempDir.resolve("countries.csv"), COUNTRIES);
+        Path quarantine = tempDir.resolve("countries.rejected.csv");
+
+        CSVQuarantineSink sink = new CSVQuarantineSink(quarantine);
+        CountryCSVRowMapper mapper = new CountryCSVRowMapper(true, sink);
+        new CSVRecordReader<>(mapper, COUNTRY_CSV_FORMAT).readAll(source.toString());
+        new ParallelCSVRecordReader<>(mapper, COUNTRY_CSV_FORMAT).readAll(source.toString());
+        sink.close();
+
+        assertEquals(6, sink.getWrittenCount());
+        assertEquals(0, sink.getDroppedCount());
+        assertEquals(7, Files.readAllLines(quarantine).size());
+    }
+
+    @Test
+    void dropsRowsAfterClose() throws IOException {
+        Path source = Files.writeString(tempDir.resolve("countries.csv"), COUNTRIES);
+        CSVQuarantineSink sink = new CSVQuarantineSink(tempDir.resolve("rejected.csv"));
+        sink.close();
+        sink.close();
+
+        new CSVRecordReader<>(new CountryCSVRowMapper(true, sink), COUNTRY_CSV_FORMAT).readAll(source.toString());
+
+        assertEquals(0, sink.getWrittenCount());
+        assertEquals(3, sink.getDroppedCount());
+    }
+
+    @Test
+    void countsEveryRowRejectedWhileClosing() throws Exception {
+        Path source = Files.writeString(tempDir.resolve("countries.csv"), COUNTRIES);
+        CSVQuarantineSink sink = new CSVQuarantineSink(tempDir.resolve("rejected.csv"), 4, null);
+
+        AtomicInteger reads = new AtomicInteger();
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            readers.add(new Thread(() -> {
+                CountryCSVRowMapper mapper = new CountryCSVRowMapper(true, sink);
+                for (int read = 0; read < 50; read++) {
+                    new CSVRecordReader<>(mapper, COUNTRY_CSV_FORMAT).readAll(source.toString());
+                    reads.incrementAndGet();
+                }
+            }));
+        }
+        readers.forEach(Thread::start);
+        while (reads.get() < 10) {
+            Thread.sleep(1);
+        }
+        sink.close();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertEquals(3L * reads.get(), sink.getWrittenCount() + sink.getDroppedCount(),
+                "Every rejected row should be counted as written or dropped");
+    }
+
+    @Test
+    void reportsUnwritableFileOnClose() {
+        CSVQuarantineSink sink = new CSVQuarantineSink(tempDir.resolve("missing").resolve("rejected.csv"));
+
+        assertThrows(IOException.class, sink::close);
+    }
+
+    @Test
+    void rejectsInvalidCapacity() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new CSVQuarantineSink(tempDir.resolve("rejected.csv"), 0, null));
+        assertEquals("Capacity must be positive: 0", exception.getMessage());
+    }
+}
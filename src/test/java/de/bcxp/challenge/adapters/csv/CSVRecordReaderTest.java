@@ -1,16 +1,33 @@
 package de.bcxp.challenge.adapters.csv;
 
+import de.bcxp.challenge.adapters.IndexedRow;
+import de.bcxp.challenge.adapters.IndexedRowMapper;
 import de.bcxp.challenge.adapters.RowMapper;
+import de.bcxp.challenge.adapters.RowVisitor;
 import org.apache.commons.csv.CSVFormat;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class CSVRecordReaderTest {
 
+    @TempDir
+    Path tempDir;
+
     @Test
     void testReadAll_NullFilePath() {
         CSVRecordReader<TestData> reader = new CSVRecordReader<>(new TestRowMapper(), CSVFormat.DEFAULT);
@@ -57,7 +74,130 @@ class CSVRecordReaderTest {
         assertEquals("30", result.get(1).age);
     }
 
+    @Test
+    void testStream_File() {
+        CSVRecordReader<TestData> reader = new CSVRecordReader<>(new TestRowMapper(), createTestFormat());
+
+        try (Stream<TestData> rows = reader.stream("src/test/resources/test.csv")) {
+            List<String> names = rows.map(data -> data.name).collect(Collectors.toList());
+            assertEquals(List.of("John", "Jane"), names);
+        }
+    }
+
+    @Test
+    void testStream_NonExistentFile() {
+        CSVRecordReader<TestData> reader = new CSVRecordReader<>(new TestRowMapper(), CSVFormat.DEFAULT);
+        assertThrows(IllegalArgumentException.class, () -> reader.stream("nonexistent.csv"));
+    }
+
+    @Test
+    void testStream_InputStream() {
+        CSVRecordReader<TestData> reader = new CSVRecordReader<>(new TestRowMapper(), createTestFormat());
+        byte[] content = "name,age\nJohn,25\nJane,30\n".getBytes(StandardCharsets.UTF_8);
+
+        try (Stream<TestData> rows = reader.stream(new ByteArrayInputStream(content))) {
+            List<String> ages = rows.map(data -> data.age).collect(Collectors.toList());
+            assertEquals(List.of("25", "30"), ages);
+        }
+    }
+
+    @Test
+    void testStream_Channel() {
+        CSVRecordReader<TestData> reader = new CSVRecordReader<>(new TestRowMapper(), createTestFormat());
+        byte[] content = "name,age\nJohn,25\n".getBytes(StandardCharsets.UTF_8);
+
+        try (Stream<TestData> rows = reader.stream(Channels.newChannel(new ByteArrayInputStream(content)))) {
+            assertEquals(1, rows.count());
+        }
+    }
+
+    @Test
+    void testStream_SkipsNullRows() {
+        RowMapper<TestData> skipJohn = new TestRowMapper() {
+            @Override
+            public TestData mapRow(Map<String, String> row) {
+                return "John".equals(row.get("name")) ? null : super.mapRow(row);
+            }
+        };
+        CSVRecordReader<TestData> reader = new CSVRecordReader<>(skipJohn, createTestFormat());
+
+        try (Stream<TestData> rows = reader.stream("src/test/resources/test.csv")) {
+            List<String> names = rows.map(data -> data.name).collect(Collectors.toList());
+            assertEquals(List.of("Jane"), names);
+        }
+    }
+
+    @Test
+    void testReadAll_IndexedMapperWithReorderedHeader() throws IOException {
+        Path file = tempDir.resolve("reordered.csv");
+        Files.write(file, "age,city,name\n25,Berlin,John\n30,Hamburg,Jane\n".getBytes(StandardCharsets.UTF_8));
+        CSVFormat format = CSVFormat.Builder.create().setHeader().get();
+
+        CSVRecordReader<TestData> reader = new CSVRecordReader<>(new TestIndexedRowMapper(), format);
+        ArrayList<TestData> result = reader.readAll(file.toString());
+
+        assertEquals(2, result.size());
+        assertEquals("John", result.get(0).name);
+        assertEquals("25", result.get(0).age);
+        assertEquals("Jane", result.get(1).name);
+        assertEquals("30", result.get(1).age);
+    }
+
+    private CSVFormat createTestFormat() {
+        return CSVFormat.Builder.create()
+                .setHeader("name", "age")
+                .setSkipHeaderRecord(true)
+                .build();
+    }
+
     // Simple test data class
+    @Test
+    void testScan_VisitsRowsByBoundPosition() throws IOException {
+        Path file = tempDir.resolve("reordered.csv");
+        Files.writeString(file, "age,name\n25,John\n30,Jane\n");
+
+        CSVFormat format = CSVFormat.Builder.create().setHeader().setSkipHeaderRecord(true).get();
+        CSVRecordReader<TestData> reader = new CSVRecordReader<>(new TestRowMapper(), format);
+
+        List<String> visited = new ArrayList<>();
+        reader.scan(file.toString(), new RowVisitor() {
+            @Override
+            public String[] columns() {
+                return new String[]{"name", "age"};
+            }
+
+            @Override
+            public void visit(IndexedRow row) {
+                visited.add(row.get(0) + ":" + row.getInt(1));
+            }
+        });
+
+        assertEquals(List.of("John:25", "Jane:30"), visited);
+    }
+
+    @Test
+    void testScan_NonExistentFile() {
+        CSVRecordReader<TestData> reader = new CSVRecordReader<>(new TestRowMapper(), CSVFormat.DEFAULT);
+        assertThrows(IllegalArgumentException.class, () -> reader.scan("nonexistent.csv", null));
+    }
+
+    @Test
+    void testReadAll_MultiMemberGzip() throws IOException {
+        Path file = tempDir.resolve("test.csv.gz");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (String part : new String[]{"name,age\nJohn,25\n", "Jane,30\n"}) {
+                GZIPOutputStream member = new GZIPOutputStream(out);
+                member.write(part.getBytes(StandardCharsets.UTF_8));
+                member.finish();
+            }
+        }
+
+        CSVFormat format = CSVFormat.Builder.create().setHeader().setSkipHeaderRecord(true).get();
+        List<TestData> rows = new CSVRecordReader<>(new TestRowMapper(), format).readAll(file.toString());
+
+        assertEquals(List.of("John", "Jane"), rows.stream().map(data -> data.name).collect(Collectors.toList()));
+    }
+
     static class TestData {
         String name;
         String age;
@@ -80,4 +220,22 @@ class CSVRecordReaderTest {
             return true;
         }
     }
+
+    // Simple test row mapper reading fields by position
+    static class TestIndexedRowMapper implements IndexedRowMapper<TestData> {
+        @Override
+        public String[] columns() {
+            return new String[]{"name", "age"};
+        }
+
+        @Override
+        public TestData mapIndexedRow(IndexedRow row) {
+            return new TestData(row.get(0).toString(), row.get(1).toString());
+        }
+
+        @Override
+        public boolean isValidIndexedRow(IndexedRow row) {
+            return true;
+        }
+    }
 }
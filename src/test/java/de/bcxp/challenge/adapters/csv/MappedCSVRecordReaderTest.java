@@ -0,0 +1,145 @@
+package de.bcxp.challenge.adapters.csv;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import de.bcxp.challenge.adapters.csv.mappers.CountryCSVRowMapper;
+import de.bcxp.challenge.adapters.csv.mappers.WeatherCSVRowMapper;
+import de.bcxp.challenge.countries.CountryEntity;
+import de.bcxp.challenge.weather.WeatherEntity;
+import de.bcxp.challenge.weather.WeatherTable;
+import org.apache.commons.csv.CSVFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static de.bcxp.challenge.countries.CountryUtils.COUNTRY_CSV_FORMAT;
+import static de.bcxp.challenge.weather.WeatherUtils.WEATHER_CSV_FORMAT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedCSVRecordReaderTest {
+
+    private static final String WEATHER_FILE = "src/main/resources/de/bcxp/challenge/weather.csv";
+    private static final String COUNTRY_FILE = "src/main/resources/de/bcxp/challenge/countries.csv";
+
+    @TempDir
+    Path tempDir;
+
+    private CSVFormat createTestFormat() {
+        return CSVFormat.Builder.create()
+                .setHeader("name", "age")
+                .setSkipHeaderRecord(true)
+                .build();
+    }
+
+    @Test
+    void testReadAll_NullFilePath() {
+        MappedCSVRecordReader<CSVRecordReaderTest.TestData> reader = new MappedCSVRecordReader<>(new CSVRecordReaderTest.TestRowMapper(), CSVFormat.DEFAULT);
+        assertThrows(IllegalArgumentException.class, () -> reader.readAll(null));
+    }
+
+    @Test
+    void testReadAll_NonExistentFile() {
+        MappedCSVRecordReader<CSVRecordReaderTest.TestData> reader = new MappedCSVRecordReader<>(new CSVRecordReaderTest.TestRowMapper(), CSVFormat.DEFAULT);
+        assertThrows(IllegalArgumentException.class, () -> reader.readAll("nonexistent.csv"));
+    }
+
+    @Test
+    void testReadAll_Success() {
+        MappedCSVRecordReader<CSVRecordReaderTest.TestData> reader = new MappedCSVRecordReader<>(new CSVRecordReaderTest.TestRowMapper(), createTestFormat());
+
+        ArrayList<CSVRecordReaderTest.TestData> result = reader.readAll("src/test/resources/test.csv");
+
+        assertEquals(2, result.size());
+        assertEquals("John", result.get(0).name);
+        assertEquals("25", result.get(0).age);
+        assertEquals("Jane", result.get(1).name);
+        assertEquals("30", result.get(1).age);
+    }
+
+    @Test
+    void testReadAll_HeaderFromFirstRecord() {
+        CSVFormat format = CSVFormat.Builder.create().setHeader().get();
+        MappedCSVRecordReader<CSVRecordReaderTest.TestData> reader = new MappedCSVRecordReader<>(new CSVRecordReaderTest.TestRowMapper(), format);
+
+        ArrayList<CSVRecordReaderTest.TestData> result = reader.readAll("src/test/resources/test.csv");
+
+        assertEquals(2, result.size());
+        assertEquals("Jane", result.get(1).name);
+    }
+
+    @Test
+    void testReadAll_SmallWindowsKeepRecordsIntact() throws IOException {
+        Path file = tempDir.resolve("quoted.csv");
+        Files.write(file, "name,age\n\"Doe, John\",25\n\"Jane \"\"JJ\"\"\",30\nMax,41".getBytes(StandardCharsets.UTF_8));
+
+        // A window of 4 bytes forces records to span several windows and the window to grow
+        MappedCSVRecordReader<CSVRecordReaderTest.TestData> reader = new MappedCSVRecordReader<>(new CSVRecordReaderTest.TestRowMapper(), createTestFormat(), 4);
+
+        List<String> names = reader.readAll(file.toString()).stream().map(data -> data.name).collect(Collectors.toList());
+
+        assertEquals(List.of("Doe, John", "Jane \"JJ\"", "Max"), names);
+    }
+
+    @Test
+    void testStream_InputStream() {
+        MappedCSVRecordReader<CSVRecordReaderTest.TestData> reader = new MappedCSVRecordReader<>(new CSVRecordReaderTest.TestRowMapper(), createTestFormat());
+        byte[] content = "name,age\r\nJohn,25\r\nJane,30\r\n".getBytes(StandardCharsets.UTF_8);
+
+        try (Stream<CSVRecordReaderTest.TestData> rows = reader.stream(new ByteArrayInputStream(content))) {
+            List<String> ages = rows.map(data -> data.age).collect(Collectors.toList());
+            assertEquals(List.of("25", "30"), ages);
+        }
+    }
+
+    @Test
+    void testReadAll_SameResultAsCommonsCsv_Weather() {
+        List<WeatherEntity> expected = new CSVRecordReader<>(new WeatherCSVRowMapper(true), WEATHER_CSV_FORMAT).readAll(WEATHER_FILE);
+        List<WeatherEntity> actual = new MappedCSVRecordReader<>(new WeatherCSVRowMapper(true), WEATHER_CSV_FORMAT).readAll(WEATHER_FILE);
+
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    void testReadAll_SameResultAsCommonsCsv_Countries() {
+        List<CountryEntity> expected = new CSVRecordReader<>(new CountryCSVRowMapper(true), COUNTRY_CSV_FORMAT).readAll(COUNTRY_FILE);
+        List<CountryEntity> actual = new MappedCSVRecordReader<>(new CountryCSVRowMapper(true), COUNTRY_CSV_FORMAT).readAll(COUNTRY_FILE);
+
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    void testScan_WeatherTableSameAsReadAll() {
+        List<WeatherEntity> expected = new CSVRecordReader<>(new WeatherCSVRowMapper(true), WEATHER_CSV_FORMAT).readAll(WEATHER_FILE);
+
+        WeatherCSVRowMapper mapper = new WeatherCSVRowMapper(true);
+        WeatherTable table = new WeatherTable(4);
+        new MappedCSVRecordReader<>(mapper, WEATHER_CSV_FORMAT).scan(WEATHER_FILE, mapper.tableLoader(table));
+
+        assertEquals(expected.size(), table.size(), "Table should contain every accepted row");
+        for (int row = 0; row < table.size(); row++) {
+            assertEquals(expected.get(row).toString(), table.get(row).toString(), "Row " + row + " should match");
+        }
+    }
+
+    @Test
+    void testReadAll_ZstdSameAsPlain() throws IOException {
+        Path compressed = tempDir.resolve("countries.csv.zst");
+        try (OutputStream out = new ZstdOutputStream(Files.newOutputStream(compressed))) {
+            Files.copy(Path.of(COUNTRY_FILE), out);
+        }
+
+        List<CountryEntity> expected = new CSVRecordReader<>(new CountryCSVRowMapper(true), COUNTRY_CSV_FORMAT).readAll(COUNTRY_FILE);
+        List<CountryEntity> actual = new MappedCSVRecordReader<>(new CountryCSVRowMapper(true), COUNTRY_CSV_FORMAT).readAll(compressed.toString());
+
+        assertEquals(expected.toString(), actual.toString());
+    }
+}
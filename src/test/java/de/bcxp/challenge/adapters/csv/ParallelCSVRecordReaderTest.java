@@ -0,0 +1,111 @@
+package de.bcxp.challenge.adapters.csv;
+
+import de.bcxp.challenge.adapters.compress.BlockGzip;
+import de.bcxp.challenge.adapters.csv.mappers.CountryCSVRowMapper;
+import de.bcxp.challenge.adapters.csv.mappers.WeatherCSVRowMapper;
+import de.bcxp.challenge.countries.CountryEntity;
+import de.bcxp.challenge.weather.WeatherEntity;
+import org.apache.commons.csv.CSVFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static de.bcxp.challenge.countries.CountryUtils.COUNTRY_CSV_FORMAT;
+import static de.bcxp.challenge.weather.WeatherUtils.WEATHER_CSV_FORMAT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelCSVRecordReaderTest {
+
+    private static final String WEATHER_FILE = "src/main/resources/de/bcxp/challenge/weather.csv";
+    private static final String COUNTRY_FILE = "src/main/resources/de/bcxp/challenge/countries.csv";
+
+    @TempDir
+    Path tempDir;
+
+    private CSVFormat createTestFormat() {
+        return CSVFormat.Builder.create()
+                .setHeader("name", "age")
+                .setSkipHeaderRecord(true)
+                .build();
+    }
+
+    @Test
+    void testReadAll_NonExistentFile() {
+        ParallelCSVRecordReader<CSVRecordReaderTest.TestData> reader = new ParallelCSVRecordReader<>(new CSVRecordReaderTest.TestRowMapper(), CSVFormat.DEFAULT);
+        assertThrows(IllegalArgumentException.class, () -> reader.readAll("nonexistent.csv"));
+    }
+
+    @Test
+    void testReadAll_QuotedLineBreaksAcrossChunks() throws IOException {
+        StringBuilder content = new StringBuilder("name,age\n");
+        List<String> expectedNames = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            // Every third name contains a quoted line break and an escaped quote
+            String name = i % 3 == 0 ? "Name\n\"\"" + i + "\"\"" : "Name" + i;
+            content.append(i % 3 == 0 ? "\"" + name + "\"" : name).append(',').append(i).append('\n');
+            expectedNames.add(name.replace("\"\"", "\""));
+        }
+        Path file = tempDir.resolve("quoted.csv");
+        Files.write(file, content.toString().getBytes(StandardCharsets.UTF_8));
+
+        // Tiny chunks make almost every chunk start somewhere inside a record or a quoted field
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelCSVRecordReader<CSVRecordReaderTest.TestData> reader = new ParallelCSVRecordReader<>(new CSVRecordReaderTest.TestRowMapper(), createTestFormat(), pool, 7);
+
+            List<String> names = reader.readAll(file.toString()).stream().map(data -> data.name).collect(Collectors.toList());
+
+            assertEquals(expectedNames, names);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testReadAll_HeaderFromFirstRecord() {
+        CSVFormat format = CSVFormat.Builder.create().setHeader().get();
+        ParallelCSVRecordReader<CSVRecordReaderTest.TestData> reader = new ParallelCSVRecordReader<>(new CSVRecordReaderTest.TestRowMapper(), format, ForkJoinPool.commonPool(), 4);
+
+        ArrayList<CSVRecordReaderTest.TestData> result = reader.readAll("src/test/resources/test.csv");
+
+        assertEquals(2, result.size());
+        assertEquals("John", result.get(0).name);
+        assertEquals("30", result.get(1).age);
+    }
+
+    @Test
+    void testReadAll_SameResultAsCommonsCsv_Weather() {
+        List<WeatherEntity> expected = new CSVRecordReader<>(new WeatherCSVRowMapper(true), WEATHER_CSV_FORMAT).readAll(WEATHER_FILE);
+        List<WeatherEntity> actual = new ParallelCSVRecordReader<>(new WeatherCSVRowMapper(true), WEATHER_CSV_FORMAT, ForkJoinPool.commonPool(), 64).readAll(WEATHER_FILE);
+
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    void testReadAll_SameResultAsCommonsCsv_Countries() {
+        List<CountryEntity> expected = new CSVRecordReader<>(new CountryCSVRowMapper(true), COUNTRY_CSV_FORMAT).readAll(COUNTRY_FILE);
+        List<CountryEntity> actual = new ParallelCSVRecordReader<>(new CountryCSVRowMapper(true), COUNTRY_CSV_FORMAT, ForkJoinPool.commonPool(), 64).readAll(COUNTRY_FILE);
+
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    void testReadAll_BlockGzipSameAsPlain() throws IOException {
+        byte[] content = Files.readAllBytes(Path.of(WEATHER_FILE));
+        Path compressed = tempDir.resolve("weather.csv.gz");
+        Files.write(compressed, BlockGzip.compress(content, 0, content.length, 6));
+
+        List<WeatherEntity> expected = new CSVRecordReader<>(new WeatherCSVRowMapper(true), WEATHER_CSV_FORMAT).readAll(WEATHER_FILE);
+        List<WeatherEntity> actual = new ParallelCSVRecordReader<>(new WeatherCSVRowMapper(true), WEATHER_CSV_FORMAT, ForkJoinPool.commonPool(), 64).readAll(compressed.toString());
+
+        assertEquals(expected.toString(), actual.toString());
+    }
+}
@@ -0,0 +1,167 @@
+package de.bcxp.challenge.adapters.csv;
+
+import de.bcxp.challenge.adapters.compress.BlockGzip;
+import de.bcxp.challenge.adapters.csv.mappers.CountryCSVRowMapper;
+import de.bcxp.challenge.adapters.csv.mappers.WeatherCSVRowMapper;
+import de.bcxp.challenge.countries.CountryEntity;
+import de.bcxp.challenge.weather.WeatherEntity;
+import de.bcxp.challenge.weather.WeatherService;
+import org.apache.commons.csv.CSVFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static de.bcxp.challenge.countries.CountryUtils.COUNTRY_CSV_FORMAT;
+import static de.bcxp.challenge.weather.WeatherUtils.TEMPERATURE_SPREAD_COMPARATOR;
+import static de.bcxp.challenge.weather.WeatherUtils.WEATHER_CSV_FORMAT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelinedCSVRecordReaderTest {
+
+    private static final String WEATHER_FILE = "src/main/resources/de/bcxp/challenge/weather.csv";
+    private static final String COUNTRY_FILE = "src/main/resources/de/bcxp/challenge/countries.csv";
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tiny chunks and queues with several threads per stage, so chunks overtake each other all the time.
+     */
+    private static PipelineSettings busySettings() {
+        PipelineSettings settings = new PipelineSettings();
+        settings.chunkSize = 64;
+        settings.tokenizeThreads = 2;
+        settings.mapThreads = 3;
+        settings.aggregateThreads = 2;
+        settings.queueCapacity = 2;
+        return settings;
+    }
+
+    private CSVFormat createTestFormat() {
+        return CSVFormat.Builder.create()
+                .setHeader("name", "age")
+                .setSkipHeaderRecord(true)
+                .build();
+    }
+
+    @Test
+    void testReadAll_NonExistentFile() {
+        PipelinedCSVRecordReader<CSVRecordReaderTest.TestData> reader = new PipelinedCSVRecordReader<>(new CSVRecordReaderTest.TestRowMapper(), CSVFormat.DEFAULT);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> reader.readAll("nonexistent.csv"));
+        assertEquals("File does not exist: nonexistent.csv", e.getMessage());
+    }
+
+    @Test
+    void testReadAll_QuotedLineBreaksAcrossChunks() throws IOException {
+        StringBuilder content = new StringBuilder("name,age\n");
+        List<String> expectedNames = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            // Every third name contains a quoted line break and an escaped quote
+            String name = i % 3 == 0 ? "Name\n\"\"" + i + "\"\"" : "Name" + i;
+            content.append(i % 3 == 0 ? "\"" + name + "\"" : name).append(',').append(i).append('\n');
+            expectedNames.add(name.replace("\"\"", "\""));
+        }
+        Path file = tempDir.resolve("quoted.csv");
+        Files.write(file, content.toString().getBytes(StandardCharsets.UTF_8));
+
+        PipelinedCSVRecordReader<CSVRecordReaderTest.TestData> reader = new PipelinedCSVRecordReader<>(new CSVRecordReaderTest.TestRowMapper(), createTestFormat(), busySettings());
+
+        List<String> names = reader.readAll(file.toString()).stream().map(data -> data.name).collect(Collectors.toList());
+
+        assertEquals(expectedNames, names);
+    }
+
+    @Test
+    void testReadAll_RecordLongerThanChunk() {
+        String longName = "x".repeat(1000);
+        byte[] content = ("name,age\n" + longName + ",1\nshort,2").getBytes(StandardCharsets.UTF_8);
+
+        List<CSVRecordReaderTest.TestData> result = new PipelinedCSVRecordReader<>(new CSVRecordReaderTest.TestRowMapper(), createTestFormat(), busySettings())
+                .stream(new ByteArrayInputStream(content))
+                .collect(Collectors.toList());
+
+        assertEquals(2, result.size());
+        assertEquals(longName, result.get(0).name);
+        assertEquals("2", result.get(1).age, "The last record needs no line break");
+    }
+
+    @Test
+    void testReadAll_HeaderFromFirstRecord() {
+        CSVFormat format = CSVFormat.Builder.create().setHeader().get();
+        PipelinedCSVRecordReader<CSVRecordReaderTest.TestData> reader = new PipelinedCSVRecordReader<>(new CSVRecordReaderTest.TestRowMapper(), format, busySettings());
+
+        ArrayList<CSVRecordReaderTest.TestData> result = reader.readAll("src/test/resources/test.csv");
+
+        assertEquals(2, result.size());
+        assertEquals("John", result.get(0).name);
+        assertEquals("30", result.get(1).age);
+    }
+
+    @Test
+    void testReadAll_EmptyInput() {
+        PipelinedCSVRecordReader<CSVRecordReaderTest.TestData> reader = new PipelinedCSVRecordReader<>(new CSVRecordReaderTest.TestRowMapper(), createTestFormat());
+
+        assertEquals(0, reader.stream(new ByteArrayInputStream(new byte[0])).count());
+    }
+
+    @Test
+    void testReadAll_SameResultAsCommonsCsv_Weather() {
+        List<WeatherEntity> expected = new CSVRecordReader<>(new WeatherCSVRowMapper(true), WEATHER_CSV_FORMAT).readAll(WEATHER_FILE);
+        List<WeatherEntity> actual = new PipelinedCSVRecordReader<>(new WeatherCSVRowMapper(true), WEATHER_CSV_FORMAT, busySettings()).readAll(WEATHER_FILE);
+
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    void testReadAll_SameResultAsCommonsCsv_Countries() {
+        List<CountryEntity> expected = new CSVRecordReader<>(new CountryCSVRowMapper(true), COUNTRY_CSV_FORMAT).readAll(COUNTRY_FILE);
+        List<CountryEntity> actual = new PipelinedCSVRecordReader<>(new CountryCSVRowMapper(true), COUNTRY_CSV_FORMAT, busySettings()).readAll(COUNTRY_FILE);
+
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    void testReadAll_BlockGzipSameAsPlain() throws IOException {
+        byte[] content = Files.readAllBytes(Path.of(WEATHER_FILE));
+        Path compressed = tempDir.resolve("weather.csv.gz");
+        Files.write(compressed, BlockGzip.compress(content, 0, content.length, 6));
+
+        List<WeatherEntity> expected = new CSVRecordReader<>(new WeatherCSVRowMapper(true), WEATHER_CSV_FORMAT).readAll(WEATHER_FILE);
+        List<WeatherEntity> actual = new PipelinedCSVRecordReader<>(new WeatherCSVRowMapper(true), WEATHER_CSV_FORMAT, busySettings()).readAll(compressed.toString());
+
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    void testCollect_AggregatesWhileReading() {
+        List<WeatherEntity> days = new CSVRecordReader<>(new WeatherCSVRowMapper(true), WEATHER_CSV_FORMAT).readAll(WEATHER_FILE);
+
+        WeatherEntity smallestSpread = new PipelinedCSVRecordReader<>(new WeatherCSVRowMapper(true), WEATHER_CSV_FORMAT, busySettings())
+                .collect(WEATHER_FILE, Collectors.minBy(TEMPERATURE_SPREAD_COMPARATOR))
+                .orElseThrow();
+        long count = new PipelinedCSVRecordReader<>(new WeatherCSVRowMapper(true), WEATHER_CSV_FORMAT, busySettings())
+                .collect(WEATHER_FILE, Collectors.counting());
+
+        assertEquals(WeatherService.getDayWithSmallestTemperatureSpread(days).toString(), smallestSpread.toString());
+        assertEquals(14, smallestSpread.Day);
+        assertEquals(days.size(), count);
+    }
+
+    @Test
+    void testSettings_RejectsInvalidThreads() {
+        PipelineSettings settings = new PipelineSettings();
+        settings.mapThreads = 0;
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new PipelinedCSVRecordReader<>(new WeatherCSVRowMapper(true), WEATHER_CSV_FORMAT, settings));
+        assertEquals("Map threads must be at least 1: 0", e.getMessage());
+    }
+}
@@ -1,5 +1,7 @@
 package de.bcxp.challenge.adapters.csv.mappers;
 
+import de.bcxp.challenge.adapters.MappingResult;
+import de.bcxp.challenge.adapters.RejectReason;
 import de.bcxp.challenge.countries.CountryEntity;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -217,4 +219,44 @@ class CountryCSVRowMapperTest {
             assertFalse(mapper.isValidRow(negativeGDP));
         }
     }
+
+    @Nested
+    public class TryMapRowTests {
+
+        @Test
+        void testTryMapRow_ValidData() {
+            CountryCSVRowMapper mapper = new CountryCSVRowMapper(false);
+            MappingResult<CountryEntity> result = mapper.tryMapRow(createValidRow());
+
+            assertTrue(result.isAccepted());
+            assertEquals("Germany", result.getEntity().Name);
+            assertNull(result.getReason());
+        }
+
+        @Test
+        void testTryMapRow_RejectionReasons() {
+            CountryCSVRowMapper mapper = new CountryCSVRowMapper(false);
+
+            assertEquals(RejectReason.EMPTY_ROW, mapper.tryMapRow(null).getReason());
+
+            Map<String, String> missingCapital = createValidRow();
+            missingCapital.remove("Capital");
+            MappingResult<CountryEntity> missing = mapper.tryMapRow(missingCapital);
+            assertEquals(RejectReason.MISSING_COLUMN, missing.getReason());
+            assertEquals("Capital", missing.getColumn());
+
+            // German number format like the Croatia row in countries.csv
+            Map<String, String> germanFormat = createValidRow();
+            germanFormat.put("Population", "4.036.355,00");
+            MappingResult<CountryEntity> malformed = mapper.tryMapRow(germanFormat);
+            assertFalse(malformed.isAccepted());
+            assertEquals(RejectReason.MALFORMED_NUMBER, malformed.getReason());
+            assertEquals("Population", malformed.getColumn());
+            assertEquals("4.036.355,00", malformed.getValue());
+
+            Map<String, String> invalidHDI = createValidRow();
+            invalidHDI.put("HDI", "1.5");
+            assertEquals(RejectReason.OUT_OF_RANGE, mapper.tryMapRow(invalidHDI).getReason());
+        }
+    }
 }
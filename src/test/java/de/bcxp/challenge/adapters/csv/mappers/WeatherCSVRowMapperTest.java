@@ -1,5 +1,7 @@
 package de.bcxp.challenge.adapters.csv.mappers;
 
+import de.bcxp.challenge.adapters.MappingResult;
+import de.bcxp.challenge.adapters.RejectReason;
 import de.bcxp.challenge.weather.WeatherEntity;
 import org.junit.jupiter.api.Test;
 
@@ -146,4 +148,32 @@ class WeatherCSVRowMapperTest {
         assertEquals(2, result.Day);
         assertEquals(90, result.MxT);
     }
+
+    @Test
+    void testTryMapRow_RejectionReasons() {
+        WeatherCSVRowMapper mapper = new WeatherCSVRowMapper(true);
+
+        MappingResult<WeatherEntity> valid = mapper.tryMapRow(createValidRow());
+        assertTrue(valid.isAccepted());
+        assertEquals(1016.3, valid.getEntity().R_AvSLP, 0.01);
+
+        Map<String, String> blankDay = createValidRow();
+        blankDay.put("Day", "  ");
+        assertEquals(RejectReason.MISSING_COLUMN, mapper.tryMapRow(blankDay).getReason());
+
+        Map<String, String> malformed = createValidRow();
+        malformed.put("AvDP", "not_a_number");
+        MappingResult<WeatherEntity> malformedResult = mapper.tryMapRow(malformed);
+        assertEquals(RejectReason.MALFORMED_NUMBER, malformedResult.getReason());
+        assertEquals("AvDP", malformedResult.getColumn());
+
+        Map<String, String> invalidTemp = createValidRow();
+        invalidTemp.put("MxT", "200");
+        assertEquals(RejectReason.OUT_OF_RANGE, mapper.tryMapRow(invalidTemp).getReason());
+
+        Map<String, String> tempOrder = createValidRow();
+        tempOrder.put("MxT", "50");
+        tempOrder.put("MnT", "60");
+        assertEquals(RejectReason.INCONSISTENT_VALUES, mapper.tryMapRow(tempOrder).getReason());
+    }
 }
@@ -0,0 +1,263 @@
+package de.bcxp.challenge.adapters.dataset;
+
+import de.bcxp.challenge.adapters.RejectLog;
+import de.bcxp.challenge.adapters.csv.CSVRecordReader;
+import de.bcxp.challenge.adapters.csv.mappers.WeatherCSVRowMapper;
+import de.bcxp.challenge.query.Aggregate;
+import de.bcxp.challenge.query.ColumnType;
+import de.bcxp.challenge.query.Dataset;
+import de.bcxp.challenge.query.Query;
+import de.bcxp.challenge.query.QueryResult;
+import de.bcxp.challenge.weather.WeatherEntity;
+import de.bcxp.challenge.weather.WeatherTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static de.bcxp.challenge.weather.WeatherUtils.WEATHER_CSV_FORMAT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedDatasetTest {
+
+    private static final String HEADER = "Day,MxT,MnT,AvT,AvDP,1HrP TPcpn,PDir,AvSp,Dir,MxS,SkyC,MxR,Mn,R AvSLP\n";
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void writeDataset() throws IOException {
+        write("station=A/month=01/data.csv", day(1, 80, 60), day(2, 70, 65));
+        write("station=A/month=02/data.csv", day(1, 90, 50));
+        write("station=B/month=01/data.csv", day(1, 75, 72), day(2, 60, 40), day(3, 61, 41));
+        write("station=B/month=01/_SUCCESS");
+        write("station=B/.staging/data.csv", day(9, 99, 0));
+    }
+
+    private void write(String relativePath, String... rows) throws IOException {
+        Path file = tempDir.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, rows.length == 0 ? "" : HEADER + String.join("", rows));
+    }
+
+    private static String day(int day, int max, int min) {
+        return day + "," + max + "," + min + ",70,50.0,0,280,9.6,270,17,1.6,93,23,1004.5\n";
+    }
+
+    private static WeatherTable readTable(Partition partition) {
+        WeatherCSVRowMapper mapper = new WeatherCSVRowMapper(true, new RejectLog());
+        CSVRecordReader<WeatherEntity> reader = new CSVRecordReader<>(mapper, WEATHER_CSV_FORMAT);
+        WeatherTable table = new WeatherTable();
+        reader.scan(partition.getPath().toString(), mapper.tableLoader(table));
+        return table;
+    }
+
+    @Nested
+    class Partitions {
+
+        @Test
+        void parsesKeysFromDirectoriesInPathOrder() {
+            List<Partition> partitions = new PartitionedDataset(tempDir).getPartitions();
+
+            assertEquals(List.of("station=A/month=01", "station=A/month=02", "station=B/month=01"),
+                    partitions.stream().map(Partition::toString).collect(Collectors.toList()));
+            assertEquals(Map.of("station", "B", "month", "01"), partitions.get(2).getValues());
+            assertEquals("A", partitions.get(0).get("station"));
+            assertNull(partitions.get(0).get("year"));
+        }
+
+        @Test
+        void ignoresHiddenAndUnderscoreFiles() {
+            List<Path> paths = new PartitionedDataset(tempDir).getPartitions().stream()
+                    .map(Partition::getPath)
+                    .collect(Collectors.toList());
+
+            assertEquals(3, paths.size());
+            assertFalse(paths.stream().anyMatch(path -> path.toString().contains("_SUCCESS")));
+            assertFalse(paths.stream().anyMatch(path -> path.toString().contains(".staging")));
+        }
+
+        @Test
+        void filtersFilesByGlob() throws IOException {
+            write("station=C/month=01/notes.txt", day(1, 1, 1));
+
+            assertEquals(4, new PartitionedDataset(tempDir).getPartitions().size());
+            assertEquals(3, new PartitionedDataset(tempDir, "**.csv").getPartitions().size());
+        }
+
+        @Test
+        void treatsRegularFileAsSinglePartition() {
+            Path file = tempDir.resolve("station=A/month=01/data.csv");
+
+            List<Partition> partitions = new PartitionedDataset(file).getPartitions();
+
+            assertEquals(1, partitions.size());
+            assertEquals(file, partitions.get(0).getPath());
+            assertTrue(partitions.get(0).getValues().isEmpty());
+        }
+
+        @Test
+        void prunesWithoutReading() {
+            PartitionedDataset dataset = new PartitionedDataset(tempDir);
+
+            assertEquals(2, dataset.whereEquals("station", "A").getPartitions().size());
+            assertEquals(1, dataset.whereEquals("station", "A").whereEquals("month", "02").getPartitions().size());
+            assertEquals(0, dataset.whereEquals("station", "Z").getPartitions().size());
+            assertEquals(2, dataset.where(partition -> "01".equals(partition.get("month"))).getPartitions().size());
+            assertEquals(3, dataset.getPartitions().size(), "Pruning returns a new dataset");
+        }
+    }
+
+    @Nested
+    class Reading {
+
+        @Test
+        void returnsResultsInPartitionOrder() {
+            List<Integer> sizes = new PartitionedDataset(tempDir).readEach(partition -> readTable(partition).size(), 3);
+
+            assertEquals(List.of(2, 1, 3), sizes);
+        }
+
+        @Test
+        void readsPartitionsConcurrently() {
+            CountDownLatch allStarted = new CountDownLatch(3);
+
+            List<Boolean> results = new PartitionedDataset(tempDir).readEach(partition -> {
+                allStarted.countDown();
+                try {
+                    return allStarted.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, 3);
+
+            assertEquals(List.of(true, true, true), results);
+        }
+
+        @Test
+        void boundsConcurrentReads() {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+
+            new PartitionedDataset(tempDir).readEach(partition -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return running.decrementAndGet();
+            }, 1);
+
+            assertEquals(1, maxRunning.get());
+        }
+
+        @Test
+        void rethrowsFirstFailure() {
+            PartitionedDataset dataset = new PartitionedDataset(tempDir);
+
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> dataset.readEach(partition -> {
+                if ("02".equals(partition.get("month"))) {
+                    throw new IllegalStateException("Broken partition: " + partition);
+                }
+                return partition;
+            }));
+            assertEquals("Broken partition: station=A/month=02", e.getMessage());
+        }
+
+        @Test
+        void readsNothingWithoutPartitions() {
+            PartitionedDataset dataset = new PartitionedDataset(tempDir).whereEquals("station", "Z");
+
+            assertTrue(dataset.readEach(partition -> fail("No partition to read")).isEmpty());
+        }
+    }
+
+    @Nested
+    class Loading {
+
+        @Test
+        void loadsPartitionKeysAsColumns() {
+            Dataset dataset = new PartitionedDataset(tempDir).load(PartitionedDatasetTest::readTable, 2);
+
+            assertEquals(6, dataset.size());
+            assertEquals(List.of("station", "month", "Day", "MxT"), dataset.columnNames().subList(0, 4));
+            assertEquals(ColumnType.STRING, dataset.columnType("station"));
+            assertEquals(ColumnType.INT, dataset.columnType("Day"));
+        }
+
+        @Test
+        void queriesAcrossPartitions() {
+            Dataset dataset = new PartitionedDataset(tempDir).load(PartitionedDatasetTest::readTable, 2);
+
+            QueryResult result = Query.from(dataset)
+                    .groupBy("station")
+                    .aggregate(Aggregate.count(), Aggregate.max("MxT"), Aggregate.min("MnT"))
+                    .execute();
+
+            assertEquals(2, result.size());
+            assertArrayEquals(new Object[]{"A", 3L, 90.0, 50.0}, result.getRow(0));
+            assertArrayEquals(new Object[]{"B", 3L, 75.0, 40.0}, result.getRow(1));
+        }
+
+        @Test
+        void filtersOnPartitionKey() {
+            Dataset dataset = new PartitionedDataset(tempDir).load(PartitionedDatasetTest::readTable, 2);
+
+            QueryResult result = Query.from(dataset)
+                    .whereEquals("month", "01")
+                    .select("station", "Day")
+                    .execute();
+
+            assertEquals(5, result.size());
+            assertArrayEquals(new Object[]{"A", 1}, result.getRow(0));
+            assertArrayEquals(new Object[]{"B", 3}, result.getRow(4));
+        }
+    }
+
+    @Nested
+    class Validation {
+
+        @Test
+        void rejectsMissingRoot() {
+            Path missing = tempDir.resolve("missing");
+
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new PartitionedDataset(missing));
+            assertEquals("Dataset root does not exist: " + missing, e.getMessage());
+        }
+
+        @Test
+        void rejectsNullRoot() {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new PartitionedDataset(null));
+            assertEquals("Dataset root cannot be null", e.getMessage());
+        }
+
+        @Test
+        void rejectsZeroConcurrentReads() {
+            PartitionedDataset dataset = new PartitionedDataset(tempDir);
+
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> dataset.readEach(partition -> partition, 0));
+            assertEquals("Concurrent reads must be at least 1: 0", e.getMessage());
+        }
+
+        @Test
+        void rejectsLoadingWithoutPartitions() {
+            PartitionedDataset dataset = new PartitionedDataset(tempDir).whereEquals("station", "Z");
+
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> dataset.load(PartitionedDatasetTest::readTable, 1));
+            assertEquals("No partitions to load under " + tempDir, e.getMessage());
+        }
+    }
+}
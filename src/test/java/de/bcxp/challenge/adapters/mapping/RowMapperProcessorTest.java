@@ -0,0 +1,213 @@
+package de.bcxp.challenge.adapters.mapping;
+
+import de.bcxp.challenge.adapters.IndexedRow;
+import de.bcxp.challenge.adapters.IndexedRowMapper;
+import de.bcxp.challenge.adapters.MappingResult;
+import de.bcxp.challenge.adapters.RejectReason;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RowMapperProcessorTest {
+
+    private static final String RANGE_ENTITY = String.join("\n",
+            "package sample;",
+            "import de.bcxp.challenge.adapters.mapping.*;",
+            "@MappedRow",
+            "public class RangeEntity {",
+            "    @Column(\"Name\") public String Name;",
+            "    @Column(value = \"Low\", min = 0) public int Low;",
+            "    @Column(value = \"High\", max = 100, notLessThan = \"Low\") public long High;",
+            "    @Column(value = \"Ratio\", min = 0, exclusiveMin = true) public double Ratio;",
+            "    public String unmapped;",
+            "}");
+
+    @TempDir
+    Path tempDir;
+
+    @Nested
+    class GeneratedMapper {
+
+        @Test
+        void declaresColumnsInFieldOrder() throws Exception {
+            IndexedRowMapper<?> mapper = compileMapper();
+
+            assertArrayEquals(new String[]{"Name", "Low", "High", "Ratio"}, mapper.columns());
+        }
+
+        @Test
+        void mapsValidRow() throws Exception {
+            IndexedRowMapper<?> mapper = compileMapper();
+
+            MappingResult<?> result = mapper.tryMapIndexedRow(row(" Alpha ", "3", "7", "0.5"));
+
+            assertTrue(result.isAccepted());
+            Object entity = result.getEntity();
+            assertEquals("Alpha", entity.getClass().getField("Name").get(entity));
+            assertEquals(3, entity.getClass().getField("Low").get(entity));
+            assertEquals(7L, entity.getClass().getField("High").get(entity));
+            assertEquals(0.5, entity.getClass().getField("Ratio").get(entity));
+        }
+
+        @Test
+        void rejectsBlankString() throws Exception {
+            assertRejected(RejectReason.MISSING_COLUMN, "Name", row(" ", "3", "7", "0.5"));
+        }
+
+        @Test
+        void rejectsMalformedNumber() throws Exception {
+            assertRejected(RejectReason.MALFORMED_NUMBER, "Low", row("Alpha", "three", "7", "0.5"));
+        }
+
+        @Test
+        void rejectsValuesOutOfRange() throws Exception {
+            assertRejected(RejectReason.OUT_OF_RANGE, "Low", row("Alpha", "-1", "7", "0.5"));
+            assertRejected(RejectReason.OUT_OF_RANGE, "High", row("Alpha", "3", "101", "0.5"));
+            assertRejected(RejectReason.OUT_OF_RANGE, "Ratio", row("Alpha", "3", "7", "0"));
+        }
+
+        @Test
+        void rejectsInconsistentValues() throws Exception {
+            assertRejected(RejectReason.INCONSISTENT_VALUES, "High", row("Alpha", "8", "7", "0.5"));
+        }
+
+        @Test
+        void rejectsEmptyRow() throws Exception {
+            assertRejected(RejectReason.EMPTY_ROW, null, row());
+        }
+
+        private void assertRejected(RejectReason reason, String column, IndexedRow row) throws Exception {
+            MappingResult<?> result = compileMapper().tryMapIndexedRow(row);
+
+            assertFalse(result.isAccepted());
+            assertEquals(reason, result.getReason());
+            assertEquals(column, result.getColumn());
+        }
+    }
+
+    @Nested
+    class Validation {
+
+        @Test
+        void reportsFieldsOfUnsupportedType() throws Exception {
+            List<String> errors = compile("BadType", String.join("\n",
+                    "package sample;",
+                    "import de.bcxp.challenge.adapters.mapping.*;",
+                    "@MappedRow",
+                    "public class BadType {",
+                    "    @Column(\"Flag\") public boolean Flag;",
+                    "}"));
+
+            assertEquals(List.of("@Column fields must be int, long, double or String"), errors);
+        }
+
+        @Test
+        void reportsRangeOnStringField() throws Exception {
+            List<String> errors = compile("BadRange", String.join("\n",
+                    "package sample;",
+                    "import de.bcxp.challenge.adapters.mapping.*;",
+                    "@MappedRow",
+                    "public class BadRange {",
+                    "    @Column(value = \"Name\", min = 1) public String Name;",
+                    "}"));
+
+            assertEquals(List.of("Range constraints are only supported on numeric fields"), errors);
+        }
+
+        @Test
+        void reportsUnknownNotLessThanField() throws Exception {
+            List<String> errors = compile("BadReference", String.join("\n",
+                    "package sample;",
+                    "import de.bcxp.challenge.adapters.mapping.*;",
+                    "@MappedRow",
+                    "public class BadReference {",
+                    "    @Column(value = \"High\", notLessThan = \"Low\") public int High;",
+                    "}"));
+
+            assertEquals(List.of("notLessThan must name another numeric @Column field: Low"), errors);
+        }
+
+        @Test
+        void reportsEntityWithoutColumns() throws Exception {
+            List<String> errors = compile("NoColumns", String.join("\n",
+                    "package sample;",
+                    "import de.bcxp.challenge.adapters.mapping.*;",
+                    "@MappedRow",
+                    "public class NoColumns {",
+                    "    public int unmapped;",
+                    "}"));
+
+            assertEquals(List.of("@MappedRow entity has no @Column fields"), errors);
+        }
+    }
+
+    private IndexedRowMapper<?> compileMapper() throws Exception {
+        List<String> errors = compile("RangeEntity", RANGE_ENTITY);
+        assertEquals(List.of(), errors);
+
+        assertTrue(Files.exists(tempDir.resolve("sources/sample/RangeEntityRowMapper.java")));
+        URLClassLoader loader = new URLClassLoader(new URL[]{tempDir.resolve("classes").toUri().toURL()},
+                getClass().getClassLoader());
+        Class<?> mapperClass = loader.loadClass("sample.RangeEntityRowMapper");
+        return (IndexedRowMapper<?>) mapperClass.getConstructor(boolean.class).newInstance(true);
+    }
+
+    /**
+     * Compiles a single entity with the processor and returns the error messages it reported.
+     */
+    private List<String> compile(String className, String source) throws Exception {
+        Path sourceFile = tempDir.resolve("input/sample/" + className + ".java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.writeString(sourceFile, source, StandardCharsets.UTF_8);
+        Path classes = Files.createDirectories(tempDir.resolve("classes"));
+        Path generated = Files.createDirectories(tempDir.resolve("sources"));
+        String classPath = new File(IndexedRow.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                .getPath();
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    List.of("-classpath", classPath,
+                            "-d", classes.toString(), "-s", generated.toString()),
+                    null, fileManager.getJavaFileObjects(sourceFile));
+            task.setProcessors(List.of(new RowMapperProcessor()));
+            task.call();
+        }
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+    }
+
+    private static IndexedRow row(String... fields) {
+        return new IndexedRow() {
+            @Override
+            public int size() {
+                return fields.length;
+            }
+
+            @Override
+            public CharSequence get(int column) {
+                return column < fields.length ? fields[column] : null;
+            }
+        };
+    }
+}
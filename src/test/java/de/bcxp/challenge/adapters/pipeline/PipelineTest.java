@@ -0,0 +1,288 @@
+package de.bcxp.challenge.adapters.pipeline;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineTest {
+
+    @Nested
+    class Queue {
+
+        @Test
+        void roundsCapacityUpToPowerOfTwo() {
+            assertEquals(1, new BoundedQueue<>(1).capacity());
+            assertEquals(8, new BoundedQueue<>(5).capacity());
+            assertEquals(16, new BoundedQueue<>(16).capacity());
+        }
+
+        @Test
+        void keepsFifoOrderAndRejectsWhenFull() {
+            BoundedQueue<Integer> queue = new BoundedQueue<>(4);
+
+            for (int i = 0; i < 4; i++) {
+                assertTrue(queue.offer(i));
+            }
+            assertFalse(queue.offer(4));
+            assertEquals(4, queue.size());
+
+            assertEquals(0, queue.poll());
+            assertTrue(queue.offer(4), "A polled slot is free again");
+            assertEquals(List.of(1, 2, 3, 4), List.of(queue.poll(), queue.poll(), queue.poll(), queue.poll()));
+            assertNull(queue.poll());
+            assertTrue(queue.isEmpty());
+        }
+
+        @Test
+        void passesEveryElementExactlyOnceBetweenManyThreads() throws InterruptedException {
+            BoundedQueue<Integer> queue = new BoundedQueue<>(8);
+            int producers = 4;
+            int perProducer = 10_000;
+            Set<Integer> received = ConcurrentHashMap.newKeySet();
+            AtomicInteger duplicates = new AtomicInteger();
+            AtomicLong remaining = new AtomicLong((long) producers * perProducer);
+
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int base = p * perProducer;
+                threads.add(new Thread(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!queue.offer(base + i)) {
+                            Thread.yield();
+                        }
+                    }
+                }));
+            }
+            for (int c = 0; c < 4; c++) {
+                threads.add(new Thread(() -> {
+                    while (remaining.get() > 0) {
+                        Integer element = queue.poll();
+                        if (element == null) {
+                            Thread.yield();
+                        } else {
+                            if (!received.add(element)) {
+                                duplicates.incrementAndGet();
+                            }
+                            remaining.decrementAndGet();
+                        }
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertEquals(0, duplicates.get());
+            assertEquals(producers * perProducer, received.size());
+        }
+
+        @Test
+        void rejectsInvalidCapacityAndNull() {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new BoundedQueue<>(0));
+            assertEquals("Capacity must be between 1 and 2^30: 0", e.getMessage());
+
+            e = assertThrows(IllegalArgumentException.class, () -> new BoundedQueue<>(2).offer(null));
+            assertEquals("Element cannot be null", e.getMessage());
+        }
+    }
+
+    @Nested
+    class Stages {
+
+        private Pipeline<Integer> numbers(int count) {
+            return Pipeline.from("numbers", emitter -> {
+                for (int i = 0; i < count; i++) {
+                    emitter.accept(i);
+                }
+            });
+        }
+
+        @Test
+        void deliversResultsInSourceOrder() {
+            List<String> results = new ArrayList<>();
+
+            numbers(5000)
+                    .then("square", 4, () -> i -> (long) i * i)
+                    .then("format", 3, () -> square -> "#" + square)
+                    .queueCapacity(4)
+                    .into(results::add);
+
+            assertEquals(IntStream.range(0, 5000).mapToObj(i -> "#" + (long) i * i).collect(Collectors.toList()), results);
+        }
+
+        @Test
+        void runsEveryStageOnItsOwnThreads() {
+            Set<String> threads = ConcurrentHashMap.newKeySet();
+
+            numbers(1000)
+                    .then("first", 2, () -> i -> {
+                        threads.add(Thread.currentThread().getName());
+                        return i;
+                    })
+                    .then("second", 1, () -> i -> {
+                        threads.add(Thread.currentThread().getName());
+                        return i;
+                    })
+                    .into(i -> threads.add(Thread.currentThread().getName()));
+
+            assertTrue(threads.contains("pipeline-second-1"), threads.toString());
+            assertTrue(threads.contains(Thread.currentThread().getName()), "The sink runs on the calling thread");
+            assertTrue(threads.stream().allMatch(name -> name.startsWith("pipeline-first-")
+                    || name.equals("pipeline-second-1") || name.equals(Thread.currentThread().getName())), threads.toString());
+        }
+
+        @Test
+        void dropsNullResults() {
+            List<Integer> results = new ArrayList<>();
+
+            numbers(100)
+                    .then("even", 3, () -> i -> i % 2 == 0 ? i : null)
+                    .into(results::add);
+
+            assertEquals(50, results.size());
+            assertEquals(98, results.get(49));
+        }
+
+        @Test
+        void keepsStatePerThread() {
+            Set<Object> workers = new HashSet<>();
+            AtomicInteger created = new AtomicInteger();
+
+            numbers(100)
+                    .then("stateful", 3, () -> {
+                        created.incrementAndGet();
+                        Object state = new Object();
+                        return i -> state;
+                    })
+                    .into(workers::add);
+
+            assertEquals(3, created.get());
+            assertTrue(workers.size() <= 3);
+        }
+
+        @Test
+        void limitsElementsInFlight() {
+            AtomicInteger emitted = new AtomicInteger();
+            AtomicInteger maxAhead = new AtomicInteger();
+            AtomicInteger consumed = new AtomicInteger();
+
+            Pipeline.<Integer>from("numbers", emitter -> {
+                        for (int i = 0; i < 2000; i++) {
+                            emitter.accept(i);
+                            maxAhead.accumulateAndGet(emitted.incrementAndGet() - consumed.get(), Math::max);
+                        }
+                    })
+                    .then("identity", 2, () -> i -> i)
+                    .queueCapacity(2)
+                    .into(i -> {
+                        consumed.incrementAndGet();
+                        if (i % 100 == 0) {
+                            // A slow sink must not let the source run away
+                            try {
+                                Thread.sleep(1);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                    });
+
+            // Two queues of two elements, plus the element being emitted
+            assertTrue(maxAhead.get() <= 5, "Source got ahead by " + maxAhead.get());
+            assertEquals(2000, consumed.get());
+        }
+
+        @Test
+        void runsSourceOnly() {
+            List<Integer> results = new ArrayList<>();
+
+            numbers(3).into(results::add);
+
+            assertEquals(List.of(0, 1, 2), results);
+        }
+    }
+
+    @Nested
+    class Failures {
+
+        @Test
+        void rethrowsFailureOfStage() {
+            Pipeline<Integer> pipeline = Pipeline.<Integer>from("numbers", emitter -> {
+                        for (int i = 0; ; i++) {
+                            emitter.accept(i);
+                        }
+                    })
+                    .then("broken", 2, () -> i -> {
+                        if (i == 500) {
+                            throw new IllegalStateException("Broken element: " + i);
+                        }
+                        return i;
+                    });
+
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> pipeline.into(i -> {
+            }));
+            assertEquals("Broken element: 500", e.getMessage());
+        }
+
+        @Test
+        void wrapsCheckedFailureOfSource() {
+            Pipeline<Integer> pipeline = Pipeline.<Integer>from("read", emitter -> {
+                        emitter.accept(1);
+                        throw new IOException("Disk gone");
+                    })
+                    .then("identity", 1, () -> i -> i);
+
+            RuntimeException e = assertThrows(RuntimeException.class, () -> pipeline.into(i -> {
+            }));
+            assertEquals("Pipeline stage read failed", e.getMessage());
+            assertEquals("Disk gone", e.getCause().getMessage());
+        }
+
+        @Test
+        void stopsAllStagesWhenSinkFails() {
+            CountDownLatch sourceStopped = new CountDownLatch(1);
+            Pipeline<Integer> pipeline = Pipeline.<Integer>from("numbers", emitter -> {
+                        try {
+                            for (int i = 0; ; i++) {
+                                emitter.accept(i);
+                            }
+                        } finally {
+                            sourceStopped.countDown();
+                        }
+                    })
+                    .then("identity", 2, () -> i -> i);
+
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> pipeline.into(i -> {
+                if (i == 100) {
+                    throw new IllegalArgumentException("Sink full");
+                }
+            }));
+            assertEquals("Sink full", e.getMessage());
+            assertEquals(0, sourceStopped.getCount(), "The source has been stopped before into() returned");
+        }
+
+        @Test
+        void rejectsInvalidStages() {
+            Pipeline<Integer> pipeline = Pipeline.from("numbers", emitter -> emitter.accept(1));
+
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> pipeline.then("map", 0, () -> i -> i));
+            assertEquals("Threads of stage map must be at least 1: 0", e.getMessage());
+
+            e = assertThrows(IllegalArgumentException.class, () -> pipeline.queueCapacity(0));
+            assertEquals("Queue capacity must be at least 1: 0", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package de.bcxp.challenge.adapters.snapshot;
+
+import de.bcxp.challenge.adapters.csv.CSVRecordReader;
+import de.bcxp.challenge.adapters.csv.mappers.CountryCSVRowMapper;
+import de.bcxp.challenge.adapters.csv.mappers.WeatherCSVRowMapper;
+import de.bcxp.challenge.countries.CountryEntity;
+import de.bcxp.challenge.countries.CountryStore;
+import de.bcxp.challenge.weather.WeatherEntity;
+import de.bcxp.challenge.weather.WeatherTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static de.bcxp.challenge.countries.CountryUtils.COUNTRY_CSV_FORMAT;
+import static de.bcxp.challenge.weather.WeatherUtils.WEATHER_CSV_FORMAT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotCacheTest {
+
+    private static final String WEATHER_FILE = "src/main/resources/de/bcxp/challenge/weather.csv";
+    private static final String COUNTRY_FILE = "src/main/resources/de/bcxp/challenge/countries.csv";
+
+    @TempDir
+    Path tempDir;
+
+    private Path weatherFile;
+    private final AtomicInteger parses = new AtomicInteger();
+
+    @BeforeEach
+    void copyWeatherFile() throws IOException {
+        weatherFile = tempDir.resolve("weather.csv");
+        Files.copy(Paths.get(WEATHER_FILE), weatherFile);
+    }
+
+    private Function<String, WeatherTable> weatherParser() {
+        return path -> {
+            parses.incrementAndGet();
+            WeatherCSVRowMapper mapper = new WeatherCSVRowMapper(true);
+            WeatherTable table = new WeatherTable();
+            new CSVRecordReader<WeatherEntity>(mapper, WEATHER_CSV_FORMAT).scan(path, mapper.tableLoader(table));
+            return table;
+        };
+    }
+
+    private String describe(WeatherTable table) {
+        StringBuilder description = new StringBuilder();
+        for (int row = 0; row < table.size(); row++) {
+            description.append(table.get(row)).append('\n');
+        }
+        return description.toString();
+    }
+
+    @Test
+    void testWeatherTable_SecondLoadUsesSnapshot() {
+        WeatherTable parsed = SnapshotCache.weatherTable(weatherFile.toString(), weatherParser());
+        assertTrue(Files.exists(tempDir.resolve("weather.csv" + SnapshotFile.EXTENSION)), "First load should write the snapshot");
+
+        WeatherTable loaded = SnapshotCache.weatherTable(weatherFile.toString(), weatherParser());
+
+        assertEquals(1, parses.get(), "Second load should not parse the CSV");
+        assertEquals(30, loaded.size());
+        assertEquals(describe(parsed), describe(loaded), "Snapshot should contain the same data");
+    }
+
+    @Test
+    void testWeatherTable_ChangedSourceInvalidatesSnapshot() throws IOException {
+        SnapshotCache.weatherTable(weatherFile.toString(), weatherParser());
+
+        Files.writeString(weatherFile, "\n31,90,50,70,50.0,0,200,9.0,180,17,6.0,90,30,1010.0\n", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+        WeatherTable loaded = SnapshotCache.weatherTable(weatherFile.toString(), weatherParser());
+
+        assertEquals(2, parses.get(), "Changed CSV should be parsed again");
+        assertEquals(31, loaded.size());
+    }
+
+    @Test
+    void testWeatherTable_SameSizeChangeDetectedByHash() throws IOException {
+        SnapshotCache.weatherTable(weatherFile.toString(), weatherParser());
+
+        String content = Files.readString(weatherFile);
+        Files.writeString(weatherFile, content.replaceFirst("\n1,88,59,", "\n1,88,87,"));
+        Files.setLastModifiedTime(weatherFile, FileTime.fromMillis(Files.getLastModifiedTime(weatherFile).toMillis() + 5000));
+        WeatherTable loaded = SnapshotCache.weatherTable(weatherFile.toString(), weatherParser());
+
+        assertEquals(2, parses.get(), "Changed content of the same size should be parsed again");
+        assertEquals(87, loaded.getMnT(0));
+    }
+
+    @Test
+    void testWeatherTable_TouchedSourceKeepsSnapshot() throws IOException {
+        SnapshotCache.weatherTable(weatherFile.toString(), weatherParser());
+
+        Files.setLastModifiedTime(weatherFile, FileTime.fromMillis(Files.getLastModifiedTime(weatherFile).toMillis() + 5000));
+        SnapshotCache.weatherTable(weatherFile.toString(), weatherParser());
+
+        assertEquals(1, parses.get(), "Unchanged content should still be served from the snapshot");
+    }
+
+    @Test
+    void testWeatherTable_TouchedSourceUpdatesSnapshotTime() throws IOException {
+        SnapshotCache.weatherTable(weatherFile.toString(), weatherParser());
+
+        long touched = Files.getLastModifiedTime(weatherFile).toMillis() + 5000;
+        Files.setLastModifiedTime(weatherFile, FileTime.fromMillis(touched));
+        SnapshotCache.weatherTable(weatherFile.toString(), weatherParser());
+
+        // The header keeps the source modification time at offset 24, a matching time skips hashing the source
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(tempDir.resolve("weather.csv" + SnapshotFile.EXTENSION)))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(touched, header.getLong(24), "The snapshot should take over the time of the unchanged source");
+        assertEquals(1, parses.get());
+    }
+
+    @Test
+    void testWeatherTable_CorruptSnapshotFallsBackToCsv() throws IOException {
+        Files.writeString(tempDir.resolve("weather.csv" + SnapshotFile.EXTENSION), "garbage");
+
+        WeatherTable loaded = SnapshotCache.weatherTable(weatherFile.toString(), weatherParser());
+
+        assertEquals(1, parses.get());
+        assertEquals(30, loaded.size());
+        SnapshotCache.weatherTable(weatherFile.toString(), weatherParser());
+        assertEquals(1, parses.get(), "The corrupt snapshot should have been replaced");
+    }
+
+    @Test
+    void testWeatherTable_DamagedSectionDataFallsBackToCsv() throws IOException {
+        SnapshotCache.weatherTable(weatherFile.toString(), weatherParser());
+
+        // Zero the last bytes, like a snapshot torn while it was written
+        Path snapshot = tempDir.resolve("weather.csv" + SnapshotFile.EXTENSION);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        Arrays.fill(bytes, bytes.length - 64, bytes.length, (byte) 0);
+        Files.write(snapshot, bytes);
+        WeatherTable loaded = SnapshotCache.weatherTable(weatherFile.toString(), weatherParser());
+
+        assertEquals(2, parses.get(), "Damaged section data should not be served");
+        assertEquals(30, loaded.size());
+    }
+
+    @Test
+    void testWeatherTable_ConcurrentWritersLeaveValidSnapshot() throws Exception {
+        List<Thread> writers = new ArrayList<>();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 8; i++) {
+            writers.add(new Thread(() -> {
+                try {
+                    Path snapshot = tempDir.resolve("weather.csv" + SnapshotFile.EXTENSION);
+                    Files.deleteIfExists(snapshot);
+                    SnapshotCache.weatherTable(weatherFile.toString(), weatherParser());
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        assertEquals(List.of(), failures);
+        assertNotNull(SnapshotFile.open(weatherFile, SnapshotCache.WEATHER_TABLE), "The last snapshot moved into place should be valid");
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(List.of(), files.filter(file -> file.toString().endsWith(".tmp")).collect(Collectors.toList()),
+                    "No temporary files should be left behind");
+        }
+    }
+
+    @Test
+    void testWrite_SectionTooLargeToMapIsRejected() throws IOException {
+        SnapshotFile.Section tooLarge = new SnapshotFile.Section() {
+            @Override
+            public long length() {
+                return SnapshotFile.MAX_SECTION_SIZE + 1;
+            }
+
+            @Override
+            public void writeTo(WritableByteChannel channel) {
+                fail("A section that is too large should not be written");
+            }
+        };
+        long modified = Files.getLastModifiedTime(weatherFile).toMillis();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> SnapshotFile.write(weatherFile, modified, SnapshotCache.WEATHER_TABLE, 1, tooLarge));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(List.of(weatherFile), files.collect(Collectors.toList()), "Nothing should be written");
+        }
+    }
+
+    @Test
+    void testWeatherTable_SnapshotHasSectionPerColumn() throws IOException {
+        WeatherTable parsed = SnapshotCache.weatherTable(weatherFile.toString(), weatherParser());
+
+        SnapshotFile snapshot = SnapshotFile.open(weatherFile, SnapshotCache.WEATHER_TABLE);
+
+        assertEquals(WeatherTable.columnCount(), snapshot.sectionCount());
+        for (int column = 0; column < snapshot.sectionCount(); column++) {
+            assertEquals(WeatherTable.columnBytes(column, parsed.size()), snapshot.section(column).remaining());
+        }
+    }
+
+    @Test
+    void testCountryStore_SnapshotRoundTrip() throws IOException {
+        Path countryFile = tempDir.resolve("countries.csv");
+        Files.copy(Paths.get(COUNTRY_FILE), countryFile);
+
+        Function<String, CountryStore> parser = path -> {
+            parses.incrementAndGet();
+            CountryCSVRowMapper mapper = new CountryCSVRowMapper(true);
+            CountryStore store = new CountryStore();
+            new CSVRecordReader<CountryEntity>(mapper, COUNTRY_CSV_FORMAT).scan(path, mapper.storeLoader(store));
+            return store;
+        };
+
+        CountryStore parsed = SnapshotCache.countryStore(countryFile.toString(), parser);
+        CountryStore loaded = SnapshotCache.countryStore(countryFile.toString(), parser);
+
+        assertEquals(1, parses.get(), "Second load should not parse the CSV");
+        assertEquals(parsed.size(), loaded.size());
+        for (int row = 0; row < parsed.size(); row++) {
+            assertEquals(parsed.get(row).toString(), loaded.get(row).toString(), "Row " + row + " should match");
+        }
+
+        // A store wrapping the read-only snapshot copies its data once it grows
+        loaded.add(parsed.get(0));
+        assertEquals(parsed.get(0).toString(), loaded.get(parsed.size()).toString());
+    }
+
+    @Test
+    void testWeatherTable_NonExistentFile() {
+        assertThrows(IllegalArgumentException.class, () -> SnapshotCache.weatherTable("nonexistent.csv", weatherParser()));
+    }
+}
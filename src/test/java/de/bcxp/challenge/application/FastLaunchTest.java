@@ -0,0 +1,70 @@
+package de.bcxp.challenge.application;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Result lines of the fast launch queries, run on copies of the bundled files so snapshots end up in a temp dir.
+ */
+class FastLaunchTest {
+
+    private static final String RESOURCES = "src/main/resources/de/bcxp/challenge/";
+
+    @TempDir
+    Path tempDir;
+
+    private String weatherFile;
+    private String countryFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        weatherFile = Files.copy(Paths.get(RESOURCES + "weather.csv"), tempDir.resolve("weather.csv")).toString();
+        countryFile = Files.copy(Paths.get(RESOURCES + "countries.csv"), tempDir.resolve("countries.csv")).toString();
+    }
+
+    @Test
+    void testRunQuery_Weather() {
+        assertEquals("Day (14) is the day with the smallest temperature spread: 2.0",
+                FastLaunch.runQuery("weather", weatherFile));
+    }
+
+    @Test
+    void testRunQuery_Countries() {
+        assertEquals("Country (Malta) has the highest population density: 1633.2278481012659 people/km²",
+                FastLaunch.runQuery("countries", countryFile));
+    }
+
+    @Test
+    void testRunQuery_NoData() throws IOException {
+        Path emptyWeather = Files.writeString(tempDir.resolve("empty-weather.csv"),
+                "Day,MxT,MnT,AvT,AvDP,1HrP TPcpn,PDir,AvSp,Dir,MxS,SkyC,MxR,Mn,R AvSLP\n");
+        Path emptyCountries = Files.writeString(tempDir.resolve("empty-countries.csv"),
+                "Name;Capital;Accession;Population;Area (km²);GDP (US$ M);HDI;MEPs\n");
+
+        assertEquals("No weather data found in " + emptyWeather, FastLaunch.runQuery("weather", emptyWeather.toString()));
+        assertEquals("No country data found in " + emptyCountries, FastLaunch.runQuery("countries", emptyCountries.toString()));
+    }
+
+    @Test
+    void testRunQuery_DirectoryIsRejected() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> FastLaunch.runQuery("weather", tempDir.toString()));
+        assertEquals("Partitioned directories are not supported in fast launch mode: " + tempDir, e.getMessage());
+    }
+
+    @Test
+    void testRunQuery_UnknownQuery() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> FastLaunch.runQuery("rainfall", weatherFile));
+        assertEquals("Unknown query, expected weather or countries: rainfall", e.getMessage());
+    }
+}
@@ -0,0 +1,142 @@
+package de.bcxp.challenge.countries;
+
+import de.bcxp.challenge.adapters.csv.CSVRecordReader;
+import de.bcxp.challenge.adapters.csv.mappers.CountryCSVRowMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.stream.Collectors;
+
+import static de.bcxp.challenge.countries.CountryUtils.COUNTRY_CSV_FORMAT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountryRepositoryTest {
+
+    private static final String COUNTRY_FILE = "src/main/resources/de/bcxp/challenge/countries.csv";
+
+    private static CountryEntity country(String name, String capital, long population, double area) {
+        CountryEntity entity = new CountryEntity();
+        entity.Name = name;
+        entity.Capital = capital;
+        entity.Accession = "Founder";
+        entity.Population = population;
+        entity.Area = area;
+        return entity;
+    }
+
+    /**
+     * Densities: A 10, B 200, C 200, D 50, E 300, F 0 (no area).
+     */
+    private static CountryRepository repository() {
+        return CountryRepository.of(List.of(
+                country("A", "Alpha", 1000, 100),
+                country("B", "Beta", 20000, 100),
+                country("C", "Alpha", 40000, 200),
+                country("D", "Delta", 5000, 100),
+                country("E", "Epsilon", 30000, 100),
+                country("F", null, 1000, 0)
+        ));
+    }
+
+    private static List<String> names(List<CountryEntity> countries) {
+        return countries.stream().map(country -> country.Name).collect(Collectors.toList());
+    }
+
+    @Test
+    void testFindByName() {
+        CountryRepository repository = repository();
+
+        assertEquals(6, repository.size());
+        assertEquals("Epsilon", repository.findByName("E").orElseThrow().Capital);
+        assertTrue(repository.findByName("Z").isEmpty());
+        assertTrue(repository.findByName(null).isEmpty());
+    }
+
+    @Test
+    void testFindByName_FirstRowWinsAndManyRows() {
+        List<CountryEntity> countries = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            countries.add(country("Country " + i, "Capital " + i % 100, i, 1));
+        }
+        countries.add(country("Country 42", "Duplicate", 1, 1));
+
+        CountryRepository repository = CountryRepository.of(countries);
+
+        for (int i = 0; i < 10_000; i += 999) {
+            assertEquals(i, repository.findByName("Country " + i).orElseThrow().Population);
+        }
+        assertEquals("Capital 42", repository.findByName("Country 42").orElseThrow().Capital);
+        assertEquals(100, repository.findByCapital("Capital 7").size());
+    }
+
+    @Test
+    void testFindByCapital_AllRowsInRowOrder() {
+        CountryRepository repository = repository();
+
+        assertEquals(List.of("A", "C"), names(repository.findByCapital("Alpha")));
+        assertEquals(List.of("F"), names(repository.findByCapital(null)), "Null is a capital of its own");
+        assertEquals(List.of(), repository.findByCapital("Omega"));
+    }
+
+    @Test
+    void testHighestDensities_TiesInRowOrder() {
+        CountryRepository repository = repository();
+
+        assertEquals(List.of("E", "B", "C", "D"), names(repository.highestDensities(4)));
+        assertEquals(List.of("E", "B"), names(repository.highestDensities(2)));
+        assertEquals(6, repository.highestDensities(100).size());
+        assertEquals(List.of(), repository.highestDensities(0));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> repository.highestDensities(-1));
+        assertEquals("k cannot be negative: -1", e.getMessage());
+    }
+
+    @Test
+    void testDensityRank() {
+        CountryRepository repository = repository();
+
+        assertEquals(OptionalInt.of(1), repository.densityRank("E"));
+        assertEquals(OptionalInt.of(2), repository.densityRank("B"));
+        assertEquals(OptionalInt.of(2), repository.densityRank("C"), "Equal densities share their rank");
+        assertEquals(OptionalInt.of(4), repository.densityRank("D"));
+        assertEquals(OptionalInt.of(6), repository.densityRank("F"));
+        assertEquals(OptionalInt.empty(), repository.densityRank("Z"));
+    }
+
+    @Test
+    void testDensityBetween_Inclusive() {
+        CountryRepository repository = repository();
+
+        assertEquals(List.of("D", "B", "C"), names(repository.densityBetween(50, 200)));
+        assertEquals(List.of("F", "A"), names(repository.densityBetween(0, 49.9)));
+        assertEquals(List.of(), repository.densityBetween(301, 1000));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> repository.densityBetween(3, 2));
+        assertEquals("Minimum density cannot be greater than maximum: 3.0 > 2.0", e.getMessage());
+    }
+
+    @Test
+    void testHighestDensity_SameAsCountryService() {
+        List<CountryEntity> countries = new CSVRecordReader<>(new CountryCSVRowMapper(true), COUNTRY_CSV_FORMAT).readAll(COUNTRY_FILE);
+
+        CountryEntity highest = CountryRepository.of(countries).highestDensities(1).get(0);
+
+        assertEquals(CountryService.getCountryWithHighestPopulationDensity(countries).toString(), highest.toString());
+        assertEquals("Malta", highest.Name);
+    }
+
+    @Test
+    void testEmptyAndInvalid() {
+        CountryRepository repository = new CountryRepository(new CountryStore());
+
+        assertEquals(List.of(), repository.highestDensities(3));
+        assertEquals(List.of(), repository.densityBetween(0, 1000));
+        assertTrue(repository.findByName("A").isEmpty());
+        assertEquals(List.of(), repository.findByCapital("Alpha"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new CountryRepository(null));
+        assertEquals("Country store cannot be null", e.getMessage());
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -69,6 +70,18 @@ class CountryServiceTest {
             assertEquals(421.68674698795183, result.getPopulationDensity(), 0.01, "Population density should be approximately 421.7");
         }
 
+        @Test
+        void testGetCountryWithHighestPopulationDensity_DoesNotReorderInput() {
+            CountryEntity country1 = createCountryEntity("Germany", 83000000, 357000);
+            CountryEntity country2 = createCountryEntity("Netherlands", 17500000, 41500);
+            CountryEntity country3 = createCountryEntity("France", 67000000, 643800);
+
+            List<CountryEntity> countryData = Arrays.asList(country1, country2, country3);
+
+            CountryService.getCountryWithHighestPopulationDensity(countryData);
+            assertEquals(Arrays.asList(country1, country2, country3), countryData, "Input list should keep its order");
+        }
+
         @Test
         void testGetCountryWithHighestPopulationDensity_EqualDensities() {
             // Test with equal population densities - should return the first one after sorting
@@ -149,5 +162,50 @@ class CountryServiceTest {
             assertEquals("Canada", result.Name, "Country name should be Canada");
             assertEquals(3.8055381138247895, result.getPopulationDensity(), 0.01, "Population density should be approximately 3.8");
         }
+
+        @Test
+        void testGetCountryWithHighestPopulationDensityFromStream() {
+            // Test single pass over a stream
+            CountryEntity country1 = createCountryEntity("Germany", 83000000, 357000); // density ≈ 232.5
+            CountryEntity country2 = createCountryEntity("Netherlands", 17500000, 41500); // density ≈ 421.7 (highest)
+            CountryEntity country3 = createCountryEntity("France", 67000000, 643800); // density ≈ 104.1
+
+            CountryEntity result = CountryService.getCountryWithHighestPopulationDensityFromStream(Stream.of(country1, country2, country3));
+            assertEquals(country2, result, "Should return Netherlands with highest density");
+
+            assertNull(CountryService.getCountryWithHighestPopulationDensityFromStream(Stream.empty()), "Should return null for empty stream");
+            assertNull(CountryService.getCountryWithHighestPopulationDensityFromStream(null), "Should return null for null input");
+        }
+    }
+
+    @Nested
+    public class GetRowWithHighestPopulationDensity {
+
+        private void addCountry(CountryStore store, String name, long population, double area) {
+            CountryEntity entity = new CountryEntity();
+            entity.Name = name;
+            entity.Population = population;
+            entity.Area = area;
+            store.add(entity);
+        }
+
+        @Test
+        void testGetRowWithHighestPopulationDensity_NullOrEmpty() {
+            assertEquals(-1, CountryService.getRowWithHighestPopulationDensity(null), "Should return -1 for null input");
+            assertEquals(-1, CountryService.getRowWithHighestPopulationDensity(new CountryStore()), "Should return -1 for empty store");
+        }
+
+        @Test
+        void testGetRowWithHighestPopulationDensity_MultipleCountries() {
+            CountryStore store = new CountryStore(1);
+            addCountry(store, "Germany", 83000000, 357000); // density ≈ 232.5
+            addCountry(store, "Netherlands", 17500000, 41500); // density ≈ 421.7 (highest)
+            addCountry(store, "Atlantis", 1000, 0); // zero area counts as density 0
+            addCountry(store, "Copy", 17500000, 41500); // equal density, first one wins
+
+            int row = CountryService.getRowWithHighestPopulationDensity(store);
+            assertEquals(1, row, "Should return the row of the Netherlands");
+            assertEquals("Netherlands", store.view().at(row).getName(), "Country name should be Netherlands");
+        }
     }
 }
@@ -0,0 +1,150 @@
+package de.bcxp.challenge.countries;
+
+import de.bcxp.challenge.query.KeyColumn;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountryStoreTest {
+
+    private CountryEntity createCountryEntity(int i) {
+        CountryEntity entity = new CountryEntity();
+        entity.Name = "Country " + i;
+        entity.Capital = "Capital " + i;
+        entity.Accession = String.valueOf(1950 + i);
+        entity.Population = 1_000_000L * i;
+        entity.Area = 1000.5 * i;
+        entity.GDP = 12345L * i;
+        entity.HDI = 0.9;
+        entity.MEPs = 6 + i;
+        return entity;
+    }
+
+    @Test
+    void testAdd_GrowsAndKeepsAllFields() {
+        CountryStore store = new CountryStore(0);
+
+        for (int i = 1; i <= 200; i++) {
+            assertEquals(i - 1, store.add(createCountryEntity(i)), "Add should return the new row index");
+        }
+
+        assertEquals(200, store.size(), "Store should contain all rows");
+        for (int row = 0; row < store.size(); row++) {
+            assertEquals(createCountryEntity(row + 1).toString(), store.get(row).toString(), "Row " + row + " should keep all fields");
+        }
+    }
+
+    @Test
+    void testView_ReadsInPlace() {
+        CountryStore store = new CountryStore();
+        CountryEntity malta = createCountryEntity(1);
+        malta.Name = "Malta";
+        malta.Capital = "Valletta";
+        malta.Population = 516100;
+        malta.Area = 316;
+        store.add(malta);
+        store.add(createCountryEntity(2));
+
+        CountryStore.View view = store.view();
+        assertEquals("Malta", view.at(0).getName());
+        assertEquals("Valletta", view.getCapital());
+        assertEquals(516100L, view.getPopulation());
+        assertEquals(516100 / 316.0, view.getPopulationDensity());
+        assertEquals("Country 2", view.at(1).getName(), "The same view should be movable to another row");
+        assertEquals(1, view.row());
+    }
+
+    @Test
+    void testAdd_NonAsciiAndNullStrings() {
+        CountryStore store = new CountryStore();
+        CountryEntity entity = createCountryEntity(1);
+        entity.Name = "Österreich";
+        entity.Capital = null;
+        store.add(entity);
+
+        CountryStore.View view = store.view().at(0);
+        assertEquals("Österreich", view.getName());
+        assertNull(view.getCapital());
+    }
+
+    @Test
+    void testAdd_ReusedScratchEntity() {
+        CountryStore store = new CountryStore();
+        CountryEntity scratch = createCountryEntity(1);
+        store.add(scratch);
+        scratch.Name = "Changed";
+        store.add(scratch);
+
+        assertEquals("Country 1", store.view().at(0).getName(), "Records should not reference the added entity");
+    }
+
+    @Test
+    void testAdd_EncodesRepeatedValuesOnce() {
+        CountryStore store = new CountryStore();
+        for (int i = 0; i < 100; i++) {
+            CountryEntity entity = createCountryEntity(i);
+            entity.Accession = i % 2 == 0 ? "Founder" : "1973";
+            store.add(entity);
+        }
+
+        KeyColumn accession = store.keyColumn("Accession");
+        int[] codes = new int[4];
+        accession.read(0, codes.length, codes);
+
+        assertArrayEquals(new int[]{0, 1, 0, 1}, codes, "Equal values should have equal codes");
+        assertEquals("Founder", accession.value(0));
+        assertEquals(OptionalInt.of(1), accession.code("1973"));
+        assertEquals(OptionalInt.empty(), accession.code("1995"), "Unknown values should not get a code");
+        assertEquals(2, store.accessions.size());
+        assertSame(store.view().at(0).getAccession(), store.view().at(2).getAccession(), "A value should exist only once");
+    }
+
+    @Test
+    void testWrap_KeepsRecordsStringsAndDictionaries() {
+        CountryStore store = new CountryStore();
+        for (int i = 1; i <= 20; i++) {
+            store.add(createCountryEntity(i));
+        }
+        CountryEntity withoutCapital = createCountryEntity(21);
+        withoutCapital.Capital = null;
+        store.add(withoutCapital);
+
+        ByteBuffer dictionaries = store.dictionaries();
+        CountryStore wrapped = CountryStore.wrap(store.records(), store.strings(), dictionaries);
+
+        assertEquals(store.size(), wrapped.size());
+        for (int row = 0; row < store.size(); row++) {
+            assertEquals(store.get(row).toString(), wrapped.get(row).toString(), "Row " + row + " should be restored");
+        }
+        assertEquals(0, dictionaries.position(), "The dictionaries should be read from a duplicate");
+
+        wrapped.add(createCountryEntity(22));
+        assertEquals("Capital 22", wrapped.view().at(21).getCapital(), "A wrapped store should keep encoding new values");
+    }
+
+    @Test
+    void testWrap_AddEmptyStringsToReadOnlyBuffers() {
+        CountryStore store = new CountryStore();
+        store.add(createCountryEntity(1));
+        CountryStore wrapped = CountryStore.wrap(store.records(), store.strings(), store.dictionaries());
+
+        CountryEntity empty = createCountryEntity(2);
+        empty.Name = "";
+        empty.Capital = "";
+        wrapped.add(empty);
+
+        assertEquals("", wrapped.view().at(1).getName());
+        assertEquals("", wrapped.view().at(1).getCapital());
+        assertEquals(store.get(0).toString(), wrapped.get(0).toString());
+    }
+
+    @Test
+    void testView_OutOfBounds() {
+        CountryStore store = new CountryStore();
+        assertThrows(IndexOutOfBoundsException.class, () -> store.view().at(0));
+        assertThrows(IllegalArgumentException.class, () -> new CountryStore(-1));
+    }
+}
@@ -0,0 +1,171 @@
+package de.bcxp.challenge.generator;
+
+import de.bcxp.challenge.adapters.compress.BlockGzip;
+import de.bcxp.challenge.adapters.compress.CompressedInput;
+import de.bcxp.challenge.adapters.csv.CSVRecordReader;
+import de.bcxp.challenge.adapters.csv.MappedCSVRecordReader;
+import de.bcxp.challenge.adapters.csv.mappers.CountryCSVRowMapper;
+import de.bcxp.challenge.adapters.csv.mappers.WeatherCSVRowMapper;
+import de.bcxp.challenge.countries.CountryEntity;
+import de.bcxp.challenge.weather.WeatherEntity;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static de.bcxp.challenge.countries.CountryUtils.COUNTRY_CSV_FORMAT;
+import static de.bcxp.challenge.weather.WeatherUtils.WEATHER_CSV_FORMAT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CSVGeneratorTest {
+
+    private static final long ROWS = 3 * CSVGenerator.BLOCK_ROWS + 123;
+
+    @TempDir
+    Path tempDir;
+
+    @Nested
+    class Determinism {
+
+        @Test
+        void sameSeedProducesSameFileWithAnyNumberOfThreads() throws IOException {
+            GeneratorSettings settings = settings(0.1, 0.05, 0.2);
+            Path single = tempDir.resolve("single.csv");
+            Path parallel = tempDir.resolve("parallel.csv");
+
+            long singleBytes = new CSVGenerator(new WeatherRowGenerator(settings), 7, 1).write(single, ROWS);
+            long parallelBytes = new CSVGenerator(new WeatherRowGenerator(settings), 7, 4).write(parallel, ROWS);
+
+            assertEquals(Files.size(single), singleBytes);
+            assertEquals(singleBytes, parallelBytes);
+            assertArrayEquals(Files.readAllBytes(single), Files.readAllBytes(parallel));
+        }
+
+        @Test
+        void differentSeedsProduceDifferentFiles() throws IOException {
+            GeneratorSettings settings = settings(0, 0, 0);
+            Path first = tempDir.resolve("first.csv");
+            Path second = tempDir.resolve("second.csv");
+
+            new CSVGenerator(new CountryRowGenerator(settings), 1, 2).write(first, 1000);
+            new CSVGenerator(new CountryRowGenerator(settings), 2, 2).write(second, 1000);
+
+            assertFalse(Arrays.equals(Files.readAllBytes(first), Files.readAllBytes(second)));
+        }
+
+        @Test
+        void writesHeaderAndOneLinePerRow() throws IOException {
+            Path file = tempDir.resolve("countries.csv");
+
+            new CSVGenerator(new CountryRowGenerator(settings(0, 0, 0)), 3, 2).write(file, 2500);
+
+            List<String> lines = Files.readAllLines(file);
+            assertEquals(2501, lines.size());
+            assertEquals("Name;Capital;Accession;Population;Area (km²);GDP (US$ M);HDI;MEPs", lines.get(0));
+        }
+    }
+
+    @Nested
+    class Content {
+
+        @Test
+        void validWeatherRowsAreAllAcceptedByTheReaders() {
+            Path file = tempDir.resolve("weather.csv");
+            new CSVGenerator(new WeatherRowGenerator(settings(0, 0, 0.3)), 11, 3).write(file, ROWS);
+
+            List<WeatherEntity> parsed = new CSVRecordReader<>(new WeatherCSVRowMapper(false), WEATHER_CSV_FORMAT)
+                    .readAll(file.toString());
+            List<WeatherEntity> mapped = new MappedCSVRecordReader<>(new WeatherCSVRowMapper(false), WEATHER_CSV_FORMAT)
+                    .readAll(file.toString());
+
+            assertEquals(ROWS, parsed.size());
+            assertEquals(ROWS, mapped.size());
+            assertTrue(parsed.stream().allMatch(weather -> weather.MxT >= weather.MnT));
+        }
+
+        @Test
+        void quotedCountryRowsWithDelimitersAreAccepted() {
+            Path file = tempDir.resolve("countries.csv");
+            new CSVGenerator(new CountryRowGenerator(settings(0, 0, 1)), 5, 2).write(file, 5000);
+
+            List<CountryEntity> countries = new MappedCSVRecordReader<>(new CountryCSVRowMapper(false), COUNTRY_CSV_FORMAT)
+                    .readAll(file.toString());
+
+            assertEquals(5000, countries.size());
+            assertTrue(countries.stream().anyMatch(country -> country.Capital.contains("; ")));
+        }
+
+        @Test
+        void invalidAndLocaleRowsAreRejectedAtTheConfiguredRate() {
+            Path file = tempDir.resolve("countries.csv");
+            new CSVGenerator(new CountryRowGenerator(settings(0.1, 0.1, 0)), 13, 4).write(file, 20_000);
+
+            List<CountryEntity> countries = new CSVRecordReader<>(new CountryCSVRowMapper(true), COUNTRY_CSV_FORMAT)
+                    .readAll(file.toString());
+
+            double rejected = 1 - countries.size() / 20_000.0;
+            assertEquals(0.2, rejected, 0.02);
+        }
+
+        @Test
+        void gzipFilesAreWrittenAsBlockGzipWithTheSameRows() throws IOException {
+            Path plain = tempDir.resolve("weather.csv");
+            Path compressed = tempDir.resolve("weather.csv.gz");
+            new CSVGenerator(new WeatherRowGenerator(settings(0, 0, 0)), 17, 2).write(plain, ROWS);
+            new CSVGenerator(new WeatherRowGenerator(settings(0, 0, 0)), 17, 2).write(compressed, ROWS);
+
+            assertTrue(BlockGzip.isBlockGzip(compressed));
+            assertTrue(Files.size(compressed) < Files.size(plain));
+            try (InputStream in = CompressedInput.open(compressed)) {
+                assertArrayEquals(Files.readAllBytes(plain), in.readAllBytes());
+            }
+        }
+
+        @Test
+        void germanNumbersUseThousandsSeparators() {
+            assertEquals("4.036.355,00", RowGenerator.germanNumber(4036355));
+            assertEquals("355,00", RowGenerator.germanNumber(355));
+            assertEquals("-1.000,00", RowGenerator.germanNumber(-1000));
+        }
+    }
+
+    @Nested
+    class Validation {
+
+        @Test
+        void rejectsRatesOutsideOfRange() {
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> new WeatherRowGenerator(settings(1.5, 0, 0)));
+            assertEquals("Invalid rate must be between 0 and 1: 1.5", exception.getMessage());
+        }
+
+        @Test
+        void rejectsNullFile() {
+            CSVGenerator generator = new CSVGenerator(new WeatherRowGenerator(settings(0, 0, 0)), 1, 1);
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> generator.write(null, 10));
+            assertEquals("File path cannot be null or empty", exception.getMessage());
+        }
+
+        @Test
+        void rejectsNonPositiveThreads() {
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> new CSVGenerator(new WeatherRowGenerator(settings(0, 0, 0)), 1, 0));
+            assertEquals("Threads must be positive: 0", exception.getMessage());
+        }
+    }
+
+    private static GeneratorSettings settings(double invalidRate, double localeRate, double quoteRate) {
+        GeneratorSettings settings = new GeneratorSettings();
+        settings.invalidRate = invalidRate;
+        settings.localeRate = localeRate;
+        settings.quoteRate = quoteRate;
+        return settings;
+    }
+}
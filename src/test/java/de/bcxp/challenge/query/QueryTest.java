@@ -0,0 +1,228 @@
+package de.bcxp.challenge.query;
+
+import de.bcxp.challenge.countries.CountryEntity;
+import de.bcxp.challenge.countries.CountryStore;
+import de.bcxp.challenge.weather.WeatherEntity;
+import de.bcxp.challenge.weather.WeatherTable;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static de.bcxp.challenge.query.Expression.column;
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryTest {
+
+    /**
+     * Spans several batches, with a day of month cycling through 1..31 and a spread of row % 20.
+     */
+    private static WeatherTable weatherTable(int rows) {
+        WeatherTable table = new WeatherTable();
+        WeatherEntity entity = new WeatherEntity();
+        for (int row = 0; row < rows; row++) {
+            entity.Day = row % 31 + 1;
+            entity.MnT = 40 + row % 7;
+            entity.MxT = entity.MnT + row % 20;
+            entity.AvDP = row % 10;
+            table.add(entity);
+        }
+        return table;
+    }
+
+    private static CountryStore countryStore() {
+        CountryStore store = new CountryStore();
+        store.add(country("Austria", "1995", 8926000, 83855));
+        store.add(country("Belgium", "1958", 11566041, 30528));
+        store.add(country("Malta", "2004", 516100, 316));
+        store.add(country("Cyprus", "2004", 896000, 9251));
+        store.add(country("Germany", "1958", 83120520, 357386));
+        return store;
+    }
+
+    private static CountryEntity country(String name, String accession, long population, double area) {
+        CountryEntity entity = new CountryEntity();
+        entity.Name = name;
+        entity.Capital = name + " City";
+        entity.Accession = accession;
+        entity.Population = population;
+        entity.Area = area;
+        entity.MEPs = 6;
+        return entity;
+    }
+
+    @Nested
+    class Filters {
+
+        @Test
+        void filtersOnComputedExpression() {
+            WeatherTable table = weatherTable(5000);
+
+            QueryResult result = Query.from(table)
+                    .where(column("MxT").minus(column("MnT")), Comparison.LESS_THAN, 10)
+                    .aggregate(Aggregate.count(), Aggregate.avg("AvDP"))
+                    .execute();
+
+            long expectedCount = 0;
+            double expectedSum = 0;
+            for (int row = 0; row < table.size(); row++) {
+                if (table.getTemperatureSpread(row) < 10) {
+                    expectedCount++;
+                    expectedSum += table.getAvDP(row);
+                }
+            }
+            assertEquals(List.of("count", "avg(AvDP)"), result.getColumns());
+            assertEquals(expectedCount, result.get(0, "count"));
+            assertEquals(expectedSum / expectedCount, (double) result.get(0, "avg(AvDP)"), 1e-9);
+        }
+
+        @Test
+        void combinesFiltersWithAnd() {
+            QueryResult result = Query.from(weatherTable(3000))
+                    .where("Day", Comparison.EQUAL, 14)
+                    .where("AvDP", Comparison.GREATER_OR_EQUAL, 5)
+                    .select("Day", "AvDP")
+                    .execute();
+
+            assertTrue(result.size() > 0);
+            for (int row = 0; row < result.size(); row++) {
+                assertEquals(14, result.get(row, "Day"));
+                assertTrue((double) result.get(row, "AvDP") >= 5);
+            }
+        }
+
+        @Test
+        void filtersOnStringKey() {
+            QueryResult result = Query.from(countryStore())
+                    .whereEquals("Accession", "2004")
+                    .select("Name")
+                    .execute();
+
+            assertEquals(2, result.size());
+            assertEquals("Malta", result.get(0, "Name"));
+            assertEquals("Cyprus", result.get(1, "Name"));
+        }
+
+        @Test
+        void selectsNothingForUnknownKeyValue() {
+            QueryResult result = Query.from(countryStore())
+                    .whereEquals("MEPs", "six")
+                    .aggregate(Aggregate.count(), Aggregate.max("Population"))
+                    .execute();
+
+            assertEquals(1, result.size(), "A global aggregate always has one row");
+            assertEquals(0L, result.get(0, "count"));
+            assertNull(result.get(0, "max(Population)"));
+        }
+    }
+
+    @Nested
+    class Projections {
+
+        @Test
+        void projectsAllColumnsWithTheirTypes() {
+            QueryResult result = Query.from(countryStore()).limit(1).execute();
+
+            assertEquals(countryStore().columnNames(), result.getColumns());
+            assertArrayEquals(new Object[]{"Austria", "Austria City", "1995", 8926000L, 83855.0, 0L, 0.0, 6},
+                    result.getRow(0));
+        }
+
+        @Test
+        void projectsExpressionsAndStopsAtLimit() {
+            QueryResult result = Query.from(weatherTable(5000))
+                    .where("Day", Comparison.EQUAL, 1)
+                    .select("Day")
+                    .select("Spread", column("MxT").minus(column("MnT")))
+                    .limit(100)
+                    .execute();
+
+            assertEquals(100, result.size());
+            assertEquals(List.of("Day", "Spread"), result.getColumns());
+            // Day 1 is every 31st row, starting at row 0
+            assertEquals(31 * 99 % 20 * 1.0, result.get(99, "Spread"));
+        }
+    }
+
+    @Nested
+    class GroupBy {
+
+        @Test
+        void aggregatesPerKeyInOrderOfFirstAppearance() {
+            QueryResult result = Query.from(countryStore())
+                    .groupBy("Accession")
+                    .aggregate(Aggregate.count(), Aggregate.sum("Population"),
+                            Aggregate.max(column("Population").dividedBy(column("Area (km²)"))).as("density"))
+                    .execute();
+
+            assertEquals(List.of("Accession", "count", "sum(Population)", "density"), result.getColumns());
+            assertEquals(3, result.size());
+            assertArrayEquals(new Object[]{"1995", 1L, 8926000.0, 8926000 / 83855.0}, result.getRow(0));
+            assertArrayEquals(new Object[]{"1958", 2L, 94686561.0, 11566041 / 30528.0}, result.getRow(1));
+            assertArrayEquals(new Object[]{"2004", 2L, 1412100.0, 516100 / 316.0}, result.getRow(2));
+        }
+
+        @Test
+        void groupsIntKeysAcrossBatches() {
+            WeatherTable table = weatherTable(100_000);
+
+            QueryResult result = Query.from(table)
+                    .groupBy("Day")
+                    .aggregate(Aggregate.count(), Aggregate.min("MnT"), Aggregate.max("MxT"))
+                    .execute();
+
+            assertEquals(31, result.size());
+            long total = 0;
+            for (int row = 0; row < result.size(); row++) {
+                assertEquals(row + 1, result.get(row, "Day"));
+                total += (long) result.get(row, "count");
+                assertEquals(40.0, result.get(row, "min(MnT)"));
+            }
+            assertEquals(100_000, total);
+        }
+
+        @Test
+        void listsDistinctKeysWithoutAggregates() {
+            QueryResult result = Query.from(countryStore()).groupBy("MEPs").execute();
+
+            assertEquals(1, result.size());
+            assertEquals(6, result.get(0, "MEPs"));
+        }
+    }
+
+    @Nested
+    class Validation {
+
+        @Test
+        void rejectsUnknownColumn() {
+            Query query = Query.from(weatherTable(1)).select("Humidity");
+
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, query::execute);
+            assertEquals("Unknown column: Humidity", e.getMessage());
+        }
+
+        @Test
+        void rejectsGroupingByDoubleColumn() {
+            Query query = Query.from(countryStore()).groupBy("HDI");
+
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, query::execute);
+            assertEquals("Column cannot be used as key: HDI", e.getMessage());
+        }
+
+        @Test
+        void rejectsStringColumnInExpression() {
+            Query query = Query.from(countryStore()).aggregate(Aggregate.sum("Name"));
+
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, query::execute);
+            assertEquals("Column is not numeric: Name", e.getMessage());
+        }
+
+        @Test
+        void rejectsProjectionsWithAggregates() {
+            Query query = Query.from(countryStore()).select("Name").aggregate(Aggregate.count());
+
+            IllegalStateException e = assertThrows(IllegalStateException.class, query::execute);
+            assertEquals("Projections cannot be combined with group-by or aggregates", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package de.bcxp.challenge.selection;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReductionKernelsTest {
+
+    /**
+     * Every implementation this JVM can run; the Vector API kernels are included when the tests run with the
+     * incubator module, as configured for JDK 17+ builds.
+     */
+    private static List<ReductionKernels> kernels() {
+        List<ReductionKernels> kernels = new ArrayList<>();
+        kernels.add(ReductionKernels.scalar());
+        ReductionKernels.vector().ifPresent(kernels::add);
+        return kernels;
+    }
+
+    @Test
+    void loadsVectorKernelsWithIncubatorModule() {
+        boolean moduleLoaded = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+        assertEquals(moduleLoaded, ReductionKernels.vector().isPresent());
+        assertEquals(moduleLoaded ? "vector" : "scalar", ReductionKernels.get().name());
+    }
+
+    @Test
+    void rejectsUnknownKernelChoice() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> KernelSelection.select("gpu"));
+        assertEquals("Unknown kernels for de.bcxp.challenge.kernels: gpu", e.getMessage());
+    }
+
+    @Nested
+    class ArgMinDifference {
+
+        @Test
+        void matchesSelectionOnRandomData() {
+            SplittableRandom random = new SplittableRandom(42);
+            for (int size : new int[]{1, 3, 7, 8, 9, 31, 64, 1000, 4099}) {
+                int[] max = new int[size];
+                int[] min = new int[size];
+                for (int i = 0; i < size; i++) {
+                    min[i] = random.nextInt(-50, 100);
+                    max[i] = min[i] + random.nextInt(0, 40);
+                }
+                int expected = Selection.argMin(size, i -> max[i] - min[i]);
+
+                for (ReductionKernels kernels : kernels()) {
+                    assertEquals(expected, kernels.argMinDifference(max, min, 0, size), kernels.name() + " with " + size + " rows");
+                }
+            }
+        }
+
+        @Test
+        void prefersLowestIndexOnTies() {
+            int[] max = new int[100];
+            int[] min = new int[100];
+            Arrays.fill(max, 10);
+            max[37] = 2;
+            max[38] = 2;
+            max[99] = 2;
+
+            for (ReductionKernels kernels : kernels()) {
+                assertEquals(37, kernels.argMinDifference(max, min, 0, 100), kernels.name());
+                assertEquals(38, kernels.argMinDifference(max, min, 38, 100), kernels.name());
+                assertEquals(0, kernels.argMinDifference(max, min, 0, 37), kernels.name());
+            }
+        }
+
+        @Test
+        void returnsMinusOneForEmptyRange() {
+            for (ReductionKernels kernels : kernels()) {
+                assertEquals(-1, kernels.argMinDifference(new int[4], new int[4], 2, 2), kernels.name());
+            }
+        }
+    }
+
+    @Nested
+    class ArgMaxQuotient {
+
+        @Test
+        void matchesSelectionOnRandomData() {
+            SplittableRandom random = new SplittableRandom(7);
+            for (int size : new int[]{1, 5, 8, 17, 256, 2048, 5003}) {
+                double[] population = new double[size];
+                double[] area = new double[size];
+                for (int i = 0; i < size; i++) {
+                    population[i] = random.nextInt(1, 100_000_000);
+                    area[i] = random.nextInt(10) == 0 ? 0 : random.nextDouble(1, 500_000);
+                }
+                int expected = Selection.argMax(size, i -> ReductionKernels.quotient(population[i], area[i]));
+
+                for (ReductionKernels kernels : kernels()) {
+                    assertEquals(expected, kernels.argMaxQuotient(population, area, 0, size), kernels.name() + " with " + size + " rows");
+                }
+            }
+        }
+
+        @Test
+        void prefersLowestIndexOnTiesAndRespectsRange() {
+            double[] population = new double[64];
+            double[] area = new double[64];
+            Arrays.fill(population, 100);
+            Arrays.fill(area, 10);
+            area[20] = 1;
+            area[21] = 1;
+            area[63] = 1;
+
+            for (ReductionKernels kernels : kernels()) {
+                assertEquals(20, kernels.argMaxQuotient(population, area, 0, 64), kernels.name());
+                assertEquals(21, kernels.argMaxQuotient(population, area, 21, 64), kernels.name());
+                assertEquals(63, kernels.argMaxQuotient(population, area, 22, 64), kernels.name());
+            }
+        }
+
+        @Test
+        void ordersNaNAndSignedZeroLikeDoubleCompare() {
+            double[] population = new double[40];
+            double[] area = new double[40];
+            Arrays.fill(area, -1);
+            // 0 / -1 is -0.0 everywhere, 0 / 1 is the larger 0.0
+            area[25] = 1;
+
+            for (ReductionKernels kernels : kernels()) {
+                assertEquals(25, kernels.argMaxQuotient(population, area, 0, 40), kernels.name());
+            }
+
+            population[30] = Double.NaN;
+            for (ReductionKernels kernels : kernels()) {
+                assertEquals(30, kernels.argMaxQuotient(population, area, 0, 40), kernels.name());
+            }
+        }
+    }
+}
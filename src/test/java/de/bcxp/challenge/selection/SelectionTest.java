@@ -0,0 +1,176 @@
+package de.bcxp.challenge.selection;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelectionTest {
+
+    private static final double[] KEYS = {5, 3, 8, 3, 9, 1, 9, 1};
+
+    /**
+     * Indexes stably sorted by key, the reference for every selection.
+     */
+    private static int[] stableOrder(double[] keys, boolean largest) {
+        Comparator<Integer> byKey = Comparator.comparingDouble(i -> keys[i]);
+        return IntStream.range(0, keys.length).boxed()
+                .sorted(largest ? byKey.reversed() : byKey)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static double[] randomKeys(long seed, int size, int distinctValues) {
+        Random random = new Random(seed);
+        double[] keys = new double[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = random.nextInt(distinctValues);
+        }
+        return keys;
+    }
+
+    @Nested
+    public class ArgMinArgMax {
+
+        @Test
+        void testArgMinArgMax_LowestIndexOnTies() {
+            assertEquals(5, Selection.argMin(KEYS.length, i -> KEYS[i]), "First of the two smallest keys");
+            assertEquals(4, Selection.argMax(KEYS.length, i -> KEYS[i]), "First of the two largest keys");
+            assertEquals(-1, Selection.argMin(0, i -> KEYS[i]), "No index for empty input");
+        }
+
+        @Test
+        void testParallel_SameAsSequential() {
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                for (long seed = 0; seed < 5; seed++) {
+                    double[] keys = randomKeys(seed, 100_000, 50);
+                    assertEquals(Selection.argMin(keys.length, i -> keys[i]), Selection.parallelArgMin(keys.length, i -> keys[i], pool));
+                    assertEquals(Selection.argMax(keys.length, i -> keys[i]), Selection.parallelArgMax(keys.length, i -> keys[i], pool));
+                }
+                assertEquals(-1, Selection.parallelArgMin(0, i -> 0, pool));
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        @Test
+        void testMinMax_Lists() {
+            List<String> words = Arrays.asList("pear", "fig", "banana", "kiwi", "apple", "plum");
+            List<String> original = new ArrayList<>(words);
+
+            assertEquals("fig", Selection.min(words, String::length));
+            assertEquals("banana", Selection.max(words, String::length));
+            assertEquals("fig", Selection.parallelMin(new LinkedList<>(words), String::length), "Non random access lists are supported");
+            assertNull(Selection.min(null, String::length));
+            assertNull(Selection.max(new ArrayList<String>(), String::length));
+            assertEquals(original, words, "Input should not be reordered");
+        }
+
+        @Test
+        void testNaN_RanksLikeDoubleCompare() {
+            double[] keys = {2, Double.NaN, 1};
+            assertEquals(2, Selection.argMin(keys.length, i -> keys[i]));
+            assertEquals(1, Selection.argMax(keys.length, i -> keys[i]), "NaN is greater than every other key");
+        }
+    }
+
+    @Nested
+    public class Ties {
+
+        @Test
+        void testAllArgMinArgMax() {
+            assertArrayEquals(new int[]{5, 7}, Selection.allArgMin(KEYS.length, i -> KEYS[i]));
+            assertArrayEquals(new int[]{4, 6}, Selection.allArgMax(KEYS.length, i -> KEYS[i]));
+            assertArrayEquals(new int[0], Selection.allArgMin(0, i -> 0));
+
+            double[] same = new double[40];
+            assertEquals(40, Selection.allArgMax(same.length, i -> same[i]).length, "Every element ties");
+        }
+
+        @Test
+        void testAllMinMax_Lists() {
+            List<String> words = Arrays.asList("pear", "fig", "kiwi", "yam", "plum");
+            assertEquals(Arrays.asList("fig", "yam"), Selection.allMin(words, String::length));
+            assertEquals(Arrays.asList("pear", "kiwi", "plum"), Selection.allMax(words, String::length));
+        }
+    }
+
+    @Nested
+    public class TopK {
+
+        @Test
+        void testSmallestLargest_SameAsStableSort() {
+            for (long seed = 0; seed < 20; seed++) {
+                double[] keys = randomKeys(seed, 1000, 30);
+                for (int k : new int[]{0, 1, 7, 100, 1000, 2000}) {
+                    int expectedLength = Math.min(k, keys.length);
+                    assertArrayEquals(Arrays.copyOf(stableOrder(keys, false), expectedLength),
+                            Selection.smallestK(keys.length, k, i -> keys[i]), "Smallest " + k + " for seed " + seed);
+                    assertArrayEquals(Arrays.copyOf(stableOrder(keys, true), expectedLength),
+                            Selection.largestK(keys.length, k, i -> keys[i]), "Largest " + k + " for seed " + seed);
+                }
+            }
+        }
+
+        @Test
+        void testSmallestLargest_Lists() {
+            List<Integer> values = Arrays.asList(4, 1, 3, 1, 5);
+            assertEquals(Arrays.asList(1, 1, 3), Selection.smallest(values, 3, Integer::doubleValue));
+            assertEquals(Arrays.asList(5, 4), Selection.largest(values, 2, Integer::doubleValue));
+            assertEquals(new ArrayList<Integer>(), Selection.largest(null, 2, Integer::doubleValue));
+        }
+
+        @Test
+        void testNegativeK() {
+            assertThrows(IllegalArgumentException.class, () -> Selection.smallestK(3, -1, i -> i));
+        }
+    }
+
+    @Nested
+    public class Kth {
+
+        @Test
+        void testKth_SameAsStableSort() {
+            for (long seed = 0; seed < 20; seed++) {
+                double[] keys = randomKeys(seed, 500, 20);
+                int[] ascending = stableOrder(keys, false);
+                int[] descending = stableOrder(keys, true);
+                for (int k = 0; k < keys.length; k += 37) {
+                    assertEquals(ascending[k], Selection.kthSmallestIndex(keys.length, k, i -> keys[i]), "Rank " + k);
+                    assertEquals(descending[k], Selection.kthLargestIndex(keys.length, k, i -> keys[i]), "Rank " + k);
+                }
+            }
+        }
+
+        @Test
+        void testKth_Lists() {
+            List<String> words = Arrays.asList("pear", "fig", "banana", "kiwi");
+            List<String> original = new ArrayList<>(words);
+
+            assertEquals("pear", Selection.kthSmallest(words, 1, String::length));
+            assertEquals("kiwi", Selection.kthLargest(words, 2, String::length));
+            assertEquals(original, words, "Input should not be reordered");
+            assertThrows(IndexOutOfBoundsException.class, () -> Selection.kthSmallest(words, 4, String::length));
+        }
+
+        @Test
+        void testKth_AllEqualKeys() {
+            List<Integer> ranks = IntStream.range(0, 50)
+                    .map(k -> Selection.kthSmallestIndex(50, k, i -> 7))
+                    .boxed()
+                    .collect(Collectors.toList());
+            assertEquals(IntStream.range(0, 50).boxed().collect(Collectors.toList()), ranks, "Equal keys rank by index");
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package de.bcxp.challenge.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryServerTest {
+
+    private static final String WEATHER_HEADER = "Day,MxT,MnT,AvT,AvDP,1HrP TPcpn,PDir,AvSp,Dir,MxS,SkyC,MxR,Mn,R AvSLP\n";
+    private static final String COUNTRY_HEADER = "Name;Capital;Accession;Population;Area (km²);GDP (US$ M);HDI;MEPs\n";
+
+    @TempDir
+    Path tempDir;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private Path weatherFile;
+    private Path countryFile;
+    private QueryServer server;
+    private int port;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        weatherFile = tempDir.resolve("weather.csv");
+        countryFile = tempDir.resolve("countries.csv");
+        Files.writeString(weatherFile, WEATHER_HEADER + day(1, 88, 59) + day(2, 79, 63) + day(3, 77, 55) + day(4, 70, 68));
+        Files.writeString(countryFile, COUNTRY_HEADER
+                + "Austria;Vienna;1995;8926000;83855;447718;0.922;19\n"
+                + "Malta;Valletta;2004;516100;316;15134;0.918;6\n"
+                + "\"Quote \"\"Land\"\"\";Capital;2004;1000000;1000;1;0.5;1\n");
+
+        server = new QueryServer(weatherFile.toString(), countryFile.toString(), 0, 2);
+        port = server.start(0);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    private static String day(int day, int max, int min) {
+        return day + "," + max + "," + min + ",70,50.0,0,280,9.6,270,17,1.6,93,23,1004.5\n";
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build());
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Nested
+    class Weather {
+
+        @Test
+        void answersDayWithSmallestSpread() throws Exception {
+            HttpResponse<String> response = get("/weather/min-spread");
+
+            assertEquals(200, response.statusCode());
+            assertEquals("application/json; charset=utf-8", response.headers().firstValue("Content-Type").orElse(null));
+            assertEquals("{\"day\":4,\"spread\":2.0}", response.body());
+        }
+
+        @Test
+        void answersSmallestSpreadsBestFirst() throws Exception {
+            HttpResponse<String> response = get("/weather/smallest-spreads?k=2");
+
+            assertEquals(200, response.statusCode());
+            assertEquals("[{\"day\":4,\"spread\":2.0},{\"day\":2,\"spread\":16.0}]", response.body());
+        }
+
+        @Test
+        void answersAllDaysForLargeK() throws Exception {
+            assertEquals(4, get("/weather/smallest-spreads?k=1000").body().split("\\},\\{").length);
+            assertEquals(4, get("/weather/smallest-spreads").body().split("\\},\\{").length, "Default k is 10");
+        }
+    }
+
+    @Nested
+    class Countries {
+
+        @Test
+        void answersCountryWithHighestDensity() throws Exception {
+            HttpResponse<String> response = get("/countries/max-density");
+
+            assertEquals(200, response.statusCode());
+            assertEquals("{\"name\":\"Malta\",\"capital\":\"Valletta\",\"population\":516100,\"area\":316.0,"
+                    + "\"density\":" + 516100 / 316.0 + "}", response.body());
+        }
+
+        @Test
+        void escapesNames() throws Exception {
+            HttpResponse<String> response = get("/countries/highest-densities?k=3");
+
+            assertEquals(200, response.statusCode());
+            assertTrue(response.body().contains("\"name\":\"Quote \\\"Land\\\"\""), response.body());
+            assertTrue(response.body().startsWith("[{\"name\":\"Malta\""), response.body());
+        }
+    }
+
+    @Nested
+    class Errors {
+
+        @Test
+        void rejectsUnknownPath() throws Exception {
+            HttpResponse<String> response = get("/weather/max-spread");
+
+            assertEquals(404, response.statusCode());
+            assertEquals("{\"error\":\"Not found: /weather/max-spread\"}", response.body());
+        }
+
+        @Test
+        void rejectsOtherMethods() throws Exception {
+            HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/weather/min-spread"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                    .build());
+
+            assertEquals(405, response.statusCode());
+            assertEquals("GET", response.headers().firstValue("Allow").orElse(null));
+        }
+
+        @Test
+        void rejectsInvalidK() throws Exception {
+            assertEquals(400, get("/weather/smallest-spreads?k=0").statusCode());
+            assertEquals(400, get("/weather/smallest-spreads?k=1001").statusCode());
+
+            HttpResponse<String> response = get("/countries/highest-densities?k=many");
+            assertEquals(400, response.statusCode());
+            assertEquals("{\"error\":\"k must be a number from 1 to 1000: many\"}", response.body());
+        }
+
+        @Test
+        void rejectsMissingFile() {
+            String missing = tempDir.resolve("missing.csv").toString();
+
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> new QueryServer(missing, countryFile.toString()));
+            assertEquals("File does not exist: " + missing, e.getMessage());
+        }
+
+        @Test
+        void rejectsSecondStart() {
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> server.start(0));
+            assertEquals("Server is already started", e.getMessage());
+        }
+    }
+
+    @Nested
+    class Reload {
+
+        @Test
+        void servesNewDataAfterChange() throws Exception {
+            Files.writeString(weatherFile, WEATHER_HEADER + day(1, 88, 59) + day(7, 60, 59));
+            Files.setLastModifiedTime(weatherFile, FileTime.from(Instant.now().plusSeconds(10)));
+
+            server.reloadIfChanged();
+
+            assertEquals("{\"day\":7,\"spread\":1.0}", get("/weather/min-spread").body());
+            assertEquals("[{\"day\":7,\"spread\":1.0},{\"day\":1,\"spread\":29.0}]",
+                    get("/weather/smallest-spreads?k=2").body());
+        }
+
+        @Test
+        void keepsDataWithoutChange() throws Exception {
+            String before = get("/countries/max-density").body();
+
+            server.reloadIfChanged();
+
+            assertEquals(before, get("/countries/max-density").body());
+        }
+
+        @Test
+        void keepsPreviousDataWhenFileDisappears() throws Exception {
+            Files.delete(weatherFile);
+
+            server.reloadIfChanged();
+
+            assertEquals("{\"day\":4,\"spread\":2.0}", get("/weather/min-spread").body());
+        }
+    }
+
+    @Nested
+    class Parameters {
+
+        @Test
+        void findsParameterByExactName() {
+            assertEquals("5", QueryServer.parameter("kk=3&k=5", "k"));
+            assertEquals("", QueryServer.parameter("k=", "k"));
+            assertNull(QueryServer.parameter("x=1", "k"));
+            assertNull(QueryServer.parameter(null, "k"));
+        }
+    }
+}
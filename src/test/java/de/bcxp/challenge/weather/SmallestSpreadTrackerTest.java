@@ -0,0 +1,56 @@
+package de.bcxp.challenge.weather;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmallestSpreadTrackerTest {
+
+    private final WeatherEntity scratch = new WeatherEntity();
+
+    private void addDay(SmallestSpreadTracker tracker, WeatherTable table, int day, int maxTemp, int minTemp) {
+        scratch.Day = day;
+        scratch.MxT = maxTemp;
+        scratch.MnT = minTemp;
+        tracker.add(scratch);
+        table.add(scratch);
+    }
+
+    @Test
+    void testAdd_SameAsFullScan() {
+        WeatherTable table = new WeatherTable();
+        SmallestSpreadTracker tracker = new SmallestSpreadTracker();
+
+        assertTrue(tracker.isEmpty());
+        assertThrows(IllegalStateException.class, tracker::getBestDay, "No day for an empty stream");
+
+        addDay(tracker, table, 1, 30, 20); // spread = 10
+        addDay(tracker, table, 2, 25, 20); // spread = 5
+        assertEquals(2, tracker.getBestDay());
+
+        addDay(tracker, table, 3, 30, 25); // spread = 5, later days do not win ties
+        assertEquals(2, tracker.getBestDay());
+
+        addDay(tracker, table, 4, 22, 20); // spread = 2
+        addDay(tracker, table, 5, 40, 20);
+        int row = WeatherService.getRowWithSmallestTemperatureSpread(table);
+        assertEquals(table.getDay(row), tracker.getBestDay());
+        assertEquals(table.getTemperatureSpread(row), tracker.getBestSpread());
+        assertEquals(5, tracker.getDayCount());
+    }
+
+    @Test
+    void testReset() {
+        SmallestSpreadTracker tracker = new SmallestSpreadTracker();
+        WeatherTable table = new WeatherTable();
+        addDay(tracker, table, 1, 22, 20);
+        addDay(tracker, table, 2, 30, 20);
+
+        tracker.reset();
+        assertTrue(tracker.isEmpty());
+
+        addDay(tracker, table, 1, 30, 10);
+        assertEquals(1, tracker.getBestDay());
+        assertEquals(20, tracker.getBestSpread());
+    }
+}
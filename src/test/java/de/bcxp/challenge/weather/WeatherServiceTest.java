@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -119,6 +120,79 @@ class WeatherServiceTest {
             assertEquals(0.0f, result.getTemperatureSpread(), "Temperature spread should be 0");
         }
 
+        @Test
+        void testGetDayWithSmallestTemperatureSpread_DoesNotReorderInput() {
+            WeatherEntity day1 = createWeatherEntity(1, 30, 20);
+            WeatherEntity day2 = createWeatherEntity(2, 25, 20);
+            WeatherEntity day3 = createWeatherEntity(3, 40, 20);
+
+            List<WeatherEntity> weatherData = Arrays.asList(day1, day2, day3);
+
+            WeatherService.getDayWithSmallestTemperatureSpread(weatherData);
+            assertEquals(Arrays.asList(day1, day2, day3), weatherData, "Input list should keep its order");
+        }
+
+        @Test
+        void testGetDayWithSmallestTemperatureSpreadFromStream() {
+            // Test single pass over a stream - first of equal spreads wins
+            WeatherEntity day1 = createWeatherEntity(1, 30, 20); // spread = 10
+            WeatherEntity day2 = createWeatherEntity(2, 25, 20); // spread = 5 (smallest)
+            WeatherEntity day3 = createWeatherEntity(3, 30, 25); // spread = 5
+
+            WeatherEntity result = WeatherService.getDayWithSmallestTemperatureSpreadFromStream(Stream.of(day1, day2, day3));
+            assertEquals(day2, result, "Should return day 2 with smallest spread");
+
+            assertNull(WeatherService.getDayWithSmallestTemperatureSpreadFromStream(Stream.empty()), "Should return null for empty stream");
+            assertNull(WeatherService.getDayWithSmallestTemperatureSpreadFromStream(null), "Should return null for null input");
+        }
+
 
     }
+
+    @Nested
+    public class GetRowWithSmallestTemperatureSpread {
+
+        private WeatherTable createWeatherTable(int[][] days) {
+            WeatherTable table = new WeatherTable(1);
+            WeatherEntity scratch = new WeatherEntity();
+            for (int[] day : days) {
+                scratch.Day = day[0];
+                scratch.MxT = day[1];
+                scratch.MnT = day[2];
+                table.add(scratch);
+            }
+            return table;
+        }
+
+        @Test
+        void testGetRowWithSmallestTemperatureSpread_NullOrEmpty() {
+            assertEquals(-1, WeatherService.getRowWithSmallestTemperatureSpread(null), "Should return -1 for null input");
+            assertEquals(-1, WeatherService.getRowWithSmallestTemperatureSpread(new WeatherTable()), "Should return -1 for empty table");
+        }
+
+        @Test
+        void testGetRowWithSmallestTemperatureSpread_FirstOfEqualSpreadsWins() {
+            WeatherTable table = createWeatherTable(new int[][]{
+                    {1, 30, 20}, // spread = 10
+                    {2, 25, 20}, // spread = 5 (smallest)
+                    {3, 30, 25}, // spread = 5
+                    {4, 40, 20}  // spread = 20
+            });
+
+            int row = WeatherService.getRowWithSmallestTemperatureSpread(table);
+            assertEquals(1, row, "Should return the row of day 2");
+            assertEquals(2, table.getDay(row), "Day should be 2");
+            assertEquals(5.0f, table.getTemperatureSpread(row), "Temperature spread should be 5");
+        }
+
+        @Test
+        void testGetRowWithSmallestTemperatureSpread_NegativeTemperatures() {
+            WeatherTable table = createWeatherTable(new int[][]{
+                    {1, -5, -15}, // spread = 10
+                    {2, -10, -12} // spread = 2 (smallest)
+            });
+
+            assertEquals(1, WeatherService.getRowWithSmallestTemperatureSpread(table), "Should handle negative temperatures");
+        }
+    }
 }
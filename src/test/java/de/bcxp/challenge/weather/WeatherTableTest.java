@@ -0,0 +1,77 @@
+package de.bcxp.challenge.weather;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeatherTableTest {
+
+    private WeatherEntity createWeatherEntity(int day) {
+        WeatherEntity entity = new WeatherEntity();
+        entity.Day = day;
+        entity.MxT = 80 + day;
+        entity.MnT = 50 + day;
+        entity.AvT = 65;
+        entity.AvDP = 40.5;
+        entity.oneHrP_TPcpn = 1;
+        entity.PDir = 200;
+        entity.AvSp = 9.5;
+        entity.Dir = 180;
+        entity.MxS = 17;
+        entity.SkyC = 6.2;
+        entity.MxR = 90;
+        entity.Mn = 30;
+        entity.R_AvSLP = 1012.4;
+        return entity;
+    }
+
+    @Test
+    void testAdd_GrowsAndKeepsAllFields() {
+        WeatherTable table = new WeatherTable(0);
+
+        for (int day = 1; day <= 100; day++) {
+            assertEquals(day - 1, table.add(createWeatherEntity(day)), "Add should return the new row index");
+        }
+
+        assertEquals(100, table.size(), "Table should contain all rows");
+        for (int row = 0; row < table.size(); row++) {
+            assertEquals(createWeatherEntity(row + 1).toString(), table.get(row).toString(), "Row " + row + " should keep all fields");
+        }
+        assertEquals(42, table.getDay(41));
+        assertEquals(30.0f, table.getTemperatureSpread(41));
+        assertEquals(1012.4, table.getRAvSLP(41));
+    }
+
+    @Test
+    void testAdd_ReusedScratchEntity() {
+        WeatherTable table = new WeatherTable();
+        WeatherEntity scratch = createWeatherEntity(1);
+        table.add(scratch);
+        scratch.Day = 2;
+        table.add(scratch);
+
+        assertEquals(1, table.getDay(0), "Rows should not reference the added entity");
+        assertEquals(2, table.getDay(1));
+    }
+
+    @Test
+    void testTrimToSize() {
+        WeatherTable table = new WeatherTable(64);
+        table.add(createWeatherEntity(1));
+        table.trimToSize();
+        table.add(createWeatherEntity(2));
+
+        assertEquals(2, table.size());
+        assertEquals(2, table.getDay(1));
+    }
+
+    @Test
+    void testGet_OutOfBounds() {
+        WeatherTable table = new WeatherTable();
+        table.add(createWeatherEntity(1));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> table.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.getDay(-1));
+        assertThrows(IllegalArgumentException.class, () -> new WeatherTable(-1));
+    }
+}